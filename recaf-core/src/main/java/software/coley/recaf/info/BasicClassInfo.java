@@ -164,7 +164,7 @@ public List<String> getOuterClassBreadcrumbs() {
 				}
 				breadcrumbs.add(0, currentOuter);
 				String targetOuter = currentOuter;
-				currentOuter = innerClasses.stream()
+				currentOuter = getInnerClasses().stream()
 						.filter(i -> i.getInnerClassName().equals(targetOuter))
 						.map(InnerClassInfo::getOuterClassName)
 						.findFirst().orElse(null);
@@ -210,46 +210,51 @@ public Map<String, Property<?>> getProperties() {
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
-		if (o == null || getClass() != o.getClass()) return false;
-
-		BasicClassInfo other = (BasicClassInfo) o;
+		if (!(o instanceof BasicClassInfo other)) return false;
+		if (isJvmClass() != other.isJvmClass()) return false;
 
 		// NOTE: Do NOT consider the properties since contents of the map can point back to this instance
 		//       or our containing resource, causing a cycle.
-		if (access != other.access) return false;
-		if (!name.equals(other.name)) return false;
-		if (!Objects.equals(superName, other.superName)) return false;
-		if (!interfaces.equals(other.interfaces)) return false;
-		if (!Objects.equals(signature, other.signature)) return false;
-		if (!Objects.equals(sourceFileName, other.sourceFileName)) return false;
-		if (!annotations.equals(other.annotations)) return false;
-		if (!typeAnnotations.equals(other.typeAnnotations)) return false;
-		if (!Objects.equals(outerClassName, other.outerClassName)) return false;
-		if (!Objects.equals(outerMethodName, other.outerMethodName)) return false;
-		if (!Objects.equals(outerMethodDescriptor, other.outerMethodDescriptor)) return false;
-		if (!innerClasses.equals(other.innerClasses)) return false;
-		if (!fields.equals(other.fields)) return false;
-		return methods.equals(other.methods);
+		//       Values are compared through getters so that lazily populated implementations are supported.
+		if (getAccess() != other.getAccess()) return false;
+		if (!getName().equals(other.getName())) return false;
+		if (!Objects.equals(getSuperName(), other.getSuperName())) return false;
+		if (!getInterfaces().equals(other.getInterfaces())) return false;
+		if (!Objects.equals(getSignature(), other.getSignature())) return false;
+		if (!Objects.equals(getSourceFileName(), other.getSourceFileName())) return false;
+		if (!getAnnotations().equals(other.getAnnotations())) return false;
+		if (!getTypeAnnotations().equals(other.getTypeAnnotations())) return false;
+		if (!Objects.equals(getOuterClassName(), other.getOuterClassName())) return false;
+		if (!Objects.equals(getOuterMethodName(), other.getOuterMethodName())) return false;
+		if (!Objects.equals(getOuterMethodDescriptor(), other.getOuterMethodDescriptor())) return false;
+		if (!getInnerClasses().equals(other.getInnerClasses())) return false;
+		if (!getFields().equals(other.getFields())) return false;
+		return getMethods().equals(other.getMethods());
 	}
 
 	@Override
 	public int hashCode() {
 		// NOTE: Do NOT consider the properties since contents of the map can point back to this instance
 		//       or our containing resource, causing a cycle.
-		int result =  name.hashCode();
+		String signature = getSignature();
+		String sourceFileName = getSourceFileName();
+		String outerClassName = getOuterClassName();
+		String outerMethodName = getOuterMethodName();
+		String outerMethodDescriptor = getOuterMethodDescriptor();
+		int result = name.hashCode();
 		result = 31 * result + (superName != null ? superName.hashCode() : 0);
 		result = 31 * result + interfaces.hashCode();
 		result = 31 * result + access;
 		result = 31 * result + (signature != null ? signature.hashCode() : 0);
 		result = 31 * result + (sourceFileName != null ? sourceFileName.hashCode() : 0);
-		result = 31 * result + annotations.hashCode();
-		result = 31 * result + typeAnnotations.hashCode();
+		result = 31 * result + getAnnotations().hashCode();
+		result = 31 * result + getTypeAnnotations().hashCode();
 		result = 31 * result + (outerClassName != null ? outerClassName.hashCode() : 0);
 		result = 31 * result + (outerMethodName != null ? outerMethodName.hashCode() : 0);
 		result = 31 * result + (outerMethodDescriptor != null ? outerMethodDescriptor.hashCode() : 0);
-		result = 31 * result + innerClasses.hashCode();
-		result = 31 * result + fields.hashCode();
-		result = 31 * result + methods.hashCode();
+		result = 31 * result + getInnerClasses().hashCode();
+		result = 31 * result + getFields().hashCode();
+		result = 31 * result + getMethods().hashCode();
 		return result;
 	}
 }
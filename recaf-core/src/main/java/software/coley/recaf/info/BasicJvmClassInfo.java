@@ -48,18 +48,17 @@ public int getVersion() {
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
-		if (o == null || getClass() != o.getClass()) return false;
-		if (!super.equals(o)) return false;
-
-		BasicJvmClassInfo that = (BasicJvmClassInfo) o;
-
+		if (!(o instanceof BasicJvmClassInfo that)) return false;
 		if (version != that.version) return false;
-		return Arrays.equals(bytecode, that.bytecode);
+		if (!Arrays.equals(bytecode, that.bytecode)) return false;
+		return super.equals(o);
 	}
 
 	@Override
 	public int hashCode() {
-		int result = super.hashCode();
+		// The class model is derived from the bytecode, so we do not need to hash the rest of the model.
+		// This also prevents lazily populated implementations from needing to populate their model.
+		int result = getName().hashCode();
 		result = 31 * result + Arrays.hashCode(bytecode);
 		result = 31 * result + version;
 		return result;
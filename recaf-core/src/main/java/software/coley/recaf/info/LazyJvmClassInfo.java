@@ -0,0 +1,155 @@
+package software.coley.recaf.info;
+
+import jakarta.annotation.Nonnull;
+import org.slf4j.Logger;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.annotation.AnnotationInfo;
+import software.coley.recaf.info.annotation.TypeAnnotationInfo;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.member.BasicMember;
+import software.coley.recaf.info.member.FieldMember;
+import software.coley.recaf.info.member.MethodMember;
+import software.coley.recaf.info.properties.builtin.IllegalClassSuspectProperty;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * JVM class info implementation where only the class header is populated eagerly.
+ * The remaining model <i>(Members, annotations, inner classes, etc)</i> is populated from the bytecode when
+ * it is first accessed.
+ * <p/>
+ * If the bytecode beyond the header cannot be parsed, the failure is logged when the model is first accessed,
+ * the class is marked with {@link IllegalClassSuspectProperty}, and the class is treated as having an empty model.
+ *
+ * @author Matt Coley
+ * @see JvmClassInfoBuilder#adaptHeaderFrom(byte[])
+ */
+public class LazyJvmClassInfo extends BasicJvmClassInfo {
+	private static final Logger logger = Logging.get(LazyJvmClassInfo.class);
+	private volatile LazyModel model;
+
+	/**
+	 * @param builder
+	 * 		Builder to pull header info from.
+	 */
+	public LazyJvmClassInfo(JvmClassInfoBuilder builder) {
+		super(builder);
+	}
+
+	/**
+	 * @return {@code true} when the model beyond the class header has been populated.
+	 */
+	public boolean isModelPopulated() {
+		return model != null;
+	}
+
+	@Override
+	public String getSourceFileName() {
+		return model().sourceFileName;
+	}
+
+	@Nonnull
+	@Override
+	public List<AnnotationInfo> getAnnotations() {
+		return model().annotations;
+	}
+
+	@Nonnull
+	@Override
+	public List<TypeAnnotationInfo> getTypeAnnotations() {
+		return model().typeAnnotations;
+	}
+
+	@Override
+	public String getOuterClassName() {
+		return model().outerClassName;
+	}
+
+	@Override
+	public String getOuterMethodName() {
+		return model().outerMethodName;
+	}
+
+	@Override
+	public String getOuterMethodDescriptor() {
+		return model().outerMethodDescriptor;
+	}
+
+	@Nonnull
+	@Override
+	public List<InnerClassInfo> getInnerClasses() {
+		return model().innerClasses;
+	}
+
+	@Nonnull
+	@Override
+	public List<FieldMember> getFields() {
+		return model().fields;
+	}
+
+	@Nonnull
+	@Override
+	public List<MethodMember> getMethods() {
+		return model().methods;
+	}
+
+	@Nonnull
+	private LazyModel model() {
+		LazyModel model = this.model;
+		if (model == null) {
+			synchronized (this) {
+				model = this.model;
+				if (model == null)
+					this.model = model = populateModel();
+			}
+		}
+		return model;
+	}
+
+	@Nonnull
+	private LazyModel populateModel() {
+		try {
+			return new LazyModel(new JvmClassInfoBuilder().adaptFrom(getClassReader()));
+		} catch (Throwable t) {
+			// The header was valid when the class was imported, but the rest of the class is not.
+			// Since we cannot turn the class into a file at this point, we record it as a suspect and leave it empty.
+			logger.error("Failed to read lazy model of class '{}', treating it as empty", getName(), t);
+			setProperty(IllegalClassSuspectProperty.INSTANCE);
+			return new LazyModel(new JvmClassInfoBuilder());
+		}
+	}
+
+	/**
+	 * Wrapper of the lazily populated model values.
+	 */
+	private class LazyModel {
+		private final String sourceFileName;
+		private final List<AnnotationInfo> annotations;
+		private final List<TypeAnnotationInfo> typeAnnotations;
+		private final String outerClassName;
+		private final String outerMethodName;
+		private final String outerMethodDescriptor;
+		private final List<InnerClassInfo> innerClasses;
+		private final List<FieldMember> fields;
+		private final List<MethodMember> methods;
+
+		private LazyModel(@Nonnull JvmClassInfoBuilder builder) {
+			sourceFileName = builder.getSourceFileName();
+			annotations = builder.getAnnotations();
+			typeAnnotations = builder.getTypeAnnotations();
+			outerClassName = builder.getOuterClassName();
+			outerMethodName = builder.getOuterMethodName();
+			outerMethodDescriptor = builder.getOuterMethodDescriptor();
+			innerClasses = builder.getInnerClasses();
+			fields = builder.getFields();
+			methods = builder.getMethods();
+
+			// Link fields/methods to the outer lazy class
+			Stream.concat(fields.stream(), methods.stream())
+					.filter(member -> member instanceof BasicMember)
+					.map(member -> (BasicMember) member)
+					.forEach(member -> member.setDeclaringClass(LazyJvmClassInfo.this));
+		}
+	}
+}
@@ -7,10 +7,12 @@
 import software.coley.recaf.info.BasicJvmClassInfo;
 import software.coley.recaf.info.InnerClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.LazyJvmClassInfo;
 import software.coley.recaf.info.annotation.*;
 import software.coley.recaf.info.member.*;
 import software.coley.recaf.info.properties.builtin.UnknownAttributesProperty;
 import software.coley.recaf.util.MultiMap;
+import software.coley.recaf.util.visitors.ValidatingClassVisitor;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -26,6 +28,7 @@ public class JvmClassInfoBuilder extends AbstractClassInfoBuilder<JvmClassInfoBu
 	private byte[] bytecode;
 	private int version = JvmClassInfo.BASE_VERSION + 8; // Java 8
 	private boolean skipValidationChecks = true;
+	private boolean lazyModel;
 	@Nullable
 	private ClassBuilderAdapter adapter;
 
@@ -173,14 +176,61 @@ public JvmClassInfoBuilder adaptFrom(@Nonnull ClassReader reader) {
 	@Nonnull
 	@SuppressWarnings(value = "deprecation")
 	public JvmClassInfoBuilder adaptFrom(@Nonnull ClassReader reader, int flags) {
-		// If we are doing validation checks, delegating the reader to a writer should catch most issues
+		// If we are doing validation checks, delegating the reader to a validator should catch most issues
 		// that would normally crash ASM. It is the caller's responsibility to error handle ASM failing
 		// if such failures occur.
-		adapter = new ClassBuilderAdapter(skipValidationChecks ? null : new ClassWriter(reader, 0));
+		adapter = new ClassBuilderAdapter(skipValidationChecks ? null : new ValidatingClassVisitor(reader));
+		lazyModel = false;
 		reader.accept(adapter, flags);
 		return withBytecode(reader.b);
 	}
 
+	/**
+	 * Copies over only the class header values <i>(Version, access, name, signature, super-name and interfaces)</i>
+	 * by reading the contents of the class file. Calls {@link #adaptHeaderFrom(ClassReader)}.
+	 * <p/>
+	 * When built, the remaining class model <i>(Members, annotations, inner classes, etc)</i> will be populated
+	 * lazily from the bytecode when first accessed. See {@link LazyJvmClassInfo} for more details.
+	 *
+	 * @param code
+	 * 		Class bytecode to pull data from.
+	 *
+	 * @return Builder.
+	 */
+	@Nonnull
+	public JvmClassInfoBuilder adaptHeaderFrom(@Nonnull byte[] code) {
+		return adaptHeaderFrom(new ClassReader(code));
+	}
+
+	/**
+	 * Copies over only the class header values <i>(Version, access, name, signature, super-name and interfaces)</i>
+	 * by reading the contents of the class file in the reader.
+	 * <p/>
+	 * When built, the remaining class model <i>(Members, annotations, inner classes, etc)</i> will be populated
+	 * lazily from the bytecode when first accessed. See {@link LazyJvmClassInfo} for more details.
+	 * <p/>
+	 * <b>IMPORTANT:</b> If {@link #skipValidationChecks(boolean)} is {@code false} the same validation steps
+	 * as {@link #adaptFrom(ClassReader, int)} are taken. Unknown attributes are not recorded when only the header
+	 * is read.
+	 *
+	 * @param reader
+	 * 		ASM class reader to pull data from.
+	 *
+	 * @return Builder.
+	 */
+	@Nonnull
+	@SuppressWarnings(value = "deprecation")
+	public JvmClassInfoBuilder adaptHeaderFrom(@Nonnull ClassReader reader) {
+		// When not validating there is no need to visit the contents of fields and methods.
+		// Attributes of the class must still be read, as they can contribute to the access flags.
+		ClassVisitor validator = skipValidationChecks ? null : new ValidatingClassVisitor(reader);
+		int flags = validator == null ? ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES : 0;
+		adapter = null;
+		lazyModel = true;
+		reader.accept(new ClassHeaderAdapter(validator), flags);
+		return withBytecode(reader.b);
+	}
+
 	@Nonnull
 	public JvmClassInfoBuilder withBytecode(byte[] bytecode) {
 		this.bytecode = bytecode;
@@ -221,6 +271,8 @@ public JvmClassInfo build() {
 		if (adapter != null && adapter.hasCustomAttributes())
 			getPropertyContainer().setProperty(new UnknownAttributesProperty(adapter.getCustomAttributeNames()));
 		verify();
+		if (lazyModel)
+			return new LazyJvmClassInfo(this);
 		return new BasicJvmClassInfo(this);
 	}
 
@@ -233,6 +285,27 @@ protected void verify() {
 			throw new IllegalStateException("Version cannot be lower than 44 (v1)");
 	}
 
+	/**
+	 * Converts ASM visitor class header actions to 'with' actions in the class builder.
+	 * Results in only the class header being populated.
+	 */
+	private class ClassHeaderAdapter extends ClassVisitor {
+		protected ClassHeaderAdapter(@Nullable ClassVisitor cv) {
+			super(getAsmVersion(), cv);
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			super.visit(version, access, name, signature, superName, interfaces);
+			withVersion(version & 0xFF);
+			withAccess(access);
+			withName(name);
+			withSignature(signature);
+			withSuperName(superName);
+			withInterfaces(Arrays.asList(interfaces));
+		}
+	}
+
 	/**
 	 * Converts ASM visitor actions to 'with' actions in the class builder.
 	 * Results in a fully reconstructed class model.
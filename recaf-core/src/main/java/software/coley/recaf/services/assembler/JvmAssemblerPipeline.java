@@ -30,7 +30,6 @@
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.path.PathNode;
 import software.coley.recaf.services.inheritance.InheritanceGraph;
-import software.coley.recaf.services.inheritance.InheritanceVertex;
 import software.coley.recaf.util.JavaVersion;
 import software.coley.recaf.workspace.model.Workspace;
 
@@ -125,14 +124,7 @@ protected InheritanceChecker getInheritanceChecker() {
 		return new InheritanceChecker() {
 			@Override
 			public boolean isSubclassOf(String child, String parent) {
-				InheritanceVertex childVertex = inheritanceGraph.getVertex(child);
-				InheritanceVertex parentVertex = inheritanceGraph.getVertex(parent);
-
-				if (childVertex == null || parentVertex == null) {
-					return false;
-				}
-
-				return childVertex.isChildOf(parentVertex);
+				return inheritanceGraph.isChildOf(child, parent);
 			}
 
 			@Override
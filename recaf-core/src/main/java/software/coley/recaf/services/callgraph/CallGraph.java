@@ -9,6 +9,7 @@
 import jakarta.inject.Inject;
 import org.objectweb.asm.*;
 import software.coley.observables.ObservableBoolean;
+import software.coley.observables.ObservableInteger;
 import software.coley.recaf.RecafConstants;
 import software.coley.recaf.analytics.logging.DebuggingLogger;
 import software.coley.recaf.analytics.logging.Logging;
@@ -26,6 +27,7 @@
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Stream;
 
@@ -40,14 +42,18 @@
 public class CallGraph implements Service, WorkspaceModificationListener, ResourceJvmClassListener {
 	public static final String SERVICE_ID = "graph-calls";
 	private static final DebuggingLogger logger = Logging.get(CallGraph.class);
-	private final ExecutorService threadPool = ThreadPoolFactory.newFixedThreadPool("call-graph", 1, true);
+	private static final int VISIT_BATCH_SIZE = 256;
+	// Shared by all graphs, as graphs are workspace scoped and are not notified when their workspace closes.
+	private static final ExecutorService threadPool = ThreadPoolFactory.newFixedThreadPool("call-graph", true);
 	private final CachedLinkResolver resolver = new CachedLinkResolver();
 	private final Map<JvmClassInfo, LinkedClass> classToLinkerType = Collections.synchronizedMap(new IdentityHashMap<>());
 	private final Map<JvmClassInfo, ClassMethodsContainer> classToMethodsContainer = Collections.synchronizedMap(new IdentityHashMap<>());
 	private final MultiMap<String, MethodRef, Set<MethodRef>> unresolvedCalls = MultiMap.from(
-			Collections.synchronizedMap(new HashMap<>()),
-			() -> Collections.synchronizedSet(new HashSet<>()));
+			new ConcurrentHashMap<>(),
+			ConcurrentHashMap::newKeySet);
 	private final ObservableBoolean isReady = new ObservableBoolean(false);
+	private final ObservableInteger visitedClassCount = new ObservableInteger(0);
+	private final ObservableInteger totalClassCount = new ObservableInteger(0);
 	private final CallGraphConfig config;
 	private final Workspace workspace;
 	private final ClassLookup lookup;
@@ -93,6 +99,24 @@ public ObservableBoolean isReady() {
 		return isReady;
 	}
 
+	/**
+	 * @return Observable integer tracking the number of classes visited so far in the call-graph's parsing of the
+	 * current workspace. Compare against {@link #getTotalClassCount()} to display progress.
+	 */
+	@Nonnull
+	public ObservableInteger getVisitedClassCount() {
+		return visitedClassCount;
+	}
+
+	/**
+	 * @return Observable integer tracking the number of classes to visit in the call-graph's parsing of the
+	 * current workspace.
+	 */
+	@Nonnull
+	public ObservableInteger getTotalClassCount() {
+		return totalClassCount;
+	}
+
 	/**
 	 * @param classInfo
 	 * 		Class to wrap.
@@ -120,17 +144,26 @@ private LinkedClass linked(@Nonnull JvmClassInfo classInfo) {
 	 * 		Workspace to {@link #visit(JvmClassInfo)} all classes of.
 	 */
 	private void initialize(@Nonnull Workspace workspace) {
-		// Initialize asynchronously, and mark 'isReady' if completed successfully
-		CompletableFuture.runAsync(() -> {
-			for (WorkspaceResource resource : workspace.getAllResources(false)) {
-				Stream.concat(resource.jvmClassBundleStream(),
-						resource.getVersionedJvmClassBundles().values().stream()).forEach(bundle -> {
-					for (JvmClassInfo jvmClass : bundle.values()) {
-						visit(jvmClass);
-					}
-				});
-			}
-		}, threadPool).whenComplete((unused, t) -> {
+		List<JvmClassInfo> classes = new ArrayList<>();
+		for (WorkspaceResource resource : workspace.getAllResources(false)) {
+			Stream.concat(resource.jvmClassBundleStream(),
+					resource.getVersionedJvmClassBundles().values().stream())
+					.forEach(bundle -> classes.addAll(bundle.values()));
+		}
+		visitedClassCount.setValue(0);
+		totalClassCount.setValue(classes.size());
+
+		// Initialize asynchronously in batches, and mark 'isReady' if all completed successfully
+		List<CompletableFuture<Void>> batches = new ArrayList<>();
+		for (int start = 0; start < classes.size(); start += VISIT_BATCH_SIZE) {
+			List<JvmClassInfo> batch = classes.subList(start, Math.min(start + VISIT_BATCH_SIZE, classes.size()));
+			batches.add(CompletableFuture.runAsync(() -> {
+				for (JvmClassInfo jvmClass : batch)
+					visit(jvmClass);
+				onBatchVisited(batch.size());
+			}, threadPool));
+		}
+		CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).whenComplete((unused, t) -> {
 			if (t == null) {
 				isReady.setValue(true);
 			} else {
@@ -140,6 +173,17 @@ private void initialize(@Nonnull Workspace workspace) {
 		});
 	}
 
+	/**
+	 * @param batchSize
+	 * 		Number of classes visited in a completed batch of {@link #initialize(Workspace)}.
+	 */
+	private void onBatchVisited(int batchSize) {
+		// Batches complete on different threads, so updates are synchronized to keep the count from going backwards.
+		synchronized (visitedClassCount) {
+			visitedClassCount.setValue(visitedClassCount.getValue() + batchSize);
+		}
+	}
+
 	/**
 	 * Populate {@link MethodVertex} for all methods in {@link JvmClassInfo#getMethods()}.
 	 *
@@ -367,8 +411,8 @@ public CallGraphConfig getServiceConfig() {
 	 * Mutable impl of {@link MethodVertex}.
 	 */
 	static class MutableMethodVertex implements MethodVertex {
-		private final Set<MethodVertex> callers = Collections.synchronizedSet(new HashSet<>());
-		private final Set<MethodVertex> calls = Collections.synchronizedSet(new HashSet<>());
+		private final Set<MethodVertex> callers = ConcurrentHashMap.newKeySet();
+		private final Set<MethodVertex> calls = ConcurrentHashMap.newKeySet();
 		private final MethodRef method;
 		private final MethodMember resolvedMethod;
 
@@ -0,0 +1,416 @@
+package software.coley.recaf.services.inheritance;
+
+import jakarta.annotation.Nonnull;
+import software.coley.recaf.services.inheritance.CompactInheritanceGraph.IdView;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reachability index over the edges of a {@link CompactInheritanceGraph}, answering if one class is an ancestor of another.
+ * <p/>
+ * The first parent of each class, which is its super-class, forms a spanning tree of the graph. Classes are numbered
+ * in pre-order over that tree, so that tree ancestry is a check of whether one number falls within the interval of
+ * another's subtree. All other edges come from interfaces. For those, any class that is reachable through an interface
+ * edge is marked, and each class lazily records which marked classes are its ancestors. Checking against a class that
+ * is not marked thus never needs to look past the tree interval.
+ * <p/>
+ * Changes to edges are applied incrementally, dropping the recorded ancestors of the modified class and its descendants,
+ * and marking any newly reachable ancestors. When the super-class of a labeled class changes, only the labels of its
+ * subtree are dropped. Classes without labels, either from such a change or from being added after the last rebuild,
+ * are answered by walking their parents until reaching labeled classes. Once too many classes lack labels,
+ * the index is rebuilt on the next query.
+ * <p/>
+ * Queries share a read lock, while changes and rebuilds take the write lock.
+ *
+ * @author Matt Coley
+ */
+class AncestryIndex {
+	private static final int NONE = -1;
+	private static final int[] EMPTY = new int[0];
+	private static final int MIN_UNLABELED_BEFORE_REBUILD = 256;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final CompactInheritanceGraph graph;
+	private int[] treeParents = EMPTY;
+	private int[] preOrder = EMPTY;
+	private int[] lastInSubtree = EMPTY;
+	private int[] byPreOrder = EMPTY;
+	private long[] marked = new long[0];
+	private AtomicReferenceArray<int[]> markedAncestors = new AtomicReferenceArray<>(0);
+	private int labeledCount;
+	private int unlabeledCount;
+	private boolean stale = true;
+
+	/**
+	 * @param graph
+	 * 		Graph to index.
+	 */
+	AncestryIndex(@Nonnull CompactInheritanceGraph graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * @param ancestor
+	 * 		ID of the supposed ancestor class.
+	 * @param descendant
+	 * 		ID of the supposed descendant class.
+	 *
+	 * @return {@code true} when the descendant directly or indirectly extends or implements the ancestor.
+	 */
+	boolean isAncestor(int ancestor, int descendant) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			if (!stale)
+				return isAncestorLocked(ancestor, descendant);
+		} finally {
+			read.unlock();
+		}
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			if (stale)
+				relabel();
+			return isAncestorLocked(ancestor, descendant);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * Updates the index after the parents of a class have changed.
+	 *
+	 * @param id
+	 * 		ID of the class.
+	 * @param oldParents
+	 * 		Previous parent IDs of the class.
+	 * @param newParents
+	 * 		Current parent IDs of the class.
+	 */
+	void onParentsChanged(int id, @Nonnull int[] oldParents, @Nonnull int[] newParents) {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			onParentsChangedLocked(id, oldParents, newParents);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * Marks the index as stale, to be rebuilt on the next query.
+	 */
+	void invalidate() {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			stale = true;
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private boolean isAncestorLocked(int ancestor, int descendant) {
+		if (ancestor == descendant || !isLabeled(ancestor) || !isLabeled(descendant))
+			return searchAncestors(ancestor, descendant);
+		return isLabeledAncestor(ancestor, descendant);
+	}
+
+	private void onParentsChangedLocked(int id, @Nonnull int[] oldParents, @Nonnull int[] newParents) {
+		if (stale)
+			return;
+
+		// Moving a labeled class to a different super-class changes the intervals of its whole subtree,
+		// so that subtree is answered by walking parents until the next rebuild.
+		int newTreeParent = newParents.length > 0 ? newParents[0] : NONE;
+		if (isLabeled(id) && newTreeParent != treeParents[id])
+			unlabelSubtree(id);
+
+		// Too many classes without labels make queries walk more than a rebuild would cost.
+		int unlabeled = unlabeledCount + graph.size() - labeledCount;
+		if (unlabeled > Math.max(MIN_UNLABELED_BEFORE_REBUILD, labeledCount >>> 3)) {
+			stale = true;
+			return;
+		}
+
+		// Parents that were added are now reachable through a non-tree edge, along with all of their ancestors.
+		// For a labeled class that is only the case for its interfaces. Otherwise, it only matters when there are
+		// descendants of the class that may be labeled, or when the class is marked, as the ancestors of marked
+		// classes must be marked too.
+		// Marks of removed parents are left in place, they only cost a lookup of the recorded ancestors.
+		boolean labeled = isLabeled(id);
+		if (labeled || isMarked(id) || graph.getChildren(id).size() > 0) {
+			for (int i = labeled ? 1 : 0; i < newParents.length; i++)
+				if (!labeled || !contains(oldParents, newParents[i]))
+					markWithAncestors(newParents[i]);
+		}
+
+		// The recorded ancestors of the class and all of its descendants may now be outdated.
+		BitSet visited = new BitSet();
+		IntQueue queue = new IntQueue();
+		queue.add(id);
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			if (visited.get(next))
+				continue;
+			visited.set(next);
+			if (next < labeledCount)
+				markedAncestors.set(next, null);
+			queue.addAll(graph.getChildren(next));
+		}
+	}
+
+	/**
+	 * Drops the labels of a class and of its subtree at the time of the last rebuild.
+	 *
+	 * @param id
+	 * 		ID of a labeled class.
+	 */
+	private void unlabelSubtree(int id) {
+		int last = lastInSubtree[id];
+		for (int order = preOrder[id]; order <= last; order++) {
+			int member = byPreOrder[order];
+			if (preOrder[member] != NONE) {
+				preOrder[member] = NONE;
+				unlabeledCount++;
+			}
+		}
+	}
+
+	private boolean isLabeled(int id) {
+		return id < labeledCount && preOrder[id] != NONE;
+	}
+
+	private boolean isLabeledAncestor(int ancestor, int descendant) {
+		int descendantOrder = preOrder[descendant];
+		if (preOrder[ancestor] <= descendantOrder && descendantOrder <= lastInSubtree[ancestor])
+			return true;
+		if (!isMarked(ancestor))
+			return false;
+		return Arrays.binarySearch(getMarkedAncestors(descendant), ancestor) >= 0;
+	}
+
+	/**
+	 * Walks the parents of the descendant, deferring to the labels once a labeled class is reached.
+	 *
+	 * @param ancestor
+	 * 		ID of the supposed ancestor class.
+	 * @param descendant
+	 * 		ID of the supposed descendant class.
+	 *
+	 * @return {@code true} when the descendant directly or indirectly extends or implements the ancestor.
+	 */
+	private boolean searchAncestors(int ancestor, int descendant) {
+		boolean ancestorLabeled = isLabeled(ancestor);
+		BitSet visited = new BitSet();
+		IntQueue queue = new IntQueue();
+		queue.addAll(graph.getParents(descendant));
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			if (next == ancestor)
+				return true;
+			if (visited.get(next))
+				continue;
+			visited.set(next);
+
+			// The ancestry of labeled classes is fully covered by the labels.
+			if (ancestorLabeled && isLabeled(next)) {
+				if (isLabeledAncestor(ancestor, next))
+					return true;
+				continue;
+			}
+			queue.addAll(graph.getParents(next));
+		}
+		return false;
+	}
+
+	/**
+	 * @param id
+	 * 		ID of a labeled class.
+	 *
+	 * @return Sorted IDs of all marked ancestors of the class.
+	 */
+	@Nonnull
+	private int[] getMarkedAncestors(int id) {
+		int[] ancestors = markedAncestors.get(id);
+		if (ancestors == null) {
+			BitSet visited = new BitSet();
+			BitSet found = new BitSet();
+			IntQueue queue = new IntQueue();
+			queue.addAll(graph.getParents(id));
+			while (!queue.isEmpty()) {
+				int next = queue.poll();
+				if (visited.get(next))
+					continue;
+				visited.set(next);
+				if (isMarked(next))
+					found.set(next);
+				queue.addAll(graph.getParents(next));
+			}
+			ancestors = found.stream().toArray();
+			markedAncestors.set(id, ancestors);
+		}
+		return ancestors;
+	}
+
+	private boolean isMarked(int id) {
+		int word = id >>> 6;
+		return word < marked.length && (marked[word] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Marks a class and all of its ancestors.
+	 *
+	 * @param id
+	 * 		ID of the class.
+	 */
+	private void markWithAncestors(int id) {
+		// Ancestors of a marked class are always marked with it, so the walk does not need to pass marked classes.
+		// Classes added after the last rebuild cannot be marked, but their ancestors still are.
+		BitSet visited = new BitSet();
+		IntQueue queue = new IntQueue();
+		queue.add(id);
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			if (visited.get(next))
+				continue;
+			visited.set(next);
+			if (next < labeledCount) {
+				if (isMarked(next))
+					continue;
+				marked[next >>> 6] |= 1L << next;
+			}
+			queue.addAll(graph.getParents(next));
+		}
+	}
+
+	private void markWithTreeAncestors(int id) {
+		// Stops at the first class already marked, as its tree ancestors will have been marked with it.
+		while (id != NONE && !isMarked(id)) {
+			marked[id >>> 6] |= 1L << id;
+			id = treeParents[id];
+		}
+	}
+
+	private void relabel() {
+		int count = graph.size();
+		IdView[] parents = new IdView[count];
+		int[] treeParents = new int[count];
+		int[] childCounts = new int[count + 1];
+		for (int id = 0; id < count; id++) {
+			IdView classParents = graph.getParents(id);
+
+			// Parents interned after the size was read are left out of this snapshot, they are handled as unlabeled.
+			int treeParent = classParents.size() > 0 ? classParents.get(0) : NONE;
+			if (treeParent >= count)
+				treeParent = NONE;
+			parents[id] = classParents;
+			treeParents[id] = treeParent;
+			if (treeParent != NONE)
+				childCounts[treeParent + 1]++;
+		}
+
+		// Tree children of each class, in compressed sparse row layout.
+		for (int id = 0; id < count; id++)
+			childCounts[id + 1] += childCounts[id];
+		int[] childOffsets = childCounts.clone();
+		int[] treeChildren = new int[childOffsets[count]];
+		for (int id = 0; id < count; id++) {
+			int treeParent = treeParents[id];
+			if (treeParent != NONE)
+				treeChildren[childCounts[treeParent]++] = id;
+		}
+
+		// Number classes in pre-order, starting at each root of the tree.
+		// Classes in a super-class cycle have no root and remain unlabeled.
+		int[] preOrder = new int[count];
+		int[] lastInSubtree = new int[count];
+		int[] byPreOrder = new int[count];
+		Arrays.fill(preOrder, NONE);
+		int[] stack = new int[Math.max(count, 1)];
+		int[] cursors = new int[Math.max(count, 1)];
+		int order = 0;
+		for (int root = 0; root < count; root++) {
+			if (treeParents[root] != NONE)
+				continue;
+			int depth = 0;
+			stack[0] = root;
+			cursors[0] = childOffsets[root];
+			byPreOrder[order] = root;
+			preOrder[root] = order++;
+			while (depth >= 0) {
+				int node = stack[depth];
+				if (cursors[depth] < childOffsets[node + 1]) {
+					int child = treeChildren[cursors[depth]++];
+					depth++;
+					stack[depth] = child;
+					cursors[depth] = childOffsets[child];
+					byPreOrder[order] = child;
+					preOrder[child] = order++;
+				} else {
+					lastInSubtree[node] = order - 1;
+					depth--;
+				}
+			}
+		}
+
+		this.treeParents = treeParents;
+		this.preOrder = preOrder;
+		this.lastInSubtree = lastInSubtree;
+		this.marked = new long[(count >>> 6) + 1];
+		this.byPreOrder = byPreOrder;
+		this.markedAncestors = new AtomicReferenceArray<>(count);
+		this.labeledCount = count;
+		this.unlabeledCount = 0;
+		this.stale = false;
+
+		// Mark everything reachable through interface edges.
+		for (IdView classParents : parents) {
+			for (int i = 1; i < classParents.size(); i++) {
+				int parent = classParents.get(i);
+				if (parent < count)
+					markWithTreeAncestors(parent);
+			}
+		}
+	}
+
+	private static boolean contains(@Nonnull int[] array, int value) {
+		for (int item : array)
+			if (item == value)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Minimal growable queue of class IDs.
+	 */
+	private static class IntQueue {
+		private int[] items = new int[16];
+		private int head;
+		private int tail;
+
+		private void add(int value) {
+			if (tail == items.length)
+				items = Arrays.copyOf(items, items.length * 2);
+			items[tail++] = value;
+		}
+
+		private void addAll(@Nonnull IdView values) {
+			for (int i = 0; i < values.size(); i++)
+				add(values.get(i));
+		}
+
+		private int poll() {
+			return items[head++];
+		}
+
+		private boolean isEmpty() {
+			return head == tail;
+		}
+	}
+}
@@ -0,0 +1,525 @@
+package software.coley.recaf.services.inheritance;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact storage of the edges of an {@link InheritanceGraph}.
+ * <p/>
+ * Class names are interned to {@code int} IDs, and edges between classes are stored as primitive arrays
+ * in a compressed sparse row layout. Edges modified after the last {@link #compact() compaction} are held in
+ * per-class overflow arrays until the next compaction folds them back into the packed layout.
+ * <p/>
+ * The parents of each class are the source of truth, with children being maintained as their inverse.
+ * <p/>
+ * Edge lookups yield {@link IdView read-only views} rather than copies. Packed arrays are never modified once built,
+ * overflow arrays are only appended to in place, and overflow arrays that have been handed out in a view are copied
+ * before anything is removed from them. A view thus keeps showing the edges as of when it was taken.
+ *
+ * @author Matt Coley
+ */
+class CompactInheritanceGraph {
+	/** ID denoting a class name that is not in the graph. */
+	static final int NO_ID = -1;
+	private static final int[] EMPTY = new int[0];
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Adjacency parents = new Adjacency();
+	private final Adjacency children = new Adjacency();
+	private String[] names = new String[64];
+	private int[] slots = new int[128];
+	private long[] defined = new long[1];
+	private int size;
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return ID of the class name, or {@link #NO_ID} if the name has not been interned.
+	 */
+	int find(@Nonnull String name) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			return findSlotValue(name);
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return ID of the class name, assigning a new one if the name has not been interned yet.
+	 */
+	int intern(@Nonnull String name) {
+		int id = find(name);
+		if (id != NO_ID)
+			return id;
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			return internLocked(name);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * @param id
+	 * 		Class ID.
+	 *
+	 * @return Name of the class.
+	 */
+	@Nonnull
+	String getName(int id) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			if (id < 0 || id >= size)
+				throw new IllegalArgumentException("Unknown class id: " + id);
+			return names[id];
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * @return Number of interned class names.
+	 */
+	int size() {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			return size;
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * @param id
+	 * 		Class ID.
+	 *
+	 * @return {@code true} when the parents of the class have been recorded.
+	 */
+	boolean isDefined(int id) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			return isDefinedLocked(id);
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * @param id
+	 * 		Class ID.
+	 *
+	 * @return IDs of the classes the class directly extends or implements.
+	 */
+	@Nonnull
+	IdView getParents(int id) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			return parents.get(id);
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * @param id
+	 * 		Class ID.
+	 *
+	 * @return IDs of the classes directly extending or implementing the class.
+	 */
+	@Nonnull
+	IdView getChildren(int id) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			return children.get(id);
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * Records the parents of a class, updating the children of both old and new parents to match.
+	 *
+	 * @param id
+	 * 		Class ID.
+	 * @param parentIds
+	 * 		IDs of the classes the class directly extends or implements.
+	 *
+	 * @return IDs of the previous parents of the class.
+	 */
+	@Nonnull
+	int[] setParents(int id, @Nonnull int[] parentIds) {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			markDefined(id, true);
+			return setParentsLocked(id, parentIds);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * Removes the parents of a class, and the class from the children of those parents.
+	 *
+	 * @param id
+	 * 		Class ID.
+	 *
+	 * @return IDs of the previous parents of the class.
+	 */
+	@Nonnull
+	int[] removeParents(int id) {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			markDefined(id, false);
+			return setParentsLocked(id, EMPTY);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * Folds all edges modified since the last compaction into the packed layout.
+	 */
+	void compact() {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			parents.compact(size);
+			children.compact(size);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * Removes all edges, keeping interned names.
+	 */
+	void clearEdges() {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			parents.clear();
+			children.clear();
+			Arrays.fill(defined, 0);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	/**
+	 * Removes all edges and interned names.
+	 */
+	void clear() {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			parents.clear();
+			children.clear();
+			names = new String[64];
+			slots = new int[128];
+			defined = new long[1];
+			size = 0;
+		} finally {
+			write.unlock();
+		}
+	}
+
+	@Nonnull
+	private int[] setParentsLocked(int id, @Nonnull int[] parentIds) {
+		int[] oldParents = parents.get(id).toArray();
+		for (int oldParent : oldParents)
+			if (!contains(parentIds, oldParent))
+				children.remove(oldParent, id);
+		for (int newParent : parentIds)
+			if (!contains(oldParents, newParent))
+				children.add(newParent, id);
+		parents.set(id, parentIds);
+		return oldParents;
+	}
+
+	private boolean isDefinedLocked(int id) {
+		int word = id >>> 6;
+		return word < defined.length && (defined[word] & (1L << id)) != 0;
+	}
+
+	private void markDefined(int id, boolean value) {
+		int word = id >>> 6;
+		if (word >= defined.length)
+			defined = Arrays.copyOf(defined, Math.max(word + 1, defined.length * 2));
+		if (value)
+			defined[word] |= 1L << id;
+		else
+			defined[word] &= ~(1L << id);
+	}
+
+	private int findSlotValue(@Nonnull String name) {
+		int mask = slots.length - 1;
+		int slot = mix(name.hashCode()) & mask;
+		while (true) {
+			int value = slots[slot];
+			if (value == 0)
+				return NO_ID;
+			if (names[value - 1].equals(name))
+				return value - 1;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private int internLocked(@Nonnull String name) {
+		// Another thread may have interned the name between our read and write locks.
+		int existing = findSlotValue(name);
+		if (existing != NO_ID)
+			return existing;
+
+		int id = size++;
+		if (id == names.length)
+			names = Arrays.copyOf(names, names.length * 2);
+		names[id] = name;
+
+		// Keep the table at most half full so that probe chains stay short.
+		if (size * 2 > slots.length)
+			rehash(slots.length * 2);
+		else
+			insertSlot(slots, id);
+		return id;
+	}
+
+	private void rehash(int capacity) {
+		int[] newSlots = new int[capacity];
+		for (int i = 0; i < size; i++)
+			insertSlot(newSlots, i);
+		slots = newSlots;
+	}
+
+	private void insertSlot(@Nonnull int[] table, int id) {
+		int mask = table.length - 1;
+		int slot = mix(names[id].hashCode()) & mask;
+		while (table[slot] != 0)
+			slot = (slot + 1) & mask;
+		table[slot] = id + 1;
+	}
+
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean contains(@Nonnull int[] array, int value) {
+		for (int item : array)
+			if (item == value)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Edge lists of all classes in a compressed sparse row layout, with overflow lists for modified classes.
+	 */
+	private static class Adjacency {
+		private int[] offsets = {0};
+		private int[] targets = EMPTY;
+		private int packedCount;
+		private int[][] overflow = new int[0][];
+		private int[] overflowSizes = EMPTY;
+		private boolean[] overflowShared = new boolean[0];
+		private int overflowCount;
+
+		/**
+		 * Called with at least the read lock held.
+		 *
+		 * @param id
+		 * 		Class ID.
+		 *
+		 * @return View of the edges of the class.
+		 */
+		@Nonnull
+		private IdView get(int id) {
+			if (id < overflow.length && overflow[id] != null) {
+				// Concurrent readers may all set the flag, which is harmless as they all set the same value.
+				overflowShared[id] = true;
+				return new IdView(overflow[id], 0, overflowSizes[id]);
+			}
+			if (id < packedCount)
+				return new IdView(targets, offsets[id], offsets[id + 1] - offsets[id]);
+			return IdView.NONE;
+		}
+
+		private void set(int id, @Nonnull int[] values) {
+			ensureOverflowCapacity(id);
+			if (overflow[id] == null)
+				overflowCount++;
+			overflow[id] = values.clone();
+			overflowSizes[id] = values.length;
+			overflowShared[id] = false;
+		}
+
+		private void add(int id, int value) {
+			int[] list = detach(id);
+			int listSize = overflowSizes[id];
+			if (listSize == list.length) {
+				list = Arrays.copyOf(list, Math.max(4, listSize * 2));
+				overflow[id] = list;
+			}
+			list[listSize] = value;
+			overflowSizes[id] = listSize + 1;
+		}
+
+		private void remove(int id, int value) {
+			int[] list = detach(id);
+			int listSize = overflowSizes[id];
+
+			// Removal shifts items within the list, so lists visible to views are copied first.
+			if (overflowShared[id]) {
+				list = list.clone();
+				overflow[id] = list;
+				overflowShared[id] = false;
+			}
+			for (int i = 0; i < listSize; i++) {
+				if (list[i] == value) {
+					System.arraycopy(list, i + 1, list, i, listSize - i - 1);
+					overflowSizes[id] = listSize - 1;
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @param id
+		 * 		Class ID.
+		 *
+		 * @return Overflow list of the class, copied out of the packed layout if the class had none yet.
+		 */
+		@Nonnull
+		private int[] detach(int id) {
+			ensureOverflowCapacity(id);
+			int[] list = overflow[id];
+			if (list == null) {
+				list = id < packedCount ? Arrays.copyOfRange(targets, offsets[id], offsets[id + 1]) : EMPTY;
+				overflow[id] = list;
+				overflowSizes[id] = list.length;
+				overflowCount++;
+			}
+			return list;
+		}
+
+		private void ensureOverflowCapacity(int id) {
+			if (id >= overflow.length) {
+				int capacity = Math.max(id + 1, Math.max(16, overflow.length * 2));
+				overflow = Arrays.copyOf(overflow, capacity);
+				overflowSizes = Arrays.copyOf(overflowSizes, capacity);
+				overflowShared = Arrays.copyOf(overflowShared, capacity);
+			}
+		}
+
+		private void compact(int count) {
+			if (overflowCount == 0 && count == packedCount)
+				return;
+			int[] newOffsets = new int[count + 1];
+			for (int id = 0; id < count; id++)
+				newOffsets[id + 1] = newOffsets[id] + length(id);
+			int[] newTargets = new int[newOffsets[count]];
+			for (int id = 0; id < count; id++) {
+				int start = newOffsets[id];
+				if (id < overflow.length && overflow[id] != null)
+					System.arraycopy(overflow[id], 0, newTargets, start, overflowSizes[id]);
+				else if (id < packedCount)
+					System.arraycopy(targets, offsets[id], newTargets, start, offsets[id + 1] - offsets[id]);
+			}
+			offsets = newOffsets;
+			targets = newTargets;
+			packedCount = count;
+			overflow = new int[0][];
+			overflowSizes = EMPTY;
+			overflowShared = new boolean[0];
+			overflowCount = 0;
+		}
+
+		private int length(int id) {
+			if (id < overflow.length && overflow[id] != null)
+				return overflowSizes[id];
+			if (id < packedCount)
+				return offsets[id + 1] - offsets[id];
+			return 0;
+		}
+
+		private void clear() {
+			offsets = new int[]{0};
+			targets = EMPTY;
+			packedCount = 0;
+			overflow = new int[0][];
+			overflowSizes = EMPTY;
+			overflowShared = new boolean[0];
+			overflowCount = 0;
+		}
+	}
+
+	/**
+	 * Read-only view of the IDs of classes related to some class.
+	 */
+	static final class IdView {
+		private static final IdView NONE = new IdView(EMPTY, 0, 0);
+		private final int[] array;
+		private final int offset;
+		private final int size;
+
+		private IdView(@Nonnull int[] array, int offset, int size) {
+			this.array = array;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		/**
+		 * @return Number of IDs in the view.
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * @param index
+		 * 		Index in the view.
+		 *
+		 * @return ID at the index.
+		 */
+		int get(int index) {
+			Objects.checkIndex(index, size);
+			return array[offset + index];
+		}
+
+		/**
+		 * @param id
+		 * 		Some class ID.
+		 *
+		 * @return {@code true} when the view contains the ID.
+		 */
+		boolean contains(int id) {
+			for (int i = offset, end = offset + size; i < end; i++)
+				if (array[i] == id)
+					return true;
+			return false;
+		}
+
+		/**
+		 * @return Copy of the IDs in the view.
+		 */
+		@Nonnull
+		int[] toArray() {
+			return Arrays.copyOfRange(array, offset, offset + size);
+		}
+	}
+}
@@ -3,7 +3,9 @@
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
+import org.slf4j.Logger;
 import software.coley.collections.Lists;
+import software.coley.recaf.analytics.logging.Logging;
 import software.coley.recaf.cdi.AutoRegisterWorkspaceListeners;
 import software.coley.recaf.cdi.WorkspaceScoped;
 import software.coley.recaf.info.AndroidClassInfo;
@@ -11,10 +13,14 @@
 import software.coley.recaf.info.ClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.member.ClassMember;
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.path.ResourcePathNode;
 import software.coley.recaf.services.Service;
+import software.coley.recaf.services.inheritance.CompactInheritanceGraph.IdView;
 import software.coley.recaf.services.workspace.WorkspaceCloseListener;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
+import software.coley.recaf.util.threading.ThreadUtil;
 import software.coley.recaf.workspace.model.WorkspaceModificationListener;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.AndroidClassBundle;
@@ -26,8 +32,11 @@
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -40,10 +49,16 @@
 public class InheritanceGraph implements Service, WorkspaceModificationListener, WorkspaceCloseListener,
 		ResourceJvmClassListener, ResourceAndroidClassListener {
 	public static final String SERVICE_ID = "graph-inheritance";
+	private static final Logger logger = Logging.get(InheritanceGraph.class);
+	private static final int POPULATION_BATCH_SIZE = 1024;
 	private static final InheritanceVertex STUB = new InheritanceStubVertex();
 	private static final String OBJECT = "java/lang/Object";
-	private final Map<String, Set<String>> parentToChild = new ConcurrentHashMap<>();
+	private final CompactInheritanceGraph edges = new CompactInheritanceGraph();
+	private final AncestryIndex ancestry = new AncestryIndex(edges);
+	private final AtomicLong hierarchyVersion = new AtomicLong();
 	private final Map<String, InheritanceVertex> vertices = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> externalParents = new ConcurrentHashMap<>();
+	private final ExecutorService populationPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID);
 	private final Function<String, InheritanceVertex> vertexProvider = createVertexProvider();
 	private final InheritanceGraphConfig config;
 	private final Workspace workspace;
@@ -75,77 +90,141 @@ public InheritanceGraph(@Nonnull InheritanceGraphConfig config, @Nonnull Workspa
 	 */
 	private void refreshChildLookup() {
 		// Clear
-		parentToChild.clear();
+		edges.clearEdges();
+		externalParents.clear();
+		ancestry.invalidate();
+		hierarchyVersion.incrementAndGet();
 
 		// Repopulate
-		for (WorkspaceResource resource : Lists.add(workspace.getSupportingResources(), workspace.getPrimaryResource())) {
-			resource.getJvmClassBundle().values()
-					.forEach(this::populateParentToChildLookup);
-			resource.androidClassBundleStream()
-					.flatMap(bundle -> bundle.values().stream())
-					.forEach(this::populateParentToChildLookup);
+		forEachClassInParallel(Lists.add(workspace.getSupportingResources(), workspace.getPrimaryResource()), info -> {
+			// Skip classes that are shadowed by another class of the same name in a higher priority resource.
+			if (isResolvedClass(info))
+				populateParentToChildLookupIfMissing(info);
+		});
+
+		// Pack the edges recorded during population
+		edges.compact();
+	}
+
+	/**
+	 * Runs an action on all classes of the given resources, split into batches across the population pool.
+	 *
+	 * @param resources
+	 * 		Resources to pull classes from.
+	 * @param action
+	 * 		Action to run on each class.
+	 */
+	private void forEachClassInParallel(@Nonnull List<WorkspaceResource> resources,
+										@Nonnull Consumer<ClassInfo> action) {
+		List<ClassInfo> classes = new ArrayList<>();
+		for (WorkspaceResource resource : resources) {
+			classes.addAll(resource.getJvmClassBundle().values());
+			resource.androidClassBundleStream().forEach(bundle -> classes.addAll(bundle.values()));
+		}
+		if (classes.isEmpty())
+			return;
+
+		List<Future<?>> futures = new ArrayList<>();
+		for (int start = 0; start < classes.size(); start += POPULATION_BATCH_SIZE) {
+			List<ClassInfo> batch = classes.subList(start, Math.min(start + POPULATION_BATCH_SIZE, classes.size()));
+			futures.add(populationPool.submit(() -> {
+				for (ClassInfo info : batch) {
+					try {
+						action.accept(info);
+					} catch (Throwable t) {
+						logger.error("Failed to update inheritance of class '{}'", info.getName(), t);
+					}
+				}
+			}));
 		}
+		for (Future<?> future : futures)
+			ThreadUtil.blockUntilComplete(future);
 	}
 
 	/**
-	 * Populate a references from the given child class to the parent class.
+	 * @param info
+	 * 		Some class in the workspace.
 	 *
-	 * @param name
-	 * 		Child class name.
-	 * @param parentName
-	 * 		Parent class name.
+	 * @return {@code true} when the class is the one the workspace yields for its name.
+	 * {@code false} when another class of the same name takes priority over it.
 	 */
-	private void populateParentToChildLookup(@Nonnull String name, @Nonnull String parentName) {
-		parentToChild.computeIfAbsent(parentName, k -> ConcurrentHashMap.newKeySet()).add(name);
+	private boolean isResolvedClass(@Nonnull ClassInfo info) {
+		ClassPathNode path = workspace.findClass(info.getName());
+		return path != null && path.getValue() == info;
 	}
 
 	/**
-	 * Populate all references from the given child class to its parents.
+	 * Populate all references from the given child class to its parents,
+	 * unless the class has already been visited in population.
 	 *
 	 * @param info
 	 * 		Child class.
 	 */
-	private void populateParentToChildLookup(@Nonnull ClassInfo info) {
-		populateParentToChildLookup(info, Collections.newSetFromMap(new IdentityHashMap<>()));
+	private void populateParentToChildLookupIfMissing(@Nonnull ClassInfo info) {
+		if (!edges.isDefined(edges.intern(info.getName())))
+			populateParentToChildLookup(info);
 	}
 
 	/**
 	 * Populate all references from the given child class to its parents.
+	 * Parents which have not yet been visited in population are visited as well.
 	 *
 	 * @param info
 	 * 		Child class.
-	 * @param visited
-	 * 		Classes already visited in population.
 	 */
-	private void populateParentToChildLookup(@Nonnull ClassInfo info, @Nonnull Set<ClassInfo> visited) {
-		// Skip if already visited
-		if (!visited.add(info))
-			return;
-
+	private void populateParentToChildLookup(@Nonnull ClassInfo info) {
 		// Skip module classes
 		if (info.hasModuleModifier())
 			return;
 
-		// Add direct parent
-		String name = info.getName();
-		String superName = info.getSuperName();
-		if (superName != null)
-			populateParentToChildLookup(name, superName);
-
-		// Visit parent
-		InheritanceVertex superVertex = vertexProvider.apply(superName);
-		if (superVertex != null && !superVertex.isJavaLangObject() && !superVertex.isLoop())
-			populateParentToChildLookup(superVertex.getValue(), visited);
+		// Add direct parents
+		int[] parentIds = defineParents(info);
 
-		// Add direct interfaces
-		for (String itf : info.getInterfaces()) {
-			populateParentToChildLookup(name, itf);
+		// Visit parents
+		for (int parentId : parentIds) {
+			if (edges.isDefined(parentId))
+				continue;
+			ClassPathNode parentPath = workspace.findClass(edges.getName(parentId));
+			if (parentPath != null)
+				populateParentToChildLookup(parentPath.getValue());
+		}
+	}
 
-			// Visit interfaces
-			InheritanceVertex interfaceVertex = vertexProvider.apply(itf);
-			if (interfaceVertex != null)
-				populateParentToChildLookup(interfaceVertex.getValue(), visited);
+	/**
+	 * Records the direct parents of the given class.
+	 *
+	 * @param info
+	 * 		Child class.
+	 *
+	 * @return IDs of the direct parents.
+	 */
+	@Nonnull
+	private int[] defineParents(@Nonnull ClassInfo info) {
+		String name = info.getName();
+		String superName = info.getSuperName();
+		List<String> interfaces = info.getInterfaces();
+		int[] parentIds = new int[interfaces.size() + 1];
+		int count = 0;
+		if (superName != null && !superName.equals(name))
+			parentIds[count++] = edges.intern(superName);
+		for (String itf : interfaces) {
+			if (itf.equals(name))
+				continue;
+			int itfId = edges.intern(itf);
+			if (!contains(parentIds, count, itfId))
+				parentIds[count++] = itfId;
 		}
+		if (count < parentIds.length)
+			parentIds = Arrays.copyOf(parentIds, count);
+		int id = edges.intern(name);
+		boolean wasDefined = edges.isDefined(id);
+		int[] oldParentIds = edges.setParents(id, parentIds);
+		ancestry.onParentsChanged(id, oldParentIds, parentIds);
+
+		// Classes being defined for the first time cannot have been visited by any cached member lookups yet.
+		if (wasDefined && !Arrays.equals(oldParentIds, parentIds))
+			hierarchyVersion.incrementAndGet();
+		return parentIds;
 	}
 
 	/**
@@ -155,40 +234,122 @@ private void populateParentToChildLookup(@Nonnull ClassInfo info, @Nonnull Set<C
 	 * 		Child class.
 	 */
 	private void removeParentToChildLookup(@Nonnull ClassInfo info) {
-		String superName = info.getSuperName();
-		if (superName != null)
-			removeParentToChildLookup(info.getName(), superName);
-		for (String itf : info.getInterfaces())
-			removeParentToChildLookup(info.getName(), itf);
+		String name = info.getName();
+
+		// If another class of the same name is still in the workspace, such as one in a supporting resource,
+		// it now takes the place of the removed one. Only edges that differ between the two are touched.
+		ClassPathNode remainingPath = workspace.findClass(name);
+		if (remainingPath != null) {
+			ClassInfo remaining = remainingPath.getValue();
+			populateParentToChildLookup(remaining);
+			vertices.computeIfPresent(name, (k, vertex) -> vertex.getValue() == remaining ? vertex : null);
+			externalParents.remove(name);
+			hierarchyVersion.incrementAndGet();
+			return;
+		}
+
+		int id = edges.find(name);
+		if (id != CompactInheritanceGraph.NO_ID) {
+			int[] oldParentIds = edges.removeParents(id);
+			ancestry.onParentsChanged(id, oldParentIds, new int[0]);
+		}
+		vertices.remove(name);
+		externalParents.remove(name);
+		hierarchyVersion.incrementAndGet();
 	}
 
 	/**
-	 * Remove a references from the given child class to the parent class.
+	 * @param vertex
+	 * 		Vertex to find parents of.
 	 *
-	 * @param name
-	 * 		Child class name.
-	 * @param parentName
-	 * 		Parent class name.
+	 * @return Vertices of the direct extended/implemented types of the given vertex.
 	 */
-	private void removeParentToChildLookup(@Nonnull String name, @Nonnull String parentName) {
-		Set<String> children = parentToChild.get(parentName);
-		if (children != null)
-			children.remove(name);
-		InheritanceVertex parentVertex = getVertex(parentName);
-		InheritanceVertex childVertex = getVertex(name);
-		if (parentVertex != null) parentVertex.clearCachedVertices();
-		if (childVertex != null) childVertex.clearCachedVertices();
+	@Nonnull
+	private Set<InheritanceVertex> getParentVertices(@Nonnull InheritanceVertex vertex) {
+		int id = edges.find(vertex.getName());
+		if (id != CompactInheritanceGraph.NO_ID && edges.isDefined(id))
+			return toVertices(vertex, edges.getParents(id));
+
+		// Classes not reachable from the workspace's own classes are not part of the graph.
+		// Their parents are kept aside, so that looking them up does not add them as children of workspace classes.
+		Set<InheritanceVertex> related = new LinkedHashSet<>();
+		for (String parentName : getExternalParents(vertex.getValue())) {
+			InheritanceVertex parentVertex = getVertex(parentName);
+			if (parentVertex != null)
+				related.add(parentVertex);
+		}
+		return related;
 	}
 
 	/**
-	 * @param parent
-	 * 		Parent to find children of.
+	 * @param info
+	 * 		Class that is not part of the graph.
+	 *
+	 * @return Names of the direct parents of the class.
+	 */
+	@Nonnull
+	private List<String> getExternalParents(@Nonnull ClassInfo info) {
+		return externalParents.computeIfAbsent(info.getName(), name -> {
+			List<String> parents = new ArrayList<>(info.getInterfaces().size() + 1);
+			String superName = info.getSuperName();
+			if (superName != null && !superName.equals(name))
+				parents.add(superName);
+			for (String itf : info.getInterfaces())
+				if (!itf.equals(name) && !parents.contains(itf))
+					parents.add(itf);
+			return parents;
+		});
+	}
+
+	/**
+	 * @param vertex
+	 * 		Vertex to find children of.
 	 *
-	 * @return Direct extensions/implementations of the given parent.
+	 * @return Vertices of the direct extensions/implementations of the given vertex.
 	 */
 	@Nonnull
-	private Set<String> getDirectChildren(@Nonnull String parent) {
-		return parentToChild.getOrDefault(parent, Collections.emptySet());
+	private Set<InheritanceVertex> getChildVertices(@Nonnull InheritanceVertex vertex) {
+		int id = edges.find(vertex.getName());
+		if (id == CompactInheritanceGraph.NO_ID)
+			return Collections.emptySet();
+		return toVertices(vertex, edges.getChildren(id));
+	}
+
+	/**
+	 * @param vertex
+	 * 		Vertex the IDs are related to.
+	 * @param ids
+	 * 		Class IDs to map to vertices.
+	 *
+	 * @return Vertices of the classes, excluding the given vertex and any classes not in the workspace.
+	 */
+	@Nonnull
+	private Set<InheritanceVertex> toVertices(@Nonnull InheritanceVertex vertex, @Nonnull IdView ids) {
+		if (ids.size() == 0)
+			return Collections.emptySet();
+		String name = vertex.getName();
+		Set<InheritanceVertex> related = new LinkedHashSet<>(ids.size() * 2);
+		for (int i = 0; i < ids.size(); i++) {
+			String relatedName = edges.getName(ids.get(i));
+			if (name.equals(relatedName))
+				continue;
+			InheritanceVertex relatedVertex = getVertex(relatedName);
+			if (relatedVertex != null)
+				related.add(relatedVertex);
+		}
+		return related;
+	}
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return ID of the class, if its parents are recorded in the graph.
+	 * {@link CompactInheritanceGraph#NO_ID} if the class is not part of the graph.
+	 */
+	private int getDefinedId(@Nonnull String name) {
+		int id = edges.find(name);
+		return id != CompactInheritanceGraph.NO_ID && edges.isDefined(id) ? id : CompactInheritanceGraph.NO_ID;
 	}
 
 	/**
@@ -221,6 +382,65 @@ public Set<InheritanceVertex> getVertexFamily(@Nonnull String name, boolean incl
 		return vertex.getFamily(includeObject);
 	}
 
+	/**
+	 * @param child
+	 * 		Supposed child class name.
+	 * @param parent
+	 * 		Supposed parent class name.
+	 *
+	 * @return {@code true} when the child class directly or indirectly extends or implements the parent class.
+	 * {@code false} when they are unrelated, or either class is not in the workspace.
+	 */
+	public boolean isChildOf(@Nonnull String child, @Nonnull String parent) {
+		int childId = getDefinedId(child);
+		if (childId == CompactInheritanceGraph.NO_ID)
+			return isExternalChildOf(child, parent);
+
+		// All parents of the child are populated with it, so a parent that is not populated is not related.
+		int parentId = getDefinedId(parent);
+		if (parentId == CompactInheritanceGraph.NO_ID)
+			return false;
+		return ancestry.isAncestor(parentId, childId);
+	}
+
+	/**
+	 * Walks the parents of a class that is not part of the graph, deferring to the graph once reaching a class in it.
+	 *
+	 * @param child
+	 * 		Supposed child class name, of a class not in the graph.
+	 * @param parent
+	 * 		Supposed parent class name.
+	 *
+	 * @return {@code true} when the child class directly or indirectly extends or implements the parent class.
+	 */
+	private boolean isExternalChildOf(@Nonnull String child, @Nonnull String parent) {
+		ClassPathNode childPath = workspace.findClass(child);
+		if (childPath == null)
+			return false;
+		int parentId = getDefinedId(parent);
+		Set<String> visited = new HashSet<>();
+		Queue<String> queue = new ArrayDeque<>(getExternalParents(childPath.getValue()));
+		while (!queue.isEmpty()) {
+			String next = queue.poll();
+			if (next.equals(parent))
+				return true;
+			if (!visited.add(next))
+				continue;
+
+			// The ancestry of classes in the graph is covered by the graph.
+			int nextId = getDefinedId(next);
+			if (nextId != CompactInheritanceGraph.NO_ID) {
+				if (parentId != CompactInheritanceGraph.NO_ID && ancestry.isAncestor(parentId, nextId))
+					return true;
+				continue;
+			}
+			ClassPathNode nextPath = workspace.findClass(next);
+			if (nextPath != null)
+				queue.addAll(getExternalParents(nextPath.getValue()));
+		}
+		return false;
+	}
+
 	/**
 	 * @param first
 	 * 		First class name.
@@ -231,48 +451,85 @@ public Set<InheritanceVertex> getVertexFamily(@Nonnull String name, boolean incl
 	 */
 	@Nonnull
 	public String getCommon(@Nonnull String first, @Nonnull String second) {
-		// Full upwards hierarchy for the first
-		InheritanceVertex vertex = getVertex(first);
-		if (vertex == null || OBJECT.equals(first) || OBJECT.equals(second))
+		if (OBJECT.equals(first) || OBJECT.equals(second))
 			return OBJECT;
+		int firstId = getDefinedId(first);
+		int secondId = getDefinedId(second);
+		if (firstId == CompactInheritanceGraph.NO_ID || secondId == CompactInheritanceGraph.NO_ID)
+			return getExternalCommon(first, second);
 
-		Set<String> firstParents = vertex.allParents()
-				.map(InheritanceVertex::getName)
-				.collect(Collectors.toCollection(LinkedHashSet::new));
-		firstParents.add(first);
+		// Base case
+		if (firstId == secondId || ancestry.isAncestor(secondId, firstId))
+			return second;
 
-		// Ensure 'Object' is last
-		firstParents.remove(OBJECT);
-		firstParents.add(OBJECT);
+		// Iterate over second's parents via breadth-first-search,
+		// the first one that is also a parent of the first class is the common type.
+		BitSet visited = new BitSet();
+		Queue<Integer> queue = new ArrayDeque<>();
+		queue.add(secondId);
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			IdView parents = edges.getParents(next);
+			for (int i = 0; i < parents.size(); i++) {
+				int parent = parents.get(i);
+				// Skip classes not in the workspace, and 'Object' which is the fallback anyways.
+				if (parent == next || visited.get(parent) || !edges.isDefined(parent))
+					continue;
+				visited.set(parent);
+				String parentName = edges.getName(parent);
+				if (parentName.equals(OBJECT))
+					continue;
+
+				// Parent is the first, or in the set of the first's parents? Then its valid.
+				if (parent == firstId || ancestry.isAncestor(parent, firstId))
+					return parentName;
+
+				// Queue up the parent
+				queue.add(parent);
+			}
+		}
+
+		// Fallback option
+		return OBJECT;
+	}
+
+	/**
+	 * Common parent lookup for when either class is not part of the graph, walking their vertices instead.
+	 *
+	 * @param first
+	 * 		First class name.
+	 * @param second
+	 * 		Second class name.
+	 *
+	 * @return Common parent of the classes.
+	 */
+	@Nonnull
+	private String getExternalCommon(@Nonnull String first, @Nonnull String second) {
+		InheritanceVertex firstVertex = getVertex(first);
+		InheritanceVertex secondVertex = getVertex(second);
+		if (firstVertex == null || secondVertex == null)
+			return OBJECT;
+		Set<InheritanceVertex> firstFamily = firstVertex.getAllParents();
+		firstFamily.add(firstVertex);
 
 		// Base case
-		if (firstParents.contains(second))
+		if (firstFamily.contains(secondVertex))
 			return second;
 
 		// Iterate over second's parents via breadth-first-search
-		Queue<String> queue = new LinkedList<>();
-		queue.add(second);
-		do {
-			// Item to fetch parents of
-			String next = queue.poll();
-			if (next == null || next.equals(OBJECT))
-				break;
-
-			InheritanceVertex nextVertex = getVertex(next);
-			if (nextVertex == null)
-				break;
-
-			for (String parent : nextVertex.getParents().stream()
-					.map(InheritanceVertex::getName).toList()) {
-				if (!parent.equals(OBJECT)) {
-					// Parent in the set of visited classes? Then its valid.
-					if (firstParents.contains(parent))
-						return parent;
-					// Queue up the parent
-					queue.add(parent);
-				}
+		Set<InheritanceVertex> visited = new HashSet<>();
+		Queue<InheritanceVertex> queue = new ArrayDeque<>();
+		queue.add(secondVertex);
+		while (!queue.isEmpty()) {
+			for (InheritanceVertex parent : queue.poll().getParents()) {
+				if (parent.isJavaLangObject() || !visited.add(parent))
+					continue;
+				if (firstFamily.contains(parent))
+					return parent.getName();
+				queue.add(parent);
 			}
-		} while (!queue.isEmpty());
+		}
+
 		// Fallback option
 		return OBJECT;
 	}
@@ -294,7 +551,7 @@ private Function<String, InheritanceVertex> createVertexProvider() {
 			ResourcePathNode resourcePath = result.getPathOfType(WorkspaceResource.class);
 			boolean isPrimary = resourcePath != null && resourcePath.isPrimary();
 			ClassInfo info = result.getValue();
-			return new InheritanceVertex(info, this::getVertex, this::getDirectChildren, isPrimary);
+			return new InheritanceVertex(info, this::getParentVertices, this::getChildVertices, this::isChildOf, hierarchyVersion::get, isPrimary);
 		};
 	}
 
@@ -303,41 +560,68 @@ private void onUpdateClassImpl(@Nonnull ClassInfo oldValue, @Nonnull ClassInfo n
 		if (!newValue.getName().equals(name))
 			throw new IllegalStateException("onUpdateClass should not permit a class name change");
 
-		// Update hierarchy now that super-name changed
-		if (oldValue.getSuperName() != null && newValue.getSuperName() != null) {
-			if (!oldValue.getSuperName().equals(newValue.getSuperName())) {
-				removeParentToChildLookup(name, oldValue.getSuperName());
-				populateParentToChildLookup(name, newValue.getSuperName());
-			}
-		}
+		// Update hierarchy, only the edges that differ between the old and new parents are touched.
+		// Cached member lookups of all vertices are dropped if the parents differ.
+		populateParentToChildLookup(newValue);
 
-		// Same deal, but for interfaces
-		Set<String> interfaces = new HashSet<>(oldValue.getInterfaces());
-		interfaces.addAll(newValue.getInterfaces());
-		for (String itf : interfaces) {
-			boolean oldHas = oldValue.getInterfaces().contains(itf);
-			boolean newHas = newValue.getInterfaces().contains(itf);
-			if (oldHas && !newHas) {
-				removeParentToChildLookup(name, itf);
-			} else if (!oldHas && newHas) {
-				populateParentToChildLookup(name, itf);
-			}
-		}
-
-		// Update vertex wrapped class-info
+		// Update vertex wrapped class-info, which drops its own cached member lookups
 		InheritanceVertex vertex = getVertex(name);
 		if (vertex != null)
 			vertex.setValue(newValue);
+
+		// Children of the class only need their cached member lookups dropped when the members they inherit change.
+		// Most updates only change the contents of methods, which is not the case.
+		if (!hasSameMemberSignatures(oldValue.getFields(), newValue.getFields())
+				|| !hasSameMemberSignatures(oldValue.getMethods(), newValue.getMethods()))
+			hierarchyVersion.incrementAndGet();
+	}
+
+	/**
+	 * @param oldMembers
+	 * 		Members of the prior version of a class.
+	 * @param newMembers
+	 * 		Members of the updated version of a class.
+	 *
+	 * @return {@code true} when both lists declare the same member names and descriptors.
+	 */
+	private static boolean hasSameMemberSignatures(@Nonnull List<? extends ClassMember> oldMembers,
+												   @Nonnull List<? extends ClassMember> newMembers) {
+		if (oldMembers.size() != newMembers.size())
+			return false;
+
+		// Updates usually keep members in the same order, so only compare as sets when they differ in order.
+		boolean sameOrder = true;
+		for (int i = 0; i < oldMembers.size() && sameOrder; i++) {
+			ClassMember oldMember = oldMembers.get(i);
+			ClassMember newMember = newMembers.get(i);
+			sameOrder = oldMember.getName().equals(newMember.getName())
+					&& oldMember.getDescriptor().equals(newMember.getDescriptor());
+		}
+		if (sameOrder)
+			return true;
+		return signatureSet(oldMembers).equals(signatureSet(newMembers));
+	}
+
+	@Nonnull
+	private static Set<String> signatureSet(@Nonnull List<? extends ClassMember> members) {
+		Set<String> signatures = new HashSet<>(members.size());
+		for (ClassMember member : members)
+			signatures.add(member.getName() + ' ' + member.getDescriptor());
+		return signatures;
 	}
 
 
 	@Override
 	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
+		vertices.remove(cls.getName());
+		externalParents.remove(cls.getName());
 		populateParentToChildLookup(cls);
 	}
 
 	@Override
 	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull AndroidClassBundle bundle, @Nonnull AndroidClassInfo cls) {
+		vertices.remove(cls.getName());
+		externalParents.remove(cls.getName());
 		populateParentToChildLookup(cls);
 	}
 
@@ -363,18 +647,41 @@ public void onRemoveClass(@Nonnull WorkspaceResource resource, @Nonnull AndroidC
 
 	@Override
 	public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
-		refreshChildLookup();
+		// Only the classes of the new library that are not shadowed by existing classes contribute edges.
+		forEachClassInParallel(List.of(library), info -> {
+			if (isResolvedClass(info)) {
+				vertices.remove(info.getName());
+				externalParents.remove(info.getName());
+				populateParentToChildLookup(info);
+			}
+		});
+		edges.compact();
+		hierarchyVersion.incrementAndGet();
 	}
 
 	@Override
 	public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
-		// no-op
+		// The library is no longer in the workspace, so its classes either no longer exist
+		// or are replaced by classes of the same name in the remaining resources.
+		forEachClassInParallel(List.of(library), this::removeParentToChildLookup);
+		edges.compact();
 	}
 
 	@Override
 	public void onWorkspaceClosed(@Nonnull Workspace workspace) {
-		parentToChild.clear();
+		edges.clear();
+		ancestry.invalidate();
+		hierarchyVersion.incrementAndGet();
 		vertices.clear();
+		externalParents.clear();
+		populationPool.shutdown();
+	}
+
+	private static boolean contains(@Nonnull int[] array, int length, int value) {
+		for (int i = 0; i < length; i++)
+			if (array[i] == value)
+				return true;
+		return false;
 	}
 
 	@Nonnull
@@ -391,7 +698,7 @@ public InheritanceGraphConfig getServiceConfig() {
 
 	private static class InheritanceStubVertex extends InheritanceVertex {
 		private InheritanceStubVertex() {
-			super(new StubClass(), in -> null, in -> null, false);
+			super(new StubClass(), in -> Collections.emptySet(), in -> Collections.emptySet(), (child, parent) -> false, () -> 0, false);
 		}
 
 		@Override
@@ -404,6 +711,21 @@ public boolean hasMethod(String name, String desc) {
 			return false;
 		}
 
+		@Override
+		public boolean hasFieldInSelfOrParents(String name, String desc) {
+			return false;
+		}
+
+		@Override
+		public boolean hasMethodInSelfOrParents(String name, String desc) {
+			return false;
+		}
+
+		@Override
+		public boolean isLibraryMethod(String name, String desc) {
+			return false;
+		}
+
 		@Override
 		public boolean isJavaLangObject() {
 			return false;
@@ -3,29 +3,64 @@
 import jakarta.annotation.Nonnull;
 import software.coley.collections.Sets;
 import software.coley.recaf.info.ClassInfo;
-import software.coley.recaf.info.member.FieldMember;
-import software.coley.recaf.info.member.MethodMember;
 import software.coley.recaf.util.Streams;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
 import java.util.*;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Graph element for a class inheritance hierarchy.
+ * <p/>
+ * Vertices are views over the edges held by their {@link InheritanceGraph}.
+ * The sets of parents and children are resolved on request and are not retained by the vertex.
  *
  * @author Matt Coley
  */
 public class InheritanceVertex {
-	private final Function<String, InheritanceVertex> lookup;
-	private final Function<String, Collection<String>> childrenLookup;
+	private final Function<InheritanceVertex, Set<InheritanceVertex>> parentsLookup;
+	private final Function<InheritanceVertex, Set<InheritanceVertex>> childrenLookup;
+	private final BiPredicate<String, String> childOfLookup;
+	private final LongSupplier hierarchyVersion;
 	private final boolean isPrimary;
-	private volatile Set<InheritanceVertex> parents;
-	private volatile Set<InheritanceVertex> children;
-	private ClassInfo value;
+	private volatile ClassInfo value;
+	private volatile MemberSignatures declaredFields;
+	private volatile MemberSignatures declaredMethods;
+	private volatile InheritedMembers inheritedMembers;
+
+	/**
+	 * @param value
+	 * 		The wrapped value.
+	 * @param parentsLookup
+	 * 		Lookup of the direct parent vertices of a vertex.
+	 * @param childrenLookup
+	 * 		Lookup of the direct child vertices of a vertex.
+	 * @param childOfLookup
+	 * 		Lookup of if a class, by name, is a direct or indirect child of another class, by name.
+	 * @param hierarchyVersion
+	 * 		Supplier of a value that changes whenever classes or relations in the hierarchy change.
+	 * 		Members collected from parent vertices are recomputed when it changes.
+	 * @param isPrimary
+	 * 		Flag for if the class belongs to a workspaces primary resource.
+	 */
+	public InheritanceVertex(@Nonnull ClassInfo value,
+							 @Nonnull Function<InheritanceVertex, Set<InheritanceVertex>> parentsLookup,
+							 @Nonnull Function<InheritanceVertex, Set<InheritanceVertex>> childrenLookup,
+							 @Nonnull BiPredicate<String, String> childOfLookup,
+							 @Nonnull LongSupplier hierarchyVersion,
+							 boolean isPrimary) {
+		this.value = value;
+		this.parentsLookup = parentsLookup;
+		this.childrenLookup = childrenLookup;
+		this.childOfLookup = childOfLookup;
+		this.hierarchyVersion = hierarchyVersion;
+		this.isPrimary = isPrimary;
+	}
 
 	/**
 	 * @param value
@@ -36,14 +71,22 @@ public class InheritanceVertex {
 	 * 		Class child lookup.
 	 * @param isPrimary
 	 * 		Flag for if the class belongs to a workspaces primary resource.
+	 *
+	 * @deprecated Vertices resolve their relations through lookups of vertices rather than names.
+	 * Use {@link #InheritanceVertex(ClassInfo, Function, Function, BiPredicate, LongSupplier, boolean)},
+	 * or get vertices from an {@link InheritanceGraph}.
 	 */
+	@Deprecated
 	public InheritanceVertex(@Nonnull ClassInfo value,
 							 @Nonnull Function<String, InheritanceVertex> lookup,
-							 @Nonnull Function<String, Collection<String>> childrenLookup, boolean isPrimary) {
-		this.value = value;
-		this.lookup = lookup;
-		this.childrenLookup = childrenLookup;
-		this.isPrimary = isPrimary;
+							 @Nonnull Function<String, Collection<String>> childrenLookup,
+							 boolean isPrimary) {
+		this(value,
+				vertex -> lookupParents(vertex, lookup),
+				vertex -> lookupChildren(vertex, lookup, childrenLookup),
+				(child, parent) -> lookupIsChildOf(child, parent, lookup),
+				() -> 0,
+				isPrimary);
 	}
 
 	/**
@@ -55,10 +98,7 @@ public InheritanceVertex(@Nonnull ClassInfo value,
 	 * @return If the field exists in the current vertex.
 	 */
 	public boolean hasField(String name, String desc) {
-		for (FieldMember fn : value.getFields())
-			if (fn.getName().equals(name) && fn.getDescriptor().equals(desc))
-				return true;
-		return false;
+		return getDeclaredFields().contains(name, desc);
 	}
 
 	/**
@@ -70,11 +110,7 @@ public boolean hasField(String name, String desc) {
 	 * @return If the field exists in the current vertex or in any parent vertex.
 	 */
 	public boolean hasFieldInSelfOrParents(String name, String desc) {
-		if (hasField(name, desc))
-			return true;
-		return allParents()
-				.filter(v -> v != this)
-				.anyMatch(parent -> parent.hasFieldInSelfOrParents(name, desc));
+		return getInheritedMembers().fields().contains(name, desc);
 	}
 
 	/**
@@ -90,7 +126,7 @@ public boolean hasFieldInSelfOrChildren(String name, String desc) {
 			return true;
 		return allChildren()
 				.filter(v -> v != this)
-				.anyMatch(parent -> parent.hasFieldInSelfOrChildren(name, desc));
+				.anyMatch(child -> child.hasField(name, desc));
 	}
 
 	/**
@@ -102,10 +138,7 @@ public boolean hasFieldInSelfOrChildren(String name, String desc) {
 	 * @return If the method exists in the current vertex.
 	 */
 	public boolean hasMethod(String name, String desc) {
-		for (MethodMember mn : value.getMethods())
-			if (mn.getName().equals(name) && mn.getDescriptor().equals(desc))
-				return true;
-		return false;
+		return getDeclaredMethods().contains(name, desc);
 	}
 
 	/**
@@ -117,11 +150,7 @@ public boolean hasMethod(String name, String desc) {
 	 * @return If the method exists in the current vertex or in any parent vertex.
 	 */
 	public boolean hasMethodInSelfOrParents(String name, String desc) {
-		if (hasMethod(name, desc))
-			return true;
-		return allParents()
-				.filter(v -> v != this)
-				.anyMatch(parent -> parent.hasMethodInSelfOrParents(name, desc));
+		return getInheritedMembers().methods().contains(name, desc);
 	}
 
 	/**
@@ -137,7 +166,7 @@ public boolean hasMethodInSelfOrChildren(String name, String desc) {
 			return true;
 		return allChildren()
 				.filter(v -> v != this)
-				.anyMatch(parent -> parent.hasMethodInSelfOrChildren(name, desc));
+				.anyMatch(child -> child.hasMethod(name, desc));
 	}
 
 	/**
@@ -182,16 +211,10 @@ public boolean isModule() {
 	 * {@code false} if the method is safe to rename.
 	 */
 	public boolean isLibraryMethod(String name, String desc) {
-		// Check against this definition
-		if (!isPrimary && hasMethod(name, desc))
-			return true;
-		// Check parents.
+		// Check against this definition, and the definitions of parents.
 		// If we extend a class with a library definition then it should be considered a library method.
-		for (InheritanceVertex parent : getParents())
-			if (parent.isLibraryMethod(name, desc))
-				return true;
-		// No library definition found, so its safe to rename.
-		return false;
+		// If no library definition is found, its safe to rename.
+		return getInheritedMembers().libraryMethods().contains(name, desc);
 	}
 
 	/**
@@ -201,7 +224,7 @@ public boolean isLibraryMethod(String name, String desc) {
 	 * @return {@code true} if the vertex is of a child type to this vertex's {@link #getName() type}.
 	 */
 	public boolean isParentOf(InheritanceVertex vertex) {
-		return vertex.getAllParents().contains(this);
+		return childOfLookup.test(vertex.getName(), getName());
 	}
 
 	/**
@@ -211,7 +234,7 @@ public boolean isParentOf(InheritanceVertex vertex) {
 	 * @return {@code true} if the vertex is of a parent type to this vertex's {@link #getName() type}.
 	 */
 	public boolean isChildOf(InheritanceVertex vertex) {
-		return getAllParents().contains(vertex);
+		return childOfLookup.test(getName(), vertex.getName());
 	}
 
 	/**
@@ -246,11 +269,7 @@ public boolean isIndirectFamilyMember(Set<InheritanceVertex> family, Inheritance
 	 * @return {@code true} when this vertex has the given parent.
 	 */
 	public boolean hasParent(@Nonnull String name) {
-		for (InheritanceVertex parent : getAllParents())
-			if (name.equals(parent.getName()))
-				return true;
-
-		return false;
+		return childOfLookup.test(getName(), name);
 	}
 
 	/**
@@ -260,11 +279,7 @@ public boolean hasParent(@Nonnull String name) {
 	 * @return {@code true} when this vertex has the given child.
 	 */
 	public boolean hasChild(@Nonnull String name) {
-		for (InheritanceVertex child : getAllChildren())
-			if (name.equals(child.getName()))
-				return true;
-
-		return false;
+		return childOfLookup.test(name, getName());
 	}
 
 	/**
@@ -313,34 +328,9 @@ public Stream<InheritanceVertex> allParents() {
 	 */
 	@Nonnull
 	public Set<InheritanceVertex> getParents() {
-		Set<InheritanceVertex> parents = this.parents;
-		if (parents == null) {
-			synchronized (this) {
-				if (isModule()) {
-					parents = Collections.emptySet();
-					this.parents = parents;
-					return parents;
-				}
-				parents = this.parents;
-				if (parents == null) {
-					String name = getName();
-					parents = new LinkedHashSet<>();
-					String superName = value.getSuperName();
-					if (superName != null && !name.equals(superName)) {
-						InheritanceVertex parentVertex = lookup.apply(superName);
-						if (parentVertex != null)
-							parents.add(parentVertex);
-					}
-					for (String itf : value.getInterfaces()) {
-						InheritanceVertex itfVertex = lookup.apply(itf);
-						if (itfVertex != null && !name.equals(itf))
-							parents.add(itfVertex);
-					}
-					this.parents = parents;
-				}
-			}
-		}
-		return parents;
+		if (isModule())
+			return Collections.emptySet();
+		return parentsLookup.apply(this);
 	}
 
 	/**
@@ -366,28 +356,9 @@ public Stream<InheritanceVertex> allChildren() {
 	 */
 	@Nonnull
 	public Set<InheritanceVertex> getChildren() {
-		Set<InheritanceVertex> children = this.children;
-		if (children == null) {
-			synchronized (this) {
-				if (isModule()) {
-					children = Collections.emptySet();
-					this.children = children;
-					return children;
-				}
-				children = this.children;
-				if (children == null) {
-					String name = getName();
-					children = childrenLookup.apply(value.getName())
-							.stream()
-							.filter(childName -> !name.equals(childName))
-							.map(lookup)
-							.filter(Objects::nonNull)
-							.collect(Collectors.toCollection(LinkedHashSet::new));
-					this.children = children;
-				}
-			}
-		}
-		return children;
+		if (isModule())
+			return Collections.emptySet();
+		return childrenLookup.apply(this);
 	}
 
 	/**
@@ -398,17 +369,20 @@ public Set<InheritanceVertex> getAllDirectVertices() {
 		return Sets.combine(getParents(), getChildren());
 	}
 
+
 	/**
-	 * Clears cached {@link #getParents()} and {@link #getChildren()} values.
+	 * Clears cached member lookups that depend on the parents of this vertex.
+	 * Parents and children themselves are not cached, and are always resolved on request.
+	 *
+	 * @deprecated Vertices of an {@link InheritanceGraph} are kept up to date as the hierarchy changes.
+	 * This is only needed for vertices created with
+	 * {@link #InheritanceVertex(ClassInfo, Function, Function, boolean)}, after the classes of their lookups change.
 	 */
+	@Deprecated
 	public void clearCachedVertices() {
-		synchronized (this) {
-			parents = null;
-			children = null;
-		}
+		inheritedMembers = null;
 	}
 
-
 	/**
 	 * @return {@link #getValue() wrapped class's} name
 	 */
@@ -432,11 +406,116 @@ public ClassInfo getValue() {
 	public void setValue(@Nonnull ClassInfo value) {
 		this.value = value;
 
-		// Reset children & parent sets
-		synchronized (this) {
-			children = null;
-			parents = null;
+		// Reset member lookups of the prior value
+		declaredFields = null;
+		declaredMethods = null;
+		inheritedMembers = null;
+	}
+
+	/**
+	 * @return Signatures of fields declared in this vertex.
+	 */
+	@Nonnull
+	private MemberSignatures getDeclaredFields() {
+		MemberSignatures fields = declaredFields;
+		if (fields == null) {
+			fields = MemberSignatures.of(value.getFields());
+			declaredFields = fields;
+		}
+		return fields;
+	}
+
+	/**
+	 * @return Signatures of methods declared in this vertex.
+	 */
+	@Nonnull
+	private MemberSignatures getDeclaredMethods() {
+		MemberSignatures methods = declaredMethods;
+		if (methods == null) {
+			methods = MemberSignatures.of(value.getMethods());
+			declaredMethods = methods;
+		}
+		return methods;
+	}
+
+	/**
+	 * @return Signatures of members declared in this vertex or any parent vertex.
+	 */
+	@Nonnull
+	private InheritedMembers getInheritedMembers() {
+		long version = hierarchyVersion.getAsLong();
+		InheritedMembers members = inheritedMembers;
+		if (members == null || members.version() != version) {
+			MemberSignatures.Builder fields = new MemberSignatures.Builder();
+			MemberSignatures.Builder methods = new MemberSignatures.Builder();
+			MemberSignatures.Builder libraryMethods = new MemberSignatures.Builder();
+			Streams.recurseWithoutCycles(this, InheritanceVertex::getParents).forEach(vertex -> {
+				fields.addAll(vertex.getDeclaredFields());
+				methods.addAll(vertex.getDeclaredMethods());
+				if (vertex.isLibraryVertex())
+					libraryMethods.addAll(vertex.getDeclaredMethods());
+			});
+			members = new InheritedMembers(version, fields.build(), methods.build(), libraryMethods.build());
+			inheritedMembers = members;
 		}
+		return members;
+	}
+
+	/**
+	 * Signatures of members declared in a vertex or any of its parents.
+	 *
+	 * @param version
+	 * 		Hierarchy version the members were collected at.
+	 * @param fields
+	 * 		Fields declared in the vertex or its parents.
+	 * @param methods
+	 * 		Methods declared in the vertex or its parents.
+	 * @param libraryMethods
+	 * 		Methods declared in the vertex or its parents, where the declaring vertex is a library vertex.
+	 */
+	private record InheritedMembers(long version,
+									@Nonnull MemberSignatures fields,
+									@Nonnull MemberSignatures methods,
+									@Nonnull MemberSignatures libraryMethods) {
+	}
+
+	@Nonnull
+	private static Set<InheritanceVertex> lookupParents(@Nonnull InheritanceVertex vertex,
+														@Nonnull Function<String, InheritanceVertex> lookup) {
+		ClassInfo value = vertex.getValue();
+		String name = value.getName();
+		Set<InheritanceVertex> parents = new LinkedHashSet<>();
+		String superName = value.getSuperName();
+		if (superName != null && !name.equals(superName)) {
+			InheritanceVertex parentVertex = lookup.apply(superName);
+			if (parentVertex != null)
+				parents.add(parentVertex);
+		}
+		for (String itf : value.getInterfaces()) {
+			InheritanceVertex itfVertex = lookup.apply(itf);
+			if (itfVertex != null && !name.equals(itf))
+				parents.add(itfVertex);
+		}
+		return parents;
+	}
+
+	@Nonnull
+	private static Set<InheritanceVertex> lookupChildren(@Nonnull InheritanceVertex vertex,
+														 @Nonnull Function<String, InheritanceVertex> lookup,
+														 @Nonnull Function<String, Collection<String>> childrenLookup) {
+		String name = vertex.getName();
+		return childrenLookup.apply(name)
+				.stream()
+				.filter(childName -> !name.equals(childName))
+				.map(lookup)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	private static boolean lookupIsChildOf(@Nonnull String child, @Nonnull String parent,
+										   @Nonnull Function<String, InheritanceVertex> lookup) {
+		InheritanceVertex childVertex = lookup.apply(child);
+		return childVertex != null && childVertex.allParents().anyMatch(v -> parent.equals(v.getName()));
 	}
 
 	@Override
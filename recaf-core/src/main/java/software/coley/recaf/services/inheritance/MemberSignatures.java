@@ -0,0 +1,104 @@
+package software.coley.recaf.services.inheritance;
+
+import jakarta.annotation.Nonnull;
+import software.coley.recaf.info.member.ClassMember;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hashed set of member name and descriptor pairs, for constant time member lookups on {@link InheritanceVertex}.
+ * <p/>
+ * Descriptors are grouped by member name, so that lookups do not need to allocate a combined key.
+ *
+ * @author Matt Coley
+ */
+class MemberSignatures {
+	/** Shared empty instance. */
+	static final MemberSignatures EMPTY = new MemberSignatures(Map.of());
+	private final Map<String, String[]> descriptorsByName;
+
+	private MemberSignatures(@Nonnull Map<String, String[]> descriptorsByName) {
+		this.descriptorsByName = descriptorsByName;
+	}
+
+	/**
+	 * @param members
+	 * 		Members to index.
+	 *
+	 * @return Signatures of the given members.
+	 */
+	@Nonnull
+	static MemberSignatures of(@Nonnull Iterable<? extends ClassMember> members) {
+		Builder builder = new Builder();
+		for (ClassMember member : members)
+			builder.add(member.getName(), member.getDescriptor());
+		return builder.build();
+	}
+
+	/**
+	 * @param name
+	 * 		Member name.
+	 * @param desc
+	 * 		Member descriptor.
+	 *
+	 * @return {@code true} when a member of the given name and descriptor is in this set.
+	 */
+	boolean contains(@Nonnull String name, @Nonnull String desc) {
+		String[] descriptors = descriptorsByName.get(name);
+		if (descriptors == null)
+			return false;
+		for (String descriptor : descriptors)
+			if (descriptor.equals(desc))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Builder for combining multiple sets of signatures.
+	 */
+	static class Builder {
+		private final Map<String, String[]> descriptorsByName = new HashMap<>();
+
+		/**
+		 * @param name
+		 * 		Member name.
+		 * @param desc
+		 * 		Member descriptor.
+		 */
+		void add(@Nonnull String name, @Nonnull String desc) {
+			String[] descriptors = descriptorsByName.get(name);
+			if (descriptors == null) {
+				descriptorsByName.put(name, new String[]{desc});
+				return;
+			}
+			for (String descriptor : descriptors)
+				if (descriptor.equals(desc))
+					return;
+			descriptors = Arrays.copyOf(descriptors, descriptors.length + 1);
+			descriptors[descriptors.length - 1] = desc;
+			descriptorsByName.put(name, descriptors);
+		}
+
+		/**
+		 * @param signatures
+		 * 		Signatures to add.
+		 */
+		void addAll(@Nonnull MemberSignatures signatures) {
+			for (Map.Entry<String, String[]> entry : signatures.descriptorsByName.entrySet())
+				for (String desc : entry.getValue())
+					add(entry.getKey(), desc);
+		}
+
+		/**
+		 * @return Signatures added to the builder.
+		 */
+		@Nonnull
+		MemberSignatures build() {
+			if (descriptorsByName.isEmpty())
+				return EMPTY;
+			return new MemberSignatures(descriptorsByName);
+		}
+	}
+}
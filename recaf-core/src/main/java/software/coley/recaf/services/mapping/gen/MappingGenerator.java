@@ -123,6 +123,8 @@ private void generateFamilyMappings(@Nonnull MappingsAdapter mappings, @Nonnull
 			}
 		});
 		// Create mappings for members.
+		// The parents and children of a vertex are shared by all of its inheritable fields, so they are only collected once.
+		Map<InheritanceVertex, Set<InheritanceVertex>> immediateTrees = new IdentityHashMap<>();
 		family.forEach(vertex -> {
 			// Skip libraries in the family.
 			if (vertex.isLibraryVertex())
@@ -150,10 +152,13 @@ private void generateFamilyMappings(@Nonnull MappingsAdapter mappings, @Nonnull
 				if (inheritableFields.contains(field)) {
 					// Field is 'inheritable' meaning it needs to have a consistent name
 					// for all children and parents of this vertex.
-					Set<InheritanceVertex> targetFamilyMembers = new HashSet<>();
-					targetFamilyMembers.add(vertex);
-					targetFamilyMembers.addAll(vertex.getAllChildren());
-					targetFamilyMembers.addAll(vertex.getAllParents());
+					Set<InheritanceVertex> targetFamilyMembers = immediateTrees.computeIfAbsent(vertex, v -> {
+						Set<InheritanceVertex> members = new HashSet<>();
+						members.add(v);
+						members.addAll(v.getAllChildren());
+						members.addAll(v.getAllParents());
+						return members;
+					});
 					targetFamilyMembers.forEach(immediateTreeVertex -> {
 						if (immediateTreeVertex.hasField(fieldName, fieldDesc)) {
 							String treeOwner = immediateTreeVertex.getName();
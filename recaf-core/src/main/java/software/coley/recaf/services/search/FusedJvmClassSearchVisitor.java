@@ -0,0 +1,45 @@
+package software.coley.recaf.services.search;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.ClassVisitor;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.services.search.query.FusableJvmClassQuery;
+
+import java.util.List;
+
+/**
+ * JVM class visitor which runs multiple {@link FusableJvmClassQuery} instances in a single parse of each class,
+ * by chaining their ASM visitors together.
+ *
+ * @author Matt Coley
+ */
+class FusedJvmClassSearchVisitor implements JvmClassSearchVisitor {
+	private final List<FusableJvmClassQuery> queries;
+	private final JvmClassSearchVisitor delegate;
+
+	/**
+	 * @param queries
+	 * 		Queries to run together.
+	 * @param delegate
+	 * 		Visitor for additional queries which do not support fusing. May be {@code null}.
+	 */
+	FusedJvmClassSearchVisitor(@Nonnull List<FusableJvmClassQuery> queries, @Nullable JvmClassSearchVisitor delegate) {
+		this.queries = queries;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void visit(@Nonnull ResultSink resultSink,
+					  @Nonnull ClassPathNode classPath,
+					  @Nonnull JvmClassInfo classInfo) {
+		if (delegate != null) delegate.visit(resultSink, classPath, classInfo);
+
+		ClassVisitor visitor = null;
+		for (FusableJvmClassQuery query : queries)
+			visitor = query.classVisitor(visitor, resultSink, classPath, classInfo);
+		if (visitor != null)
+			classInfo.getClassReader().accept(visitor, 0);
+	}
+}
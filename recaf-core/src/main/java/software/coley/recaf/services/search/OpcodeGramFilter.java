@@ -0,0 +1,136 @@
+package software.coley.recaf.services.search;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Compact summary of the opcode n-grams of a method, for use in {@link SearchIndex}.
+ * <p/>
+ * Each opcode and each pair of adjacent opcodes in a method is hashed into a bloom filter.
+ * A method can only contain an instruction sequence if its filter has all the bits of the sequence's n-grams set.
+ * False positives are possible, in which case the method is visited needlessly, but false negatives are not.
+ * <p/>
+ * Filters are sized to the number of distinct n-grams in their method, so that large methods do not saturate
+ * their filter and pass every check. Sizes are powers of two, and bit positions are taken from a hash
+ * masked to the filter size. Required bits are computed at the largest size, and folded down to the size of
+ * the filter they are checked against.
+ *
+ * @author Matt Coley
+ */
+public class OpcodeGramFilter {
+	/** Opcode value denoting any instruction in {@link #requiredBits(int[])}. */
+	public static final int ANY_OPCODE = -1;
+	/** Largest number of words in a filter. Must be a power of two. */
+	static final int MAX_WORDS = 64;
+	private static final int MIN_WORDS = 2;
+	private static final int MAX_BIT_MASK = MAX_WORDS * Long.SIZE - 1;
+	// Two bits are set per n-gram, so this gives about eight filter bits per distinct n-gram.
+	private static final int BITS_PER_SET_BIT = 4;
+
+	private OpcodeGramFilter() {}
+
+	/**
+	 * @param opcodes
+	 * 		Opcodes of an instruction sequence, with {@link #ANY_OPCODE} for positions that match any instruction.
+	 *
+	 * @return Bits that the filter of a method must have to possibly contain the sequence.
+	 */
+	@Nonnull
+	public static long[] requiredBits(@Nonnull int[] opcodes) {
+		long[] bits = new long[MAX_WORDS];
+		for (int i = 0; i < opcodes.length; i++) {
+			int opcode = opcodes[i];
+			if (opcode == ANY_OPCODE)
+				continue;
+			add(bits, unigram(opcode));
+			if (i > 0 && opcodes[i - 1] != ANY_OPCODE)
+				add(bits, bigram(opcodes[i - 1], opcode));
+		}
+		return bits;
+	}
+
+	/**
+	 * @param filter
+	 * 		Filter of a method.
+	 * @param required
+	 * 		Bits from {@link #requiredBits(int[])}.
+	 *
+	 * @return {@code true} when the method may contain the instruction sequence.
+	 */
+	public static boolean mayContain(@Nonnull long[] filter, @Nonnull long[] required) {
+		// Positions in a smaller filter are the low bits of positions in the largest filter,
+		// so each required word maps onto the filter word at the same index modulo the filter length.
+		int wordMask = filter.length - 1;
+		for (int i = 0; i < required.length; i++) {
+			long word = required[i];
+			if ((filter[i & wordMask] & word) != word)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param words
+	 * 		Number of words in a filter.
+	 *
+	 * @return {@code true} when the word count is a size filters are created with.
+	 */
+	static boolean isValidSize(int words) {
+		return words >= MIN_WORDS && words <= MAX_WORDS && Integer.bitCount(words) == 1;
+	}
+
+	private static int unigram(int opcode) {
+		return opcode;
+	}
+
+	private static int bigram(int first, int second) {
+		return ((first + 1) << 8) | second;
+	}
+
+	private static void add(@Nonnull long[] bits, int gram) {
+		// Two bit positions per gram, taken from different halves of a mixed hash.
+		int hash = gram * 0x9E3779B9;
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		int first = hash & MAX_BIT_MASK;
+		int second = (hash >>> 16) & MAX_BIT_MASK;
+		bits[first >>> 6] |= 1L << first;
+		bits[second >>> 6] |= 1L << second;
+	}
+
+	/**
+	 * Builder of a method filter, fed opcodes in the order they appear in the method.
+	 */
+	public static class Builder {
+		private final long[] bits = new long[MAX_WORDS];
+		private int previous = ANY_OPCODE;
+
+		/**
+		 * @param opcode
+		 * 		Opcode of the next instruction in the method.
+		 */
+		public void add(int opcode) {
+			OpcodeGramFilter.add(bits, unigram(opcode));
+			if (previous != ANY_OPCODE)
+				OpcodeGramFilter.add(bits, bigram(previous, opcode));
+			previous = opcode;
+		}
+
+		/**
+		 * @return Filter bits of the method, folded down to a size fitting its number of distinct n-grams.
+		 */
+		@Nonnull
+		public long[] build() {
+			int setBits = 0;
+			for (long word : bits)
+				setBits += Long.bitCount(word);
+			int words = MIN_WORDS;
+			while (words < MAX_WORDS && words * Long.SIZE < setBits * BITS_PER_SET_BIT)
+				words <<= 1;
+			long[] filter = new long[words];
+			for (int i = 0; i < MAX_WORDS; i++)
+				filter[i & (words - 1)] |= bits[i];
+			return filter;
+		}
+	}
+}
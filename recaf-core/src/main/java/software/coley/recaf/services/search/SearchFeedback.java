@@ -3,6 +3,7 @@
 import jakarta.annotation.Nonnull;
 import software.coley.recaf.info.ClassInfo;
 import software.coley.recaf.info.FileInfo;
+import software.coley.recaf.path.PathNode;
 import software.coley.recaf.services.search.result.Result;
 import software.coley.recaf.services.search.result.Results;
 
@@ -11,6 +12,7 @@
  * <ul>
  *     <li>In-progress search cancellation</li>
  *     <li>Filter classes and files visited by the search</li>
+ *     <li>Reporting of classes and files that could not be searched</li>
  * </ul>
  *
  * @author Matt Coley
@@ -63,4 +65,15 @@ default boolean doVisitFile(@Nonnull FileInfo file) {
 	default boolean doAcceptResult(@Nonnull Result<?> result) {
 		return true;
 	}
+
+	/**
+	 * Called when visiting a class or file throws. The search skips the item and continues with the remaining content.
+	 * May be called concurrently from multiple search threads.
+	 *
+	 * @param path
+	 * 		Path to the class or file that could not be searched.
+	 * @param error
+	 * 		Cause of the failure.
+	 */
+	default void onVisitFailure(@Nonnull PathNode<?> path, @Nonnull Exception error) {}
 }
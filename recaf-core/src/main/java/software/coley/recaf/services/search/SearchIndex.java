@@ -0,0 +1,750 @@
+package software.coley.recaf.services.search;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import software.coley.recaf.RecafBuildConfig;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.search.query.IndexedQuery;
+import software.coley.recaf.services.search.result.MemberReferenceResult.MemberReference;
+import software.coley.recaf.util.IOUtil;
+import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.WorkspaceModificationListener;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.ResourceJvmClassListener;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Inverted index of the constant values and references of the JVM classes in a workspace.
+ * Maps each distinct string, number, class reference, and member reference to the classes that contain them.
+ * <p/>
+ * Queries implementing {@link IndexedQuery} can use the index to determine which classes can yield results,
+ * evaluating their predicates once per distinct value rather than once per occurrence.
+ * Only those candidate classes then need to be visited to produce the result paths.
+ * <p/>
+ * Each method is also summarized by an {@link OpcodeGramFilter}, allowing instruction sequence searches
+ * to skip over methods which cannot contain the sequence.
+ * <p/>
+ * The index is populated in the background, and is kept up to date as classes in the workspace change.
+ * Visiting classes is done on the executor given to the index, both for the initial population and for
+ * classes added or updated afterward. Classes that have been visited but are no longer in their bundle by the
+ * time they are inserted are discarded.
+ * <p/>
+ * When given a cache directory, the index is persisted across sessions so that re-opening the same input
+ * only needs to visit classes that have changed. The least recently used index files are removed
+ * when the total size of the directory exceeds the given limit.
+ *
+ * @author Matt Coley
+ */
+public class SearchIndex implements ResourceJvmClassListener, WorkspaceModificationListener {
+	private static final Logger logger = Logging.get(SearchIndex.class);
+	private static final int MAGIC = 0x52435349; // RCSI
+	private static final int FORMAT_VERSION = 3;
+	private static final String EXTENSION = ".index";
+	// Number type tags
+	private static final int NUM_INT = 0;
+	private static final int NUM_LONG = 1;
+	private static final int NUM_FLOAT = 2;
+	private static final int NUM_DOUBLE = 3;
+	private static final int NUM_BYTE = 4;
+	private static final int NUM_SHORT = 5;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<JvmClassInfo, ClassEntry> classEntries = new IdentityHashMap<>();
+	private final Map<String, Set<JvmClassInfo>> stringPostings = new HashMap<>();
+	private final Map<Number, Set<JvmClassInfo>> numberPostings = new HashMap<>();
+	private final Map<String, Set<JvmClassInfo>> typePostings = new HashMap<>();
+	private final Map<MemberReference, Set<JvmClassInfo>> memberPostings = new HashMap<>();
+	private final CompletableFuture<SearchIndex> readyFuture = new CompletableFuture<>();
+	private final Workspace workspace;
+	private final Path cacheDirectory;
+	private final long maxCacheSize;
+	private final ExecutorService indexService;
+	private volatile boolean closed;
+	private volatile boolean dirty;
+	private Path storagePath;
+
+	/**
+	 * @param workspace
+	 * 		Workspace to index.
+	 * @param cacheDirectory
+	 * 		Directory to persist the index in. {@code null} to not persist the index.
+	 * @param maxCacheSize
+	 * 		Maximum total size in bytes of persisted indices in the cache directory.
+	 * @param indexService
+	 * 		Executor to visit classes on.
+	 */
+	public SearchIndex(@Nonnull Workspace workspace, @Nullable Path cacheDirectory, long maxCacheSize,
+					   @Nonnull ExecutorService indexService) {
+		this.workspace = workspace;
+		this.cacheDirectory = cacheDirectory;
+		this.maxCacheSize = maxCacheSize;
+		this.indexService = indexService;
+	}
+
+	/**
+	 * Registers listeners on the workspace and populates the index in the background.
+	 *
+	 * @return Future of the completed index.
+	 */
+	@Nonnull
+	public CompletableFuture<SearchIndex> build() {
+		workspace.addWorkspaceModificationListener(this);
+		for (WorkspaceResource resource : workspace.getAllResources(false))
+			resource.addResourceJvmClassListener(this);
+		CompletableFuture.supplyAsync(this::loadPersisted, indexService)
+				.thenCompose(this::populate)
+				.whenComplete((unused, t) -> {
+					if (t == null) {
+						// Persist the index if we had to visit any classes not covered by the prior stored copy.
+						if (dirty && !closed)
+							save();
+						readyFuture.complete(this);
+					} else {
+						logger.error("Search index initialization failed", t);
+						readyFuture.completeExceptionally(t);
+					}
+				});
+		return readyFuture;
+	}
+
+	/**
+	 * Unregisters listeners from the workspace, and persists the index if it has been modified since it was last written.
+	 */
+	public void close() {
+		closed = true;
+		workspace.removeWorkspaceModificationListener(this);
+		for (WorkspaceResource resource : workspace.getAllResources(false))
+			resource.removeResourceJvmClassListener(this);
+		if (isReady() && dirty)
+			save();
+	}
+
+	/**
+	 * @return {@code true} when the initial population of the index has completed.
+	 */
+	public boolean isReady() {
+		return readyFuture.isDone() && !readyFuture.isCompletedExceptionally();
+	}
+
+	/**
+	 * @return Future of the completed index.
+	 */
+	@Nonnull
+	public CompletableFuture<SearchIndex> whenReady() {
+		return readyFuture;
+	}
+
+	/**
+	 * @param classInfo
+	 * 		Some class.
+	 * @param candidates
+	 * 		Candidate classes from one of the lookup methods.
+	 *
+	 * @return {@code true} when the class is one of the candidates, or when the index has no information about the class.
+	 * The latter can occur when the class failed to be indexed, or is being updated while the search is occurring.
+	 */
+	public boolean isCandidate(@Nonnull JvmClassInfo classInfo, @Nonnull Set<JvmClassInfo> candidates) {
+		if (candidates.contains(classInfo))
+			return true;
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			return !classEntries.containsKey(classInfo);
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * @param predicate
+	 * 		Predicate to test against constant values, which are either {@link String} or {@link Number} instances.
+	 *
+	 * @return Classes containing values matching the predicate.
+	 */
+	@Nonnull
+	public Set<JvmClassInfo> findClassesWithValue(@Nonnull Predicate<Object> predicate) {
+		Set<JvmClassInfo> classes = newClassSet();
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			collect(stringPostings, predicate, classes);
+			collect(numberPostings, predicate, classes);
+		} finally {
+			read.unlock();
+		}
+		return classes;
+	}
+
+	/**
+	 * @param predicate
+	 * 		Predicate to test against referenced internal type names.
+	 *
+	 * @return Classes containing type references matching the predicate.
+	 */
+	@Nonnull
+	public Set<JvmClassInfo> findClassesReferencingType(@Nonnull Predicate<String> predicate) {
+		Set<JvmClassInfo> classes = newClassSet();
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			collect(typePostings, predicate, classes);
+		} finally {
+			read.unlock();
+		}
+		return classes;
+	}
+
+	/**
+	 * @param predicate
+	 * 		Predicate to test against referenced members.
+	 *
+	 * @return Classes containing member references matching the predicate.
+	 */
+	@Nonnull
+	public Set<JvmClassInfo> findClassesReferencingMember(@Nonnull Predicate<MemberReference> predicate) {
+		Set<JvmClassInfo> classes = newClassSet();
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			collect(memberPostings, predicate, classes);
+		} finally {
+			read.unlock();
+		}
+		return classes;
+	}
+
+	/**
+	 * @param requiredBits
+	 * 		Bits from {@link OpcodeGramFilter#requiredBits(int[])} of an instruction sequence.
+	 *
+	 * @return Classes with methods that may contain the instruction sequence.
+	 */
+	@Nonnull
+	public Set<JvmClassInfo> findClassesWithOpcodes(@Nonnull long[] requiredBits) {
+		Set<JvmClassInfo> classes = newClassSet();
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			for (Map.Entry<JvmClassInfo, ClassEntry> e : classEntries.entrySet())
+				for (long[] filter : e.getValue().methodOpcodeFilters().values())
+					if (OpcodeGramFilter.mayContain(filter, requiredBits)) {
+						classes.add(e.getKey());
+						break;
+					}
+		} finally {
+			read.unlock();
+		}
+		return classes;
+	}
+
+	/**
+	 * @param classInfo
+	 * 		Class to check the methods of.
+	 * @param requiredBits
+	 * 		Bits from {@link OpcodeGramFilter#requiredBits(int[])} of an instruction sequence.
+	 *
+	 * @return Name and descriptor concatenations of methods in the class that may contain the instruction sequence,
+	 * or {@code null} if the index has no information about the class.
+	 */
+	@Nullable
+	public Set<String> findMethodsWithOpcodes(@Nonnull JvmClassInfo classInfo, @Nonnull long[] requiredBits) {
+		ClassEntry entry;
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			entry = classEntries.get(classInfo);
+		} finally {
+			read.unlock();
+		}
+		if (entry == null)
+			return null;
+		Set<String> methods = new HashSet<>();
+		for (Map.Entry<String, long[]> e : entry.methodOpcodeFilters().entrySet())
+			if (OpcodeGramFilter.mayContain(e.getValue(), requiredBits))
+				methods.add(e.getKey());
+		return methods;
+	}
+
+	@Override
+	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
+		if (closed) return;
+		dirty = true;
+		indexService.execute(() -> index(bundle, cls, null));
+	}
+
+	@Override
+	public void onUpdateClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
+							  @Nonnull JvmClassInfo oldCls, @Nonnull JvmClassInfo newCls) {
+		// The old class is removed right away so that it does not linger in results,
+		// while the new class is visited in the background.
+		onRemoveClass(resource, bundle, oldCls);
+		onNewClass(resource, bundle, newCls);
+	}
+
+	@Override
+	public void onRemoveClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
+		if (closed) return;
+		remove(cls);
+		dirty = true;
+	}
+
+	@Override
+	public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+		if (closed) return;
+		library.addResourceJvmClassListener(this);
+		library.jvmClassBundleStream().forEach(bundle -> {
+			for (JvmClassInfo cls : bundle.values())
+				onNewClass(library, bundle, cls);
+		});
+	}
+
+	@Override
+	public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+		if (closed) return;
+		library.removeResourceJvmClassListener(this);
+		library.jvmClassBundleStream().forEach(bundle -> {
+			for (JvmClassInfo cls : bundle.values())
+				onRemoveClass(library, bundle, cls);
+		});
+	}
+
+	/**
+	 * @return Persisted entries of the workspace, keyed by class name. Empty if the index is not persisted,
+	 * or there is no prior stored copy.
+	 */
+	@Nonnull
+	private Map<String, List<PersistedEntry>> loadPersisted() {
+		if (cacheDirectory == null)
+			return Collections.emptyMap();
+		storagePath = computeStoragePath();
+		if (storagePath == null)
+			return Collections.emptyMap();
+		return load(storagePath);
+	}
+
+	/**
+	 * Visits all classes in the workspace, reusing persisted entries of classes that have not changed.
+	 *
+	 * @param persisted
+	 * 		Persisted entries, keyed by class name.
+	 *
+	 * @return Future that completes once all classes have been indexed.
+	 */
+	@Nonnull
+	private CompletableFuture<Void> populate(@Nonnull Map<String, List<PersistedEntry>> persisted) {
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (WorkspaceResource resource : workspace.getAllResources(false)) {
+			resource.jvmClassBundleStream().forEach(bundle -> {
+				for (JvmClassInfo cls : bundle.values()) {
+					if (closed) return;
+					futures.add(CompletableFuture.runAsync(() -> index(bundle, cls, persisted), indexService));
+				}
+			});
+		}
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * @param bundle
+	 * 		Bundle containing the class.
+	 * @param cls
+	 * 		Class to index.
+	 * @param persisted
+	 * 		Persisted entries to reuse if the class has not changed, or {@code null} to always visit the class.
+	 */
+	private void index(@Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls,
+					   @Nullable Map<String, List<PersistedEntry>> persisted) {
+		if (closed) return;
+		ClassEntry entry = persisted == null ? null : getPersistedEntry(persisted, cls);
+		if (entry == null) {
+			entry = visit(cls);
+			dirty = true;
+		}
+		if (entry != null)
+			insert(bundle, cls, entry);
+	}
+
+	/**
+	 * @param cls
+	 * 		Class to visit.
+	 *
+	 * @return Entry of the class content, or {@code null} if the class could not be visited.
+	 */
+	@Nullable
+	private static ClassEntry visit(@Nonnull JvmClassInfo cls) {
+		try {
+			SearchIndexClassVisitor visitor = new SearchIndexClassVisitor();
+			cls.getClassReader().accept(visitor, 0);
+			return visitor.toEntry();
+		} catch (Throwable t) {
+			// Classes not in the index are always treated as search candidates, so this is not a problem.
+			logger.debug("Failed to index class '{}', it will always be visited in searches", cls.getName(), t);
+			return null;
+		}
+	}
+
+	private void insert(@Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls, @Nonnull ClassEntry entry) {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			// The class may have been updated or removed while it was being visited. Removals are done while holding
+			// the lock, so if the class is still in the bundle now, any later removal will also remove this entry.
+			if (closed || bundle.get(cls.getName()) != cls)
+				return;
+			classEntries.put(cls, entry);
+			for (String value : entry.strings())
+				stringPostings.computeIfAbsent(value, k -> newClassSet()).add(cls);
+			for (Number value : entry.numbers())
+				numberPostings.computeIfAbsent(value, k -> newClassSet()).add(cls);
+			for (String value : entry.typeReferences())
+				typePostings.computeIfAbsent(value, k -> newClassSet()).add(cls);
+			for (MemberReference value : entry.memberReferences())
+				memberPostings.computeIfAbsent(value, k -> newClassSet()).add(cls);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private void remove(@Nonnull JvmClassInfo cls) {
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			ClassEntry entry = classEntries.remove(cls);
+			if (entry == null)
+				return;
+			for (String value : entry.strings())
+				removePosting(stringPostings, value, cls);
+			for (Number value : entry.numbers())
+				removePosting(numberPostings, value, cls);
+			for (String value : entry.typeReferences())
+				removePosting(typePostings, value, cls);
+			for (MemberReference value : entry.memberReferences())
+				removePosting(memberPostings, value, cls);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private static <K> void removePosting(@Nonnull Map<K, Set<JvmClassInfo>> postings,
+										  @Nonnull K key, @Nonnull JvmClassInfo cls) {
+		Set<JvmClassInfo> classes = postings.get(key);
+		if (classes != null && classes.remove(cls) && classes.isEmpty())
+			postings.remove(key);
+	}
+
+	private static <K> void collect(@Nonnull Map<K, Set<JvmClassInfo>> postings,
+									@Nonnull Predicate<? super K> predicate,
+									@Nonnull Set<JvmClassInfo> classes) {
+		for (Map.Entry<K, Set<JvmClassInfo>> posting : postings.entrySet())
+			if (predicate.test(posting.getKey()))
+				classes.addAll(posting.getValue());
+	}
+
+	@Nonnull
+	private static Set<JvmClassInfo> newClassSet() {
+		// Class info equality is based on content, but we want to track specific instances in the workspace.
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	/**
+	 * @return Path to store the index of the workspace in, or {@code null} if the workspace cannot be keyed.
+	 * Only workspaces with a file-based primary resource are keyed, using a hash of the file content.
+	 */
+	@Nullable
+	private Path computeStoragePath() {
+		if (!(workspace.getPrimaryResource() instanceof WorkspaceFileResource fileResource))
+			return null;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(fileResource.getFileInfo().getRawContent());
+			return cacheDirectory.resolve(HexFormat.of().formatHex(digest.digest()) + EXTENSION);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not supported", ex);
+		}
+	}
+
+	@Nullable
+	private static ClassEntry getPersistedEntry(@Nonnull Map<String, List<PersistedEntry>> persisted,
+												@Nonnull JvmClassInfo cls) {
+		List<PersistedEntry> entries = persisted.get(cls.getName());
+		if (entries == null)
+			return null;
+		byte[] bytecode = cls.getBytecode();
+		int crc = crc(bytecode);
+		for (PersistedEntry entry : entries)
+			if (entry.length() == bytecode.length && entry.crc() == crc)
+				return entry.entry();
+		return null;
+	}
+
+	private static int crc(@Nonnull byte[] bytecode) {
+		CRC32C crc = new CRC32C();
+		crc.update(bytecode);
+		return (int) crc.getValue();
+	}
+
+	@Nonnull
+	private static Map<String, List<PersistedEntry>> load(@Nonnull Path path) {
+		if (!Files.isRegularFile(path))
+			return Collections.emptyMap();
+
+		// Mark the index as recently used, so it is not the first to be evicted.
+		IOUtil.touchQuietly(path);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ||
+					!RecafBuildConfig.VERSION.equals(in.readUTF())) {
+				logger.debug("Skipping outdated search index: {}", path.getFileName());
+				return Collections.emptyMap();
+			}
+			int classCount = in.readInt();
+			Map<String, List<PersistedEntry>> entries = new HashMap<>(classCount);
+			for (int i = 0; i < classCount; i++) {
+				String name = in.readUTF();
+				int length = in.readInt();
+				int crc = in.readInt();
+				Set<String> strings = readStrings(in);
+				Set<Number> numbers = readNumbers(in);
+				Set<String> typeReferences = readStrings(in);
+				Set<MemberReference> memberReferences = readMembers(in);
+				Map<String, long[]> methodOpcodeFilters = readOpcodeFilters(in);
+				ClassEntry entry = new ClassEntry(strings, numbers, typeReferences, memberReferences, methodOpcodeFilters);
+				entries.computeIfAbsent(name, n -> new ArrayList<>(1)).add(new PersistedEntry(length, crc, entry));
+			}
+			logger.debug("Loaded search index with {} classes", classCount);
+			return entries;
+		} catch (Throwable t) {
+			logger.warn("Failed to read search index '{}', the workspace will be indexed normally", path.getFileName(), t);
+			return Collections.emptyMap();
+		}
+	}
+
+	private void save() {
+		Path path = storagePath;
+		if (path == null)
+			return;
+
+		// Snapshot the current entries so that we do not block updates while writing.
+		Map<JvmClassInfo, ClassEntry> entries;
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			entries = new IdentityHashMap<>(classEntries);
+		} finally {
+			read.unlock();
+		}
+
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(path.getParent());
+
+			// Write to a temporary file first, so that an interrupted write never leaves a partial index behind.
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(RecafBuildConfig.VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<JvmClassInfo, ClassEntry> e : entries.entrySet()) {
+					JvmClassInfo cls = e.getKey();
+					ClassEntry entry = e.getValue();
+					byte[] bytecode = cls.getBytecode();
+					out.writeUTF(cls.getName());
+					out.writeInt(bytecode.length);
+					out.writeInt(crc(bytecode));
+					writeStrings(out, entry.strings());
+					writeNumbers(out, entry.numbers());
+					writeStrings(out, entry.typeReferences());
+					writeMembers(out, entry.memberReferences());
+					writeOpcodeFilters(out, entry.methodOpcodeFilters());
+				}
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			dirty = false;
+			logger.debug("Wrote search index with {} classes", entries.size());
+		} catch (IOException ex) {
+			logger.warn("Failed to write search index '{}'", path.getFileName(), ex);
+			try {
+				Files.deleteIfExists(temp);
+			} catch (IOException ignored) {
+				// Nothing else we can do
+			}
+			return;
+		}
+
+		// Remove the least recently used indices if the directory is over its size limit.
+		try {
+			int evicted = IOUtil.evictLeastRecentlyUsed(path.getParent(), EXTENSION, maxCacheSize);
+			if (evicted > 0)
+				logger.debug("Evicted {} search indices exceeding the cache size limit", evicted);
+		} catch (IOException ex) {
+			logger.warn("Failed to evict search indices", ex);
+		}
+	}
+
+	// Strings are written in modified UTF-8, which like the class file format preserves unpaired surrogates.
+	// Constant pool strings are limited to the same length as 'writeUTF' allows, so there is no risk of overflow.
+
+	private static void writeStrings(@Nonnull DataOutputStream out, @Nonnull Set<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values)
+			out.writeUTF(value);
+	}
+
+	@Nonnull
+	private static Set<String> readStrings(@Nonnull DataInputStream in) throws IOException {
+		int count = in.readInt();
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++)
+			values[i] = in.readUTF();
+		return Set.of(values);
+	}
+
+	private static void writeNumbers(@Nonnull DataOutputStream out, @Nonnull Set<Number> values) throws IOException {
+		out.writeInt(values.size());
+		for (Number value : values) {
+			switch (value) {
+				case Integer i -> {
+					out.writeByte(NUM_INT);
+					out.writeInt(i);
+				}
+				case Long l -> {
+					out.writeByte(NUM_LONG);
+					out.writeLong(l);
+				}
+				case Float f -> {
+					out.writeByte(NUM_FLOAT);
+					out.writeInt(Float.floatToRawIntBits(f));
+				}
+				case Double d -> {
+					out.writeByte(NUM_DOUBLE);
+					out.writeLong(Double.doubleToRawLongBits(d));
+				}
+				case Byte b -> {
+					out.writeByte(NUM_BYTE);
+					out.writeByte(b);
+				}
+				case Short s -> {
+					out.writeByte(NUM_SHORT);
+					out.writeShort(s);
+				}
+				default -> throw new IOException("Unsupported number type: " + value.getClass().getName());
+			}
+		}
+	}
+
+	@Nonnull
+	private static Set<Number> readNumbers(@Nonnull DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Number[] values = new Number[count];
+		for (int i = 0; i < count; i++) {
+			int tag = in.readByte();
+			values[i] = switch (tag) {
+				case NUM_INT -> in.readInt();
+				case NUM_LONG -> in.readLong();
+				case NUM_FLOAT -> Float.intBitsToFloat(in.readInt());
+				case NUM_DOUBLE -> Double.longBitsToDouble(in.readLong());
+				case NUM_BYTE -> in.readByte();
+				case NUM_SHORT -> in.readShort();
+				default -> throw new IOException("Unknown number tag: " + tag);
+			};
+		}
+		return Set.of(values);
+	}
+
+	private static void writeMembers(@Nonnull DataOutputStream out, @Nonnull Set<MemberReference> values) throws IOException {
+		out.writeInt(values.size());
+		for (MemberReference value : values) {
+			out.writeUTF(value.getOwner());
+			out.writeUTF(value.getName());
+			out.writeUTF(value.getDesc());
+		}
+	}
+
+	@Nonnull
+	private static Set<MemberReference> readMembers(@Nonnull DataInputStream in) throws IOException {
+		int count = in.readInt();
+		MemberReference[] values = new MemberReference[count];
+		for (int i = 0; i < count; i++)
+			values[i] = new MemberReference(in.readUTF(), in.readUTF(), in.readUTF());
+		return Set.of(values);
+	}
+
+	private static void writeOpcodeFilters(@Nonnull DataOutputStream out, @Nonnull Map<String, long[]> values) throws IOException {
+		out.writeInt(values.size());
+		for (Map.Entry<String, long[]> value : values.entrySet()) {
+			out.writeUTF(value.getKey());
+			long[] filter = value.getValue();
+			out.writeByte(filter.length);
+			for (long word : filter)
+				out.writeLong(word);
+		}
+	}
+
+	@Nonnull
+	private static Map<String, long[]> readOpcodeFilters(@Nonnull DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Map<String, long[]> values = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String key = in.readUTF();
+			int words = in.readByte();
+			if (!OpcodeGramFilter.isValidSize(words))
+				throw new IOException("Invalid opcode filter size: " + words);
+			long[] filter = new long[words];
+			for (int j = 0; j < filter.length; j++)
+				filter[j] = in.readLong();
+			values.put(key, filter);
+		}
+		return values;
+	}
+
+	/**
+	 * Indexed content of a single class.
+	 *
+	 * @param strings
+	 * 		Constant string values.
+	 * @param numbers
+	 * 		Constant numeric values.
+	 * @param typeReferences
+	 * 		Internal names of referenced types.
+	 * @param memberReferences
+	 * 		Referenced fields and methods.
+	 * @param methodOpcodeFilters
+	 * 		Opcode n-gram filters of methods with code, keyed by method name and descriptor concatenation.
+	 */
+	record ClassEntry(@Nonnull Set<String> strings,
+					  @Nonnull Set<Number> numbers,
+					  @Nonnull Set<String> typeReferences,
+					  @Nonnull Set<MemberReference> memberReferences,
+					  @Nonnull Map<String, long[]> methodOpcodeFilters) {
+	}
+
+	/**
+	 * Class entry read from a persisted index, along with the information used to validate the class is unchanged.
+	 *
+	 * @param length
+	 * 		Bytecode length of the indexed class.
+	 * @param crc
+	 * 		Bytecode checksum of the indexed class.
+	 * @param entry
+	 * 		Indexed content of the class.
+	 */
+	private record PersistedEntry(int length, int crc, @Nonnull ClassEntry entry) {
+	}
+}
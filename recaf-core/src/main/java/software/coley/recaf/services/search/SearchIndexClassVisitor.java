@@ -0,0 +1,322 @@
+package software.coley.recaf.services.search;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.*;
+import software.coley.recaf.RecafConstants;
+import software.coley.recaf.services.search.query.AbstractValueQuery;
+import software.coley.recaf.services.search.query.ReferenceQuery;
+import software.coley.recaf.services.search.result.MemberReferenceResult.MemberReference;
+import software.coley.recaf.util.Types;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the values and references of a class that {@link AbstractValueQuery} and {@link ReferenceQuery}
+ * would test against, along with the opcode n-grams of each method, for inclusion in a {@link SearchIndex}.
+ * <p/>
+ * The collected content is allowed to be a superset of what the queries look at, but never a subset.
+ * Otherwise, the index would exclude classes that a full scan would yield results for.
+ *
+ * @author Matt Coley
+ */
+class SearchIndexClassVisitor extends ClassVisitor {
+	private static final Number[] OP_TO_VALUE = {
+			0, // NOP
+			0, // NULL
+			-1, 0, 1, 2, 3, 4, 5, // ICONST_X
+			0L, 1L, // LCONST_X
+			0F, 1F, 2F, // FCONST_X
+			0D, 1D // DCONST_X
+	};
+	private final Set<String> strings = new HashSet<>();
+	private final Set<Number> numbers = new HashSet<>();
+	private final Set<String> typeReferences = new HashSet<>();
+	private final Set<MemberReference> memberReferences = new HashSet<>();
+	private final Map<String, long[]> methodOpcodeFilters = new HashMap<>();
+
+	SearchIndexClassVisitor() {
+		super(RecafConstants.getAsmVersion());
+	}
+
+	/**
+	 * @return Entry of the collected class content.
+	 */
+	@Nonnull
+	SearchIndex.ClassEntry toEntry() {
+		return new SearchIndex.ClassEntry(Set.copyOf(strings), Set.copyOf(numbers),
+				Set.copyOf(typeReferences), Set.copyOf(memberReferences), Map.copyOf(methodOpcodeFilters));
+	}
+
+	private void addValue(@Nullable Object value) {
+		if (value instanceof String text)
+			strings.add(text);
+		else if (value instanceof Number number)
+			numbers.add(number);
+	}
+
+	private void addType(@Nullable String type) {
+		if (type != null)
+			typeReferences.add(type);
+	}
+
+	private void addTypeDesc(@Nonnull String desc) {
+		addType(Type.getType(desc).getInternalName());
+	}
+
+	private void addMethodDescTypes(@Nonnull String desc) {
+		Type methodType = Type.getMethodType(desc);
+		addType(methodType.getReturnType().getInternalName());
+		for (Type argumentType : methodType.getArgumentTypes())
+			addType(argumentType.getInternalName());
+	}
+
+	private void addMember(@Nonnull String owner, @Nonnull String name, @Nonnull String desc) {
+		memberReferences.add(new MemberReference(owner, name, desc));
+	}
+
+	@Nonnull
+	private AnnotationVisitor annotation(@Nonnull String desc) {
+		addTypeDesc(desc);
+		return new AnnotationCollector();
+	}
+
+	@Override
+	public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+		addValue(value);
+		addTypeDesc(desc);
+		return new FieldCollector();
+	}
+
+	@Override
+	public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+		if (exceptions != null)
+			for (String exception : exceptions)
+				addType(exception);
+		addMethodDescTypes(desc);
+		return new MethodCollector(name + desc);
+	}
+
+	@Override
+	public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+		return annotation(desc);
+	}
+
+	@Override
+	public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+		return annotation(desc);
+	}
+
+	/**
+	 * Collects content from fields.
+	 */
+	private class FieldCollector extends FieldVisitor {
+		private FieldCollector() {
+			super(RecafConstants.getAsmVersion());
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+			return annotation(desc);
+		}
+	}
+
+	/**
+	 * Collects content from methods.
+	 */
+	private class MethodCollector extends MethodVisitor {
+		private final String key;
+		private OpcodeGramFilter.Builder opcodes;
+
+		private MethodCollector(@Nonnull String key) {
+			super(RecafConstants.getAsmVersion());
+			this.key = key;
+		}
+
+		@Override
+		public void visitCode() {
+			opcodes = new OpcodeGramFilter.Builder();
+		}
+
+		@Override
+		public void visitEnd() {
+			if (opcodes != null)
+				methodOpcodeFilters.put(key, opcodes.build());
+		}
+
+		private void addOpcode(int opcode) {
+			if (opcodes != null)
+				opcodes.add(opcode);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			addOpcode(opcode);
+			if (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.DCONST_1)
+				addValue(OP_TO_VALUE[opcode]);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			addOpcode(opcode);
+			if (opcode != Opcodes.NEWARRAY)
+				addValue(operand);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int varIndex) {
+			addOpcode(opcode);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			addOpcode(opcode);
+			addType(type);
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+			addOpcode(opcode);
+			addMember(owner, name, desc);
+			addTypeDesc(desc);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean isInterface) {
+			addOpcode(opcode);
+			addMember(owner, name, desc);
+			addMethodDescTypes(desc);
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String desc, Handle bsmHandle, Object... bsmArgs) {
+			addOpcode(Opcodes.INVOKEDYNAMIC);
+			for (Object bsmArg : bsmArgs)
+				addValue(bsmArg);
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			addOpcode(opcode);
+		}
+
+		@Override
+		public void visitIincInsn(int varIndex, int increment) {
+			addOpcode(Opcodes.IINC);
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+			addOpcode(Opcodes.TABLESWITCH);
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			addOpcode(Opcodes.LOOKUPSWITCH);
+		}
+
+		@Override
+		public void visitLdcInsn(Object value) {
+			addOpcode(Opcodes.LDC);
+			addValue(value);
+			if (value instanceof Handle handle) {
+				addMember(handle.getOwner(), handle.getName(), handle.getDesc());
+				addMethodDescTypes(handle.getDesc());
+			} else if (value instanceof Type type) {
+				addType(type.getInternalName());
+			}
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String desc, int numDimensions) {
+			addOpcode(Opcodes.MULTIANEWARRAY);
+			if (Types.isValidDesc(desc))
+				addTypeDesc(desc);
+		}
+
+		@Override
+		public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+			addType(type);
+		}
+
+		@Override
+		public void visitLocalVariable(String name, String desc, String signature, Label start, Label end, int index) {
+			if (Types.isValidDesc(desc) && !Types.isPrimitive(desc))
+				addTypeDesc(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotationDefault() {
+			return new AnnotationCollector();
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitParameterAnnotation(int parameter, String desc, boolean visible) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end,
+															  int[] index, String desc, boolean visible) {
+			return annotation(desc);
+		}
+	}
+
+	/**
+	 * Collects content from annotations.
+	 */
+	private class AnnotationCollector extends AnnotationVisitor {
+		private AnnotationCollector() {
+			super(RecafConstants.getAsmVersion());
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			addValue(value);
+		}
+
+		@Override
+		public void visitEnum(String name, String desc, String value) {
+			// Matches the argument order used by the reference query for enum constants
+			addMember(Type.getType(desc).getInternalName(), desc, value);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String desc) {
+			return annotation(desc);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			return this;
+		}
+	}
+}
@@ -4,13 +4,21 @@
 import jakarta.annotation.Nullable;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.cdi.EagerInitialization;
 import software.coley.recaf.info.AndroidClassInfo;
+import software.coley.recaf.info.ClassInfo;
 import software.coley.recaf.info.FileInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.path.*;
 import software.coley.recaf.services.Service;
+import software.coley.recaf.services.file.RecafDirectoriesConfig;
+import software.coley.recaf.services.search.match.ClassConstantPool;
+import software.coley.recaf.services.search.match.ConstantPoolPrefilter;
 import software.coley.recaf.services.search.query.*;
 import software.coley.recaf.services.search.result.*;
+import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.util.threading.ThreadUtil;
 import software.coley.recaf.workspace.model.Workspace;
@@ -18,9 +26,14 @@
 import software.coley.recaf.workspace.model.bundle.FileBundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
-import java.util.Collections;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Outline for running various searches.
@@ -29,15 +42,80 @@
  * @see NumberQuery
  * @see ReferenceQuery
  * @see StringQuery
+ * @see SearchIndex
  */
 @ApplicationScoped
+@EagerInitialization
 public class SearchService implements Service {
 	public static final String SERVICE_ID = "search";
+	private static final Logger logger = Logging.get(SearchService.class);
+	private static final int BATCH_SIZE = 16;
+	private final ExecutorService searchPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID);
+	private final ExecutorService indexPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID + "-index");
+	private final Map<Workspace, SearchIndex> indices = Collections.synchronizedMap(new IdentityHashMap<>());
 	private final SearchServiceConfig config;
+	private final Path indexDirectory;
 
 	@Inject
-	public SearchService(SearchServiceConfig config) {
+	public SearchService(@Nonnull SearchServiceConfig config,
+						 @Nonnull WorkspaceManager workspaceManager,
+						 @Nonnull RecafDirectoriesConfig directories) {
 		this.config = config;
+		indexDirectory = directories.getCacheDirectory().resolve("search-index");
+
+		// Index workspaces when they are opened, and drop their indices when closed.
+		workspaceManager.addWorkspaceOpenListener(workspace -> {
+			if (config.getUseIndex().getValue())
+				createIndex(workspace);
+		});
+		workspaceManager.addWorkspaceCloseListener(this::removeIndex);
+	}
+
+	/**
+	 * Creates an index for the given workspace, which will be used by searches against the workspace
+	 * once it has been populated. If the workspace already has an index, the existing index is returned.
+	 *
+	 * @param workspace
+	 * 		Workspace to index.
+	 *
+	 * @return Index of the workspace. See {@link SearchIndex#whenReady()} to wait on its population.
+	 */
+	@Nonnull
+	public SearchIndex createIndex(@Nonnull Workspace workspace) {
+		synchronized (indices) {
+			SearchIndex index = indices.get(workspace);
+			if (index == null) {
+				Path cacheDirectory = config.getPersistIndex().getValue() ? indexDirectory : null;
+				long maxCacheSize = Math.max(0, config.getIndexCacheMaxSizeMb().getValue()) * 1024L * 1024L;
+				index = new SearchIndex(workspace, cacheDirectory, maxCacheSize, indexPool);
+				indices.put(workspace, index);
+				index.build();
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to get the index of.
+	 *
+	 * @return Index of the workspace, or {@code null} if the workspace has not been indexed.
+	 */
+	@Nullable
+	public SearchIndex getIndex(@Nonnull Workspace workspace) {
+		return indices.get(workspace);
+	}
+
+	/**
+	 * Closes and removes the index of the given workspace. Searches against the workspace will visit all classes.
+	 *
+	 * @param workspace
+	 * 		Workspace to remove the index of.
+	 */
+	public void removeIndex(@Nonnull Workspace workspace) {
+		SearchIndex index = indices.remove(workspace);
+		if (index != null)
+			index.close();
 	}
 
 	/**
@@ -93,26 +171,127 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 	 */
 	@Nonnull
 	public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries, @Nonnull SearchFeedback feedback) {
+		// Each worker collects results into its own buffer, so that workers do not contend
+		// over a shared sorted set. The buffers are merged into the sorted results once the search is done.
+		Queue<List<Result<?>>> buffers = new ConcurrentLinkedQueue<>();
+		run(workspace, queries, feedback, () -> {
+			List<Result<?>> buffer = new ArrayList<>();
+			buffers.add(buffer);
+			return buffer::add;
+		});
+
+		// All workers have completed at this point, so reading the buffers is safe.
 		Results results = new Results();
+		for (List<Result<?>> buffer : buffers)
+			results.addAll(buffer);
+		return results;
+	}
+
+	/**
+	 * Runs a search, passing results to the given consumer as they are found rather than collecting them
+	 * into {@link Results}. The search is stopped once the result limit is reached.
+	 *
+	 * @param workspace
+	 * 		Workspace to search in.
+	 * @param query
+	 * 		Query of search parameters.
+	 * @param resultConsumer
+	 * 		Consumer to pass results to. Calls to the consumer are never concurrent, but may come from different threads.
+	 * @param limit
+	 * 		Maximum number of results to pass to the consumer. Negative for no limit.
+	 *
+	 * @return Number of results passed to the consumer.
+	 */
+	public int stream(@Nonnull Workspace workspace, @Nonnull Query query,
+					  @Nonnull Consumer<Result<?>> resultConsumer, int limit) {
+		return stream(workspace, Collections.singletonList(query), SearchFeedback.NO_OP, resultConsumer, limit);
+	}
+
+	/**
+	 * Runs a search, passing results to the given consumer as they are found rather than collecting them
+	 * into {@link Results}. The search is stopped once the result limit is reached.
+	 *
+	 * @param workspace
+	 * 		Workspace to search in.
+	 * @param queries
+	 * 		Multiple queries of search parameters.
+	 * @param feedback
+	 * 		Search visitation feedback. Allows early cancellation of searches.
+	 * @param resultConsumer
+	 * 		Consumer to pass results to. Calls to the consumer are never concurrent, but may come from different threads.
+	 * @param limit
+	 * 		Maximum number of results to pass to the consumer. Negative for no limit.
+	 *
+	 * @return Number of results passed to the consumer.
+	 */
+	public int stream(@Nonnull Workspace workspace, @Nonnull List<Query> queries, @Nonnull SearchFeedback feedback,
+					  @Nonnull Consumer<Result<?>> resultConsumer, int limit) {
+		LimitedSearchFeedback limitedFeedback = new LimitedSearchFeedback(feedback, limit);
+		Consumer<Result<?>> limitedConsumer = result -> {
+			synchronized (limitedFeedback) {
+				if (limitedFeedback.tryCount())
+					resultConsumer.accept(result);
+			}
+		};
+		run(workspace, queries, limitedFeedback, () -> limitedConsumer);
+		synchronized (limitedFeedback) {
+			return limitedFeedback.count;
+		}
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to search in.
+	 * @param queries
+	 * 		Multiple queries of search parameters.
+	 * @param feedback
+	 * 		Search visitation feedback. Allows early cancellation of searches.
+	 * @param consumerFactory
+	 * 		Supplier of consumers to pass accepted results to. Called once per worker thread.
+	 */
+	private void run(@Nonnull Workspace workspace, @Nonnull List<Query> queries, @Nonnull SearchFeedback feedback,
+					 @Nonnull Supplier<Consumer<Result<?>>> consumerFactory) {
+
+		// The workspace index is only used once it has been populated.
+		SearchIndex workspaceIndex = getIndex(workspace);
+		SearchIndex index = workspaceIndex != null && workspaceIndex.isReady() ? workspaceIndex : null;
 
 		// Build visitors
 		AndroidClassSearchVisitor androidClassVisitorTemp = null;
 		JvmClassSearchVisitor jvmClassVisitorTemp = null;
 		FileSearchVisitor fileVisitorTemp = null;
+		List<FusableJvmClassQuery> fusableQueries = new ArrayList<>();
+		boolean fuseQueries = config.getFuseQueries().getValue();
 		for (Query query : queries) {
 			if (query instanceof AndroidClassQuery androidClassQuery)
 				androidClassVisitorTemp = androidClassQuery.visitor(androidClassVisitorTemp);
-			if (query instanceof JvmClassQuery jvmClassQuery)
+			if (fuseQueries && query instanceof FusableJvmClassQuery fusableQuery)
+				fusableQueries.add(fusableQuery);
+			else if (query instanceof IndexedQuery indexedQuery)
+				jvmClassVisitorTemp = indexedQuery.visitor(jvmClassVisitorTemp, index);
+			else if (query instanceof JvmClassQuery jvmClassQuery)
 				jvmClassVisitorTemp = jvmClassQuery.visitor(jvmClassVisitorTemp);
 			if (query instanceof FileQuery fileQuery)
 				fileVisitorTemp = fileQuery.visitor(fileVisitorTemp);
 		}
+
+		// Run fusable queries in a single parse of each class, rather than one parse per query.
+		if (!fusableQueries.isEmpty())
+			jvmClassVisitorTemp = new FusedJvmClassSearchVisitor(fusableQueries, jvmClassVisitorTemp);
 		AndroidClassSearchVisitor androidClassVisitor = androidClassVisitorTemp;
 		JvmClassSearchVisitor jvmClassVisitor = jvmClassVisitorTemp;
 		FileSearchVisitor fileVisitor = fileVisitorTemp;
 
-		// Run visitors on contents of workspace
-		ExecutorService service = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID + ":" + queries.hashCode());
+		// Narrow down the JVM classes to visit with the workspace index, when all class queries support it.
+		// Otherwise, we fall back to visiting all classes.
+		Set<JvmClassInfo> candidates = index == null || jvmClassVisitor == null ? null : lookupCandidates(index, queries);
+
+		// Skip JVM classes whose constant pool cannot contain matches, when all class queries support it.
+		ConstantPoolPrefilter prefilter = jvmClassVisitor == null || !config.getPrefilterClasses().getValue() ?
+				null : combinePrefilters(queries);
+
+		// Collect the contents of the workspace to visit
+		List<WorkItem> items = new ArrayList<>();
 		WorkspacePathNode workspaceNode = PathNodes.workspacePath(workspace);
 		for (WorkspaceResource resource : workspace.getAllResources(false)) {
 			ResourcePathNode resourceNode = workspaceNode.child(resource);
@@ -121,18 +300,12 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 				for (AndroidClassBundle bundle : resource.getAndroidClassBundles().values()) {
 					BundlePathNode bundleNode = resourceNode.child(bundle);
 					for (AndroidClassInfo classInfo : bundle) {
-						if (feedback.hasRequestedCancellation())
-							break;
 						if (!feedback.doVisitClass(classInfo))
 							continue;
 						ClassPathNode classPath = bundleNode
 								.child(classInfo.getPackageName())
 								.child(classInfo);
-						service.submit(() -> {
-							if (feedback.hasRequestedCancellation())
-								return;
-							androidClassVisitor.visit(getResultSink(results, feedback), classPath, classInfo);
-						});
+						items.add(new WorkItem(classPath, sink -> androidClassVisitor.visit(sink, classPath, classInfo)));
 					}
 				}
 			}
@@ -142,18 +315,17 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 				resource.jvmClassBundleStream().forEach(bundle -> {
 					BundlePathNode bundlePathNode = resourceNode.child(bundle);
 					for (JvmClassInfo classInfo : bundle) {
-						if (feedback.hasRequestedCancellation())
-							break;
+						if (candidates != null && !index.isCandidate(classInfo, candidates))
+							continue;
 						if (!feedback.doVisitClass(classInfo))
 							continue;
 						ClassPathNode classPath = bundlePathNode
 								.child(classInfo.getPackageName())
 								.child(classInfo);
-						service.submit(() -> {
-							if (feedback.hasRequestedCancellation())
-								return;
-							jvmClassVisitor.visit(getResultSink(results, feedback), classPath, classInfo);
-						});
+						items.add(new WorkItem(classPath, sink -> {
+							if (prefilter == null || prefilter.mayMatch(new ClassConstantPool(classInfo)))
+								jvmClassVisitor.visit(sink, classPath, classInfo);
+						}));
 					}
 				});
 			}
@@ -163,32 +335,101 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 				FileBundle fileBundle = resource.getFileBundle();
 				BundlePathNode bundleNode = resourceNode.child(fileBundle);
 				for (FileInfo fileInfo : fileBundle) {
-					if (feedback.hasRequestedCancellation())
-						break;
 					if (!feedback.doVisitFile(fileInfo))
 						continue;
 					FilePathNode filePath = bundleNode
 							.child(fileInfo.getDirectoryName())
 							.child(fileInfo);
-					service.submit(() -> {
-						if (feedback.hasRequestedCancellation())
-							return;
-						fileVisitor.visit(getResultSink(results, feedback), filePath, fileInfo);
-					});
+					items.add(new WorkItem(filePath, sink -> fileVisitor.visit(sink, filePath, fileInfo)));
 				}
 			}
 		}
+		if (items.isEmpty() || feedback.hasRequestedCancellation())
+			return;
 
-		ThreadUtil.blockUntilComplete(service);
-		return results;
+		// Workers pull batches of items from a shared cursor until none remain, which balances uneven
+		// item costs without the overhead of a task per item. The calling thread works alongside the pool.
+		AtomicInteger cursor = new AtomicInteger();
+		Runnable worker = () -> {
+			ResultSink sink = getResultSink(consumerFactory.get(), feedback);
+			int start;
+			while ((start = cursor.getAndAdd(BATCH_SIZE)) < items.size()) {
+				int end = Math.min(start + BATCH_SIZE, items.size());
+				for (int i = start; i < end; i++) {
+					if (feedback.hasRequestedCancellation())
+						return;
+					WorkItem item = items.get(i);
+					try {
+						item.action().accept(sink);
+					} catch (Exception ex) {
+						logger.error("Search visitor failed on '{}', skipping", item.path(), ex);
+						feedback.onVisitFailure(item.path(), ex);
+					}
+				}
+			}
+		};
+		int batches = (items.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+		int workerCount = Math.min(batches, Math.max(1, config.getMaxThreads().getValue()));
+		List<Future<?>> futures = new ArrayList<>(workerCount - 1);
+		for (int i = 1; i < workerCount; i++)
+			futures.add(searchPool.submit(worker));
+		worker.run();
+		for (Future<?> future : futures)
+			ThreadUtil.blockUntilComplete(future);
+	}
+
+	/**
+	 * @param index
+	 * 		Index to look up candidates in.
+	 * @param queries
+	 * 		Queries to look up candidates for.
+	 *
+	 * @return Union of candidate classes of the given queries, or {@code null} if any class query does not support
+	 * the index, in which case all classes must be visited.
+	 */
+	@Nullable
+	private static Set<JvmClassInfo> lookupCandidates(@Nonnull SearchIndex index, @Nonnull List<Query> queries) {
+		Set<JvmClassInfo> candidates = null;
+		for (Query query : queries) {
+			if (query instanceof IndexedQuery indexedQuery) {
+				Set<JvmClassInfo> queryCandidates = indexedQuery.lookupCandidates(index);
+				if (candidates == null) candidates = queryCandidates;
+				else candidates.addAll(queryCandidates);
+			} else if (query instanceof JvmClassQuery) {
+				return null;
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * @param queries
+	 * 		Queries to combine the prefilters of.
+	 *
+	 * @return Prefilter passing classes that pass any of the query prefilters, or {@code null} if any class query
+	 * does not support prefiltering, in which case all classes must be visited.
+	 */
+	@Nullable
+	private static ConstantPoolPrefilter combinePrefilters(@Nonnull List<Query> queries) {
+		ConstantPoolPrefilter combined = null;
+		for (Query query : queries) {
+			if (query instanceof PrefilteredQuery prefilteredQuery) {
+				ConstantPoolPrefilter prefilter = prefilteredQuery.prefilter();
+				if (prefilter == null) return null;
+				combined = combined == null ? prefilter : combined.or(prefilter);
+			} else if (query instanceof JvmClassQuery) {
+				return null;
+			}
+		}
+		return combined;
 	}
 
 	@Nonnull
-	private static ResultSink getResultSink(@Nonnull Results results, @Nullable SearchFeedback feedback) {
+	private static ResultSink getResultSink(@Nonnull Consumer<Result<?>> resultConsumer, @Nullable SearchFeedback feedback) {
 		return (path, value) -> {
 			Result<?> result = createResult(path, value);
 			if (feedback == null || feedback.doAcceptResult(result))
-				results.add(result);
+				resultConsumer.accept(result);
 		};
 	}
 
@@ -202,11 +443,81 @@ private static Result<?> createResult(@Nonnull PathNode<?> path, @Nonnull Object
 			return new ClassReferenceResult(path, (ClassReferenceResult.ClassReference) value);
 		if (value instanceof MemberReferenceResult.MemberReference)
 			return new MemberReferenceResult(path, (MemberReferenceResult.MemberReference) value);
+		if (value instanceof BinaryResult.BinaryMatch)
+			return new BinaryResult(path, (BinaryResult.BinaryMatch) value);
+		if (value instanceof InstructionResult.InstructionSequence)
+			return new InstructionResult(path, (InstructionResult.InstructionSequence) value);
 
 		// Unknown value type
 		throw new UnsupportedOperationException("Unsupported search result value type: " + value.getClass().getName());
 	}
 
+	/**
+	 * Single unit of search work, visiting one class or file.
+	 *
+	 * @param path
+	 * 		Path to the visited class or file.
+	 * @param action
+	 * 		Visitation of the class or file, feeding results into the given sink.
+	 */
+	private record WorkItem(@Nonnull PathNode<?> path, @Nonnull Consumer<ResultSink> action) {}
+
+	/**
+	 * Feedback wrapper which requests cancellation once a result limit is reached.
+	 */
+	private static class LimitedSearchFeedback implements SearchFeedback {
+		private final SearchFeedback delegate;
+		private final int limit;
+		private volatile boolean limitReached;
+		private int count;
+
+		private LimitedSearchFeedback(@Nonnull SearchFeedback delegate, int limit) {
+			this.delegate = delegate;
+			this.limit = limit;
+			limitReached = limit == 0;
+		}
+
+		/**
+		 * Must be called while synchronized on this instance.
+		 *
+		 * @return {@code true} when the result can be counted towards the limit.
+		 * {@code false} when the limit has already been reached.
+		 */
+		private boolean tryCount() {
+			if (limitReached)
+				return false;
+			count++;
+			if (limit >= 0 && count >= limit)
+				limitReached = true;
+			return true;
+		}
+
+		@Override
+		public boolean hasRequestedCancellation() {
+			return limitReached || delegate.hasRequestedCancellation();
+		}
+
+		@Override
+		public boolean doVisitClass(@Nonnull ClassInfo cls) {
+			return delegate.doVisitClass(cls);
+		}
+
+		@Override
+		public boolean doVisitFile(@Nonnull FileInfo file) {
+			return delegate.doVisitFile(file);
+		}
+
+		@Override
+		public boolean doAcceptResult(@Nonnull Result<?> result) {
+			return delegate.doAcceptResult(result);
+		}
+
+		@Override
+		public void onVisitFailure(@Nonnull PathNode<?> path, @Nonnull Exception error) {
+			delegate.onVisitFailure(path, error);
+		}
+	}
+
 	@Nonnull
 	@Override
 	public String getServiceId() {
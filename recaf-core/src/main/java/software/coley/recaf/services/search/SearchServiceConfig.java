@@ -1,8 +1,12 @@
 package software.coley.recaf.services.search;
 
+import jakarta.annotation.Nonnull;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import software.coley.observables.ObservableBoolean;
+import software.coley.observables.ObservableInteger;
 import software.coley.recaf.config.BasicConfigContainer;
+import software.coley.recaf.config.BasicConfigValue;
 import software.coley.recaf.config.ConfigGroups;
 import software.coley.recaf.services.ServiceConfig;
 
@@ -13,8 +17,74 @@
  */
 @ApplicationScoped
 public class SearchServiceConfig extends BasicConfigContainer implements ServiceConfig {
+	private final ObservableBoolean useIndex = new ObservableBoolean(true);
+	private final ObservableBoolean persistIndex = new ObservableBoolean(false);
+	private final ObservableInteger indexCacheMaxSizeMb = new ObservableInteger(256);
+	private final ObservableBoolean fuseQueries = new ObservableBoolean(true);
+	private final ObservableBoolean prefilterClasses = new ObservableBoolean(true);
+	private final ObservableInteger maxThreads = new ObservableInteger(Runtime.getRuntime().availableProcessors());
+
 	@Inject
 	public SearchServiceConfig() {
 		super(ConfigGroups.SERVICE_ANALYSIS, SearchService.SERVICE_ID + CONFIG_SUFFIX);
+		// Add values
+		addValue(new BasicConfigValue<>("use-index", boolean.class, useIndex));
+		addValue(new BasicConfigValue<>("persist-index", boolean.class, persistIndex));
+		addValue(new BasicConfigValue<>("index-cache-max-size-mb", int.class, indexCacheMaxSizeMb));
+		addValue(new BasicConfigValue<>("fuse-queries", boolean.class, fuseQueries));
+		addValue(new BasicConfigValue<>("prefilter-classes", boolean.class, prefilterClasses));
+		addValue(new BasicConfigValue<>("max-threads", int.class, maxThreads));
+	}
+
+	/**
+	 * @return {@code true} to build a {@link SearchIndex} when workspaces are opened.
+	 */
+	@Nonnull
+	public ObservableBoolean getUseIndex() {
+		return useIndex;
+	}
+
+	/**
+	 * @return {@code true} to persist {@link SearchIndex} contents in the cache directory,
+	 * allowing re-opened inputs to skip indexing unchanged classes.
+	 */
+	@Nonnull
+	public ObservableBoolean getPersistIndex() {
+		return persistIndex;
+	}
+
+	/**
+	 * @return Maximum total size in megabytes of persisted {@link SearchIndex} contents.
+	 * The least recently used indices are removed when exceeded.
+	 */
+	@Nonnull
+	public ObservableInteger getIndexCacheMaxSizeMb() {
+		return indexCacheMaxSizeMb;
+	}
+
+	/**
+	 * @return {@code true} to run all JVM class queries of a search in a single parse of each class.
+	 * {@code false} to parse each class once per query.
+	 */
+	@Nonnull
+	public ObservableBoolean getFuseQueries() {
+		return fuseQueries;
+	}
+
+	/**
+	 * @return {@code true} to check the constant pool of JVM classes before parsing them,
+	 * skipping classes that cannot contain any matches.
+	 */
+	@Nonnull
+	public ObservableBoolean getPrefilterClasses() {
+		return prefilterClasses;
+	}
+
+	/**
+	 * @return Maximum number of threads to work on a single search, including the thread starting the search.
+	 */
+	@Nonnull
+	public ObservableInteger getMaxThreads() {
+		return maxThreads;
 	}
 }
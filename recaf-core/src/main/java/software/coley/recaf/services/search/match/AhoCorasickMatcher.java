@@ -0,0 +1,146 @@
+package software.coley.recaf.services.search.match;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Multi-string matcher that checks if a value contains any of the given keys.
+ * <p/>
+ * Keys are compiled into an Aho-Corasick automaton, so a value is checked against all keys in a single pass
+ * over its characters, regardless of the number of keys.
+ *
+ * @author Matt Coley
+ */
+public class AhoCorasickMatcher implements MultiStringMatcher {
+	private final boolean caseSensitive;
+
+	/**
+	 * @param caseSensitive
+	 * 		Whether matching should be case-sensitive or not.
+	 */
+	public AhoCorasickMatcher(boolean caseSensitive) {
+		this.caseSensitive = caseSensitive;
+	}
+
+	@Override
+	public boolean test(@Nonnull Collection<String> keys, @Nonnull String target) {
+		return compile(keys).test(target);
+	}
+
+	@Nonnull
+	@Override
+	public Predicate<String> compile(@Nonnull Collection<String> keys) {
+		return new Automaton(keys, caseSensitive);
+	}
+
+	/**
+	 * Matches {@link String#regionMatches(boolean, int, String, int, int)} case folding.
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/**
+	 * Compiled automaton of a set of keys.
+	 */
+	private static class Automaton implements Predicate<String> {
+		private final boolean caseSensitive;
+		// Per-state transitions, sorted by character for binary search
+		private final char[][] transitionChars;
+		private final int[][] transitionStates;
+		// Per-state fallback when there is no transition for the next character
+		private final int[] failures;
+		// Per-state flag for a key ending at the state, or at any state in its failure chain
+		private final boolean[] accepting;
+
+		private Automaton(@Nonnull Collection<String> keys, boolean caseSensitive) {
+			this.caseSensitive = caseSensitive;
+
+			// Build the trie of keys
+			List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+			List<Boolean> terminal = new ArrayList<>();
+			trie.add(new TreeMap<>());
+			terminal.add(false);
+			for (String key : keys) {
+				int state = 0;
+				for (int i = 0; i < key.length(); i++) {
+					char c = caseSensitive ? key.charAt(i) : fold(key.charAt(i));
+					Integer next = trie.get(state).get(c);
+					if (next == null) {
+						next = trie.size();
+						trie.add(new TreeMap<>());
+						terminal.add(false);
+						trie.get(state).put(c, next);
+					}
+					state = next;
+				}
+				terminal.set(state, true);
+			}
+
+			// Flatten the trie into arrays
+			int stateCount = trie.size();
+			transitionChars = new char[stateCount][];
+			transitionStates = new int[stateCount][];
+			failures = new int[stateCount];
+			accepting = new boolean[stateCount];
+			for (int state = 0; state < stateCount; state++) {
+				TreeMap<Character, Integer> transitions = trie.get(state);
+				char[] chars = new char[transitions.size()];
+				int[] states = new int[transitions.size()];
+				int i = 0;
+				for (Map.Entry<Character, Integer> entry : transitions.entrySet()) {
+					chars[i] = entry.getKey();
+					states[i] = entry.getValue();
+					i++;
+				}
+				transitionChars[state] = chars;
+				transitionStates[state] = states;
+				accepting[state] = terminal.get(state);
+			}
+
+			// Compute failure links breadth-first, so the failure state of each state is always computed first
+			Deque<Integer> queue = new ArrayDeque<>();
+			for (int child : transitionStates[0])
+				queue.add(child);
+			while (!queue.isEmpty()) {
+				int state = queue.poll();
+				char[] chars = transitionChars[state];
+				int[] states = transitionStates[state];
+				for (int i = 0; i < chars.length; i++) {
+					int child = states[i];
+					int failure = failures[state];
+					int next;
+					while ((next = transition(failure, chars[i])) < 0 && failure != 0)
+						failure = failures[failure];
+					failures[child] = next < 0 ? 0 : next;
+					accepting[child] |= accepting[failures[child]];
+					queue.add(child);
+				}
+			}
+		}
+
+		private int transition(int state, char c) {
+			int index = Arrays.binarySearch(transitionChars[state], c);
+			return index < 0 ? -1 : transitionStates[state][index];
+		}
+
+		@Override
+		public boolean test(@Nonnull String target) {
+			if (accepting[0])
+				return true;
+			int state = 0;
+			for (int i = 0; i < target.length(); i++) {
+				char c = caseSensitive ? target.charAt(i) : fold(target.charAt(i));
+				int next;
+				while ((next = transition(state, c)) < 0 && state != 0)
+					state = failures[state];
+				state = next < 0 ? 0 : next;
+				if (accepting[state])
+					return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package software.coley.recaf.services.search.match;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+
+/**
+ * Byte pattern with optional wildcard bytes, searched for with the Boyer-Moore-Horspool algorithm.
+ * <p/>
+ * Wildcards limit how far the search can skip ahead, as any byte can align with them.
+ * Patterns with their wildcards near the start skip as far as patterns without any.
+ *
+ * @author Matt Coley
+ */
+public class BinaryPattern {
+	private final byte[] values;
+	private final boolean[] wildcards;
+	private final int[] shifts = new int[256];
+
+	/**
+	 * @param values
+	 * 		Byte values of the pattern. Values at wildcard positions are ignored.
+	 * @param wildcards
+	 * 		Flags for positions in the pattern that match any byte.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the pattern is empty, or the arrays differ in length.
+	 */
+	public BinaryPattern(@Nonnull byte[] values, @Nonnull boolean[] wildcards) {
+		if (values.length == 0)
+			throw new IllegalArgumentException("Pattern must not be empty");
+		if (values.length != wildcards.length)
+			throw new IllegalArgumentException("Pattern values and wildcards must be the same length");
+		this.values = values.clone();
+		this.wildcards = wildcards.clone();
+
+		// The last byte is never used for shifting, since it is the one we look up the shift with.
+		int length = values.length;
+		int maxShift = length;
+		for (int i = 0; i < length - 1; i++)
+			if (wildcards[i])
+				maxShift = length - 1 - i;
+		Arrays.fill(shifts, maxShift);
+		for (int i = 0; i < length - 1; i++)
+			if (!wildcards[i])
+				shifts[values[i] & 0xFF] = Math.min(maxShift, length - 1 - i);
+	}
+
+	/**
+	 * @param pattern
+	 * 		Hex pattern, such as {@code "CA FE ?? BE"}. Whitespace is ignored, and {@code ??} denotes a wildcard byte.
+	 *
+	 * @return Parsed pattern.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the pattern is empty or is not valid hex.
+	 */
+	@Nonnull
+	public static BinaryPattern parse(@Nonnull String pattern) {
+		String hex = pattern.replaceAll("\\s+", "");
+		if (hex.length() % 2 != 0)
+			throw new IllegalArgumentException("Pattern must consist of whole bytes: " + pattern);
+		int length = hex.length() / 2;
+		byte[] values = new byte[length];
+		boolean[] wildcards = new boolean[length];
+		for (int i = 0; i < length; i++) {
+			char high = hex.charAt(i * 2);
+			char low = hex.charAt(i * 2 + 1);
+			if (high == '?' && low == '?') {
+				wildcards[i] = true;
+				continue;
+			}
+			int highValue = Character.digit(high, 16);
+			int lowValue = Character.digit(low, 16);
+			if (highValue < 0 || lowValue < 0)
+				throw new IllegalArgumentException("Invalid hex byte '" + high + low + "' in pattern: " + pattern);
+			values[i] = (byte) ((highValue << 4) | lowValue);
+		}
+		return new BinaryPattern(values, wildcards);
+	}
+
+	/**
+	 * @return Number of bytes in the pattern.
+	 */
+	public int length() {
+		return values.length;
+	}
+
+	/**
+	 * @param data
+	 * 		Data to search in.
+	 * @param fromIndex
+	 * 		Offset to start searching at.
+	 *
+	 * @return Offset of the first match at or after the given offset, or {@code -1} if there is none.
+	 */
+	public int indexOf(@Nonnull byte[] data, int fromIndex) {
+		int length = values.length;
+		int last = length - 1;
+		int position = Math.max(fromIndex, 0);
+		int max = data.length - length;
+		while (position <= max) {
+			int i = last;
+			while (i >= 0 && (wildcards[i] || data[position + i] == values[i]))
+				i--;
+			if (i < 0)
+				return position;
+			position += shifts[data[position + last] & 0xFF];
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,165 @@
+package software.coley.recaf.services.search.match;
+
+import jakarta.annotation.Nonnull;
+import org.objectweb.asm.ClassReader;
+import software.coley.recaf.info.JvmClassInfo;
+
+import java.util.function.Predicate;
+
+/**
+ * View of the constant pool of a {@link JvmClassInfo}, read directly from its bytecode without visiting its members.
+ * <p/>
+ * Entry offsets are taken from the class's {@link ClassReader}, which computes them when it is created,
+ * so the same work is not repeated when the class is later visited in full.
+ * <p/>
+ * Instances are not thread safe, and are intended to be used for a single class check on a single thread.
+ *
+ * @author Matt Coley
+ * @see ConstantPoolPrefilter
+ */
+public class ClassConstantPool {
+	private static final int TAG_UTF8 = 1;
+	private static final int TAG_INTEGER = 3;
+	private static final int TAG_FLOAT = 4;
+	private static final int TAG_LONG = 5;
+	private static final int TAG_DOUBLE = 6;
+	private static final int TAG_FIELD_REF = 9;
+	private static final int TAG_METHOD_REF = 10;
+	private static final int TAG_INTERFACE_METHOD_REF = 11;
+	private final ClassReader reader;
+	private final byte[] bytecode;
+	private final String[] utf8Values;
+	private char[] charBuffer;
+
+	/**
+	 * @param classInfo
+	 * 		Class to read the constant pool of.
+	 */
+	public ClassConstantPool(@Nonnull JvmClassInfo classInfo) {
+		reader = classInfo.getClassReader();
+		bytecode = classInfo.getBytecode();
+		utf8Values = new String[reader.getItemCount()];
+	}
+
+	/**
+	 * @param predicate
+	 * 		Predicate to test against {@code CONSTANT_Utf8} entries.
+	 *
+	 * @return {@code true} when any {@code CONSTANT_Utf8} entry in the pool matches the predicate.
+	 */
+	public boolean anyUtf8(@Nonnull Predicate<String> predicate) {
+		for (int i = 1; i < utf8Values.length; i++)
+			if (tag(i) == TAG_UTF8 && predicate.test(getUtf8(i)))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @param text
+	 * 		Text to look for.
+	 *
+	 * @return {@code true} when the pool has a {@code CONSTANT_Utf8} entry of the given text.
+	 */
+	public boolean containsUtf8(@Nonnull String text) {
+		return anyUtf8(text::equals);
+	}
+
+	/**
+	 * @param predicate
+	 * 		Predicate to test against {@code CONSTANT_Integer}, {@code CONSTANT_Float},
+	 *        {@code CONSTANT_Long}, and {@code CONSTANT_Double} entries.
+	 *
+	 * @return {@code true} when any numeric entry in the pool matches the predicate.
+	 */
+	public boolean anyNumber(@Nonnull Predicate<Number> predicate) {
+		for (int i = 1; i < utf8Values.length; i++) {
+			int tag = tag(i);
+			if (tag >= TAG_INTEGER && tag <= TAG_DOUBLE && predicate.test((Number) reader.readConst(i, charBuffer())))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param predicate
+	 * 		Predicate to test against {@code CONSTANT_Fieldref}, {@code CONSTANT_Methodref},
+	 *        and {@code CONSTANT_InterfaceMethodref} entries.
+	 *
+	 * @return {@code true} when any member reference entry in the pool matches the predicate.
+	 */
+	public boolean anyMemberReference(@Nonnull MemberPredicate predicate) {
+		for (int i = 1; i < utf8Values.length; i++) {
+			int tag = tag(i);
+			if (tag < TAG_FIELD_REF || tag > TAG_INTERFACE_METHOD_REF)
+				continue;
+			int offset = reader.getItem(i);
+			char[] buffer = charBuffer();
+			String owner = reader.readClass(offset, buffer);
+			int nameTypeOffset = reader.getItem(reader.readUnsignedShort(offset + 2));
+			String name = reader.readUTF8(nameTypeOffset, buffer);
+			String desc = reader.readUTF8(nameTypeOffset + 2, buffer);
+			if (predicate.test(owner, name, desc))
+				return true;
+		}
+		return false;
+	}
+
+	private int tag(int index) {
+		// Item offsets point to the byte following the entry tag, and are zero for the unused slot after wide entries.
+		int offset = reader.getItem(index);
+		return offset == 0 ? 0 : bytecode[offset - 1];
+	}
+
+	@Nonnull
+	private char[] charBuffer() {
+		if (charBuffer == null)
+			charBuffer = new char[reader.getMaxStringLength()];
+		return charBuffer;
+	}
+
+	@Nonnull
+	private String getUtf8(int index) {
+		String value = utf8Values[index];
+		if (value == null) {
+			int offset = reader.getItem(index);
+			value = decodeModifiedUtf8(offset + 2, reader.readUnsignedShort(offset));
+			utf8Values[index] = value;
+		}
+		return value;
+	}
+
+	@Nonnull
+	private String decodeModifiedUtf8(int offset, int length) {
+		char[] buffer = charBuffer();
+		int end = offset + length;
+		int count = 0;
+		while (offset < end) {
+			int c = bytecode[offset++];
+			if ((c & 0x80) == 0) {
+				buffer[count++] = (char) (c & 0x7F);
+			} else if ((c & 0xE0) == 0xC0) {
+				buffer[count++] = (char) (((c & 0x1F) << 6) + (bytecode[offset++] & 0x3F));
+			} else {
+				buffer[count++] = (char) (((c & 0xF) << 12) + ((bytecode[offset++] & 0x3F) << 6) + (bytecode[offset++] & 0x3F));
+			}
+		}
+		return new String(buffer, 0, count);
+	}
+
+	/**
+	 * Predicate of a member reference entry.
+	 */
+	public interface MemberPredicate {
+		/**
+		 * @param owner
+		 * 		Internal name of the declaring class of the referenced member.
+		 * @param name
+		 * 		Referenced member name.
+		 * @param desc
+		 * 		Referenced member descriptor.
+		 *
+		 * @return {@code true} when the reference matches.
+		 */
+		boolean test(@Nonnull String owner, @Nonnull String name, @Nonnull String desc);
+	}
+}
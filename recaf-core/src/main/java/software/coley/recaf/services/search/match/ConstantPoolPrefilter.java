@@ -0,0 +1,34 @@
+package software.coley.recaf.services.search.match;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Check against the constant pool of a class, used to skip classes that cannot yield any search results
+ * before they are fully parsed.
+ * <p/>
+ * Implementations may report false positives, but must never reject a class that a full visit would yield results for.
+ *
+ * @author Matt Coley
+ * @see ClassConstantPool
+ */
+@FunctionalInterface
+public interface ConstantPoolPrefilter {
+	/**
+	 * @param pool
+	 * 		Constant pool of the class to check.
+	 *
+	 * @return {@code true} when the class may contain matches. {@code false} when it certainly does not.
+	 */
+	boolean mayMatch(@Nonnull ClassConstantPool pool);
+
+	/**
+	 * @param other
+	 * 		Another prefilter.
+	 *
+	 * @return Prefilter passing classes that pass either this or the other prefilter.
+	 */
+	@Nonnull
+	default ConstantPoolPrefilter or(@Nonnull ConstantPoolPrefilter other) {
+		return pool -> mayMatch(pool) || other.mayMatch(pool);
+	}
+}
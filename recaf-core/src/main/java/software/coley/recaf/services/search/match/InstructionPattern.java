@@ -0,0 +1,166 @@
+package software.coley.recaf.services.search.match;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.tree.*;
+
+import java.util.List;
+
+/**
+ * Pattern of consecutive instructions, where each element can match a specific opcode or any opcode,
+ * and optionally a predicate on the instruction operand.
+ * <p/>
+ * Only actual instructions are matched, so labels, line numbers, and frames between instructions are ignored.
+ *
+ * @author Matt Coley
+ * @see #operandText(AbstractInsnNode)
+ */
+public class InstructionPattern {
+	/** Opcode value matching any instruction. */
+	public static final int ANY_OPCODE = -1;
+	private final Element[] elements;
+
+	/**
+	 * @param elements
+	 * 		Elements of the pattern, in instruction order.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When no elements are given.
+	 */
+	public InstructionPattern(@Nonnull List<Element> elements) {
+		if (elements.isEmpty())
+			throw new IllegalArgumentException("Pattern must not be empty");
+		this.elements = elements.toArray(Element[]::new);
+	}
+
+	/**
+	 * @param elements
+	 * 		Elements of the pattern, in instruction order.
+	 *
+	 * @return Pattern of the given elements.
+	 */
+	@Nonnull
+	public static InstructionPattern of(@Nonnull Element... elements) {
+		return new InstructionPattern(List.of(elements));
+	}
+
+	/**
+	 * @return Element matching any instruction.
+	 */
+	@Nonnull
+	public static Element any() {
+		return new Element(ANY_OPCODE, null);
+	}
+
+	/**
+	 * @param opcode
+	 * 		Opcode to match.
+	 *
+	 * @return Element matching any instruction of the given opcode.
+	 */
+	@Nonnull
+	public static Element insn(int opcode) {
+		return new Element(opcode, null);
+	}
+
+	/**
+	 * @param opcode
+	 * 		Opcode to match, or {@link #ANY_OPCODE}.
+	 * @param operandPredicate
+	 * 		Predicate to match against the {@link #operandText(AbstractInsnNode) operand text} of the instruction.
+	 *
+	 * @return Element matching instructions of the given opcode with a matching operand.
+	 */
+	@Nonnull
+	public static Element insn(int opcode, @Nonnull StringPredicate operandPredicate) {
+		return new Element(opcode, operandPredicate);
+	}
+
+	/**
+	 * @return Number of instructions in the pattern.
+	 */
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * @return Opcodes of the pattern elements, with {@link #ANY_OPCODE} for elements matching any instruction.
+	 */
+	@Nonnull
+	public int[] getOpcodes() {
+		int[] opcodes = new int[elements.length];
+		for (int i = 0; i < elements.length; i++)
+			opcodes[i] = elements[i].opcode();
+		return opcodes;
+	}
+
+	/**
+	 * @param instructions
+	 * 		Array of instructions, excluding labels, line numbers, and frames.
+	 * @param start
+	 * 		Index in the array to check for a match at.
+	 *
+	 * @return {@code true} when the pattern matches the instructions beginning at the given index.
+	 */
+	public boolean matchesAt(@Nonnull AbstractInsnNode[] instructions, int start) {
+		if (start < 0 || start + elements.length > instructions.length)
+			return false;
+
+		// Check all opcodes before any operands, as they are far cheaper to compare.
+		for (int i = 0; i < elements.length; i++) {
+			int opcode = elements[i].opcode();
+			if (opcode != ANY_OPCODE && opcode != instructions[start + i].getOpcode())
+				return false;
+		}
+		for (int i = 0; i < elements.length; i++) {
+			StringPredicate operandPredicate = elements[i].operandPredicate();
+			if (operandPredicate != null && !operandPredicate.match(operandText(instructions[start + i])))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param insn
+	 * 		Some instruction.
+	 *
+	 * @return Text of the instruction operands:
+	 * <ul>
+	 *     <li>Field instructions: {@code owner.name desc}</li>
+	 *     <li>Method instructions: {@code owner.namedesc}</li>
+	 *     <li>Invoke dynamic instructions: {@code namedesc}</li>
+	 *     <li>Type instructions: {@code type}</li>
+	 *     <li>LDC instructions: The string value, or text of any other constant.</li>
+	 *     <li>Int and variable instructions: The operand value.</li>
+	 *     <li>IINC instructions: {@code var increment}</li>
+	 *     <li>MULTIANEWARRAY instructions: {@code desc dimensions}</li>
+	 *     <li>Otherwise, empty text.</li>
+	 * </ul>
+	 */
+	@Nonnull
+	public static String operandText(@Nonnull AbstractInsnNode insn) {
+		return switch (insn) {
+			case FieldInsnNode field -> field.owner + '.' + field.name + ' ' + field.desc;
+			case MethodInsnNode method -> method.owner + '.' + method.name + method.desc;
+			case InvokeDynamicInsnNode indy -> indy.name + indy.desc;
+			case TypeInsnNode type -> type.desc;
+			case LdcInsnNode ldc -> String.valueOf(ldc.cst);
+			case IntInsnNode intInsn -> String.valueOf(intInsn.operand);
+			case VarInsnNode var -> String.valueOf(var.var);
+			case IincInsnNode iinc -> iinc.var + " " + iinc.incr;
+			case MultiANewArrayInsnNode multiArray -> multiArray.desc + ' ' + multiArray.dims;
+			default -> "";
+		};
+	}
+
+	/**
+	 * Single instruction element of a pattern.
+	 *
+	 * @param opcode
+	 * 		Opcode to match, or {@link #ANY_OPCODE}.
+	 * @param operandPredicate
+	 * 		Predicate to match against the operand text of the instruction, or {@code null} to match any operand.
+	 */
+	public record Element(int opcode, @Nullable StringPredicate operandPredicate) {
+	}
+}
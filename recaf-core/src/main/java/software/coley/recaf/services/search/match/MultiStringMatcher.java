@@ -3,6 +3,7 @@
 import jakarta.annotation.Nonnull;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 /**
  * Matcher outline for comparing one string to multiple strings.
@@ -19,4 +20,18 @@ public interface MultiStringMatcher {
 	 * @return {@code true} when the target value matches the key value(s).
 	 */
 	boolean test(@Nonnull Collection<String> keys, @Nonnull String target);
+
+	/**
+	 * Implementations which can pre-process the keys, such as building a lookup structure over them,
+	 * should override this so that the work is done once rather than on every {@link #test(Collection, String)}.
+	 *
+	 * @param keys
+	 * 		Target values to match against.
+	 *
+	 * @return Predicate checking if a value matches the key value(s).
+	 */
+	@Nonnull
+	default Predicate<String> compile(@Nonnull Collection<String> keys) {
+		return target -> test(keys, target);
+	}
 }
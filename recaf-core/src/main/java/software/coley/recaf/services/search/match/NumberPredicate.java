@@ -1,6 +1,7 @@
 package software.coley.recaf.services.search.match;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
 import java.util.function.Predicate;
 
@@ -12,8 +13,12 @@
 public class NumberPredicate {
 	/** Translation key prefix */
 	public static final String TRANSLATION_PREFIX = "number.match.";
+	// Int constant instructions are covered by the SIPUSH range
+	private static final Number[] INLINE_CONSTANTS = {0L, 1L, 0F, 1F, 2F, 0D, 1D};
 	private final Predicate<Number> delegate;
 	private final String id;
+	// Lazily computed, racing threads compute the same value
+	private volatile Boolean matchesInlineValue;
 
 	/**
 	 * @param id
@@ -51,4 +56,31 @@ public String getTranslationKey() {
 	public boolean match(@Nonnull Number value) {
 		return delegate.test(value);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Numbers pushed by {@code ICONST_X}, {@code BIPUSH}, {@code SIPUSH} and similar instructions have no
+	 * constant pool entry. When this predicate matches any of those values there is no pool content to check against.
+	 *
+	 * @return Constant pool check for classes that may contain numbers matching this predicate,
+	 * or {@code null} if the predicate matches values that can be inlined into code.
+	 */
+	@Nullable
+	public ConstantPoolPrefilter constantPoolPrefilter() {
+		Boolean inline = matchesInlineValue;
+		if (inline == null)
+			matchesInlineValue = inline = computeMatchesInlineValue();
+		if (inline)
+			return null;
+		return pool -> pool.anyNumber(this::match);
+	}
+
+	private boolean computeMatchesInlineValue() {
+		for (Number value : INLINE_CONSTANTS)
+			if (match(value))
+				return true;
+		for (int value = Short.MIN_VALUE; value <= Short.MAX_VALUE; value++)
+			if (match(value))
+				return true;
+		return false;
+	}
+}
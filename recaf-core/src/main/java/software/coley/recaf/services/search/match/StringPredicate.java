@@ -51,4 +51,15 @@ public String getTranslationKey() {
 	public boolean match(@Nonnull String text) {
 		return delegate.test(text);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Any string this predicate can match in a class is backed by a {@code CONSTANT_Utf8} entry,
+	 * so classes without a matching entry can be skipped.
+	 *
+	 * @return Constant pool check for classes that may contain strings matching this predicate.
+	 */
+	@Nonnull
+	public ConstantPoolPrefilter constantPoolPrefilter() {
+		return pool -> pool.anyUtf8(this::match);
+	}
+}
@@ -5,9 +5,11 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import software.coley.recaf.util.RegexUtil;
+import software.coley.recaf.util.StringUtil;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * Provider of {@link StringPredicate} instances.
@@ -56,6 +58,18 @@ public class StringPredicateProvider {
 	 * Key in {@link #newBiStringPredicate(String, String)} for full regex matching.
 	 */
 	public static final String KEY_REFEX_FULL = "regex-full";
+	/**
+	 * Key in {@link #newMultiStringPredicate(String, Collection)} for equality matching against any key.
+	 */
+	public static final String KEY_ANY_OF = "any-of";
+	/**
+	 * Key in {@link #newMultiStringPredicate(String, Collection)} for containment matching against any key.
+	 */
+	public static final String KEY_CONTAINS_ANY = "contains-any";
+	/**
+	 * Key in {@link #newMultiStringPredicate(String, Collection)} for case-insensitive containment matching against any key.
+	 */
+	public static final String KEY_CONTAINS_ANY_IGNORE_CASE = "contains-any-ic";
 	private final Map<String, BiStringMatcher> biStringMatchers = new ConcurrentHashMap<>();
 	private final Map<String, MultiStringMatcher> multiStringMatchers = new ConcurrentHashMap<>();
 
@@ -64,11 +78,11 @@ public StringPredicateProvider() {
 		registerBiMatcher(KEY_EQUALS, String::equals);
 		registerBiMatcher(KEY_EQUALS_IGNORE_CASE, String::equalsIgnoreCase);
 		registerBiMatcher(KEY_CONTAINS, (key, value) -> value.contains(key));
-		registerBiMatcher(KEY_CONTAINS_IGNORE_CASE, (key, value) -> value.toLowerCase().contains(key.toLowerCase()));
+		registerBiMatcher(KEY_CONTAINS_IGNORE_CASE, (key, value) -> StringUtil.containsIgnoreCase(value, key));
 		registerBiMatcher(KEY_STARTS_WITH, (key, value) -> value.startsWith(key));
-		registerBiMatcher(KEY_STARTS_WITH_IGNORE_CASE, (key, value) -> value.toLowerCase().startsWith(key.toLowerCase()));
+		registerBiMatcher(KEY_STARTS_WITH_IGNORE_CASE, (key, value) -> StringUtil.startsWithIgnoreCase(value, key));
 		registerBiMatcher(KEY_ENDS_WITH, (key, value) -> value.endsWith(key));
-		registerBiMatcher(KEY_ENDS_WITH_IGNORE_CASE, (key, value) -> value.toLowerCase().endsWith(key.toLowerCase()));
+		registerBiMatcher(KEY_ENDS_WITH_IGNORE_CASE, (key, value) -> StringUtil.endsWithIgnoreCase(value, key));
 		registerBiMatcher(KEY_REGEX_PARTIAL, (key, value) -> {
 			try {
 				return RegexUtil.getMatcher(key, value).find();
@@ -85,6 +99,20 @@ public StringPredicateProvider() {
 				return false;
 			}
 		});
+		registerMultiMatcher(KEY_ANY_OF, new MultiStringMatcher() {
+			@Override
+			public boolean test(@Nonnull Collection<String> keys, @Nonnull String target) {
+				return keys.contains(target);
+			}
+
+			@Nonnull
+			@Override
+			public Predicate<String> compile(@Nonnull Collection<String> keys) {
+				return Set.copyOf(keys)::contains;
+			}
+		});
+		registerMultiMatcher(KEY_CONTAINS_ANY, new AhoCorasickMatcher(true));
+		registerMultiMatcher(KEY_CONTAINS_ANY_IGNORE_CASE, new AhoCorasickMatcher(false));
 	}
 
 	/**
@@ -229,6 +257,30 @@ public StringPredicate newFullRegexPredicate(@Nonnull String regex) {
 		return Objects.requireNonNull(newBiStringPredicate("regex-full", regex));
 	}
 
+	/**
+	 * @param keys
+	 * 		Strings to match against, case-sensitive.
+	 *
+	 * @return Predicate to target values equal to any of the given strings.
+	 */
+	@Nonnull
+	public StringPredicate newAnyOfPredicate(@Nonnull Collection<String> keys) {
+		return Objects.requireNonNull(newMultiStringPredicate(KEY_ANY_OF, keys));
+	}
+
+	/**
+	 * @param keys
+	 * 		Strings to match against.
+	 * @param caseSensitive
+	 * 		Whether the match should be case-sensitive or not.
+	 *
+	 * @return Predicate to target values containing any of the given strings.
+	 */
+	@Nonnull
+	public StringPredicate newContainsAnyPredicate(@Nonnull Collection<String> keys, boolean caseSensitive) {
+		return Objects.requireNonNull(newMultiStringPredicate(caseSensitive ? KEY_CONTAINS_ANY : KEY_CONTAINS_ANY_IGNORE_CASE, keys));
+	}
+
 	/**
 	 * @param id
 	 * 		Matcher unique ID.
@@ -263,7 +315,7 @@ public StringPredicate newBiStringPredicate(@Nonnull String id, @Nonnull String
 	public StringPredicate newMultiStringPredicate(@Nonnull String id, @Nonnull Collection<String> keys) throws NoSuchElementException {
 		MultiStringMatcher matcher = multiStringMatchers.get(id);
 		if (matcher != null)
-			return new StringPredicate(id, target -> matcher.test(keys, target));
+			return new StringPredicate(id, matcher.compile(keys));
 		throw new NoSuchElementException("No such multi-parameter matcher: " + id);
 	}
 
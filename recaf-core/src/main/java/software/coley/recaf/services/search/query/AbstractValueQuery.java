@@ -10,8 +10,10 @@
 import org.slf4j.Logger;
 import software.coley.recaf.RecafConstants;
 import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.AndroidClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.annotation.Annotated;
+import software.coley.recaf.info.annotation.AnnotationElement;
 import software.coley.recaf.info.annotation.AnnotationInfo;
 import software.coley.recaf.info.annotation.BasicAnnotationInfo;
 import software.coley.recaf.info.member.FieldMember;
@@ -20,10 +22,15 @@
 import software.coley.recaf.path.ClassMemberPathNode;
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.path.PathNode;
+import software.coley.recaf.services.search.AndroidClassSearchVisitor;
 import software.coley.recaf.services.search.JvmClassSearchVisitor;
 import software.coley.recaf.services.search.ResultSink;
+import software.coley.recaf.services.search.SearchIndex;
+import software.coley.recaf.services.search.match.ConstantPoolPrefilter;
 import software.coley.recaf.util.visitors.IndexCountingMethodVisitor;
 
+import java.util.Set;
+
 /**
  * General value search.
  *
@@ -31,7 +38,8 @@
  * @see StringQuery
  * @see NumberQuery
  */
-public abstract class AbstractValueQuery implements JvmClassQuery, FileQuery {
+public abstract class AbstractValueQuery implements IndexedQuery, PrefilteredQuery, FusableJvmClassQuery,
+		AndroidClassQuery, FileQuery {
 	private static final Number[] OP_TO_VALUE = {
 			0, // NOP
 			0, // NULL
@@ -41,17 +49,104 @@ public abstract class AbstractValueQuery implements JvmClassQuery, FileQuery {
 			0D, 1D // DCONST_X
 	};
 
-	// TODO: Implement android query when android capabilities are fleshed out enough to have comparable
-	//    search capabilities in method code
-
 	protected abstract boolean isMatch(Object value);
 
+	@Nonnull
+	@Override
+	public Set<JvmClassInfo> lookupCandidates(@Nonnull SearchIndex index) {
+		return index.findClassesWithValue(this::isMatch);
+	}
+
+	@Nullable
+	@Override
+	public ConstantPoolPrefilter prefilter() {
+		// The value types are only known to implementations
+		return null;
+	}
+
 	@Nonnull
 	@Override
 	public JvmClassSearchVisitor visitor(@Nullable JvmClassSearchVisitor delegate) {
 		return new JvmVisitor(delegate);
 	}
 
+	@Nonnull
+	@Override
+	public ClassVisitor classVisitor(@Nullable ClassVisitor delegate,
+									 @Nonnull ResultSink resultSink,
+									 @Nonnull ClassPathNode classPath,
+									 @Nonnull JvmClassInfo classInfo) {
+		return new AsmClassValueVisitor(delegate, resultSink, classPath, classInfo);
+	}
+
+	@Nonnull
+	@Override
+	public AndroidClassSearchVisitor visitor(@Nullable AndroidClassSearchVisitor delegate) {
+		return new AndroidVisitor(delegate);
+	}
+
+	/**
+	 * Visits values in Android classes directly from their DEX model.
+	 * Matches in method code are reported at the declaring method, as there are no JVM instructions to point to.
+	 */
+	private class AndroidVisitor implements AndroidClassSearchVisitor {
+		private final AndroidClassSearchVisitor delegate;
+
+		private AndroidVisitor(@Nullable AndroidClassSearchVisitor delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void visit(@Nonnull ResultSink resultSink,
+						  @Nonnull ClassPathNode classPath,
+						  @Nonnull AndroidClassInfo classInfo) {
+			if (delegate != null) delegate.visit(resultSink, classPath, classInfo);
+
+			for (AnnotationInfo annotation : classInfo.getAnnotations())
+				visitAnnotation(resultSink, classPath.child(annotation), annotation);
+			for (FieldMember field : classInfo.getFields()) {
+				ClassMemberPathNode fieldPath = classPath.child(field);
+				Object value = field.getDefaultValue();
+				if (isMatch(value))
+					resultSink.accept(fieldPath, value);
+				for (AnnotationInfo annotation : field.getAnnotations())
+					visitAnnotation(resultSink, fieldPath.childAnnotation(annotation), annotation);
+			}
+			for (MethodMember method : classInfo.getMethods()) {
+				ClassMemberPathNode methodPath = classPath.child(method);
+				for (AnnotationInfo annotation : method.getAnnotations())
+					visitAnnotation(resultSink, methodPath.childAnnotation(annotation), annotation);
+			}
+			DexCodeScanner.scan(classInfo, new DexCodeScanner.Visitor() {
+				@Override
+				public void visitValue(@Nonnull MethodMember method, @Nonnull Object value) {
+					if (isMatch(value))
+						resultSink.accept(classPath.child(method), value);
+				}
+			});
+		}
+
+		private void visitAnnotation(@Nonnull ResultSink resultSink,
+									 @Nonnull AnnotationPathNode annotationPath,
+									 @Nonnull AnnotationInfo annotation) {
+			for (AnnotationElement element : annotation.getElements().values())
+				visitAnnotationValue(resultSink, annotationPath, element.getElementValue());
+		}
+
+		private void visitAnnotationValue(@Nonnull ResultSink resultSink,
+										  @Nonnull AnnotationPathNode annotationPath,
+										  @Nullable Object value) {
+			if (value instanceof AnnotationInfo subAnnotation) {
+				visitAnnotation(resultSink, annotationPath.child(subAnnotation), subAnnotation);
+			} else if (value instanceof Object[] array) {
+				for (Object arrayValue : array)
+					visitAnnotationValue(resultSink, annotationPath, arrayValue);
+			} else if (isMatch(value)) {
+				resultSink.accept(annotationPath, value);
+			}
+		}
+	}
+
 	/**
 	 * Points {@link #visitor(JvmClassSearchVisitor)} to {@link AsmClassValueVisitor}
 	 */
@@ -68,7 +163,7 @@ public void visit(@Nonnull ResultSink resultSink,
 						  @Nonnull JvmClassInfo classInfo) {
 			if (delegate != null) delegate.visit(resultSink, classPath, classInfo);
 
-			classInfo.getClassReader().accept(new AsmClassValueVisitor(resultSink, classPath, classInfo), 0);
+			classInfo.getClassReader().accept(classVisitor(null, resultSink, classPath, classInfo), 0);
 		}
 	}
 
@@ -81,10 +176,11 @@ private class AsmClassValueVisitor extends ClassVisitor {
 		private final ClassPathNode classPath;
 		private final JvmClassInfo classInfo;
 
-		protected AsmClassValueVisitor(@Nonnull ResultSink resultSink,
+		protected AsmClassValueVisitor(@Nullable ClassVisitor delegate,
+									   @Nonnull ResultSink resultSink,
 									   @Nonnull ClassPathNode classPath,
 									   @Nonnull JvmClassInfo classInfo) {
-			super(RecafConstants.getAsmVersion());
+			super(RecafConstants.getAsmVersion(), delegate);
 			this.resultSink = resultSink;
 			this.classPath = classPath;
 			this.classInfo = classInfo;
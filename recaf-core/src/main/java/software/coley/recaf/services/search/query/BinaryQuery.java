@@ -0,0 +1,47 @@
+package software.coley.recaf.services.search.query;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.FileInfo;
+import software.coley.recaf.path.FilePathNode;
+import software.coley.recaf.services.search.FileSearchVisitor;
+import software.coley.recaf.services.search.ResultSink;
+import software.coley.recaf.services.search.match.BinaryPattern;
+import software.coley.recaf.services.search.result.BinaryResult;
+
+/**
+ * Binary pattern search implementation, matching against the raw content of files.
+ * Each occurrence of the pattern is reported with its offset in the file.
+ *
+ * @author Matt Coley
+ */
+public class BinaryQuery implements FileQuery {
+	private final BinaryPattern pattern;
+
+	/**
+	 * @param pattern
+	 * 		Byte pattern to match.
+	 */
+	public BinaryQuery(@Nonnull BinaryPattern pattern) {
+		this.pattern = pattern;
+	}
+
+	@Nonnull
+	@Override
+	public FileSearchVisitor visitor(@Nullable FileSearchVisitor delegate) {
+		return (resultSink, filePath, fileInfo) -> {
+			if (delegate != null) delegate.visit(resultSink, filePath, fileInfo);
+			visitFile(resultSink, filePath, fileInfo);
+		};
+	}
+
+	private void visitFile(@Nonnull ResultSink resultSink, @Nonnull FilePathNode filePath, @Nonnull FileInfo fileInfo) {
+		byte[] content = fileInfo.getRawContent();
+		int length = pattern.length();
+		int offset = 0;
+		while ((offset = pattern.indexOf(content, offset)) >= 0) {
+			resultSink.accept(filePath, new BinaryResult.BinaryMatch(offset, length));
+			offset++;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package software.coley.recaf.services.search.query;
+
+import com.android.tools.r8.dex.code.*;
+import com.android.tools.r8.graph.*;
+import jakarta.annotation.Nonnull;
+import org.objectweb.asm.Type;
+import software.coley.recaf.info.AndroidClassInfo;
+import software.coley.recaf.info.BasicAndroidClassInfo;
+import software.coley.recaf.info.member.MethodMember;
+
+/**
+ * Scans the code items of Android classes directly from their DEX model, without converting them to JVM bytecode.
+ * <p/>
+ * Each instruction is checked for the string, type, field, and method ID table entries it refers to,
+ * along with the literal values of constant instructions. DEX constants are untyped, so a constant whose bits
+ * also form a plausible {@code float} or {@code double} is reported both as an integer and as a floating point value.
+ *
+ * @author Matt Coley
+ */
+class DexCodeScanner {
+	private DexCodeScanner() {}
+
+	/**
+	 * @param classInfo
+	 * 		Android class to scan the method code of.
+	 * @param visitor
+	 * 		Visitor to pass code contents to.
+	 */
+	static void scan(@Nonnull AndroidClassInfo classInfo, @Nonnull Visitor visitor) {
+		// Only classes read from DEX files have code to scan.
+		if (!(classInfo instanceof BasicAndroidClassInfo basicClassInfo))
+			return;
+		DexProgramClass dexClass = basicClassInfo.getDexClass();
+		for (DexEncodedMethod dexMethod : dexClass.methods()) {
+			Code code = dexMethod.getCode();
+			if (code == null || !code.isDexCode())
+				continue;
+			String name = dexMethod.getName().toString();
+			String desc = dexMethod.getProto().toDescriptorString();
+			MethodMember method = classInfo.getDeclaredMethod(name, desc);
+			if (method == null)
+				continue;
+			for (DexInstruction instruction : code.asDexCode().instructions)
+				scan(method, instruction, visitor);
+		}
+	}
+
+	/**
+	 * @param method
+	 * 		Method containing the instruction.
+	 * @param instruction
+	 * 		Instruction to scan.
+	 * @param visitor
+	 * 		Visitor to pass instruction contents to.
+	 */
+	static void scan(@Nonnull MethodMember method, @Nonnull DexInstruction instruction, @Nonnull Visitor visitor) {
+		// Constant pool style values
+		if (instruction instanceof DexConstString constString) {
+			visitor.visitValue(method, constString.getString().toString());
+		} else if (instruction instanceof DexConstStringJumbo constString) {
+			visitor.visitValue(method, constString.getString().toString());
+		} else if (instruction instanceof SingleConstant constant) {
+			int bits = constant.decodedValue();
+
+			// A zero 'const/4' is how DEX loads null, false, and zero alike, so it does not denote a number.
+			if (bits != 0 || !(instruction instanceof DexConst4)) {
+				visitor.visitValue(method, bits);
+				if (isPlausibleFloat(bits))
+					visitor.visitValue(method, Float.intBitsToFloat(bits));
+			}
+		} else if (instruction instanceof WideConstant constant) {
+			long bits = constant.decodedValue();
+			visitor.visitValue(method, bits);
+			if (isPlausibleDouble(bits))
+				visitor.visitValue(method, Double.longBitsToDouble(bits));
+		}
+
+		// Type references
+		DexType type = null;
+		if (instruction instanceof DexNewInstance newInstance) type = newInstance.getType();
+		else if (instruction instanceof DexCheckCast checkCast) type = checkCast.getType();
+		else if (instruction instanceof DexConstClass constClass) type = constClass.getType();
+		else if (instruction instanceof DexInstanceOf instanceOf) type = instanceOf.getType();
+		else if (instruction instanceof DexNewArray newArray) type = newArray.getType();
+		if (type != null)
+			visitor.visitTypeReference(method, internalName(type));
+
+		// Member references
+		DexField field = instruction.getField();
+		if (field != null) {
+			String fieldDesc = field.getType().toDescriptorString();
+			visitor.visitMemberReference(method, internalName(field.getHolderType()),
+					field.getName().toString(), fieldDesc);
+			visitor.visitTypeReference(method, Type.getType(fieldDesc).getInternalName());
+		}
+		DexMethod invoked = instruction.getMethod();
+		if (invoked != null) {
+			String invokedDesc = invoked.getProto().toDescriptorString();
+			visitor.visitMemberReference(method, internalName(invoked.getHolderType()),
+					invoked.getName().toString(), invokedDesc);
+			Type methodType = Type.getMethodType(invokedDesc);
+			visitor.visitTypeReference(method, methodType.getReturnType().getInternalName());
+			for (Type argumentType : methodType.getArgumentTypes())
+				visitor.visitTypeReference(method, argumentType.getInternalName());
+		}
+	}
+
+	/**
+	 * @param bits
+	 * 		Raw constant bits.
+	 *
+	 * @return {@code true} when the bits form a normal finite {@code float}.
+	 * Small integers such as loop bounds are subnormal as floats, and small negative integers are NaN,
+	 * so neither are reported as floats.
+	 */
+	private static boolean isPlausibleFloat(int bits) {
+		int exponent = (bits >>> 23) & 0xFF;
+		return exponent != 0 && exponent != 0xFF;
+	}
+
+	/**
+	 * @param bits
+	 * 		Raw constant bits.
+	 *
+	 * @return {@code true} when the bits form a normal finite {@code double}.
+	 */
+	private static boolean isPlausibleDouble(long bits) {
+		long exponent = (bits >>> 52) & 0x7FF;
+		return exponent != 0 && exponent != 0x7FF;
+	}
+
+	@Nonnull
+	private static String internalName(@Nonnull DexType type) {
+		return Type.getType(type.toDescriptorString()).getInternalName();
+	}
+
+	/**
+	 * Visitor of DEX method code contents. Multiple occurrences of the same item in a method are visited individually.
+	 */
+	interface Visitor {
+		/**
+		 * @param method
+		 * 		Method containing the value.
+		 * @param value
+		 * 		String or number constant value.
+		 */
+		default void visitValue(@Nonnull MethodMember method, @Nonnull Object value) {}
+
+		/**
+		 * @param method
+		 * 		Method containing the reference.
+		 * @param type
+		 * 		Internal name of referenced type.
+		 */
+		default void visitTypeReference(@Nonnull MethodMember method, @Nonnull String type) {}
+
+		/**
+		 * @param method
+		 * 		Method containing the reference.
+		 * @param owner
+		 * 		Internal name of the declaring class of the referenced member.
+		 * @param name
+		 * 		Referenced member name.
+		 * @param desc
+		 * 		Referenced member descriptor.
+		 */
+		default void visitMemberReference(@Nonnull MethodMember method, @Nonnull String owner,
+										  @Nonnull String name, @Nonnull String desc) {}
+	}
+}
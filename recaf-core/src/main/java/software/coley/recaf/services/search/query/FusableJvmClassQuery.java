@@ -0,0 +1,37 @@
+package software.coley.recaf.services.search.query;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.services.search.ResultSink;
+
+/**
+ * Query targeting {@link JvmClassInfo} which is implemented as an ASM {@link ClassVisitor}.
+ * Multiple of these queries can be chained together so that a class only needs to be parsed once
+ * to run all of them.
+ *
+ * @author Matt Coley
+ */
+public interface FusableJvmClassQuery extends JvmClassQuery {
+	/**
+	 * @param delegate
+	 * 		Visitor to pass all visited content along to. May be {@code null} if there is no other visitor in the chain.
+	 * @param resultSink
+	 * 		Consumer to feed result values into.
+	 * @param classPath
+	 * 		Path to the class being visited.
+	 * @param classInfo
+	 * 		Class being visited.
+	 *
+	 * @return Visitor which feeds query results into the sink, to be passed to {@link ClassReader#accept(ClassVisitor, int)}
+	 * of the class.
+	 */
+	@Nonnull
+	ClassVisitor classVisitor(@Nullable ClassVisitor delegate,
+							  @Nonnull ResultSink resultSink,
+							  @Nonnull ClassPathNode classPath,
+							  @Nonnull JvmClassInfo classInfo);
+}
@@ -0,0 +1,40 @@
+package software.coley.recaf.services.search.query;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.search.JvmClassSearchVisitor;
+import software.coley.recaf.services.search.SearchIndex;
+
+import java.util.Set;
+
+/**
+ * Query targeting {@link JvmClassInfo} which can narrow down the classes it needs to visit with a {@link SearchIndex}.
+ *
+ * @author Matt Coley
+ */
+public interface IndexedQuery extends JvmClassQuery {
+	/**
+	 * @param index
+	 * 		Index of the workspace being searched.
+	 *
+	 * @return Classes which may yield results for this query. Classes not in this set do not need to be visited.
+	 */
+	@Nonnull
+	Set<JvmClassInfo> lookupCandidates(@Nonnull SearchIndex index);
+
+	/**
+	 * Queries which can use the index to narrow down the work done within a class can override this.
+	 *
+	 * @param delegate
+	 * 		Delegate visitor to wrap.
+	 * @param index
+	 * 		Index of the workspace being searched, or {@code null} if the workspace has no ready index.
+	 *
+	 * @return Visitor for the query.
+	 */
+	@Nonnull
+	default JvmClassSearchVisitor visitor(@Nullable JvmClassSearchVisitor delegate, @Nullable SearchIndex index) {
+		return visitor(delegate);
+	}
+}
@@ -0,0 +1,110 @@
+package software.coley.recaf.services.search.query;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import software.coley.recaf.RecafConstants;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.member.MethodMember;
+import software.coley.recaf.path.ClassMemberPathNode;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.services.search.JvmClassSearchVisitor;
+import software.coley.recaf.services.search.OpcodeGramFilter;
+import software.coley.recaf.services.search.ResultSink;
+import software.coley.recaf.services.search.SearchIndex;
+import software.coley.recaf.services.search.match.InstructionPattern;
+import software.coley.recaf.services.search.result.InstructionResult;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Instruction sequence search implementation.
+ * <p/>
+ * When the workspace has a {@link SearchIndex}, only methods whose opcode n-grams may contain the pattern are visited.
+ *
+ * @author Matt Coley
+ */
+public class InstructionQuery implements IndexedQuery {
+	private final InstructionPattern pattern;
+	private final long[] requiredOpcodeBits;
+
+	/**
+	 * @param pattern
+	 * 		Instruction pattern to match.
+	 */
+	public InstructionQuery(@Nonnull InstructionPattern pattern) {
+		this.pattern = pattern;
+		requiredOpcodeBits = OpcodeGramFilter.requiredBits(pattern.getOpcodes());
+	}
+
+	@Nonnull
+	@Override
+	public Set<JvmClassInfo> lookupCandidates(@Nonnull SearchIndex index) {
+		return index.findClassesWithOpcodes(requiredOpcodeBits);
+	}
+
+	@Nonnull
+	@Override
+	public JvmClassSearchVisitor visitor(@Nullable JvmClassSearchVisitor delegate) {
+		return visitor(delegate, null);
+	}
+
+	@Nonnull
+	@Override
+	public JvmClassSearchVisitor visitor(@Nullable JvmClassSearchVisitor delegate, @Nullable SearchIndex index) {
+		return (resultSink, classPath, classInfo) -> {
+			if (delegate != null)
+				delegate.visit(resultSink, classPath, classInfo);
+
+			// Methods not in the candidate set have their code skipped entirely.
+			Set<String> candidateMethods = index == null ? null : index.findMethodsWithOpcodes(classInfo, requiredOpcodeBits);
+			if (candidateMethods != null && candidateMethods.isEmpty())
+				return;
+			classInfo.getClassReader().accept(new ClassVisitor(RecafConstants.getAsmVersion()) {
+				@Override
+				public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+					if (candidateMethods != null && !candidateMethods.contains(name + desc))
+						return null;
+					MethodMember method = classInfo.getDeclaredMethod(name, desc);
+					if (method == null)
+						return null;
+					return new MethodNode(RecafConstants.getAsmVersion(), access, name, desc, signature, exceptions) {
+						@Override
+						public void visitEnd() {
+							scan(resultSink, classPath.child(method), this);
+						}
+					};
+				}
+			}, ClassReader.SKIP_FRAMES);
+		};
+	}
+
+	private void scan(@Nonnull ResultSink resultSink, @Nonnull ClassMemberPathNode methodPath, @Nonnull MethodNode method) {
+		// Frames are skipped when reading, so instruction indices line up with those used by other queries.
+		AbstractInsnNode[] all = method.instructions.toArray();
+		AbstractInsnNode[] instructions = new AbstractInsnNode[all.length];
+		int[] indices = new int[all.length];
+		int count = 0;
+		for (int i = 0; i < all.length; i++) {
+			if (all[i].getOpcode() >= 0) {
+				instructions[count] = all[i];
+				indices[count] = i;
+				count++;
+			}
+		}
+		instructions = Arrays.copyOf(instructions, count);
+		int size = pattern.size();
+		for (int i = 0; i + size <= count; i++) {
+			if (pattern.matchesAt(instructions, i)) {
+				InstructionResult.InstructionSequence sequence =
+						new InstructionResult.InstructionSequence(Arrays.asList(Arrays.copyOfRange(instructions, i, i + size)));
+				resultSink.accept(methodPath.childInsn(instructions[i], indices[i]), sequence);
+			}
+		}
+	}
+}
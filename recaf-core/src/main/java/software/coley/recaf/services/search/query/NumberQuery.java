@@ -7,6 +7,7 @@
 import software.coley.recaf.path.FilePathNode;
 import software.coley.recaf.services.search.FileSearchVisitor;
 import software.coley.recaf.services.search.ResultSink;
+import software.coley.recaf.services.search.match.ConstantPoolPrefilter;
 import software.coley.recaf.services.search.match.NumberPredicate;
 import software.coley.recaf.util.NumberUtil;
 
@@ -35,6 +36,12 @@ protected boolean isMatch(Object value) {
 		return false;
 	}
 
+	@Nullable
+	@Override
+	public ConstantPoolPrefilter prefilter() {
+		return predicate.constantPoolPrefilter();
+	}
+
 	@Nonnull
 	@Override
 	public FileSearchVisitor visitor(@Nullable FileSearchVisitor delegate) {
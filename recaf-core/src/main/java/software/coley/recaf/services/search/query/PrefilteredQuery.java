@@ -0,0 +1,19 @@
+package software.coley.recaf.services.search.query;
+
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.search.match.ConstantPoolPrefilter;
+
+/**
+ * Query targeting {@link JvmClassInfo} which can rule out classes by their constant pool, before they are fully parsed.
+ *
+ * @author Matt Coley
+ */
+public interface PrefilteredQuery extends JvmClassQuery {
+	/**
+	 * @return Constant pool check for classes which may yield results for this query,
+	 * or {@code null} if the query cannot rule out classes by their constant pool.
+	 */
+	@Nullable
+	ConstantPoolPrefilter prefilter();
+}
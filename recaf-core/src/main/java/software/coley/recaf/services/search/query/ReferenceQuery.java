@@ -7,6 +7,7 @@
 import org.slf4j.Logger;
 import software.coley.recaf.RecafConstants;
 import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.AndroidClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.annotation.Annotated;
 import software.coley.recaf.info.annotation.AnnotationInfo;
@@ -19,8 +20,12 @@
 import software.coley.recaf.path.ClassMemberPathNode;
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.path.PathNode;
+import software.coley.recaf.services.search.AndroidClassSearchVisitor;
 import software.coley.recaf.services.search.JvmClassSearchVisitor;
 import software.coley.recaf.services.search.ResultSink;
+import software.coley.recaf.services.search.SearchIndex;
+import software.coley.recaf.services.search.match.ClassConstantPool;
+import software.coley.recaf.services.search.match.ConstantPoolPrefilter;
 import software.coley.recaf.services.search.match.StringPredicate;
 import software.coley.recaf.services.search.result.ClassReferenceResult;
 import software.coley.recaf.services.search.result.MemberReferenceResult;
@@ -28,12 +33,22 @@
 import software.coley.recaf.util.Types;
 import software.coley.recaf.util.visitors.IndexCountingMethodVisitor;
 
+import java.util.Set;
+import java.util.function.Predicate;
+
 /**
  * Reference search implementation.
  *
  * @author Matt Coley
  */
-public class ReferenceQuery implements JvmClassQuery {
+public class ReferenceQuery implements IndexedQuery, PrefilteredQuery, FusableJvmClassQuery, AndroidClassQuery {
+	private static final String[] PRIMITIVE_NAMES = {"V", "Z", "C", "B", "S", "I", "F", "J", "D"};
+	private static final String[] ANNOTATION_ATTRIBUTES = {
+			"RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations",
+			"RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations",
+			"RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations",
+			"AnnotationDefault"
+	};
 	private final StringPredicate ownerPredicate;
 	private final StringPredicate namePredicate;
 	private final StringPredicate descriptorPredicate;
@@ -118,16 +133,175 @@ private static MemberReferenceResult.MemberReference mref(@Nonnull String owner,
 		return new MemberReferenceResult.MemberReference(owner, name, desc);
 	}
 
+	@Nonnull
+	@Override
+	public Set<JvmClassInfo> lookupCandidates(@Nonnull SearchIndex index) {
+		if (classRefOnly)
+			return index.findClassesReferencingType(this::isClassRefMatch);
+		return index.findClassesReferencingMember(ref -> isMemberRefMatch(ref.getOwner(), ref.getName(), ref.getDesc()));
+	}
+
+	@Nullable
+	@Override
+	public ConstantPoolPrefilter prefilter() {
+		if (classRefOnly) {
+			// Primitive types are checked when visiting descriptors, but have no pool entry of their own.
+			for (String primitive : PRIMITIVE_NAMES)
+				if (isClassRefMatch(primitive))
+					return null;
+
+			// Referenced types are either class entries, whose names are UTF8 entries, or components of descriptors.
+			return pool -> pool.anyUtf8(text -> isClassRefMatch(text) || anyDescriptorType(text, this::isClassRefMatch));
+		}
+
+		// Referenced members are either member reference entries, or enum constants in annotations.
+		// Enum constants are stored as UTF8 entries of their type descriptor and name, so each part is checked on its own.
+		return pool -> pool.anyMemberReference(this::isMemberRefMatch) ||
+				(hasAnnotations(pool)
+						&& (ownerPredicate == null || pool.anyUtf8(text -> anyDescriptorType(text, owner -> isPartMatch(ownerPredicate, owner))))
+						&& (namePredicate == null || pool.anyUtf8(text -> isPartMatch(namePredicate, text)))
+						&& (descriptorPredicate == null || pool.anyUtf8(text -> isPartMatch(descriptorPredicate, text))));
+	}
+
+	private static boolean isPartMatch(@Nonnull StringPredicate predicate, @Nonnull String text) {
+		return text.isEmpty() || predicate.match(text);
+	}
+
+	private static boolean hasAnnotations(@Nonnull ClassConstantPool pool) {
+		for (String attribute : ANNOTATION_ATTRIBUTES)
+			if (pool.containsUtf8(attribute))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @param text
+	 * 		Text to parse as a field or method descriptor.
+	 * @param predicate
+	 * 		Predicate to test against internal names of non-primitive types in the descriptor.
+	 *
+	 * @return {@code true} when any type in the descriptor matches.
+	 * Text that is not a descriptor may yield false positives, which is fine for prefiltering.
+	 */
+	private static boolean anyDescriptorType(@Nonnull String text, @Nonnull Predicate<String> predicate) {
+		int length = text.length();
+		int i = 0;
+		while (i < length) {
+			int start = i;
+			while (i < length && text.charAt(i) == '[')
+				i++;
+			if (i >= length)
+				break;
+			if (text.charAt(i) == 'L') {
+				int end = text.indexOf(';', i);
+				if (end < 0)
+					break;
+
+				// Object types are named without the 'L' and ';' while array types keep their full descriptor.
+				String type = start == i ? text.substring(i + 1, end) : text.substring(start, end + 1);
+				if (predicate.test(type))
+					return true;
+				i = end + 1;
+			} else {
+				if (start != i && predicate.test(text.substring(start, i + 1)))
+					return true;
+				i++;
+			}
+		}
+		return false;
+	}
+
 	@Nonnull
 	@Override
 	public JvmClassSearchVisitor visitor(@Nullable JvmClassSearchVisitor delegate) {
 		return (resultSink, currentLocation, classInfo) -> {
 			if (delegate != null)
 				delegate.visit(resultSink, currentLocation, classInfo);
-			classInfo.getClassReader().accept(new AsmReferenceClassVisitor(resultSink, currentLocation, classInfo), 0);
+			classInfo.getClassReader().accept(classVisitor(null, resultSink, currentLocation, classInfo), 0);
+		};
+	}
+
+	@Nonnull
+	@Override
+	public ClassVisitor classVisitor(@Nullable ClassVisitor delegate,
+									 @Nonnull ResultSink resultSink,
+									 @Nonnull ClassPathNode classPath,
+									 @Nonnull JvmClassInfo classInfo) {
+		return new AsmReferenceClassVisitor(delegate, resultSink, classPath, classInfo);
+	}
+
+	@Nonnull
+	@Override
+	public AndroidClassSearchVisitor visitor(@Nullable AndroidClassSearchVisitor delegate) {
+		return (resultSink, currentLocation, classInfo) -> {
+			if (delegate != null)
+				delegate.visit(resultSink, currentLocation, classInfo);
+			visitAndroidClass(resultSink, currentLocation, classInfo);
 		};
 	}
 
+	/**
+	 * Visits references in Android classes directly from their DEX model.
+	 * Matches in method code are reported at the declaring method, as there are no JVM instructions to point to.
+	 */
+	private void visitAndroidClass(@Nonnull ResultSink resultSink,
+								   @Nonnull ClassPathNode classPath,
+								   @Nonnull AndroidClassInfo classInfo) {
+		for (FieldMember field : classInfo.getFields()) {
+			ClassMemberPathNode memberPath = classPath.child(field);
+
+			// Check descriptor
+			String fieldType = getInternalName(field.getDescriptor());
+			if (isClassRefMatch(fieldType))
+				resultSink.accept(memberPath, cref(fieldType));
+			visitAndroidAnnotations(resultSink, memberPath, field);
+		}
+		for (MethodMember method : classInfo.getMethods()) {
+			ClassMemberPathNode memberPath = classPath.child(method);
+
+			// Check descriptor components
+			// - Only yield one match even if there are multiple class-refs in the desc
+			Type methodType = Type.getMethodType(method.getDescriptor());
+			String methodRetType = methodType.getReturnType().getInternalName();
+			if (isClassRefMatch(methodRetType))
+				resultSink.accept(memberPath, cref(methodRetType));
+			else for (Type argumentType : methodType.getArgumentTypes())
+				if (isClassRefMatch(argumentType.getInternalName())) {
+					resultSink.accept(memberPath, cref(argumentType.getInternalName()));
+					break;
+				}
+			visitAndroidAnnotations(resultSink, memberPath, method);
+		}
+
+		// Check references in method code
+		DexCodeScanner.scan(classInfo, new DexCodeScanner.Visitor() {
+			@Override
+			public void visitTypeReference(@Nonnull MethodMember method, @Nonnull String type) {
+				if (isClassRefMatch(type))
+					resultSink.accept(classPath.child(method), cref(type));
+			}
+
+			@Override
+			public void visitMemberReference(@Nonnull MethodMember method, @Nonnull String owner,
+											 @Nonnull String name, @Nonnull String desc) {
+				if (isMemberRefMatch(owner, name, desc))
+					resultSink.accept(classPath.child(method), mref(owner, name, desc));
+			}
+		});
+	}
+
+	private void visitAndroidAnnotations(@Nonnull ResultSink resultSink,
+										 @Nonnull ClassMemberPathNode memberPath,
+										 @Nonnull Annotated annotated) {
+		for (AnnotationInfo annotation : annotated.getAnnotations()) {
+			// Annotations adapted from DEX classes may use internal names rather than descriptors
+			String desc = annotation.getDescriptor();
+			String type = desc.endsWith(";") ? getInternalName(desc) : desc;
+			if (isClassRefMatch(type))
+				resultSink.accept(memberPath, cref(type));
+		}
+	}
+
 	/**
 	 * Visits references in classes.
 	 */
@@ -137,10 +311,11 @@ private class AsmReferenceClassVisitor extends ClassVisitor {
 		private final ClassPathNode classPath;
 		private final JvmClassInfo classInfo;
 
-		public AsmReferenceClassVisitor(@Nonnull ResultSink resultSink,
+		public AsmReferenceClassVisitor(@Nullable ClassVisitor delegate,
+										@Nonnull ResultSink resultSink,
 										@Nonnull ClassPathNode classPath,
 										@Nonnull JvmClassInfo classInfo) {
-			super(RecafConstants.getAsmVersion());
+			super(RecafConstants.getAsmVersion(), delegate);
 			this.resultSink = resultSink;
 			this.classPath = classPath;
 			this.classInfo = classInfo;
@@ -6,6 +6,7 @@
 import software.coley.recaf.path.FilePathNode;
 import software.coley.recaf.services.search.FileSearchVisitor;
 import software.coley.recaf.services.search.ResultSink;
+import software.coley.recaf.services.search.match.ConstantPoolPrefilter;
 import software.coley.recaf.services.search.match.StringPredicate;
 
 /**
@@ -31,6 +32,12 @@ protected boolean isMatch(Object value) {
 		return false;
 	}
 
+	@Nullable
+	@Override
+	public ConstantPoolPrefilter prefilter() {
+		return predicate.constantPoolPrefilter();
+	}
+
 	@Nonnull
 	@Override
 	public FileSearchVisitor visitor(@Nullable FileSearchVisitor delegate) {
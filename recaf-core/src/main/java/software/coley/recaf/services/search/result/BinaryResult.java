@@ -0,0 +1,77 @@
+package software.coley.recaf.services.search.result;
+
+import jakarta.annotation.Nonnull;
+import software.coley.recaf.path.PathNode;
+
+/**
+ * Result of a binary pattern match.
+ *
+ * @author Matt Coley
+ */
+public class BinaryResult extends Result<BinaryResult.BinaryMatch> {
+	private final BinaryMatch match;
+
+	/**
+	 * @param path
+	 * 		Path to item containing the result.
+	 * @param match
+	 * 		Location of the matched bytes.
+	 */
+	public BinaryResult(@Nonnull PathNode<?> path, @Nonnull BinaryMatch match) {
+		super(path);
+		this.match = match;
+	}
+
+	@Nonnull
+	@Override
+	protected BinaryMatch getValue() {
+		return match;
+	}
+
+	public static class BinaryMatch {
+		private final int offset;
+		private final int length;
+
+		public BinaryMatch(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * @return Offset of the first matched byte in the content.
+		 */
+		public int getOffset() {
+			return offset;
+		}
+
+		/**
+		 * @return Number of matched bytes.
+		 */
+		public int getLength() {
+			return length;
+		}
+
+		@Override
+		public String toString() {
+			return "BinaryMatch{" +
+					"offset=" + offset +
+					", length=" + length +
+					'}';
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			BinaryMatch that = (BinaryMatch) o;
+
+			return offset == that.offset && length == that.length;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * offset + length;
+		}
+	}
+}
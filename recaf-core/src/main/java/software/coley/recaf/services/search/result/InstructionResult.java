@@ -0,0 +1,73 @@
+package software.coley.recaf.services.search.result;
+
+import jakarta.annotation.Nonnull;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import software.coley.recaf.path.PathNode;
+import software.coley.recaf.util.BlwUtil;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of an instruction sequence match.
+ *
+ * @author Matt Coley
+ */
+public class InstructionResult extends Result<InstructionResult.InstructionSequence> {
+	private final InstructionSequence sequence;
+
+	/**
+	 * @param path
+	 * 		Path to the first instruction of the match.
+	 * @param sequence
+	 * 		Matched instructions.
+	 */
+	public InstructionResult(@Nonnull PathNode<?> path, @Nonnull InstructionSequence sequence) {
+		super(path);
+		this.sequence = sequence;
+	}
+
+	@Nonnull
+	@Override
+	protected InstructionSequence getValue() {
+		return sequence;
+	}
+
+	public static class InstructionSequence {
+		private final List<AbstractInsnNode> instructions;
+
+		public InstructionSequence(@Nonnull List<AbstractInsnNode> instructions) {
+			this.instructions = instructions;
+		}
+
+		/**
+		 * @return Matched instructions.
+		 */
+		@Nonnull
+		public List<AbstractInsnNode> getInstructions() {
+			return instructions;
+		}
+
+		@Override
+		public String toString() {
+			return "InstructionSequence{" +
+					instructions.stream().map(BlwUtil::toString).collect(Collectors.joining("; ")) +
+					'}';
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			InstructionSequence that = (InstructionSequence) o;
+
+			return instructions.equals(that.instructions);
+		}
+
+		@Override
+		public int hashCode() {
+			return instructions.hashCode();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package software.coley.recaf.services.workspace.io;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.objectweb.asm.ClassReader;
@@ -8,6 +9,7 @@
 import software.coley.cafedude.classfile.VersionConstants;
 import software.coley.recaf.analytics.logging.Logging;
 import software.coley.recaf.info.Info;
+import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.builder.*;
 import software.coley.recaf.info.properties.builtin.IllegalClassSuspectProperty;
 import software.coley.recaf.util.ByteHeaderUtil;
@@ -37,6 +39,12 @@ public BasicInfoImporter(@Nonnull InfoImporterConfig config, @Nonnull ClassPatch
 	@Nonnull
 	@Override
 	public Info readInfo(@Nonnull String name, @Nonnull ByteSource source) throws IOException {
+		return readInfo(name, source, null);
+	}
+
+	@Nonnull
+	@Override
+	public Info readInfo(@Nonnull String name, @Nonnull ByteSource source, @Nullable ImportMetrics metrics) throws IOException {
 		byte[] data = source.readAll();
 
 		// Check for Java classes
@@ -45,22 +53,20 @@ public Info readInfo(@Nonnull String name, @Nonnull ByteSource source) throws IO
 				// If we're skipping validation, any ASM parse failures will result in the class
 				// being treated as a file instead (see catch block)
 				if (config.doSkipAsmValidation())
-					return new JvmClassInfoBuilder(data).build();
+					return readClass(data, false);
 
 				// If we are doing validation, disable skipping ASM checks.
 				try {
-					return new JvmClassInfoBuilder()
-							.skipValidationChecks(false)
-							.adaptFrom(data)
-							.build();
+					return readClass(data, true);
 				} catch (Throwable t) {
 					// Patch if not compatible with ASM
+					long patchStart = System.nanoTime();
 					byte[] patched = classPatcher.patch(name, data);
+					if (metrics != null)
+						metrics.recordPatchedClass(System.nanoTime() - patchStart);
 					logger.debug("CafeDude patched class: {}", name);
 					try {
-						return new JvmClassInfoBuilder(patched)
-							.skipValidationChecks(false)
-							.build();
+						return readClass(patched, true);
 					} catch (Throwable t1) {
 						logger.error("CafeDude patching output is still non-compliant with ASM for file: {}", name);
 						return new FileInfoBuilder<>()
@@ -151,6 +157,27 @@ public Info readInfo(@Nonnull String name, @Nonnull ByteSource source) throws IO
 				.build();
 	}
 
+	/**
+	 * @param data
+	 * 		Class bytecode.
+	 * @param validate
+	 * 		Flag to enable validation checks, see {@link JvmClassInfoBuilder#skipValidationChecks(boolean)}.
+	 *
+	 * @return Class info of the bytecode. Only the header is read if {@link InfoImporterConfig#doLazyClassModels()}
+	 * is enabled and validation is disabled.
+	 */
+	@Nonnull
+	private JvmClassInfo readClass(@Nonnull byte[] data, boolean validate) {
+		// Validation visits the entire class, so there is nothing to gain from deferring the model when validating.
+		// Parsing it eagerly also ensures parse failures are handled here, rather than on first access of the model.
+		JvmClassInfoBuilder builder = new JvmClassInfoBuilder().skipValidationChecks(!validate);
+		if (config.doLazyClassModels() && !validate)
+			builder.adaptHeaderFrom(data);
+		else
+			builder.adaptFrom(data);
+		return builder.build();
+	}
+
 	/**
 	 * Check if the byte array is prefixed by the class file magic header.
 	 *
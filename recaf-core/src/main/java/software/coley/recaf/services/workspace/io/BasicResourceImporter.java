@@ -1,10 +1,12 @@
 package software.coley.recaf.services.workspace.io;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import software.coley.lljzip.format.model.CentralDirectoryFileHeader;
+import software.coley.lljzip.format.model.LocalFileHeader;
 import software.coley.lljzip.format.model.ZipArchive;
 import software.coley.lljzip.util.ExtraFieldTime;
 import software.coley.lljzip.util.MemorySegmentUtil;
@@ -17,6 +19,7 @@
 import software.coley.recaf.util.io.ByteSource;
 import software.coley.recaf.util.io.ByteSources;
 import software.coley.recaf.util.io.LocalFileHeaderSource;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.workspace.model.bundle.*;
 import software.coley.recaf.workspace.model.resource.*;
 
@@ -27,6 +30,11 @@
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Basic implementation of the resource importer.
@@ -36,15 +44,21 @@
 @ApplicationScoped
 public class BasicResourceImporter implements ResourceImporter, Service {
 	private static final int MAX_ZIP_DEPTH = 3;
+	private static final int MAX_PENDING_DIRECTORY_READS = 1024;
 	private static final Logger logger = Logging.get(BasicResourceImporter.class);
 	private final InfoImporter infoImporter;
 	private final ResourceImporterConfig config;
+	private final ResourceSnapshotCache snapshotCache;
+	private final List<ResourceImportListener> importListeners = new CopyOnWriteArrayList<>();
+	private final ExecutorService importPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID);
 
 	@Inject
 	public BasicResourceImporter(@Nonnull InfoImporter infoImporter,
-								 @Nonnull ResourceImporterConfig config) {
+								 @Nonnull ResourceImporterConfig config,
+								 @Nonnull ResourceSnapshotCache snapshotCache) {
 		this.infoImporter = infoImporter;
 		this.config = config;
+		this.snapshotCache = snapshotCache;
 	}
 
 	/**
@@ -56,13 +70,15 @@ public BasicResourceImporter(@Nonnull InfoImporter infoImporter,
 	 * 		Name of input file / content.
 	 * @param source
 	 * 		Access to content / data.
+	 * @param context
+	 * 		Context of the import.
 	 *
 	 * @return Read resource.
 	 */
 	private WorkspaceResource handleSingle(WorkspaceFileResourceBuilder builder,
-										   String pathName, ByteSource source) throws IOException {
+										   String pathName, ByteSource source, ImportContext context) throws IOException {
 		// Read input as raw info in order to determine file-type.
-		Info readInfo = infoImporter.readInfo(pathName.substring(pathName.lastIndexOf('/') + 1), source);
+		Info readInfo = readInfo(context, pathName.substring(pathName.lastIndexOf('/') + 1), source);
 
 		// Check if it is a single class.
 		if (readInfo.isClass()) {
@@ -94,20 +110,24 @@ private WorkspaceResource handleSingle(WorkspaceFileResourceBuilder builder,
 		// Check for general ZIP container format (ZIP/JAR/WAR/APK/JMod)
 		if (readInfoAsFile.isZipFile()) {
 			ZipFileInfo readInfoAsZip = readInfoAsFile.asZipFile();
-			return handleZip(builder, readInfoAsZip, source);
+			if (config.getSnapshotCache().getValue())
+				return handleZipWithSnapshot(builder, readInfoAsZip, source, context);
+			return handleZip(builder, readInfoAsZip, source, context);
 		}
 
 		// Check for DEX file format.
 		if (readInfoAsFile instanceof DexFileInfo) {
 			String dexName = readInfoAsFile.getName();
+			long start = System.nanoTime();
 			AndroidClassBundle dexBundle = DexIOUtil.read(readInfoAsFile.getRawContent());
+			context.metrics().recordPhase(ImportPhase.CONTAINER_PARSING, System.nanoTime() - start);
 			return builder.withAndroidClassBundles(Map.of(dexName, dexBundle))
 					.build();
 		}
 
 		// Must be some edge case type: Modules, or an unknown file type
 		if (readInfoAsFile instanceof ModulesFileInfo) {
-			return handleModules(builder, (ModulesFileInfo) readInfoAsFile);
+			return handleModules(builder, (ModulesFileInfo) readInfoAsFile, context);
 		}
 
 		// Unknown file type
@@ -118,7 +138,8 @@ private WorkspaceResource handleSingle(WorkspaceFileResourceBuilder builder,
 				.build();
 	}
 
-	private WorkspaceFileResource handleZip(WorkspaceFileResourceBuilder builder, ZipFileInfo zipInfo, ByteSource source) throws IOException {
+	private WorkspaceFileResource handleZip(WorkspaceFileResourceBuilder builder, ZipFileInfo zipInfo,
+											ByteSource source, ImportContext context) throws IOException {
 		logger.info("Reading input from ZIP container '{}'", zipInfo.getName());
 		builder.withFileInfo(zipInfo);
 		BasicJvmClassBundle classes = new BasicJvmClassBundle();
@@ -129,7 +150,10 @@ private WorkspaceFileResource handleZip(WorkspaceFileResourceBuilder builder, Zi
 
 		// Read ZIP
 		boolean isAndroid = zipInfo.getName().toLowerCase().endsWith(".apk");
-		ZipArchive archive = config.mapping().apply(source.readAll());
+		// The info already holds the archive content, so there is no need to read another copy from the source.
+		long parseStart = System.nanoTime();
+		ZipArchive archive = config.mapping().apply(zipInfo.getRawContent());
+		context.metrics().recordPhase(ImportPhase.CONTAINER_PARSING, System.nanoTime() - parseStart);
 
 		// Sanity check, if there's data at the head of the file AND its otherwise empty its probably junk.
 		MemorySegment prefixData = archive.getPrefixData();
@@ -144,59 +168,29 @@ private WorkspaceFileResource handleZip(WorkspaceFileResourceBuilder builder, Zi
 		}
 
 		// Build model from the contained files in the ZIP
-		archive.getLocalFiles().forEach(header -> {
-			LocalFileHeaderSource headerSource = new LocalFileHeaderSource(header, isAndroid);
-			String entryName = header.getFileNameAsString();
-
-			// Skip directories. There is no such thing as a 'directory' entry in ZIP files.
-			// The only thing we can say is that if it ends with a '/' and has no data associated with it,
-			// then it is probably a directory.
-			if (entryName.endsWith("/") && Unchecked.getOr(headerSource::isEmpty, false))
-				return;
-
-			// Read the value of the entry to figure out how to handle adding it to the resource builder.
-			Info info;
-			try {
-				info = infoImporter.readInfo(entryName, headerSource);
-			} catch (IOException ex) {
-				logger.error("IO error reading ZIP entry '{}' - skipping", entryName, ex);
-				return;
-			}
-
-			// Record common entry attributes
-			ZipCompressionProperty.set(info, header.getCompressionMethod());
-			ExtraFieldTime.TimeWrapper extraTimes = ExtraFieldTime.read(header);
-			CentralDirectoryFileHeader centralHeader = header.getLinkedDirectoryFileHeader();
-			if (centralHeader != null) {
-				if (centralHeader.getFileCommentLength() > 0)
-					ZipCommentProperty.set(info, centralHeader.getFileCommentAsString());
-				if (extraTimes == null)
-					extraTimes = ExtraFieldTime.read(centralHeader);
-			}
-			if (extraTimes != null) {
-				ZipCreationTimeProperty.set(info, extraTimes.getCreationMs());
-				ZipModificationTimeProperty.set(info, extraTimes.getModifyMs());
-				ZipAccessTimeProperty.set(info, extraTimes.getAccessMs());
+		List<LocalFileHeader> localFiles = archive.getLocalFiles();
+		if (config.getParallelEntryDecoding().getValue() && context.depth() == 0 && localFiles.size() > 1) {
+			// Decode entries in parallel, but add them to the bundles in the same order as they appear in the ZIP.
+			// Bundle insertion and de-duplication depend on the order of entries, so that must be done sequentially.
+			// Embedded archives are decoded inline, as they may themselves be imported on the import pool.
+			List<CompletableFuture<ZipEntryData>> futures = new ArrayList<>(localFiles.size());
+			for (LocalFileHeader header : localFiles)
+				futures.add(CompletableFuture.supplyAsync(() -> readZipEntry(header, isAndroid, context), importPool));
+			for (CompletableFuture<ZipEntryData> future : futures) {
+				ZipEntryData entry = future.join();
+				if (entry != null)
+					addZipEntry(zipInfo, classes, files, androidClassBundles, versionedJvmClassBundles,
+							embeddedResources, context, entry);
 			}
-
-			// Skipping ZIP bombs
-			if (info.isFile() && info.asFile().isZipFile()) {
-				ZipFileInfo zipFile = info.asFile().asZipFile();
-				if (Arrays.equals(zipFile.getRawContent(), zipInfo.getRawContent())) {
-					logger.warn("Skip self-extracting ZIP bomb: {}", entryName);
-					return;
-				} else if (Arrays.stream(Thread.currentThread().getStackTrace())
-						.filter(trace -> trace.getMethodName().equals("handleZip"))
-						.count() > MAX_ZIP_DEPTH) {
-					logger.warn("Skip extracting embedded ZIP after {} levels: {}", MAX_ZIP_DEPTH, entryName);
-					return;
-				}
+		} else {
+			for (LocalFileHeader header : localFiles) {
+				ZipEntryData entry = readZipEntry(header, isAndroid, context);
+				if (entry != null)
+					addZipEntry(zipInfo, classes, files, androidClassBundles, versionedJvmClassBundles,
+							embeddedResources, context, entry);
 			}
-
-			// Add the info to the appropriate bundle
-			addInfo(classes, files, androidClassBundles, versionedJvmClassBundles, embeddedResources,
-					headerSource, entryName, info);
-		});
+		}
+		context.collectEmbedded(embeddedResources);
 		return builder
 				.withJvmClassBundle(classes)
 				.withAndroidClassBundles(androidClassBundles)
@@ -207,7 +201,137 @@ private WorkspaceFileResource handleZip(WorkspaceFileResourceBuilder builder, Zi
 				.build();
 	}
 
-	private WorkspaceDirectoryResource handleDirectory(WorkspaceResourceBuilder builder, Path directoryPath) throws IOException {
+	/**
+	 * Restores the ZIP resource from a {@link ResourceSnapshotCache snapshot} if one exists for its content.
+	 * Otherwise, the ZIP is read normally and a snapshot is recorded for the next time it is imported.
+	 *
+	 * @param builder
+	 * 		Builder to work with.
+	 * @param zipInfo
+	 * 		ZIP file info.
+	 * @param source
+	 * 		Access to the ZIP content.
+	 * @param context
+	 * 		Context of the import.
+	 *
+	 * @return Read or restored resource.
+	 */
+	private WorkspaceFileResource handleZipWithSnapshot(WorkspaceFileResourceBuilder builder, ZipFileInfo zipInfo,
+														ByteSource source, ImportContext context) throws IOException {
+		Path inputPath = InputFilePathProperty.get(zipInfo);
+		ResourceSnapshotCache.Key key = snapshotCache.computeKey(inputPath, zipInfo.getRawContent());
+		ExecutorService decodePool = config.getParallelEntryDecoding().getValue() && context.depth() == 0 ? importPool : null;
+		WorkspaceFileResource resource = snapshotCache.load(key, builder, zipInfo, decodePool);
+		if (resource == null) {
+			resource = handleZip(builder, zipInfo, source, context);
+			snapshotCache.save(key, resource);
+		}
+		return resource;
+	}
+
+	/**
+	 * Reads the content of a ZIP entry into an info value, recording common entry attributes on the info.
+	 * Does not modify any shared state, so this can be called from any thread.
+	 *
+	 * @param header
+	 * 		ZIP entry to read.
+	 * @param isAndroid
+	 * 		Flag indicating the containing ZIP is an APK.
+	 * @param context
+	 * 		Context of the import of the containing ZIP.
+	 *
+	 * @return Wrapper of the entry name, content source, and read info.
+	 * {@code null} when the entry should be skipped.
+	 */
+	@Nullable
+	private ZipEntryData readZipEntry(@Nonnull LocalFileHeader header, boolean isAndroid,
+									  @Nonnull ImportContext context) {
+		LocalFileHeaderSource headerSource = new LocalFileHeaderSource(header, isAndroid);
+		String entryName = header.getFileNameAsString();
+
+		// Skip directories. There is no such thing as a 'directory' entry in ZIP files.
+		// The only thing we can say is that if it ends with a '/' and has no data associated with it,
+		// then it is probably a directory.
+		if (entryName.endsWith("/") && Unchecked.getOr(headerSource::isEmpty, false))
+			return null;
+
+		// Read the value of the entry to figure out how to handle adding it to the resource builder.
+		Info info;
+		try {
+			info = readInfo(context, entryName, headerSource);
+		} catch (IOException ex) {
+			logger.error("IO error reading ZIP entry '{}' - skipping", entryName, ex);
+			return null;
+		}
+
+		// Record common entry attributes
+		ZipCompressionProperty.set(info, header.getCompressionMethod());
+		ExtraFieldTime.TimeWrapper extraTimes = ExtraFieldTime.read(header);
+		CentralDirectoryFileHeader centralHeader = header.getLinkedDirectoryFileHeader();
+		if (centralHeader != null) {
+			if (centralHeader.getFileCommentLength() > 0)
+				ZipCommentProperty.set(info, centralHeader.getFileCommentAsString());
+			if (extraTimes == null)
+				extraTimes = ExtraFieldTime.read(centralHeader);
+		}
+		if (extraTimes != null) {
+			ZipCreationTimeProperty.set(info, extraTimes.getCreationMs());
+			ZipModificationTimeProperty.set(info, extraTimes.getModifyMs());
+			ZipAccessTimeProperty.set(info, extraTimes.getAccessMs());
+		}
+		return new ZipEntryData(entryName, headerSource, info);
+	}
+
+	/**
+	 * Adds a read ZIP entry to the appropriate bundle. Must be called in the order entries appear in the ZIP.
+	 *
+	 * @param zipInfo
+	 * 		The containing ZIP file.
+	 * @param classes
+	 * 		Target class bundle.
+	 * @param files
+	 * 		Target file bundle.
+	 * @param androidClassBundles
+	 * 		Target map of android bundles.
+	 * @param versionedJvmClassBundles
+	 * 		Target map of versioned class bundles.
+	 * @param embeddedResources
+	 * 		Target map of embedded resources.
+	 * @param context
+	 * 		Context of the import of the containing ZIP.
+	 * @param entry
+	 * 		Read ZIP entry to add.
+	 */
+	private void addZipEntry(@Nonnull ZipFileInfo zipInfo,
+							 @Nonnull BasicJvmClassBundle classes,
+							 @Nonnull BasicFileBundle files,
+							 @Nonnull Map<String, AndroidClassBundle> androidClassBundles,
+							 @Nonnull NavigableMap<Integer, JvmClassBundle> versionedJvmClassBundles,
+							 @Nonnull Map<String, WorkspaceFileResource> embeddedResources,
+							 @Nonnull ImportContext context,
+							 @Nonnull ZipEntryData entry) {
+		String entryName = entry.name();
+		Info info = entry.info();
+
+		// Skipping ZIP bombs
+		if (info.isFile() && info.asFile().isZipFile()) {
+			ZipFileInfo zipFile = info.asFile().asZipFile();
+			if (Arrays.equals(zipFile.getRawContent(), zipInfo.getRawContent())) {
+				logger.warn("Skip self-extracting ZIP bomb: {}", entryName);
+				return;
+			} else if (context.depth() >= MAX_ZIP_DEPTH) {
+				logger.warn("Skip extracting embedded ZIP after {} levels: {}", MAX_ZIP_DEPTH, entryName);
+				return;
+			}
+		}
+
+		// Add the info to the appropriate bundle
+		addInfo(classes, files, androidClassBundles, versionedJvmClassBundles, embeddedResources, context,
+				entry.source(), entryName, info);
+	}
+
+	private WorkspaceDirectoryResource handleDirectory(WorkspaceResourceBuilder builder, Path directoryPath,
+													   ImportContext context) throws IOException {
 		logger.info("Reading input from directory '{}'", directoryPath);
 		BasicJvmClassBundle classes = new BasicJvmClassBundle();
 		BasicFileBundle files = new BasicFileBundle();
@@ -216,27 +340,38 @@ private WorkspaceDirectoryResource handleDirectory(WorkspaceResourceBuilder buil
 		Map<String, WorkspaceFileResource> embeddedResources = new HashMap<>();
 
 		// Walk the directory
-		Files.walkFileTree(directoryPath, new SimpleFileVisitor<>() {
-			@Override
-			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-				try {
-					// Read info from file
-					ByteSource source = ByteSources.forPath(file);
-					String fileName = directoryPath.relativize(file).toString();
-					if (File.separator.equals("\\"))
-						fileName = fileName.replace('\\', '/');
-					Info info = infoImporter.readInfo(fileName, source);
-
-					// Add the info to the appropriate bundle
+		boolean parallel = config.getParallelDirectoryImport().getValue();
+		ExecutorService service = parallel ? ThreadPoolFactory.newVirtualThreadPerTaskExecutor(SERVICE_ID) : null;
+		try {
+			// Files are read on virtual threads when reading in parallel, overlapping the IO of many files.
+			// The results are added to the bundles in the order they were walked, so the result is the same as
+			// when reading sequentially. Only a limited number of files are read ahead at a time.
+			Deque<CompletableFuture<ZipEntryData>> pending = new ArrayDeque<>();
+			Consumer<ZipEntryData> adder = entry -> {
+				if (entry != null)
 					addInfo(classes, files, androidClassBundles, versionedJvmClassBundles, embeddedResources,
-							source, fileName, info);
-				} catch (IOException ex) {
-					logger.error("IO error reading ZIP entry '{}' - skipping", file, ex);
+							context, entry.source(), entry.name(), entry.info());
+			};
+			Files.walkFileTree(directoryPath, new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if (service == null) {
+						adder.accept(readDirectoryFile(directoryPath, file, context));
+					} else {
+						pending.addLast(CompletableFuture.supplyAsync(() -> readDirectoryFile(directoryPath, file, context), service));
+						while (pending.size() >= MAX_PENDING_DIRECTORY_READS)
+							adder.accept(pending.removeFirst().join());
+					}
+					return FileVisitResult.CONTINUE;
 				}
-
-				return FileVisitResult.CONTINUE;
-			}
-		});
+			});
+			while (!pending.isEmpty())
+				adder.accept(pending.removeFirst().join());
+			context.collectEmbedded(embeddedResources);
+		} finally {
+			if (service != null)
+				service.shutdownNow();
+		}
 		return builder
 				.withJvmClassBundle(classes)
 				.withAndroidClassBundles(androidClassBundles)
@@ -247,14 +382,99 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IO
 				.build();
 	}
 
+	/**
+	 * Reads the content of a file in a directory into an info value.
+	 * Does not modify any shared state, so this can be called from any thread.
+	 *
+	 * @param directoryPath
+	 * 		Root directory being imported.
+	 * @param file
+	 * 		File in the directory to read.
+	 * @param context
+	 * 		Context of the import of the directory.
+	 *
+	 * @return Wrapper of the relative file name, content source, and read info.
+	 * {@code null} when the file could not be read.
+	 */
+	@Nullable
+	private ZipEntryData readDirectoryFile(@Nonnull Path directoryPath, @Nonnull Path file,
+										   @Nonnull ImportContext context) {
+		try {
+			// Read info from file
+			ByteSource source = ByteSources.forPath(file);
+			String fileName = directoryPath.relativize(file).toString();
+			if (File.separator.equals("\\"))
+				fileName = fileName.replace('\\', '/');
+			Info info = readInfo(context, fileName, source);
+			return new ZipEntryData(fileName, source, info);
+		} catch (IOException ex) {
+			logger.error("IO error reading ZIP entry '{}' - skipping", file, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads an info value, recording the work done to the import context.
+	 *
+	 * @param context
+	 * 		Context of the import.
+	 * @param name
+	 * 		Name of the content.
+	 * @param source
+	 * 		Access to the content.
+	 *
+	 * @return Read info.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read.
+	 */
+	@Nonnull
+	private Info readInfo(@Nonnull ImportContext context, @Nonnull String name, @Nonnull ByteSource source) throws IOException {
+		ImportMetrics metrics = context.metrics();
+		long start = System.nanoTime();
+		Info info = infoImporter.readInfo(name, source, metrics);
+		long size = 0;
+		if (info.isFile())
+			size = info.asFile().getRawContent().length;
+		else if (info.isClass() && info.asClass().isJvmClass())
+			size = info.asClass().asJvmClass().getBytecode().length;
+		metrics.recordEntry(name, System.nanoTime() - start, size);
+		return info;
+	}
+
 	private void addInfo(BasicJvmClassBundle classes,
 						 BasicFileBundle files,
 						 Map<String, AndroidClassBundle> androidClassBundles,
 						 NavigableMap<Integer, JvmClassBundle> versionedJvmClassBundles,
 						 Map<String, WorkspaceFileResource> embeddedResources,
+						 ImportContext context,
 						 ByteSource infoSource,
 						 String pathName,
 						 Info info) {
+		// Containers record their own work when they are read, everything else is recorded as bundle insertion.
+		if (info.isFile()) {
+			FileInfo fileInfo = info.asFile();
+			if (fileInfo.isZipFile() || fileInfo instanceof DexFileInfo || fileInfo instanceof ModulesFileInfo) {
+				insertInfo(classes, files, androidClassBundles, versionedJvmClassBundles, embeddedResources,
+						context, infoSource, pathName, info);
+				return;
+			}
+		}
+		long start = System.nanoTime();
+		insertInfo(classes, files, androidClassBundles, versionedJvmClassBundles, embeddedResources,
+				context, infoSource, pathName, info);
+		context.metrics().recordPhase(ImportPhase.BUNDLE_INSERTION, System.nanoTime() - start);
+	}
+
+	private void insertInfo(BasicJvmClassBundle classes,
+							BasicFileBundle files,
+							Map<String, AndroidClassBundle> androidClassBundles,
+							NavigableMap<Integer, JvmClassBundle> versionedJvmClassBundles,
+							Map<String, WorkspaceFileResource> embeddedResources,
+							ImportContext context,
+							ByteSource infoSource,
+							String pathName,
+							Info info) {
 		if (info.isClass()) {
 			// Must be a JVM class since Android classes do not exist in single-file form.
 			JvmClassInfo classInfo = info.asClass().asJvmClass();
@@ -319,7 +539,7 @@ private void addInfo(BasicJvmClassBundle classes,
 					// Handle duplicate classes
 					JvmClassInfo existingClass = bundle.get(className);
 					if (existingClass != null) {
-						deduplicateClass(existingClass, classInfo, bundle, files);
+						deduplicateClass(existingClass, classInfo, bundle, files, context.metrics());
 					} else {
 						VersionedClassProperty.set(classInfo, version);
 						bundle.initialPut(classInfo);
@@ -353,7 +573,7 @@ private void addInfo(BasicJvmClassBundle classes,
 			// Handle duplicate classes
 			JvmClassInfo existingClass = classes.get(className);
 			if (existingClass != null) {
-				deduplicateClass(existingClass, classInfo, classes, files);
+				deduplicateClass(existingClass, classInfo, classes, files, context.metrics());
 			} else {
 				classes.initialPut(classInfo);
 			}
@@ -363,7 +583,9 @@ private void addInfo(BasicJvmClassBundle classes,
 			// Check for special file cases (Currently just DEX)
 			if (fileInfo instanceof DexFileInfo) {
 				try {
+					long start = System.nanoTime();
 					AndroidClassBundle dexBundle = DexIOUtil.read(infoSource);
+					context.metrics().recordPhase(ImportPhase.CONTAINER_PARSING, System.nanoTime() - start);
 					androidClassBundles.put(pathName, dexBundle);
 					return;
 				} catch (IOException ex) {
@@ -373,15 +595,12 @@ private void addInfo(BasicJvmClassBundle classes,
 
 			// Check for container file cases (Any ZIP type, JAR/WAR/etc)
 			if (fileInfo.isZipFile()) {
-				try {
+				ImportContext embeddedContext = context.nested();
+				context.importEmbedded(pathName, () -> {
 					WorkspaceFileResourceBuilder embeddedResourceBuilder = new WorkspaceFileResourceBuilder()
 							.withFileInfo(fileInfo);
-					WorkspaceFileResource embeddedResource = handleZip(embeddedResourceBuilder,
-							fileInfo.asZipFile(), infoSource);
-					embeddedResources.put(pathName, embeddedResource);
-				} catch (IOException ex) {
-					logger.error("Failed to read embedded ZIP '{}'", pathName, ex);
-				}
+					return handleZip(embeddedResourceBuilder, fileInfo.asZipFile(), infoSource, embeddedContext);
+				});
 				return;
 			}
 
@@ -391,7 +610,8 @@ private void addInfo(BasicJvmClassBundle classes,
 					WorkspaceResourceBuilder embeddedResourceBuilder = new WorkspaceResourceBuilder()
 							.withFileInfo(fileInfo);
 					WorkspaceFileResource embeddedResource =
-							(WorkspaceFileResource) handleModules(embeddedResourceBuilder, (ModulesFileInfo) fileInfo);
+							(WorkspaceFileResource) handleModules(embeddedResourceBuilder, (ModulesFileInfo) fileInfo,
+									context.nested());
 					embeddedResources.put(pathName, embeddedResource);
 				} catch (IOException ex) {
 					logger.error("Failed to read embedded ZIP '{}'", pathName, ex);
@@ -424,7 +644,19 @@ private void addInfo(BasicJvmClassBundle classes,
 	 * 		Target class bundle.
 	 * @param files
 	 * 		Target file bundle for fallback item placement.
+	 * @param metrics
+	 * 		Recorder to report time taken to.
 	 */
+	private void deduplicateClass(JvmClassInfo existingClass, JvmClassInfo currentClass,
+								  BasicJvmClassBundle classes, BasicFileBundle files, ImportMetrics metrics) {
+		long start = System.nanoTime();
+		try {
+			deduplicateClass(existingClass, currentClass, classes, files);
+		} finally {
+			metrics.recordPhase(ImportPhase.DEDUPLICATION, System.nanoTime() - start);
+		}
+	}
+
 	private void deduplicateClass(JvmClassInfo existingClass, JvmClassInfo currentClass,
 								  BasicJvmClassBundle classes, BasicFileBundle files) {
 		String className = currentClass.getName();
@@ -523,7 +755,8 @@ private void deduplicateClass(JvmClassInfo existingClass, JvmClassInfo currentCl
 		}
 	}
 
-	private WorkspaceResource handleModules(WorkspaceResourceBuilder builder, ModulesFileInfo moduleInfo) throws IOException {
+	private WorkspaceResource handleModules(WorkspaceResourceBuilder builder, ModulesFileInfo moduleInfo,
+											ImportContext context) throws IOException {
 		BasicJvmClassBundle classes = new BasicJvmClassBundle();
 		BasicFileBundle files = new BasicFileBundle();
 
@@ -539,7 +772,7 @@ private WorkspaceResource handleModules(WorkspaceResourceBuilder builder, Module
 					ByteSource moduleFileSource = entry.getByteSource();
 					Info info;
 					try {
-						info = infoImporter.readInfo(moduleEntry.getFileName(), moduleFileSource);
+						info = readInfo(context, moduleEntry.getFileName(), moduleFileSource);
 					} catch (IOException ex) {
 						logger.error("IO error reading modules entry '{}' - skipping", moduleEntry.getOriginalPath());
 						return;
@@ -564,28 +797,122 @@ private WorkspaceResource handleModules(WorkspaceResourceBuilder builder, Module
 				.build();
 	}
 
+	/**
+	 * Runs the import of a top-level resource, then passes the report of the import to the given listener
+	 * and any registered listeners.
+	 *
+	 * @param action
+	 * 		Import action to run.
+	 * @param callListener
+	 * 		Optional listener for this import only.
+	 *
+	 * @return Imported resource.
+	 *
+	 * @throws IOException
+	 * 		When the import fails.
+	 */
+	@Nonnull
+	private WorkspaceResource importRoot(@Nonnull RootImport action,
+										 @Nullable ResourceImportListener callListener) throws IOException {
+		ImportMetrics metrics = new ImportMetrics();
+		ExecutorService service = config.getParallelEmbeddedImports().getValue() ? importPool : null;
+		WorkspaceResource resource = action.run(new ImportContext(0, metrics, service));
+
+		ImportReport report = metrics.toReport();
+		logger.debug("{}", report);
+		if (callListener != null)
+			notifyImportCompleted(callListener, resource, report);
+		for (ResourceImportListener listener : importListeners)
+			notifyImportCompleted(listener, resource, report);
+		return resource;
+	}
+
+	private static void notifyImportCompleted(@Nonnull ResourceImportListener listener,
+											  @Nonnull WorkspaceResource resource,
+											  @Nonnull ImportReport report) {
+		try {
+			listener.onImportCompleted(resource, report);
+		} catch (Throwable t) {
+			logger.error("Exception thrown by '{}' when completing import",
+					listener.getClass().getName(), t);
+		}
+	}
+
 	@Nonnull
 	@Override
 	public WorkspaceResource importResource(@Nonnull ByteSource source) throws IOException {
-		return handleSingle(new WorkspaceFileResourceBuilder(), "unknown.dat", source);
+		return importResource(source, null);
+	}
+
+	/**
+	 * @param source
+	 * 		Some generic content source.
+	 * @param listener
+	 * 		Optional listener to pass the report of this import to.
+	 *
+	 * @return Workspace resource representing the content.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read from.
+	 */
+	@Nonnull
+	public WorkspaceResource importResource(@Nonnull ByteSource source,
+											@Nullable ResourceImportListener listener) throws IOException {
+		return importRoot(context -> handleSingle(new WorkspaceFileResourceBuilder(), "unknown.dat", source, context),
+				listener);
 	}
 
 	@Nonnull
 	@Override
 	public WorkspaceResource importResource(@Nonnull Path path) throws IOException {
+		return importResource(path, null);
+	}
+
+	/**
+	 * @param path
+	 * 		File/directory path to import from.
+	 * @param listener
+	 * 		Optional listener to pass the report of this import to.
+	 *
+	 * @return Workspace resource representing the file/directory.
+	 *
+	 * @throws IOException
+	 * 		When the content at the file path cannot be read from.
+	 */
+	@Nonnull
+	public WorkspaceResource importResource(@Nonnull Path path,
+											@Nullable ResourceImportListener listener) throws IOException {
 		// Load name/data from path, parse into resource.
 		String absolutePath = StringUtil.pathToAbsoluteString(path);
 		if (Files.isDirectory(path)) {
-			return handleDirectory(new WorkspaceFileResourceBuilder(), path);
+			return importRoot(context -> handleDirectory(new WorkspaceFileResourceBuilder(), path, context), listener);
 		} else {
 			ByteSource byteSource = ByteSources.forPath(path);
-			return handleSingle(new WorkspaceFileResourceBuilder(), absolutePath, byteSource);
+			return importRoot(context -> handleSingle(new WorkspaceFileResourceBuilder(), absolutePath, byteSource, context),
+					listener);
 		}
 	}
 
 	@Nonnull
 	@Override
 	public WorkspaceResource importResource(@Nonnull URL url) throws IOException {
+		return importResource(url, null);
+	}
+
+	/**
+	 * @param url
+	 * 		URL to content to import from.
+	 * @param listener
+	 * 		Optional listener to pass the report of this import to.
+	 *
+	 * @return Workspace resource representing the remote content.
+	 *
+	 * @throws IOException
+	 * 		When content from the URL cannot be accessed.
+	 */
+	@Nonnull
+	public WorkspaceResource importResource(@Nonnull URL url,
+											@Nullable ResourceImportListener listener) throws IOException {
 		// Extract name from URL
 		String path = url.getFile();
 		if (path.isEmpty())
@@ -596,7 +923,25 @@ public WorkspaceResource importResource(@Nonnull URL url) throws IOException {
 		// Load content, parse into resource.
 		byte[] bytes = IOUtil.toByteArray(url.openStream());
 		ByteSource byteSource = ByteSources.wrap(bytes);
-		return handleSingle(new WorkspaceFileResourceBuilder(), path, byteSource);
+		String finalPath = path;
+		return importRoot(context -> handleSingle(new WorkspaceFileResourceBuilder(), finalPath, byteSource, context),
+				listener);
+	}
+
+	/**
+	 * @param listener
+	 * 		Listener to add, called when an import of a top-level resource completes.
+	 */
+	public void addImportListener(@Nonnull ResourceImportListener listener) {
+		importListeners.add(listener);
+	}
+
+	/**
+	 * @param listener
+	 * 		Listener to remove.
+	 */
+	public void removeImportListener(@Nonnull ResourceImportListener listener) {
+		importListeners.remove(listener);
 	}
 
 	@Nonnull
@@ -610,4 +955,118 @@ public String getServiceId() {
 	public ResourceImporterConfig getServiceConfig() {
 		return config;
 	}
+
+	/**
+	 * Wrapper of a read ZIP entry, or file when reading from a directory.
+	 *
+	 * @param name
+	 * 		Entry name.
+	 * @param source
+	 * 		Entry content source.
+	 * @param info
+	 * 		Info read from the entry content.
+	 */
+	private record ZipEntryData(@Nonnull String name, @Nonnull ByteSource source, @Nonnull Info info) {
+	}
+
+	/**
+	 * Import action of a top-level resource.
+	 */
+	private interface RootImport {
+		@Nonnull
+		WorkspaceResource run(@Nonnull ImportContext context) throws IOException;
+	}
+
+	/**
+	 * Context for importing the contents of a single container, such as a ZIP or directory.
+	 * Tracks how deeply the container is nested in other archives, the embedded resources of the container
+	 * that are being imported, and the metrics of the overall import.
+	 * <p/>
+	 * Embedded resources of a top-level container can be imported concurrently when the context has an
+	 * executor to run them on. Embedded resources of those embedded resources are imported on the thread
+	 * handling their container. Tasks on the executor thus never wait on other tasks of the same executor.
+	 */
+	private static class ImportContext {
+		private final Map<String, CompletableFuture<WorkspaceFileResource>> embeddedImports = new LinkedHashMap<>();
+		private final ImportMetrics metrics;
+		private final ExecutorService embeddedService;
+		private final int depth;
+
+		/**
+		 * @param depth
+		 * 		Number of containers the current container is nested within.
+		 * @param metrics
+		 * 		Recorder for the overall import.
+		 * @param embeddedService
+		 * 		Optional executor to import embedded resources on.
+		 */
+		private ImportContext(int depth, @Nonnull ImportMetrics metrics, @Nullable ExecutorService embeddedService) {
+			this.depth = depth;
+			this.metrics = metrics;
+			this.embeddedService = embeddedService;
+		}
+
+		/**
+		 * @return Number of containers the current container is nested within.
+		 */
+		private int depth() {
+			return depth;
+		}
+
+		/**
+		 * @return Recorder for the overall import.
+		 */
+		@Nonnull
+		private ImportMetrics metrics() {
+			return metrics;
+		}
+
+		/**
+		 * @return Context for a container nested within the current one.
+		 */
+		@Nonnull
+		private ImportContext nested() {
+			return new ImportContext(depth + 1, metrics, null);
+		}
+
+		/**
+		 * @param pathName
+		 * 		Path of the embedded resource in the current container.
+		 * @param importer
+		 * 		Action to import the embedded resource.
+		 */
+		private void importEmbedded(@Nonnull String pathName, @Nonnull UncheckedSupplier<WorkspaceFileResource> importer) {
+			Supplier<WorkspaceFileResource> task = () -> {
+				try {
+					return importer.uncheckedGet();
+				} catch (IOException ex) {
+					logger.error("Failed to read embedded ZIP '{}'", pathName, ex);
+					return null;
+				} catch (Throwable t) {
+					ReflectUtil.propagate(t);
+					return null;
+				}
+			};
+
+			// Later entries of the same path replace prior ones, matching the JVM's handling of duplicate entries.
+			embeddedImports.put(pathName, embeddedService == null ?
+					CompletableFuture.completedFuture(task.get()) :
+					CompletableFuture.supplyAsync(task, embeddedService));
+		}
+
+		/**
+		 * Waits for all embedded resources of the current container to be imported.
+		 *
+		 * @param embeddedResources
+		 * 		Target map of embedded resources to put imported resources into.
+		 */
+		private void collectEmbedded(@Nonnull Map<String, WorkspaceFileResource> embeddedResources) {
+			embeddedImports.forEach((pathName, future) -> {
+				WorkspaceFileResource resource = future.join();
+				if (resource != null)
+					embeddedResources.put(pathName, resource);
+			});
+			embeddedImports.clear();
+		}
+	}
 }
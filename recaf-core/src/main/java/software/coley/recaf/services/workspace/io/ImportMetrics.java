@@ -0,0 +1,96 @@
+package software.coley.recaf.services.workspace.io;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe recorder of work done when importing a resource. Used to create an {@link ImportReport}.
+ *
+ * @author Matt Coley
+ */
+public class ImportMetrics {
+	private static final int MAX_SLOWEST_ENTRIES = 10;
+	private final Map<ImportPhase, LongAdder> phaseNanos = new EnumMap<>(ImportPhase.class);
+	private final PriorityQueue<ImportReport.EntryTiming> slowestEntries =
+			new PriorityQueue<>(Comparator.comparingLong(ImportReport.EntryTiming::nanos));
+	private final LongAdder entryCount = new LongAdder();
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder patchedClassCount = new LongAdder();
+	private final long start = System.nanoTime();
+
+	/**
+	 * New recorder. The total time of the import is measured from this point.
+	 */
+	public ImportMetrics() {
+		for (ImportPhase phase : ImportPhase.values())
+			phaseNanos.put(phase, new LongAdder());
+	}
+
+	/**
+	 * @param phase
+	 * 		Phase to record time for.
+	 * @param nanos
+	 * 		Time spent in the phase, in nanoseconds.
+	 */
+	public void recordPhase(@Nonnull ImportPhase phase, long nanos) {
+		phaseNanos.get(phase).add(nanos);
+	}
+
+	/**
+	 * Records the reading of a file or entry. The time is recorded under {@link ImportPhase#INFO_READING}.
+	 *
+	 * @param name
+	 * 		Entry name.
+	 * @param nanos
+	 * 		Time taken to read the entry, in nanoseconds.
+	 * @param size
+	 * 		Size of the entry content, in bytes.
+	 */
+	public void recordEntry(@Nonnull String name, long nanos, long size) {
+		recordPhase(ImportPhase.INFO_READING, nanos);
+		entryCount.increment();
+		bytesRead.add(size);
+		synchronized (slowestEntries) {
+			if (slowestEntries.size() < MAX_SLOWEST_ENTRIES) {
+				slowestEntries.add(new ImportReport.EntryTiming(name, nanos));
+			} else if (slowestEntries.peek().nanos() < nanos) {
+				slowestEntries.poll();
+				slowestEntries.add(new ImportReport.EntryTiming(name, nanos));
+			}
+		}
+	}
+
+	/**
+	 * Records the patching of a class. The time is recorded under {@link ImportPhase#CLASS_PATCHING}.
+	 *
+	 * @param nanos
+	 * 		Time taken to patch the class, in nanoseconds.
+	 */
+	public void recordPatchedClass(long nanos) {
+		recordPhase(ImportPhase.CLASS_PATCHING, nanos);
+		patchedClassCount.increment();
+	}
+
+	/**
+	 * @return Report of the currently recorded values.
+	 */
+	@Nonnull
+	public ImportReport toReport() {
+		Map<ImportPhase, Long> phases = new EnumMap<>(ImportPhase.class);
+		phaseNanos.forEach((phase, nanos) -> phases.put(phase, nanos.sum()));
+		List<ImportReport.EntryTiming> slowest;
+		synchronized (slowestEntries) {
+			slowest = new ArrayList<>(slowestEntries);
+		}
+		slowest.sort(Comparator.comparingLong(ImportReport.EntryTiming::nanos).reversed());
+		return new ImportReport(phases, slowest, System.nanoTime() - start,
+				entryCount.sum(), bytesRead.sum(), patchedClassCount.sum());
+	}
+}
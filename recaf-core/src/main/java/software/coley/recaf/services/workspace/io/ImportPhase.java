@@ -0,0 +1,30 @@
+package software.coley.recaf.services.workspace.io;
+
+/**
+ * Phases of importing a resource, recorded in an {@link ImportReport}.
+ *
+ * @author Matt Coley
+ */
+public enum ImportPhase {
+	/**
+	 * Parsing the structure of containers, such as ZIP archives and DEX files.
+	 */
+	CONTAINER_PARSING,
+	/**
+	 * Reading the contents of files and entries into {@link software.coley.recaf.info.Info} values.
+	 * Includes {@link #CLASS_PATCHING}.
+	 */
+	INFO_READING,
+	/**
+	 * Patching classes that cannot be read as-is, see {@link ClassPatcher}.
+	 */
+	CLASS_PATCHING,
+	/**
+	 * Adding read values into the bundles of the resource. Includes {@link #DEDUPLICATION}.
+	 */
+	BUNDLE_INSERTION,
+	/**
+	 * Resolving duplicate classes.
+	 */
+	DEDUPLICATION
+}
@@ -0,0 +1,144 @@
+package software.coley.recaf.services.workspace.io;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of the work done when importing a resource.
+ * <p/>
+ * Phases that are done across multiple threads, such as {@link ImportPhase#INFO_READING} with parallel entry
+ * decoding, record the sum of the time spent on each thread. Such phases can exceed the {@link #getTotalNanos()
+ * total wall time} of the import.
+ *
+ * @author Matt Coley
+ * @see BasicResourceImporter#addImportListener(ResourceImportListener)
+ * @see BasicResourceImporter#importResource(java.nio.file.Path, ResourceImportListener)
+ */
+public class ImportReport {
+	private final Map<ImportPhase, Long> phaseNanos;
+	private final List<EntryTiming> slowestEntries;
+	private final long totalNanos;
+	private final long entryCount;
+	private final long bytesRead;
+	private final long patchedClassCount;
+
+	/**
+	 * @param phaseNanos
+	 * 		Time spent in each phase, in nanoseconds.
+	 * @param slowestEntries
+	 * 		Entries that took the longest to read, slowest first.
+	 * @param totalNanos
+	 * 		Wall time of the import, in nanoseconds.
+	 * @param entryCount
+	 * 		Number of files and entries read.
+	 * @param bytesRead
+	 * 		Total size of files and entries read.
+	 * @param patchedClassCount
+	 * 		Number of classes patched.
+	 */
+	public ImportReport(@Nonnull Map<ImportPhase, Long> phaseNanos, @Nonnull List<EntryTiming> slowestEntries,
+						long totalNanos, long entryCount, long bytesRead, long patchedClassCount) {
+		this.phaseNanos = Collections.unmodifiableMap(new EnumMap<>(phaseNanos));
+		this.slowestEntries = List.copyOf(slowestEntries);
+		this.totalNanos = totalNanos;
+		this.entryCount = entryCount;
+		this.bytesRead = bytesRead;
+		this.patchedClassCount = patchedClassCount;
+	}
+
+	/**
+	 * @param phase
+	 * 		Phase to get the time of.
+	 *
+	 * @return Time spent in the given phase, in nanoseconds.
+	 */
+	public long getPhaseNanos(@Nonnull ImportPhase phase) {
+		return phaseNanos.getOrDefault(phase, 0L);
+	}
+
+	/**
+	 * @return Map of phases to the time spent in them, in nanoseconds.
+	 */
+	@Nonnull
+	public Map<ImportPhase, Long> getPhaseNanos() {
+		return phaseNanos;
+	}
+
+	/**
+	 * @return Entries that took the longest to read, slowest first.
+	 */
+	@Nonnull
+	public List<EntryTiming> getSlowestEntries() {
+		return slowestEntries;
+	}
+
+	/**
+	 * @return Wall time of the import, in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return Number of files and entries read, including those of embedded resources.
+	 */
+	public long getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * @return Total size of files and entries read, in bytes.
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * @return Number of classes that had to be patched in order to be read.
+	 */
+	public long getPatchedClassCount() {
+		return patchedClassCount;
+	}
+
+	/**
+	 * @return Number of entries read per second of the total import time.
+	 */
+	public double getEntriesPerSecond() {
+		if (totalNanos <= 0) return 0;
+		return entryCount / (totalNanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Import completed in ").append(TimeUnit.NANOSECONDS.toMillis(totalNanos)).append("ms")
+				.append(", entries=").append(entryCount)
+				.append(String.format(" (%.1f/s)", getEntriesPerSecond()))
+				.append(", bytes=").append(bytesRead)
+				.append(", patched-classes=").append(patchedClassCount);
+		for (ImportPhase phase : ImportPhase.values())
+			sb.append("\n - ").append(phase.name().toLowerCase()).append(": ")
+					.append(TimeUnit.NANOSECONDS.toMillis(getPhaseNanos(phase))).append("ms");
+		if (!slowestEntries.isEmpty()) {
+			sb.append("\nSlowest entries:");
+			for (EntryTiming entry : slowestEntries)
+				sb.append("\n - ").append(entry.name()).append(": ")
+						.append(TimeUnit.NANOSECONDS.toMillis(entry.nanos())).append("ms");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param name
+	 * 		Entry name.
+	 * @param nanos
+	 * 		Time taken to read the entry, in nanoseconds.
+	 */
+	public record EntryTiming(@Nonnull String name, long nanos) {
+	}
+}
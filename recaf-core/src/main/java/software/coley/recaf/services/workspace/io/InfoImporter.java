@@ -1,6 +1,7 @@
 package software.coley.recaf.services.workspace.io;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import software.coley.recaf.info.Info;
 import software.coley.recaf.services.Service;
 import software.coley.recaf.util.io.ByteSource;
@@ -28,4 +29,26 @@ public interface InfoImporter extends Service {
 	 */
 	@Nonnull
 	Info readInfo(@Nonnull String name, @Nonnull ByteSource source) throws IOException;
+
+	/**
+	 * @param name
+	 * 		Name to pass for {@link Info#getName()} if it cannot be inferred from the content source.
+	 * @param source
+	 * 		Source of content to read data from.
+	 * @param metrics
+	 * 		Optional recorder to report work such as class patching to.
+	 *
+	 * @return Info instance.
+	 *
+	 * @throws IOException
+	 * 		When the content cannot be read.
+	 */
+	@Nonnull
+	default Info readInfo(@Nonnull String name, @Nonnull ByteSource source, @Nullable ImportMetrics metrics) throws IOException {
+		return readInfo(name, source);
+	}
+
+	@Nonnull
+	@Override
+	InfoImporterConfig getServiceConfig();
 }
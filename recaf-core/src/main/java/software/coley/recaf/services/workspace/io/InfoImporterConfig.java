@@ -1,5 +1,6 @@
 package software.coley.recaf.services.workspace.io;
 
+import jakarta.annotation.Nonnull;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import software.coley.observables.ObservableBoolean;
@@ -16,11 +17,13 @@
 @ApplicationScoped
 public class InfoImporterConfig extends BasicConfigContainer implements ServiceConfig {
 	private final ObservableBoolean skipClassAsmValidation = new ObservableBoolean(false);
+	private final ObservableBoolean lazyClassModels = new ObservableBoolean(false);
 
 	@Inject
 	public InfoImporterConfig() {
 		super(ConfigGroups.SERVICE_IO, InfoImporter.SERVICE_ID + CONFIG_SUFFIX);
 		addValue(new BasicConfigValue<>("skip-class-asm-validation", boolean.class, skipClassAsmValidation));
+		addValue(new BasicConfigValue<>("lazy-class-models", boolean.class, lazyClassModels));
 	}
 
 	/**
@@ -32,4 +35,29 @@ public InfoImporterConfig() {
 	public boolean doSkipAsmValidation() {
 		return skipClassAsmValidation.getValue();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * When enabled, only the header of JVM classes is read when importing content. The rest of the class model
+	 * is populated on first access. This reduces the time and memory needed to import content where most classes
+	 * are never looked at, such as libraries.
+	 * <p/>
+	 * This only applies when {@link #doSkipAsmValidation() validation is skipped}, since validation reads the whole
+	 * class anyways. Classes with malformed content beyond their header are then only reported once their model
+	 * is first accessed.
+	 *
+	 * @return {@code true} to read imported JVM classes as {@link software.coley.recaf.info.LazyJvmClassInfo}.
+	 */
+	public boolean doLazyClassModels() {
+		return lazyClassModels.getValue();
+	}
+
+	/**
+	 * @return Lazy class model toggle.
+	 *
+	 * @see #doLazyClassModels()
+	 */
+	@Nonnull
+	public ObservableBoolean getLazyClassModels() {
+		return lazyClassModels;
+	}
+}
@@ -0,0 +1,19 @@
+package software.coley.recaf.services.workspace.io;
+
+import jakarta.annotation.Nonnull;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+
+/**
+ * Listener for completed imports of resources by a {@link ResourceImporter}.
+ *
+ * @author Matt Coley
+ */
+public interface ResourceImportListener {
+	/**
+	 * @param resource
+	 * 		The imported resource.
+	 * @param report
+	 * 		Report of the work done to import the resource.
+	 */
+	void onImportCompleted(@Nonnull WorkspaceResource resource, @Nonnull ImportReport report);
+}
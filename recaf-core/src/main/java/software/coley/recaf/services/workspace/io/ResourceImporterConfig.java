@@ -9,6 +9,7 @@
 import software.coley.lljzip.format.model.ZipArchive;
 import software.coley.lljzip.format.read.JvmZipReader;
 import software.coley.observables.ObservableBoolean;
+import software.coley.observables.ObservableInteger;
 import software.coley.observables.ObservableObject;
 import software.coley.recaf.config.BasicConfigContainer;
 import software.coley.recaf.config.BasicConfigValue;
@@ -25,6 +26,11 @@
 public class ResourceImporterConfig extends BasicConfigContainer implements ServiceConfig {
 	private final ObservableObject<ZipStrategy> zipStrategy = new ObservableObject<>(ZipStrategy.JVM);
 	private final ObservableBoolean skipRevisitedCenToLocalLinks = new ObservableBoolean(true);
+	private final ObservableBoolean parallelEntryDecoding = new ObservableBoolean(false);
+	private final ObservableBoolean parallelEmbeddedImports = new ObservableBoolean(false);
+	private final ObservableBoolean parallelDirectoryImport = new ObservableBoolean(false);
+	private final ObservableBoolean snapshotCache = new ObservableBoolean(false);
+	private final ObservableInteger snapshotCacheMaxSizeMb = new ObservableInteger(1024);
 
 	@Inject
 	public ResourceImporterConfig() {
@@ -32,6 +38,11 @@ public ResourceImporterConfig() {
 
 		addValue(new BasicConfigValue<>("zip-strategy", ZipStrategy.class, zipStrategy));
 		addValue(new BasicConfigValue<>("skip-revisited-cen-to-local-links", boolean.class, skipRevisitedCenToLocalLinks));
+		addValue(new BasicConfigValue<>("parallel-entry-decoding", boolean.class, parallelEntryDecoding));
+		addValue(new BasicConfigValue<>("parallel-embedded-imports", boolean.class, parallelEmbeddedImports));
+		addValue(new BasicConfigValue<>("parallel-directory-import", boolean.class, parallelDirectoryImport));
+		addValue(new BasicConfigValue<>("snapshot-cache", boolean.class, snapshotCache));
+		addValue(new BasicConfigValue<>("snapshot-cache-max-size-mb", int.class, snapshotCacheMaxSizeMb));
 	}
 
 	/**
@@ -55,6 +66,69 @@ public ObservableBoolean getSkipRevisitedCenToLocalLinks() {
 		return skipRevisitedCenToLocalLinks;
 	}
 
+	/**
+	 * When enabled, the contents of ZIP entries are decoded into {@link software.coley.recaf.info.Info} values
+	 * across a pool of worker threads. Adding the decoded values to the resource's bundles is still done in the
+	 * original entry order, so the resulting resource is identical to one created with this disabled.
+	 * Only entries of the top-level archive are decoded in parallel, entries of embedded archives are decoded
+	 * on the thread importing that archive.
+	 *
+	 * @return {@code true} to decode ZIP entries in parallel.
+	 */
+	@Nonnull
+	public ObservableBoolean getParallelEntryDecoding() {
+		return parallelEntryDecoding;
+	}
+
+	/**
+	 * When enabled, archives embedded in the imported content, such as the libraries in a WAR's {@code WEB-INF/lib},
+	 * are imported concurrently. Archives nested within those embedded archives are imported on the same thread
+	 * as their container.
+	 *
+	 * @return {@code true} to import embedded archives in parallel.
+	 */
+	@Nonnull
+	public ObservableBoolean getParallelEmbeddedImports() {
+		return parallelEmbeddedImports;
+	}
+
+	/**
+	 * When enabled, files in imported directories are read and parsed on virtual threads, so that reading of
+	 * many files overlaps. This is most beneficial for directories on slow or network backed storage.
+	 * Adding the read values to the resource's bundles is still done in the order files are visited.
+	 *
+	 * @return {@code true} to read files of imported directories in parallel.
+	 */
+	@Nonnull
+	public ObservableBoolean getParallelDirectoryImport() {
+		return parallelDirectoryImport;
+	}
+
+	/**
+	 * When enabled, a snapshot of each imported ZIP archive is stored in the Recaf cache directory.
+	 * Importing an archive with the same content again restores it from the snapshot instead of parsing it again.
+	 *
+	 * @return {@code true} to cache snapshots of imported archives.
+	 *
+	 * @see ResourceSnapshotCache
+	 */
+	@Nonnull
+	public ObservableBoolean getSnapshotCache() {
+		return snapshotCache;
+	}
+
+	/**
+	 * When the total size of stored snapshots exceeds this limit, the least recently used snapshots are removed.
+	 *
+	 * @return Maximum size in megabytes of the stored snapshots.
+	 *
+	 * @see #getSnapshotCache()
+	 */
+	@Nonnull
+	public ObservableInteger getSnapshotCacheMaxSizeMb() {
+		return snapshotCacheMaxSizeMb;
+	}
+
 	/**
 	 * @return Mapping of input bytes to a ZIP archive model.
 	 */
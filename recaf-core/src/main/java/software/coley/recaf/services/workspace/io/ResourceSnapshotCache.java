@@ -0,0 +1,794 @@
+package software.coley.recaf.services.workspace.io;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import software.coley.recaf.RecafBuildConfig;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.*;
+import software.coley.recaf.info.builder.*;
+import software.coley.recaf.info.properties.builtin.*;
+import software.coley.recaf.services.file.RecafDirectoriesConfig;
+import software.coley.recaf.util.IOUtil;
+import software.coley.recaf.workspace.model.bundle.BasicFileBundle;
+import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
+import software.coley.recaf.workspace.model.bundle.BasicVersionedClassBundle;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResourceBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache of imported ZIP resources, allowing an archive that has been imported before to be re-opened without
+ * repeating ZIP parsing, entry decompression, and class patching.
+ * <p/>
+ * Snapshots are stored by a hash of the archive content, the Recaf version, and the import settings which affect
+ * the import output. Archives imported from a file are also looked up by the file's path, size and modification time.
+ * When those match a prior import, the stored content hash is confirmed with a checksum of the content rather than
+ * hashing the whole archive again.
+ * <p/>
+ * Each snapshot holds the already patched bytecode of classes, the content and type of files, the import properties
+ * of each item <i>(ZIP entry metadata, path prefixes/suffixes, etc)</i>, and an index of class headers.
+ * The bytecode was validated when it was first imported, and the validation setting is part of the snapshot key,
+ * so restored classes are not validated again. Where a fresh import would use
+ * {@link InfoImporterConfig#doLazyClassModels() lazy models}, classes are restored from the header index without
+ * parsing their bytecode at all. Otherwise, their models are parsed from the bytecode, optionally on a given pool.
+ * <p/>
+ * The total size of snapshots is capped by {@link ResourceImporterConfig#getSnapshotCacheMaxSizeMb()}, with the least
+ * recently used snapshots being removed first.
+ * <p/>
+ * Resources with content that cannot be represented in a snapshot, such as Android classes, are not cached.
+ *
+ * @author Matt Coley
+ */
+@ApplicationScoped
+public class ResourceSnapshotCache {
+	private static final Logger logger = Logging.get(ResourceSnapshotCache.class);
+	private static final int MAGIC = 0x52435753; // RCWS
+	private static final int FORMAT_VERSION = 3;
+	private static final String EXTENSION = ".snapshot";
+	private static final String METADATA_EXTENSION = ".meta";
+	private static final String METADATA_DIRECTORY = "meta";
+	// File kinds
+	private static final int KIND_UNSUPPORTED = -1;
+	private static final int KIND_FILE = 0;
+	private static final int KIND_ZIP = 1;
+	private static final int KIND_JAR = 2;
+	private static final int KIND_APK = 3;
+	private static final int KIND_WAR = 4;
+	private static final int KIND_JMOD = 5;
+	private static final int KIND_DEX = 6;
+	private static final int KIND_ARSC = 7;
+	private static final int KIND_BINARY_XML = 8;
+	private static final int KIND_IMAGE = 9;
+	private static final int KIND_AUDIO = 10;
+	private static final int KIND_VIDEO = 11;
+	// Property identifiers
+	private static final int PROP_END = 0;
+	private static final int PROP_ZIP_COMPRESSION = 1;
+	private static final int PROP_ZIP_COMMENT = 2;
+	private static final int PROP_ZIP_CREATION_TIME = 3;
+	private static final int PROP_ZIP_MODIFICATION_TIME = 4;
+	private static final int PROP_ZIP_ACCESS_TIME = 5;
+	private static final int PROP_ZIP_PREFIX_DATA = 6;
+	private static final int PROP_PATH_PREFIX = 7;
+	private static final int PROP_PATH_SUFFIX = 8;
+	private static final int PROP_PATH_ORIGINAL_NAME = 9;
+	private static final int PROP_VERSIONED_CLASS = 10;
+	private static final int PROP_ILLEGAL_CLASS_SUSPECT = 11;
+	private static final int PROP_UNKNOWN_ATTRIBUTES = 12;
+	private final Path directory;
+	private final ResourceImporterConfig importerConfig;
+	private final InfoImporter infoImporter;
+
+	@Inject
+	public ResourceSnapshotCache(@Nonnull RecafDirectoriesConfig directories,
+								 @Nonnull ResourceImporterConfig importerConfig,
+								 @Nonnull InfoImporter infoImporter) {
+		this(directories.getCacheDirectory().resolve("snapshots"), importerConfig, infoImporter);
+	}
+
+	/**
+	 * @param directory
+	 * 		Directory to store snapshots in.
+	 * @param importerConfig
+	 * 		Resource importer config, used to key snapshots by import settings.
+	 * @param infoImporter
+	 * 		Info importer, used to key snapshots by import settings and to determine how classes are restored.
+	 */
+	public ResourceSnapshotCache(@Nonnull Path directory,
+								 @Nonnull ResourceImporterConfig importerConfig,
+								 @Nonnull InfoImporter infoImporter) {
+		this.directory = directory;
+		this.importerConfig = importerConfig;
+		this.infoImporter = infoImporter;
+	}
+
+	/**
+	 * Looks up the key of the snapshot for an archive. If the archive was imported from a file that has not changed
+	 * since it was last snapshotted, the recorded key is used after confirming it with a checksum of the content.
+	 * Otherwise, the key is computed from a hash of the content.
+	 *
+	 * @param inputPath
+	 * 		Path of the file the archive was read from, or {@code null} if not read from a file.
+	 * @param content
+	 * 		Archive content.
+	 *
+	 * @return Key of the snapshot for the given content, with the current Recaf version and import settings.
+	 */
+	@Nonnull
+	public Key computeKey(@Nullable Path inputPath, @Nonnull byte[] content) {
+		String settings = RecafBuildConfig.VERSION + ':' + FORMAT_VERSION + ':' +
+				importerConfig.getZipStrategy().getValue() + ':' +
+				importerConfig.getSkipRevisitedCenToLocalLinks().getValue() + ':' +
+				infoImporter.getServiceConfig().doSkipAsmValidation();
+		long checksum = checksum(content);
+
+		// Check if we have a record of the file from a prior import.
+		String metadataKey = computeMetadataKey(inputPath, settings);
+		if (metadataKey != null) {
+			Path metadataPath = metadataPath(metadataKey);
+			try {
+				if (Files.isRegularFile(metadataPath)) {
+					List<String> lines = Files.readAllLines(metadataPath, StandardCharsets.UTF_8);
+					if (lines.size() == 2 && Long.parseLong(lines.get(1)) == checksum)
+						return new Key(lines.get(0), metadataKey, checksum);
+				}
+			} catch (IOException | NumberFormatException ex) {
+				logger.debug("Ignoring unreadable snapshot metadata: {}", metadataPath.getFileName());
+			}
+		}
+
+		// No usable record of the file, so we must hash the content.
+		MessageDigest digest = newDigest();
+		digest.update(content);
+		digest.update(settings.getBytes(StandardCharsets.UTF_8));
+		return new Key(HexFormat.of().formatHex(digest.digest()), metadataKey, checksum);
+	}
+
+	/**
+	 * The archive info is only modified if the snapshot is restored successfully.
+	 *
+	 * @param key
+	 * 		Snapshot key, see {@link #computeKey(Path, byte[])}.
+	 * @param builder
+	 * 		Builder to populate with the snapshot contents.
+	 * @param zipInfo
+	 * 		Info of the archive the snapshot was created from. Snapshot properties of the archive are restored onto it.
+	 *
+	 * @return Resource restored from the snapshot, or {@code null} if no usable snapshot exists for the key.
+	 */
+	@Nullable
+	public WorkspaceFileResource load(@Nonnull Key key,
+									  @Nonnull WorkspaceFileResourceBuilder builder,
+									  @Nonnull ZipFileInfo zipInfo) {
+		return load(key, builder, zipInfo, null);
+	}
+
+	/**
+	 * The archive info is only modified if the snapshot is restored successfully.
+	 *
+	 * @param key
+	 * 		Snapshot key, see {@link #computeKey(Path, byte[])}.
+	 * @param builder
+	 * 		Builder to populate with the snapshot contents.
+	 * @param zipInfo
+	 * 		Info of the archive the snapshot was created from. Snapshot properties of the archive are restored onto it.
+	 * @param decodePool
+	 * 		Optional pool to parse class models on, when lazy class models are not enabled.
+	 * 		{@code null} to parse them on the calling thread.
+	 *
+	 * @return Resource restored from the snapshot, or {@code null} if no usable snapshot exists for the key.
+	 */
+	@Nullable
+	public WorkspaceFileResource load(@Nonnull Key key,
+									  @Nonnull WorkspaceFileResourceBuilder builder,
+									  @Nonnull ZipFileInfo zipInfo,
+									  @Nullable ExecutorService decodePool) {
+		Path path = snapshotPath(key.contentKey());
+		if (!Files.isRegularFile(path))
+			return null;
+		WorkspaceFileResource resource;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+			 Arena arena = Arena.ofConfined()) {
+			// Content is copied out of the mapping as the model is built, so it can be unmapped once we're done.
+			MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+			SnapshotInput input = new SnapshotInput(segment);
+			if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION ||
+					!RecafBuildConfig.VERSION.equals(input.readString())) {
+				logger.debug("Skipping outdated snapshot: {}", path.getFileName());
+				return null;
+			}
+
+			// Properties of the archive are read into a placeholder, and only copied over once the
+			// whole snapshot has been read. A failed restore thus leaves the archive info untouched.
+			FileInfo archiveProperties = new FileInfoBuilder<>()
+					.withName(zipInfo.getName())
+					.withRawContent(new byte[0])
+					.build();
+			readProperties(input, archiveProperties);
+			SnapshotContents contents = readResourceContents(input, decodePool);
+			archiveProperties.getProperties().values().forEach(zipInfo::setProperty);
+			resource = contents.populate(builder.withFileInfo(zipInfo)).build();
+		} catch (Throwable t) {
+			logger.warn("Failed to read snapshot '{}', the input will be imported normally", path.getFileName(), t);
+			return null;
+		}
+
+		// Mark the snapshot as recently used, and record the file it was restored for if not already known.
+		IOUtil.touchQuietly(path);
+		writeMetadata(key);
+		logger.info("Restored '{}' from snapshot", zipInfo.getName());
+		return resource;
+	}
+
+	/**
+	 * Writes a snapshot of the given resource. If the resource has content that cannot be represented
+	 * in a snapshot, nothing is written. Once written, the least recently used snapshots are removed if the
+	 * total size of snapshots exceeds the {@link ResourceImporterConfig#getSnapshotCacheMaxSizeMb() limit}.
+	 *
+	 * @param key
+	 * 		Snapshot key, see {@link #computeKey(Path, byte[])}.
+	 * @param resource
+	 * 		Resource to write a snapshot of.
+	 */
+	public void save(@Nonnull Key key, @Nonnull WorkspaceFileResource resource) {
+		if (!isSupported(resource, true)) {
+			logger.debug("Skipping snapshot of '{}', content not supported", resource.getFileInfo().getName());
+			return;
+		}
+		Path path = snapshotPath(key.contentKey());
+		Path temp = directory.resolve(key.contentKey() + ".tmp");
+		try {
+			Files.createDirectories(directory);
+
+			// Write to a temporary file first, so that an interrupted write never leaves a partial snapshot behind.
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				writeString(out, RecafBuildConfig.VERSION);
+				writeProperties(out, resource.getFileInfo());
+				writeResourceContents(out, resource);
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logger.debug("Wrote snapshot of '{}'", resource.getFileInfo().getName());
+		} catch (IOException ex) {
+			logger.warn("Failed to write snapshot of '{}'", resource.getFileInfo().getName(), ex);
+			try {
+				Files.deleteIfExists(temp);
+			} catch (IOException ignored) {
+				// Nothing else we can do
+			}
+			return;
+		}
+		writeMetadata(key);
+		evict();
+	}
+
+	/**
+	 * Removes the least recently used snapshots until their total size is within the configured limit,
+	 * along with any file metadata records pointing to removed snapshots.
+	 */
+	private void evict() {
+		long maxSize = Math.max(0, importerConfig.getSnapshotCacheMaxSizeMb().getValue()) * 1024L * 1024L;
+		try {
+			int evicted = IOUtil.evictLeastRecentlyUsed(directory, EXTENSION, maxSize);
+			if (evicted == 0)
+				return;
+			logger.debug("Evicted {} snapshots exceeding the cache size limit", evicted);
+			Path metadataDirectory = directory.resolve(METADATA_DIRECTORY);
+			if (!Files.isDirectory(metadataDirectory))
+				return;
+			try (Stream<Path> stream = Files.list(metadataDirectory)) {
+				for (Path metadataPath : (Iterable<Path>) stream::iterator) {
+					try {
+						List<String> lines = Files.readAllLines(metadataPath, StandardCharsets.UTF_8);
+						if (lines.isEmpty() || !Files.isRegularFile(snapshotPath(lines.get(0))))
+							Files.deleteIfExists(metadataPath);
+					} catch (IOException | UncheckedIOException ex) {
+						IOUtil.deleteQuietly(metadataPath);
+					}
+				}
+			}
+		} catch (IOException ex) {
+			logger.warn("Failed to evict snapshots", ex);
+		}
+	}
+
+	/**
+	 * Records which snapshot belongs to the file the key was computed for, if the key was computed for a file.
+	 *
+	 * @param key
+	 * 		Snapshot key.
+	 */
+	private void writeMetadata(@Nonnull Key key) {
+		String metadataKey = key.metadataKey();
+		if (metadataKey == null)
+			return;
+		Path metadataPath = metadataPath(metadataKey);
+		try {
+			Files.createDirectories(metadataPath.getParent());
+			Files.writeString(metadataPath, key.contentKey() + '\n' + key.checksum(), StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			logger.debug("Failed to record snapshot metadata of '{}'", key.contentKey(), ex);
+		}
+	}
+
+	@Nonnull
+	private Path snapshotPath(@Nonnull String contentKey) {
+		return directory.resolve(contentKey + EXTENSION);
+	}
+
+	@Nonnull
+	private Path metadataPath(@Nonnull String metadataKey) {
+		return directory.resolve(METADATA_DIRECTORY).resolve(metadataKey + METADATA_EXTENSION);
+	}
+
+	/**
+	 * @param inputPath
+	 * 		Path of the file the archive was read from, or {@code null} if not read from a file.
+	 * @param settings
+	 * 		Import settings which affect the import output.
+	 *
+	 * @return Hash of the path, size, and modification time of the file along with the settings.
+	 * {@code null} when the archive was not read from an existing file.
+	 */
+	@Nullable
+	private static String computeMetadataKey(@Nullable Path inputPath, @Nonnull String settings) {
+		if (inputPath == null || !Files.isRegularFile(inputPath))
+			return null;
+		try {
+			String metadata = inputPath.toAbsolutePath() + "\n" +
+					Files.size(inputPath) + "\n" +
+					Files.getLastModifiedTime(inputPath).toMillis() + "\n" +
+					settings;
+			MessageDigest digest = newDigest();
+			return HexFormat.of().formatHex(digest.digest(metadata.getBytes(StandardCharsets.UTF_8)));
+		} catch (IOException ex) {
+			return null;
+		}
+	}
+
+	private static long checksum(@Nonnull byte[] content) {
+		CRC32C crc = new CRC32C();
+		crc.update(content);
+		return crc.getValue();
+	}
+
+	@Nonnull
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not supported", ex);
+		}
+	}
+
+	private static boolean isSupported(@Nonnull WorkspaceFileResource resource, boolean root) {
+		if (!resource.getAndroidClassBundles().isEmpty())
+			return false;
+		if (!root && kindOf(resource.getFileInfo()) == KIND_UNSUPPORTED)
+			return false;
+		for (FileInfo file : resource.getFileBundle())
+			if (kindOf(file) == KIND_UNSUPPORTED)
+				return false;
+		for (WorkspaceFileResource embedded : resource.getEmbeddedResources().values())
+			if (!isSupported(embedded, false))
+				return false;
+		return true;
+	}
+
+	private static int kindOf(@Nonnull FileInfo file) {
+		if (file instanceof JarFileInfo) return KIND_JAR;
+		if (file instanceof ApkFileInfo) return KIND_APK;
+		if (file instanceof WarFileInfo) return KIND_WAR;
+		if (file instanceof JModFileInfo) return KIND_JMOD;
+		if (file instanceof ZipFileInfo) return KIND_ZIP;
+		if (file instanceof DexFileInfo) return KIND_DEX;
+		if (file instanceof ArscFileInfo) return KIND_ARSC;
+		if (file instanceof BinaryXmlFileInfo) return KIND_BINARY_XML;
+		if (file instanceof ImageFileInfo) return KIND_IMAGE;
+		if (file instanceof AudioFileInfo) return KIND_AUDIO;
+		if (file instanceof VideoFileInfo) return KIND_VIDEO;
+		if (file.getClass() == BasicFileInfo.class || file.getClass() == BasicTextFileInfo.class) return KIND_FILE;
+		return KIND_UNSUPPORTED;
+	}
+
+	private static void writeResourceContents(@Nonnull DataOutputStream out,
+											  @Nonnull WorkspaceFileResource resource) throws IOException {
+		writeClasses(out, resource.getJvmClassBundle());
+		NavigableMap<Integer, JvmClassBundle> versionedBundles = resource.getVersionedJvmClassBundles();
+		out.writeInt(versionedBundles.size());
+		for (Map.Entry<Integer, JvmClassBundle> entry : versionedBundles.entrySet()) {
+			out.writeInt(entry.getKey());
+			writeClasses(out, entry.getValue());
+		}
+		out.writeInt(resource.getFileBundle().size());
+		for (FileInfo file : resource.getFileBundle())
+			writeFile(out, file);
+		Map<String, WorkspaceFileResource> embeddedResources = resource.getEmbeddedResources();
+		out.writeInt(embeddedResources.size());
+		for (Map.Entry<String, WorkspaceFileResource> entry : embeddedResources.entrySet()) {
+			writeString(out, entry.getKey());
+			writeFile(out, entry.getValue().getFileInfo());
+			writeResourceContents(out, entry.getValue());
+		}
+	}
+
+	private static void writeClasses(@Nonnull DataOutputStream out, @Nonnull JvmClassBundle bundle) throws IOException {
+		out.writeInt(bundle.size());
+		for (JvmClassInfo cls : bundle) {
+			// Class header index, used to restore classes without parsing the bytecode.
+			writeString(out, cls.getName());
+			out.writeInt(cls.getAccess());
+			out.writeInt(cls.getVersion());
+			writeString(out, cls.getSuperName());
+			writeString(out, cls.getSignature());
+			List<String> interfaces = cls.getInterfaces();
+			out.writeInt(interfaces.size());
+			for (String itf : interfaces)
+				writeString(out, itf);
+			writeBytes(out, cls.getBytecode());
+			writeProperties(out, cls);
+		}
+	}
+
+	private static void writeFile(@Nonnull DataOutputStream out, @Nonnull FileInfo file) throws IOException {
+		out.writeByte(kindOf(file));
+		writeString(out, file.getName());
+		writeBytes(out, file.getRawContent());
+		writeProperties(out, file);
+	}
+
+	private static void writeProperties(@Nonnull DataOutputStream out, @Nonnull Info info) throws IOException {
+		Integer compression = ZipCompressionProperty.get(info);
+		if (compression != null) {
+			out.writeByte(PROP_ZIP_COMPRESSION);
+			out.writeInt(compression);
+		}
+		String comment = ZipCommentProperty.get(info);
+		if (comment != null) {
+			out.writeByte(PROP_ZIP_COMMENT);
+			writeString(out, comment);
+		}
+		Long creationTime = ZipCreationTimeProperty.get(info);
+		if (creationTime != null) {
+			out.writeByte(PROP_ZIP_CREATION_TIME);
+			out.writeLong(creationTime);
+		}
+		Long modificationTime = ZipModificationTimeProperty.get(info);
+		if (modificationTime != null) {
+			out.writeByte(PROP_ZIP_MODIFICATION_TIME);
+			out.writeLong(modificationTime);
+		}
+		Long accessTime = ZipAccessTimeProperty.get(info);
+		if (accessTime != null) {
+			out.writeByte(PROP_ZIP_ACCESS_TIME);
+			out.writeLong(accessTime);
+		}
+		byte[] prefixData = ZipPrefixDataProperty.get(info);
+		if (prefixData != null) {
+			out.writeByte(PROP_ZIP_PREFIX_DATA);
+			writeBytes(out, prefixData);
+		}
+		String pathPrefix = PathPrefixProperty.get(info);
+		if (pathPrefix != null) {
+			out.writeByte(PROP_PATH_PREFIX);
+			writeString(out, pathPrefix);
+		}
+		String pathSuffix = PathSuffixProperty.get(info);
+		if (pathSuffix != null) {
+			out.writeByte(PROP_PATH_SUFFIX);
+			writeString(out, pathSuffix);
+		}
+		String originalName = PathOriginalNameProperty.get(info);
+		if (originalName != null) {
+			out.writeByte(PROP_PATH_ORIGINAL_NAME);
+			writeString(out, originalName);
+		}
+		if (info.isClass() && info.asClass().isJvmClass()) {
+			Integer version = VersionedClassProperty.get(info.asClass().asJvmClass());
+			if (version != null) {
+				out.writeByte(PROP_VERSIONED_CLASS);
+				out.writeInt(version);
+			}
+			Collection<String> unknownAttributes = UnknownAttributesProperty.get(info.asClass());
+			if (unknownAttributes != null) {
+				out.writeByte(PROP_UNKNOWN_ATTRIBUTES);
+				out.writeInt(unknownAttributes.size());
+				for (String attribute : unknownAttributes)
+					writeString(out, attribute);
+			}
+		}
+		if (info.isFile() && IllegalClassSuspectProperty.get(info.asFile()))
+			out.writeByte(PROP_ILLEGAL_CLASS_SUSPECT);
+		out.writeByte(PROP_END);
+	}
+
+	private static void writeString(@Nonnull DataOutputStream out, @Nullable String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeBytes(@Nonnull DataOutputStream out, @Nonnull byte[] value) throws IOException {
+		out.writeInt(value.length);
+		out.write(value);
+	}
+
+	/**
+	 * Reads the contents of a resource into a detached holder, so that nothing is published until all of it is read.
+	 *
+	 * @param input
+	 * 		Snapshot input.
+	 * @param decodePool
+	 * 		Optional pool to parse class models on.
+	 *
+	 * @return Contents of the resource.
+	 */
+	@Nonnull
+	private SnapshotContents readResourceContents(@Nonnull SnapshotInput input, @Nullable ExecutorService decodePool) {
+		BasicJvmClassBundle classes = new BasicJvmClassBundle();
+		readClasses(input, classes, decodePool);
+		NavigableMap<Integer, JvmClassBundle> versionedJvmClassBundles = new TreeMap<>();
+		int versionedBundleCount = input.readInt();
+		for (int i = 0; i < versionedBundleCount; i++) {
+			int version = input.readInt();
+			BasicVersionedClassBundle bundle = new BasicVersionedClassBundle(version);
+			readClasses(input, bundle, decodePool);
+			versionedJvmClassBundles.put(version, bundle);
+		}
+		BasicFileBundle files = new BasicFileBundle();
+		int fileCount = input.readInt();
+		for (int i = 0; i < fileCount; i++)
+			files.initialPut(readFile(input));
+		Map<String, WorkspaceFileResource> embeddedResources = new HashMap<>();
+		int embeddedCount = input.readInt();
+		for (int i = 0; i < embeddedCount; i++) {
+			String path = Objects.requireNonNull(input.readString(), "Embedded resource path");
+			FileInfo embeddedInfo = readFile(input);
+			if (!embeddedInfo.isZipFile())
+				throw new IllegalStateException("Embedded resource is not a ZIP: " + path);
+			embeddedResources.put(path, readResourceContents(input, decodePool)
+					.populate(new WorkspaceFileResourceBuilder().withFileInfo(embeddedInfo))
+					.build());
+		}
+		return new SnapshotContents(classes, versionedJvmClassBundles, files, embeddedResources);
+	}
+
+	private void readClasses(@Nonnull SnapshotInput input, @Nonnull BasicJvmClassBundle bundle,
+							 @Nullable ExecutorService decodePool) {
+		int classCount = input.readInt();
+		List<LazyJvmClassInfo> headers = new ArrayList<>(classCount);
+		for (int i = 0; i < classCount; i++) {
+			String name = Objects.requireNonNull(input.readString(), "Class name");
+			int access = input.readInt();
+			int version = input.readInt();
+			String superName = input.readString();
+			String signature = input.readString();
+			int interfaceCount = input.readInt();
+			List<String> interfaces = new ArrayList<>(interfaceCount);
+			for (int j = 0; j < interfaceCount; j++)
+				interfaces.add(input.readNonNullString());
+			byte[] bytecode = input.readBytes();
+			LazyJvmClassInfo header = new LazyJvmClassInfo(new JvmClassInfoBuilder()
+					.withBytecode(bytecode)
+					.withVersion(version)
+					.withName(name)
+					.withAccess(access)
+					.withSuperName(superName)
+					.withSignature(signature)
+					.withInterfaces(interfaces));
+			readProperties(input, header);
+			headers.add(header);
+		}
+
+		// The header index is all that lazy models need. They are only used where a fresh import would use them,
+		// so restored classes are modeled the same way as imported ones.
+		InfoImporterConfig config = infoImporter.getServiceConfig();
+		if (config.doLazyClassModels() && config.doSkipAsmValidation()) {
+			headers.forEach(bundle::initialPut);
+			return;
+		}
+
+		// Otherwise the models are parsed from the bytecode, which was already patched and validated when the
+		// snapshot was made. Classes are added in the same order either way.
+		if (decodePool == null || headers.size() < 2) {
+			for (LazyJvmClassInfo header : headers)
+				bundle.initialPut(parseModel(header));
+		} else {
+			List<CompletableFuture<JvmClassInfo>> futures = new ArrayList<>(headers.size());
+			for (LazyJvmClassInfo header : headers)
+				futures.add(CompletableFuture.supplyAsync(() -> parseModel(header), decodePool));
+			for (CompletableFuture<JvmClassInfo> future : futures)
+				bundle.initialPut(future.join());
+		}
+	}
+
+	/**
+	 * @param header
+	 * 		Class restored from the header index.
+	 *
+	 * @return Class with its full model parsed from the bytecode, without validation, and the same properties.
+	 */
+	@Nonnull
+	private static JvmClassInfo parseModel(@Nonnull LazyJvmClassInfo header) {
+		JvmClassInfo classInfo = new JvmClassInfoBuilder()
+				.skipValidationChecks(true)
+				.adaptFrom(header.getBytecode())
+				.build();
+		header.getProperties().values().forEach(classInfo::setProperty);
+		return classInfo;
+	}
+
+	@Nonnull
+	private static FileInfo readFile(@Nonnull SnapshotInput input) {
+		int kind = input.readByte();
+		String name = Objects.requireNonNull(input.readString(), "File name");
+		byte[] content = input.readBytes();
+		FileInfo file = switch (kind) {
+			case KIND_FILE -> new FileInfoBuilder<>().withName(name).withRawContent(content).build();
+			case KIND_ZIP -> new ZipFileInfoBuilder().withName(name).withRawContent(content).build();
+			case KIND_JAR -> new ZipFileInfoBuilder().withName(name).withRawContent(content).asJar().build();
+			case KIND_APK -> new ZipFileInfoBuilder().withName(name).withRawContent(content).asApk().build();
+			case KIND_WAR -> new ZipFileInfoBuilder().withName(name).withRawContent(content).asWar().build();
+			case KIND_JMOD -> new ZipFileInfoBuilder().withName(name).withRawContent(content).asJMod().build();
+			case KIND_DEX -> new DexFileInfoBuilder().withName(name).withRawContent(content).build();
+			case KIND_ARSC -> new ArscFileInfoBuilder().withName(name).withRawContent(content).build();
+			case KIND_BINARY_XML -> new BinaryXmlFileInfoBuilder().withName(name).withRawContent(content).build();
+			case KIND_IMAGE -> new ImageFileInfoBuilder().withName(name).withRawContent(content).build();
+			case KIND_AUDIO -> new AudioFileInfoBuilder().withName(name).withRawContent(content).build();
+			case KIND_VIDEO -> new VideoFileInfoBuilder().withName(name).withRawContent(content).build();
+			default -> throw new IllegalStateException("Unknown file kind: " + kind);
+		};
+		readProperties(input, file);
+		return file;
+	}
+
+	private static void readProperties(@Nonnull SnapshotInput input, @Nonnull Info info) {
+		int id;
+		while ((id = input.readByte()) != PROP_END) {
+			switch (id) {
+				case PROP_ZIP_COMPRESSION -> ZipCompressionProperty.set(info, input.readInt());
+				case PROP_ZIP_COMMENT -> ZipCommentProperty.set(info, input.readNonNullString());
+				case PROP_ZIP_CREATION_TIME -> ZipCreationTimeProperty.set(info, input.readLong());
+				case PROP_ZIP_MODIFICATION_TIME -> ZipModificationTimeProperty.set(info, input.readLong());
+				case PROP_ZIP_ACCESS_TIME -> ZipAccessTimeProperty.set(info, input.readLong());
+				case PROP_ZIP_PREFIX_DATA -> ZipPrefixDataProperty.set(info, input.readBytes());
+				case PROP_PATH_PREFIX -> PathPrefixProperty.set(info, input.readNonNullString());
+				case PROP_PATH_SUFFIX -> PathSuffixProperty.set(info, input.readNonNullString());
+				case PROP_PATH_ORIGINAL_NAME -> PathOriginalNameProperty.set(info, input.readNonNullString());
+				case PROP_VERSIONED_CLASS -> VersionedClassProperty.set(info.asClass().asJvmClass(), input.readInt());
+				case PROP_ILLEGAL_CLASS_SUSPECT -> IllegalClassSuspectProperty.set(info.asFile());
+				case PROP_UNKNOWN_ATTRIBUTES -> {
+					int count = input.readInt();
+					List<String> attributes = new ArrayList<>(count);
+					for (int i = 0; i < count; i++)
+						attributes.add(input.readNonNullString());
+					info.setProperty(new UnknownAttributesProperty(attributes));
+				}
+				default -> throw new IllegalStateException("Unknown property: " + id);
+			}
+		}
+	}
+
+	/**
+	 * Key of a snapshot.
+	 *
+	 * @param contentKey
+	 * 		Hash of the archive content and import settings. Used as the name of the snapshot.
+	 * @param metadataKey
+	 * 		Hash of the path, size, and modification time of the file the archive was read from, along with the
+	 * 		import settings. {@code null} when the archive was not read from a file.
+	 * @param checksum
+	 * 		Checksum of the archive content, used to confirm a file has not changed when looked up by its metadata.
+	 */
+	public record Key(@Nonnull String contentKey, @Nullable String metadataKey, long checksum) {
+	}
+
+	/**
+	 * Restored contents of a resource, not yet published to a resource.
+	 *
+	 * @param classes
+	 * 		Restored JVM classes.
+	 * @param versionedJvmClassBundles
+	 * 		Restored versioned JVM classes.
+	 * @param files
+	 * 		Restored files.
+	 * @param embeddedResources
+	 * 		Restored embedded resources.
+	 */
+	private record SnapshotContents(@Nonnull BasicJvmClassBundle classes,
+									@Nonnull NavigableMap<Integer, JvmClassBundle> versionedJvmClassBundles,
+									@Nonnull BasicFileBundle files,
+									@Nonnull Map<String, WorkspaceFileResource> embeddedResources) {
+		@Nonnull
+		private WorkspaceFileResourceBuilder populate(@Nonnull WorkspaceFileResourceBuilder builder) {
+			builder.withJvmClassBundle(classes)
+					.withVersionedJvmClassBundles(versionedJvmClassBundles)
+					.withFileBundle(files)
+					.withEmbeddedResources(embeddedResources);
+			return builder;
+		}
+	}
+
+	/**
+	 * Sequential reader over the memory of a snapshot file.
+	 */
+	private static class SnapshotInput {
+		private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+		private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+		private final MemorySegment segment;
+		private long offset;
+
+		private SnapshotInput(@Nonnull MemorySegment segment) {
+			this.segment = segment;
+		}
+
+		private int readByte() {
+			return segment.get(ValueLayout.JAVA_BYTE, offset++);
+		}
+
+		private int readInt() {
+			int value = segment.get(INT, offset);
+			offset += 4;
+			return value;
+		}
+
+		private long readLong() {
+			long value = segment.get(LONG, offset);
+			offset += 8;
+			return value;
+		}
+
+		@Nonnull
+		private byte[] readBytes() {
+			int length = readInt();
+			if (length < 0)
+				throw new IllegalStateException("Invalid content length: " + length);
+			byte[] value = segment.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE);
+			offset += length;
+			return value;
+		}
+
+		@Nullable
+		private String readString() {
+			int length = segment.get(INT, offset);
+			if (length == -1) {
+				offset += 4;
+				return null;
+			}
+			return new String(readBytes(), StandardCharsets.UTF_8);
+		}
+
+		@Nonnull
+		private String readNonNullString() {
+			return Objects.requireNonNull(readString(), "Property value");
+		}
+	}
+}
@@ -1,6 +1,13 @@
 package software.coley.recaf.services.workspace.io;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import software.coley.lljzip.ZipIO;
+import software.coley.lljzip.format.model.LocalFileHeader;
+import software.coley.lljzip.format.model.ZipArchive;
+import software.coley.lljzip.util.MemorySegmentUtil;
+import software.coley.recaf.analytics.logging.Logging;
 import software.coley.recaf.info.*;
 import software.coley.recaf.info.properties.builtin.*;
 import software.coley.recaf.services.workspace.WorkspaceManager;
@@ -16,12 +23,15 @@
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.zip.CRC32;
 import java.util.zip.DeflaterOutputStream;
 
 import static software.coley.lljzip.format.compression.ZipCompressions.DEFLATED;
@@ -34,11 +44,13 @@
  * @author Matt Coley
  */
 public class WorkspaceExportOptions {
+	private static final Logger logger = Logging.get(WorkspaceExportOptions.class);
 	private final CompressType compressType;
 	private final OutputType outputType;
 	private final Path path;
 	private boolean bundleSupporting;
 	private boolean createZipDirEntries;
+	private boolean incremental;
 
 	/**
 	 * @param outputType
@@ -81,6 +93,17 @@ public void setCreateZipDirEntries(boolean createZipDirEntries) {
 		this.createZipDirEntries = createZipDirEntries;
 	}
 
+	/**
+	 * @param incremental
+	 *        {@code true} to copy the original compressed data of unmodified entries from the primary resource's
+	 * 		archive rather than compressing them again. Only entries that are not
+	 *        {@link software.coley.recaf.workspace.model.bundle.Bundle#getDirtyKeys() dirty}, and whose content
+	 * 		still matches the original entry, are copied. Does nothing when output type is a directory.
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	/**
 	 * @return New exporter from current options.
 	 */
@@ -137,6 +160,8 @@ private class WorkspaceExporterImpl implements WorkspaceExporter {
 		private final Map<String, Long> modifyTimes = new HashMap<>();
 		private final Map<String, Long> createTimes = new HashMap<>();
 		private final Map<String, Long> accessTimes = new HashMap<>();
+		private final Set<String> dirtyNames = new HashSet<>();
+		private ZipArchive originalArchive;
 		private byte[] prefix;
 
 		@Override
@@ -148,7 +173,13 @@ public void export(@Nonnull Workspace workspace) throws IOException {
 					if (createZipDirEntries)
 						zipBuilder = zipBuilder.createDirectories();
 
-					// Final copy for lambda, write all contents to ZIP buffer
+					// Map original entries by name so unmodified entries can copy their compressed data
+					Map<String, LocalFileHeader> originalEntries = new HashMap<>();
+					if (originalArchive != null)
+						for (LocalFileHeader header : originalArchive.getLocalFiles())
+							originalEntries.putIfAbsent(header.getFileNameAsString(), header);
+
+					// Final copy for lambda, add all contents to the ZIP builder
 					ZipCreationUtils.ZipBuilder finalZipBuilder = zipBuilder;
 					contents.forEach((name, content) -> {
 						// Cannot mirror exact compression type, so we'll just do binary "is this compressed or nah?"
@@ -160,17 +191,21 @@ public void export(@Nonnull Workspace workspace) throws IOException {
 						long createTime = createTimes.getOrDefault(name, -1L);
 						long accessTime = accessTimes.getOrDefault(name, -1L);
 
-						// Adding the entry
-						finalZipBuilder.add(name, content, compress, comment, createTime, modifyTime, accessTime);
+						// Adding the entry, re-using the original deflated data when the entry is unchanged
+						LocalFileHeader original = compress && !dirtyNames.contains(name) ?
+								originalEntries.get(name) : null;
+						CRC32 crc = original == null ? null : matchingCrc(original, content);
+						if (crc != null) {
+							byte[] deflated = MemorySegmentUtil.toByteArray(original.getFileData());
+							finalZipBuilder.addDeflated(name, content, deflated, crc.getValue(), comment,
+									createTime, modifyTime, accessTime);
+						} else {
+							finalZipBuilder.add(name, content, compress, comment, createTime, modifyTime, accessTime);
+						}
 					});
 
-					// Write buffer to path
-					if (prefix != null) {
-						Files.write(path, prefix);
-						Files.write(path, zipBuilder.bytes(), StandardOpenOption.APPEND);
-					} else {
-						Files.write(path, zipBuilder.bytes());
-					}
+					// Stream the ZIP to the path, prefix data goes first if present
+					zipBuilder.write(path, prefix);
 					break;
 				case DIRECTORY:
 					for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
@@ -206,6 +241,58 @@ private void populate(@Nonnull Workspace workspace) {
 			// If the resource had prefix data, get it here so that we can write it back later.
 			if (primary instanceof WorkspaceFileResource resource)
 				prefix = ZipPrefixDataProperty.get(resource.getFileInfo());
+
+			// Read the original archive for incremental exports so that unmodified entries can be copied.
+			if (incremental && outputType == OutputType.FILE
+					&& primary instanceof WorkspaceFileResource resource
+					&& resource.getFileInfo() instanceof ZipFileInfo zipInfo) {
+				try {
+					originalArchive = ZipIO.readStandard(MemorySegment.ofArray(zipInfo.getRawContent()));
+					collectDirtyNames(primary);
+				} catch (IOException ex) {
+					logger.warn("Could not read original archive '{}', exporting all entries in full",
+							zipInfo.getName(), ex);
+				}
+			}
+		}
+
+		/**
+		 * Records the output names of modified items in the given resource.
+		 *
+		 * @param resource
+		 * 		Resource to pull dirty keys from.
+		 */
+		private void collectDirtyNames(@Nonnull WorkspaceResource resource) {
+			resource.jvmClassBundleStream().forEach(bundle -> {
+				for (String key : bundle.getDirtyKeys())
+					dirtyNames.add(key + ".class");
+			});
+			for (Map.Entry<Integer, JvmClassBundle> entry : resource.getVersionedJvmClassBundles().entrySet()) {
+				String versionPath = JarFileInfo.MULTI_RELEASE_PREFIX + entry.getKey() + "/";
+				for (String key : entry.getValue().getDirtyKeys())
+					dirtyNames.add(versionPath + key + ".class");
+			}
+			dirtyNames.addAll(resource.getFileBundle().getDirtyKeys());
+		}
+
+		/**
+		 * @param original
+		 * 		Original ZIP entry.
+		 * @param content
+		 * 		Content being exported for the entry.
+		 *
+		 * @return CRC of the content if the original entry is deflated and holds the same content.
+		 * Otherwise {@code null} when the original data cannot be re-used.
+		 */
+		@Nullable
+		private static CRC32 matchingCrc(@Nonnull LocalFileHeader original, @Nonnull byte[] content) {
+			if (original.getCompressionMethod() != DEFLATED || original.getUncompressedSize() != content.length)
+				return null;
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			if ((original.getCrc() & 0xFFFFFFFFL) != crc.getValue())
+				return null;
+			return crc;
 		}
 
 		/**
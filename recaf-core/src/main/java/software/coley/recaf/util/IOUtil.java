@@ -25,7 +25,12 @@
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * IO utilities.
@@ -760,6 +765,75 @@ public static void deleteQuietly(File file) {
 		file.delete();
 	}
 
+	/**
+	 * Marks a file as recently used by updating its last modified time, for {@link #evictLeastRecentlyUsed(Path, String, long)}.
+	 *
+	 * @param path
+	 * 		Path to the file to mark.
+	 */
+	public static void touchQuietly(Path path) {
+		try {
+			Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException ignored) {
+			// no-op
+		}
+	}
+
+	/**
+	 * Deletes files with the given extension in a directory, least recently modified first, until the total size of the
+	 * remaining files is within the given limit. Files can be marked as used with {@link #touchQuietly(Path)}.
+	 *
+	 * @param directory
+	 * 		Directory containing the files.
+	 * @param extension
+	 * 		Extension of files to consider, including the leading {@code '.'}.
+	 * @param maxSize
+	 * 		Maximum total size in bytes of the remaining files.
+	 *
+	 * @return Number of deleted files.
+	 *
+	 * @throws IOException
+	 * 		When the directory cannot be listed.
+	 */
+	public static int evictLeastRecentlyUsed(Path directory, String extension, long maxSize) throws IOException {
+		if (!Files.isDirectory(directory))
+			return 0;
+		record Entry(Path path, long size, long modified) {}
+		List<Entry> entries = new ArrayList<>();
+		long totalSize = 0;
+		try (Stream<Path> stream = Files.list(directory)) {
+			for (Path path : (Iterable<Path>) stream::iterator) {
+				if (!path.getFileName().toString().endsWith(extension))
+					continue;
+				try {
+					BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+					if (!attributes.isRegularFile())
+						continue;
+					entries.add(new Entry(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+					totalSize += attributes.size();
+				} catch (IOException ignored) {
+					// File was removed while listing
+				}
+			}
+		}
+		if (totalSize <= maxSize)
+			return 0;
+		entries.sort(Comparator.comparingLong(Entry::modified));
+		int deleted = 0;
+		for (Entry entry : entries) {
+			if (totalSize <= maxSize)
+				break;
+			try {
+				Files.deleteIfExists(entry.path());
+				totalSize -= entry.size();
+				deleted++;
+			} catch (IOException ignored) {
+				// File may be in use, try the next one
+			}
+		}
+		return deleted;
+	}
+
 	/**
 	 * Tests whether the file denoted by a path is a normal file.
 	 *
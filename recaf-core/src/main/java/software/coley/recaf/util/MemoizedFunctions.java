@@ -1,16 +1,22 @@
 package software.coley.recaf.util;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
  * Memoized functions.
+ * <p/>
+ * The returned functions are safe to use from multiple threads. Values are computed outside of the cache's locks,
+ * so that memoized functions may freely call into one another. When multiple threads compute the same value at once,
+ * the first one to finish is kept and returned to all of them.
  *
  * @author Amejonah
  */
 public class MemoizedFunctions {
+	private static final Object NULL_KEY = new Object();
+
 	public static <Key, Value> Function<Key, Value> memoize(Function<Key, Value> function) {
 		return new MemoizedFunction<>(function);
 	}
@@ -19,8 +25,25 @@ public static <KeyA, KeyB, Value> BiFunction<KeyA, KeyB, Value> memoize(BiFuncti
 		return new BiMemoizedFunction<>(function);
 	}
 
+	private static <Key, Value> Value computeIfAbsent(Map<Object, Value> cache, Key key, Function<Key, Value> function) {
+		// Concurrent maps do not permit null keys, so they are mapped to a placeholder.
+		Object cacheKey = key == null ? NULL_KEY : key;
+		Value value = cache.get(cacheKey);
+		if (value == null) {
+			value = function.apply(key);
+
+			// Null values are not cached, matching the behavior of 'Map.computeIfAbsent'
+			if (value != null) {
+				Value existing = cache.putIfAbsent(cacheKey, value);
+				if (existing != null)
+					value = existing;
+			}
+		}
+		return value;
+	}
+
 	private static class MemoizedFunction<Key, Value> implements Function<Key, Value> {
-		private final Map<Key, Value> cache = new HashMap<>();
+		private final Map<Object, Value> cache = new ConcurrentHashMap<>();
 		private final Function<Key, Value> function;
 
 		private MemoizedFunction(Function<Key, Value> function) {
@@ -29,12 +52,12 @@ private MemoizedFunction(Function<Key, Value> function) {
 
 		@Override
 		public Value apply(Key key) {
-			return cache.computeIfAbsent(key, function);
+			return computeIfAbsent(cache, key, function);
 		}
 	}
 
 	private static class BiMemoizedFunction<KeyA, KeyB, Value> implements BiFunction<KeyA, KeyB, Value> {
-		private final Map<KeyA, Map<KeyB, Value>> cache = new HashMap<>();
+		private final Map<Object, Map<Object, Value>> cache = new ConcurrentHashMap<>();
 		private final BiFunction<KeyA, KeyB, Value> function;
 
 		private BiMemoizedFunction(BiFunction<KeyA, KeyB, Value> function) {
@@ -44,7 +67,8 @@ private BiMemoizedFunction(BiFunction<KeyA, KeyB, Value> function) {
 
 		@Override
 		public Value apply(KeyA keyA, KeyB keyB) {
-			return cache.computeIfAbsent(keyA, __ -> new HashMap<>()).computeIfAbsent(keyB, k -> function.apply(keyA, keyB));
+			Map<Object, Value> inner = computeIfAbsent(cache, keyA, __ -> new ConcurrentHashMap<>());
+			return computeIfAbsent(inner, keyB, k -> function.apply(keyA, keyB));
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,488 @@
+package software.coley.recaf.util;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * ZIP writer that streams entries to a channel as they are added, compressing entry contents in parallel.
+ * <p/>
+ * Entries are compressed on the given executor, while writing to the channel is done on the calling thread in
+ * the same order entries were added. Only a limited number of compressed entries are held in memory at a time.
+ * The central directory is written when the writer is {@link #close() closed}. If writing or compressing any entry
+ * fails, or the writer is {@link #abort() aborted}, the central directory is never written. The output is then
+ * not a readable ZIP, and should be discarded by the caller.
+ * <p/>
+ * The output layout mirrors {@link java.util.zip.ZipOutputStream}, including extended timestamp extra fields and
+ * ZIP64 end records for large outputs. Unlike {@link java.util.zip.ZipOutputStream} duplicate entry names are allowed.
+ *
+ * @author Matt Coley
+ */
+public class ParallelZipWriter implements Closeable {
+	private static final int LOC_SIG = 0x04034b50;
+	private static final int CEN_SIG = 0x02014b50;
+	private static final int END_SIG = 0x06054b50;
+	private static final int ZIP64_END_SIG = 0x06064b50;
+	private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+	private static final int EXTID_ZIP64 = 0x0001;
+	private static final int EXTID_NTFS = 0x000a;
+	private static final int EXTID_EXTT = 0x5455;
+	private static final int EXTT_FLAG_LMT = 0x1;
+	private static final int EXTT_FLAG_LAT = 0x2;
+	private static final int EXTT_FLAG_CT = 0x4;
+	private static final int FLAG_UTF8 = 0x800;
+	private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+	private static final long ZIP64_MAGIC_VAL = 0xFFFFFFFFL;
+	private static final long UPPER_UNIX_TIME_BOUND = 0x7fffffffL;
+	private static final long WINDOWS_EPOCH_IN_MICROSECONDS = -11644473600000000L;
+	private static final long WINDOWS_TIME_NOT_AVAILABLE = Long.MIN_VALUE;
+	private static final long DOS_TIME_BEFORE_1980 = (1 << 21) | (1 << 16);
+	private final Deque<CompletableFuture<CompressedEntry>> pending = new ArrayDeque<>();
+	private final ByteArrayOutputStream central = new ByteArrayOutputStream();
+	private final WritableByteChannel channel;
+	private final ExecutorService compressionService;
+	private final int maxPending;
+	private long position;
+	private long entryCount;
+	private boolean started;
+	private boolean failed;
+	private boolean closed;
+
+	/**
+	 * @param channel
+	 * 		Channel to write to.
+	 * @param compressionService
+	 * 		Executor to compress entries on.
+	 * @param maxPending
+	 * 		Maximum number of entries to have queued for compression before the calling thread
+	 * 		blocks on writing the oldest entry.
+	 */
+	public ParallelZipWriter(@Nonnull WritableByteChannel channel, @Nonnull ExecutorService compressionService,
+							 int maxPending) {
+		this.channel = channel;
+		this.compressionService = compressionService;
+		this.maxPending = Math.max(1, maxPending);
+	}
+
+	/**
+	 * Writes data ahead of the ZIP content. Offsets in the ZIP are relative to the end of the prefix data,
+	 * matching the layout of appending ZIP content to a file holding the prefix.
+	 *
+	 * @param prefix
+	 * 		Data to write before the ZIP content.
+	 *
+	 * @throws IOException
+	 * 		When the data cannot be written.
+	 * @throws IllegalStateException
+	 * 		When entries have already been added.
+	 */
+	public void writePrefix(@Nonnull byte[] prefix) throws IOException {
+		if (started)
+			throw new IllegalStateException("Prefix data must be written before any entries");
+		ensureWritable();
+		try {
+			writeFully(ByteBuffer.wrap(prefix));
+		} catch (IOException | RuntimeException ex) {
+			failed = true;
+			throw ex;
+		}
+		position = 0;
+	}
+
+	/**
+	 * Adds an entry to the output. Compression of the content is done asynchronously.
+	 *
+	 * @param name
+	 * 		Entry name.
+	 * @param content
+	 * 		Entry contents.
+	 * @param compression
+	 * 		Compression flag. Empty content is always stored.
+	 * @param comment
+	 * 		Optional comment.
+	 * @param createTime
+	 * 		Creation time, or negative to omit.
+	 * @param modifyTime
+	 * 		Modification time, or negative to use the current time.
+	 * @param accessTime
+	 * 		Access time, or negative to omit.
+	 *
+	 * @throws IOException
+	 * 		When prior entries cannot be written.
+	 */
+	public void add(@Nonnull String name, @Nonnull byte[] content, boolean compression, @Nullable String comment,
+					long createTime, long modifyTime, long accessTime) throws IOException {
+		ensureWritable();
+		started = true;
+		EntryHeader header = new EntryHeader(name, comment, createTime, modifyTime, accessTime);
+		boolean store = content.length == 0 || !compression;
+		try {
+			pending.addLast(CompletableFuture.supplyAsync(() -> compress(header, content, store), compressionService));
+		} catch (RuntimeException ex) {
+			failed = true;
+			throw ex;
+		}
+		drain(maxPending - 1);
+	}
+
+	/**
+	 * Adds an entry with content that is already deflated, such as data copied from an existing archive.
+	 * The data is written as-is without being compressed again.
+	 *
+	 * @param name
+	 * 		Entry name.
+	 * @param deflated
+	 * 		Raw deflated entry data.
+	 * @param crc
+	 * 		CRC32 of the uncompressed content.
+	 * @param size
+	 * 		Size of the uncompressed content.
+	 * @param comment
+	 * 		Optional comment.
+	 * @param createTime
+	 * 		Creation time, or negative to omit.
+	 * @param modifyTime
+	 * 		Modification time, or negative to use the current time.
+	 * @param accessTime
+	 * 		Access time, or negative to omit.
+	 *
+	 * @throws IOException
+	 * 		When prior entries cannot be written.
+	 */
+	public void addDeflated(@Nonnull String name, @Nonnull byte[] deflated, long crc, int size, @Nullable String comment,
+							long createTime, long modifyTime, long accessTime) throws IOException {
+		ensureWritable();
+		started = true;
+		EntryHeader header = new EntryHeader(name, comment, createTime, modifyTime, accessTime);
+		CompressedEntry entry = new CompressedEntry(header, ZipEntry.DEFLATED, crc, size, deflated, deflated.length);
+		pending.addLast(CompletableFuture.completedFuture(entry));
+		drain(maxPending - 1);
+	}
+
+	/**
+	 * Marks the output as incomplete. Pending entries are discarded, and the central directory will not be written
+	 * when the writer is {@link #close() closed}. Used when the caller fails to supply all entries.
+	 */
+	public void abort() {
+		failed = true;
+	}
+
+	/**
+	 * @return {@code true} when an entry failed to be written, or the writer was {@link #abort() aborted}.
+	 * The output of a failed writer is not a readable ZIP.
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * Writes all remaining entries and the central directory. If the writer has {@link #isFailed() failed},
+	 * remaining entries are discarded and nothing more is written.
+	 *
+	 * @throws IOException
+	 * 		When the remaining content cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		try {
+			if (!failed) {
+				drain(0);
+				try {
+					writeEnd();
+				} catch (IOException | RuntimeException ex) {
+					failed = true;
+					throw ex;
+				}
+			}
+		} finally {
+			closed = true;
+			pending.forEach(future -> future.cancel(true));
+			pending.clear();
+		}
+	}
+
+	private void ensureWritable() throws IOException {
+		if (closed)
+			throw new IOException("Writer is closed");
+		if (failed)
+			throw new IOException("Writer has failed, no more entries can be written");
+	}
+
+	/**
+	 * Writes pending entries until no more than the given number remain.
+	 * Any failure marks the writer as {@link #isFailed() failed}.
+	 *
+	 * @param maxRemaining
+	 * 		Number of pending entries to leave in the queue.
+	 *
+	 * @throws IOException
+	 * 		When an entry could not be compressed or written.
+	 */
+	private void drain(int maxRemaining) throws IOException {
+		try {
+			while (pending.size() > maxRemaining)
+				writeEntry(pending.removeFirst());
+		} catch (IOException | RuntimeException ex) {
+			failed = true;
+			throw ex;
+		}
+	}
+
+	private void writeEntry(@Nonnull CompletableFuture<CompressedEntry> future) throws IOException {
+		CompressedEntry entry;
+		try {
+			entry = future.join();
+		} catch (CompletionException ex) {
+			throw new IOException("Failed to compress ZIP entry", ex.getCause());
+		}
+		EntryHeader header = entry.header();
+		int version = entry.method() == ZipEntry.STORED ? 10 : 20;
+		byte[] extra = header.timeExtra(true);
+
+		// Local file header
+		ByteBuffer loc = buffer(30 + header.name.length + extra.length);
+		loc.putInt(LOC_SIG);
+		loc.putShort((short) version);
+		loc.putShort((short) FLAG_UTF8);
+		loc.putShort((short) entry.method());
+		loc.putInt((int) header.dosTime);
+		loc.putInt((int) entry.crc());
+		loc.putInt(entry.compressedLength());
+		loc.putInt(entry.size());
+		loc.putShort((short) header.name.length);
+		loc.putShort((short) extra.length);
+		loc.put(header.name);
+		loc.put(extra);
+		long offset = position;
+		writeFully(loc.flip());
+		writeFully(ByteBuffer.wrap(entry.compressed(), 0, entry.compressedLength()));
+
+		// Central directory header, held until all entries are written
+		boolean offset64 = offset >= ZIP64_MAGIC_VAL;
+		byte[] centralExtra = header.timeExtra(false);
+		int centralExtraLength = centralExtra.length + (offset64 ? 12 : 0);
+		ByteBuffer cen = buffer(46 + header.name.length + centralExtraLength + header.comment.length);
+		cen.putInt(CEN_SIG);
+		cen.putShort((short) version);
+		cen.putShort((short) version);
+		cen.putShort((short) FLAG_UTF8);
+		cen.putShort((short) entry.method());
+		cen.putInt((int) header.dosTime);
+		cen.putInt((int) entry.crc());
+		cen.putInt(entry.compressedLength());
+		cen.putInt(entry.size());
+		cen.putShort((short) header.name.length);
+		cen.putShort((short) centralExtraLength);
+		cen.putShort((short) header.comment.length);
+		cen.putShort((short) 0); // disk number
+		cen.putShort((short) 0); // internal attributes
+		cen.putInt(0); // external attributes
+		cen.putInt((int) (offset64 ? ZIP64_MAGIC_VAL : offset));
+		cen.put(header.name);
+		if (offset64) {
+			cen.putShort((short) EXTID_ZIP64);
+			cen.putShort((short) 8);
+			cen.putLong(offset);
+		}
+		cen.put(centralExtra);
+		cen.put(header.comment);
+		central.write(cen.array(), 0, cen.position());
+		entryCount++;
+	}
+
+	private void writeEnd() throws IOException {
+		long centralOffset = position;
+		long centralLength = central.size();
+		writeFully(ByteBuffer.wrap(central.toByteArray()));
+
+		// Use ZIP64 end records if any value does not fit in the standard end record
+		boolean zip64 = entryCount >= ZIP64_MAGIC_COUNT ||
+				centralOffset >= ZIP64_MAGIC_VAL ||
+				centralLength >= ZIP64_MAGIC_VAL;
+		if (zip64) {
+			long zip64EndOffset = position;
+			ByteBuffer end64 = buffer(56 + 20);
+			end64.putInt(ZIP64_END_SIG);
+			end64.putLong(44); // size of the remaining record
+			end64.putShort((short) 45); // version made by
+			end64.putShort((short) 45); // version needed
+			end64.putInt(0); // disk number
+			end64.putInt(0); // disk with central directory
+			end64.putLong(entryCount);
+			end64.putLong(entryCount);
+			end64.putLong(centralLength);
+			end64.putLong(centralOffset);
+			end64.putInt(ZIP64_LOCATOR_SIG);
+			end64.putInt(0); // disk with ZIP64 end record
+			end64.putLong(zip64EndOffset);
+			end64.putInt(1); // total disks
+			writeFully(end64.flip());
+		}
+		ByteBuffer end = buffer(22);
+		end.putInt(END_SIG);
+		end.putShort((short) 0); // disk number
+		end.putShort((short) 0); // disk with central directory
+		end.putShort((short) Math.min(entryCount, ZIP64_MAGIC_COUNT));
+		end.putShort((short) Math.min(entryCount, ZIP64_MAGIC_COUNT));
+		end.putInt((int) Math.min(centralLength, ZIP64_MAGIC_VAL));
+		end.putInt((int) Math.min(centralOffset, ZIP64_MAGIC_VAL));
+		end.putShort((short) 0); // comment length
+		writeFully(end.flip());
+	}
+
+	private void writeFully(@Nonnull ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			position += channel.write(buffer);
+	}
+
+	@Nonnull
+	private static ByteBuffer buffer(int size) {
+		return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Nonnull
+	private static CompressedEntry compress(@Nonnull EntryHeader header, @Nonnull byte[] content, boolean store) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		if (store)
+			return new CompressedEntry(header, ZipEntry.STORED, crc.getValue(), content.length, content, content.length);
+
+		// Raw deflate, the ZIP headers replace the zlib wrapper
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			byte[] output = new byte[Math.max(64, content.length / 2)];
+			int length = 0;
+			while (!deflater.finished()) {
+				if (length == output.length)
+					output = Arrays.copyOf(output, output.length * 2);
+				length += deflater.deflate(output, length, output.length - length);
+			}
+			return new CompressedEntry(header, ZipEntry.DEFLATED, crc.getValue(), content.length, output, length);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * @param time
+	 * 		Java time in milliseconds.
+	 *
+	 * @return MS-DOS date/time.
+	 */
+	private static long javaToDosTime(long time) {
+		LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		int year = ldt.getYear() - 1980;
+		if (year < 0)
+			return DOS_TIME_BEFORE_1980;
+		year = Math.min(year, 127);
+		return (year << 25 | ldt.getMonthValue() << 21 | ldt.getDayOfMonth() << 16 |
+				ldt.getHour() << 11 | ldt.getMinute() << 5 | ldt.getSecond() >> 1) & 0xffffffffL;
+	}
+
+	/**
+	 * Entry name, comment, and time values.
+	 */
+	private static class EntryHeader {
+		private final byte[] name;
+		private final byte[] comment;
+		private final long dosTime;
+		private final long createTime;
+		private final long modifyTime;
+		private final long accessTime;
+
+		private EntryHeader(@Nonnull String name, @Nullable String comment,
+							long createTime, long modifyTime, long accessTime) {
+			this.name = name.getBytes(StandardCharsets.UTF_8);
+			this.comment = comment == null ? new byte[0] : comment.getBytes(StandardCharsets.UTF_8);
+			this.dosTime = javaToDosTime(modifyTime >= 0 ? modifyTime : System.currentTimeMillis());
+			this.createTime = createTime;
+			this.modifyTime = modifyTime;
+			this.accessTime = accessTime;
+		}
+
+		/**
+		 * @param local
+		 *        {@code true} for the local file header variant, which holds all times.
+		 *        {@code false} for the central directory variant, which only holds the modification time.
+		 *
+		 * @return Extra field data holding the entry times.
+		 */
+		@Nonnull
+		private byte[] timeExtra(boolean local) {
+			int flags = 0;
+			if (modifyTime >= 0) flags |= EXTT_FLAG_LMT;
+			if (accessTime >= 0) flags |= EXTT_FLAG_LAT;
+			if (createTime >= 0) flags |= EXTT_FLAG_CT;
+			if (flags == 0)
+				return new byte[0];
+
+			// Unix times are limited to 32 bits, so use NTFS times when any value does not fit
+			if (modifyTime / 1000 > UPPER_UNIX_TIME_BOUND ||
+					accessTime / 1000 > UPPER_UNIX_TIME_BOUND ||
+					createTime / 1000 > UPPER_UNIX_TIME_BOUND) {
+				ByteBuffer ntfs = buffer(36);
+				ntfs.putShort((short) EXTID_NTFS);
+				ntfs.putShort((short) 32);
+				ntfs.putInt(0); // reserved
+				ntfs.putShort((short) 0x0001); // tag
+				ntfs.putShort((short) 24);
+				ntfs.putLong(toWindowsTime(modifyTime));
+				ntfs.putLong(toWindowsTime(accessTime));
+				ntfs.putLong(toWindowsTime(createTime));
+				return ntfs.array();
+			}
+
+			int timeCount = 0;
+			if (modifyTime >= 0) timeCount++;
+			if (local) {
+				if (accessTime >= 0) timeCount++;
+				if (createTime >= 0) timeCount++;
+			}
+			ByteBuffer extt = buffer(5 + timeCount * 4);
+			extt.putShort((short) EXTID_EXTT);
+			extt.putShort((short) (1 + timeCount * 4));
+			extt.put((byte) flags);
+			if (modifyTime >= 0) extt.putInt((int) (modifyTime / 1000));
+			if (local) {
+				if (accessTime >= 0) extt.putInt((int) (accessTime / 1000));
+				if (createTime >= 0) extt.putInt((int) (createTime / 1000));
+			}
+			return extt.array();
+		}
+
+		private static long toWindowsTime(long time) {
+			if (time < 0)
+				return WINDOWS_TIME_NOT_AVAILABLE;
+			return (time * 1000 - WINDOWS_EPOCH_IN_MICROSECONDS) * 10;
+		}
+	}
+
+	/**
+	 * Entry with compressed content, ready to be written.
+	 */
+	private record CompressedEntry(@Nonnull EntryHeader header, int method, long crc, int size,
+								   @Nonnull byte[] compressed, int compressedLength) {
+	}
+}
@@ -365,6 +365,59 @@ public static int count(char pattern, @Nullable String text) {
 		return count;
 	}
 
+	/**
+	 * Case-insensitive alternative to {@link String#contains(CharSequence)} that does not allocate lowercase copies.
+	 * Characters are compared one at a time as in {@link String#regionMatches(boolean, int, String, int, int)},
+	 * so case mappings that change the length of a string, such as {@code '\u00DF'} to {@code "SS"},
+	 * do not match. Unlike {@link String#toLowerCase()} the result does not depend on the default locale.
+	 *
+	 * @param text
+	 * 		Text to check.
+	 * @param pattern
+	 * 		Pattern to look for.
+	 *
+	 * @return {@code true} when the text contains the pattern, ignoring case.
+	 */
+	public static boolean containsIgnoreCase(@Nonnull String text, @Nonnull String pattern) {
+		int patternLength = pattern.length();
+		int max = text.length() - patternLength;
+		for (int i = 0; i <= max; i++)
+			if (text.regionMatches(true, i, pattern, 0, patternLength))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Case-insensitive alternative to {@link String#startsWith(String)} that does not allocate lowercase copies.
+	 * Characters are compared as in {@link #containsIgnoreCase(String, String)}.
+	 *
+	 * @param text
+	 * 		Text to check.
+	 * @param prefix
+	 * 		Prefix to look for.
+	 *
+	 * @return {@code true} when the text starts with the prefix, ignoring case.
+	 */
+	public static boolean startsWithIgnoreCase(@Nonnull String text, @Nonnull String prefix) {
+		return text.regionMatches(true, 0, prefix, 0, prefix.length());
+	}
+
+	/**
+	 * Case-insensitive alternative to {@link String#endsWith(String)} that does not allocate lowercase copies.
+	 * Characters are compared as in {@link #containsIgnoreCase(String, String)}.
+	 *
+	 * @param text
+	 * 		Text to check.
+	 * @param suffix
+	 * 		Suffix to look for.
+	 *
+	 * @return {@code true} when the text ends with the suffix, ignoring case.
+	 */
+	public static boolean endsWithIgnoreCase(@Nonnull String text, @Nonnull String suffix) {
+		int suffixLength = suffix.length();
+		return text.regionMatches(true, text.length() - suffixLength, suffix, 0, suffixLength);
+	}
+
 	/**
 	 * @param path
 	 * 		Some path.
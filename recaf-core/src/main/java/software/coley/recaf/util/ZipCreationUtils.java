@@ -4,12 +4,19 @@
 import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
@@ -132,6 +139,7 @@ public static FileTime unixTimeToFileTime(long utime) {
 	 */
 	public static class ZipBuilder {
 		private static final int MAX_DIR_DEPTH = 64;
+		private static final int MAX_PENDING_WRITES = Runtime.getRuntime().availableProcessors() * 4;
 		private final List<Entry> entries = new ArrayList<>();
 		private boolean createDirectories;
 
@@ -183,6 +191,38 @@ public ZipBuilder add(@Nonnull String name, @Nonnull byte[] content, boolean com
 			return add(new Entry(name, content, compression, comment, null, createTime, modifyTime, accessTime));
 		}
 
+		/**
+		 * Adds an entry with content that has already been deflated. When the ZIP is {@link #write(Path, byte[])
+		 * written to a file} the deflated data is copied as-is, skipping compression of the content.
+		 *
+		 * @param name
+		 * 		Entry name.
+		 * @param content
+		 * 		Entry contents.
+		 * @param deflated
+		 * 		Raw deflated form of the entry contents.
+		 * @param crc
+		 * 		CRC32 of the entry contents.
+		 * @param comment
+		 * 		Optional comment.
+		 * @param createTime
+		 * 		Creation time.
+		 * @param modifyTime
+		 * 		Modification time.
+		 * @param accessTime
+		 * 		Access time.
+		 *
+		 * @return Builder.
+		 */
+		@Nonnull
+		public ZipBuilder addDeflated(@Nonnull String name, @Nonnull byte[] content, @Nonnull byte[] deflated, long crc,
+									  @Nullable String comment, long createTime, long modifyTime, long accessTime) {
+			Entry entry = new Entry(name, content, true, comment, null, createTime, modifyTime, accessTime);
+			entry.deflated = deflated;
+			entry.crc = crc;
+			return add(entry);
+		}
+
 		/**
 		 * @param entry
 		 * 		Entry to add.
@@ -195,6 +235,100 @@ private ZipBuilder add(@Nonnull Entry entry) {
 			return this;
 		}
 
+		/**
+		 * Writes the ZIP directly to the given path. Unlike {@link #bytes()} the output is streamed to the file
+		 * as it is created, and entries are compressed in parallel.
+		 *
+		 * @param path
+		 * 		Path to write to.
+		 * @param prefix
+		 * 		Optional data to write ahead of the ZIP content.
+		 *
+		 * @throws IOException
+		 * 		When the content cannot be written.
+		 */
+		public void write(@Nonnull Path path, @Nullable byte[] prefix) throws IOException {
+			// The streaming writer generates its own extra fields, so entries with custom extra data
+			// must go through the standard output stream.
+			if (entries.stream().anyMatch(e -> e.extra != null)) {
+				try (OutputStream out = Files.newOutputStream(path)) {
+					if (prefix != null)
+						out.write(prefix);
+					out.write(bytes());
+				}
+				return;
+			}
+
+			ExecutorService service = ThreadPoolFactory.newFixedThreadPool("zip-writer");
+			try {
+				try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+					 ParallelZipWriter writer = new ParallelZipWriter(channel, service, MAX_PENDING_WRITES)) {
+					try {
+						if (prefix != null)
+							writer.writePrefix(prefix);
+						Set<String> dirsVisited = new HashSet<>();
+						for (Entry entry : entries) {
+							// Write directories for upcoming entries if necessary.
+							// Directories are always stored, see 'bytes()' for details.
+							if (createDirectories)
+								for (String dir : newDirectories(entry.name, dirsVisited))
+									writer.add(dir, EMPTY, false, null, -1, -1, -1);
+							if (entry.deflated != null)
+								writer.addDeflated(entry.name, entry.deflated, entry.crc, entry.content.length,
+										entry.comment, entry.creationTime, entry.modifyTime, entry.accessTime);
+							else
+								writer.add(entry.name, entry.content, entry.compression, entry.comment,
+										entry.creationTime, entry.modifyTime, entry.accessTime);
+						}
+					} catch (Throwable t) {
+						// Do not let the writer complete a ZIP that is missing entries.
+						writer.abort();
+						throw t;
+					}
+				}
+			} catch (Throwable t) {
+				// Do not leave a partial output behind.
+				try {
+					Files.deleteIfExists(path);
+				} catch (IOException ex) {
+					t.addSuppressed(ex);
+				}
+				throw t;
+			} finally {
+				service.shutdownNow();
+			}
+		}
+
+		/**
+		 * @param key
+		 * 		Entry name.
+		 * @param dirsVisited
+		 * 		Set of directories already created. Updated with the newly returned directories.
+		 *
+		 * @return Directories that need to be created for the entry, in order of depth.
+		 */
+		@Nonnull
+		private static List<String> newDirectories(@Nonnull String key, @Nonnull Set<String> dirsVisited) {
+			// Ugly, but does the job.
+			if (!key.contains("/"))
+				return Collections.emptyList();
+			String parent = key;
+			List<String> toAdd = new ArrayList<>();
+			do {
+				// Abort if the max-dir depth is reached.
+				if (toAdd.size() > MAX_DIR_DEPTH) {
+					toAdd.clear();
+					break;
+				}
+				parent = parent.substring(0, parent.lastIndexOf('/'));
+				if (dirsVisited.add(parent)) {
+					toAdd.add(0, parent + '/');
+				} else break;
+			} while (parent.contains("/"));
+			return toAdd;
+		}
+
 		/**
 		 * @return Generated ZIP.
 		 *
@@ -211,24 +345,9 @@ public byte[] bytes() throws IOException {
 					byte[] content = entry.content;
 
 					// Write directories for upcoming entries if necessary
-					// - Ugly, but does the job.
-					if (createDirectories && key.contains("/")) {
-						// Record directories
-						String parent = key;
-						List<String> toAdd = new ArrayList<>();
-						do {
-							// Abort if the max-dir depth is reached.
-							if (toAdd.size() > MAX_DIR_DEPTH) {
-								toAdd.clear();
-								break;
-							}
-							parent = parent.substring(0, parent.lastIndexOf('/'));
-							if (dirsVisited.add(parent)) {
-								toAdd.add(0, parent + '/');
-							} else break;
-						} while (parent.contains("/"));
+					if (createDirectories) {
 						// Put directories in order of depth
-						for (String dir : toAdd) {
+						for (String dir : newDirectories(key, dirsVisited)) {
 							// Update CRC
 							crc.reset();
 							crc.update(EMPTY);
@@ -286,6 +405,8 @@ public static class Entry {
 			private final long creationTime;
 			private final long modifyTime;
 			private final long accessTime;
+			private byte[] deflated;
+			private long crc;
 
 			private Entry(@Nonnull String name,
 						  @Nonnull byte[] content,
@@ -131,6 +131,19 @@ public static ScheduledExecutorService newScheduledThreadPool(String name, int s
 		return new ScheduledExecutorServiceDelegate(Executors.newScheduledThreadPool(size, new FactoryImpl(name, daemon)));
 	}
 
+	/**
+	 * Virtual threads are best suited to tasks that spend most of their time blocking, such as file IO.
+	 *
+	 * @param name
+	 * 		Thread name prefix.
+	 *
+	 * @return {@link Executors#newThreadPerTaskExecutor(ThreadFactory)} using virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+		ThreadFactory factory = Thread.ofVirtual().name(name + "-", 0).factory();
+		return new ExecutorServiceDelegate(Executors.newThreadPerTaskExecutor(factory));
+	}
+
 	private static class FactoryImpl implements ThreadFactory {
 		private final String name;
 		private final boolean daemon;
@@ -0,0 +1,321 @@
+package software.coley.recaf.util.visitors;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.*;
+import software.coley.cafedude.classfile.ConstantPoolConstants;
+import software.coley.recaf.RecafConstants;
+
+/**
+ * A visitor that checks a class for the cases which would cause ASM to fail when writing it back out.
+ * This is a lightweight alternative to delegating to a {@link ClassWriter}, as it does not create a copy of the
+ * class's constant pool or any other output.
+ * <p/>
+ * Constructing the visitor checks the constant pool and bootstrap methods of the class.
+ * The remaining checks are done as the class is visited. Any failure is reported by throwing
+ * an {@link IllegalStateException}.
+ * <p/>
+ * Fields, methods, and class annotations are not checked, only visited so that the reader fully parses them.
+ *
+ * @author Matt Coley
+ */
+public class ValidatingClassVisitor extends ClassVisitor {
+	private static final int API = RecafConstants.getAsmVersion();
+
+	/**
+	 * @param reader
+	 * 		Reader of the class to validate.
+	 *
+	 * @throws IllegalStateException
+	 * 		When the constant pool or bootstrap methods of the class are not valid.
+	 */
+	public ValidatingClassVisitor(@Nonnull ClassReader reader) {
+		super(API);
+		validateConstantPool(reader);
+	}
+
+	@Override
+	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+		requireNonNull(name, "class name");
+		if (interfaces != null)
+			for (String itf : interfaces)
+				requireNonNull(itf, "interface name");
+	}
+
+	@Override
+	public ModuleVisitor visitModule(String name, int access, String version) {
+		requireNonNull(name, "module name");
+		return new ValidatingModuleVisitor();
+	}
+
+	@Override
+	public void visitNestHost(String nestHost) {
+		requireNonNull(nestHost, "nest host");
+	}
+
+	@Override
+	public void visitOuterClass(String owner, String name, String descriptor) {
+		requireNonNull(owner, "outer class name");
+	}
+
+	@Override
+	public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+		return new AnnotationVisitor(API) {};
+	}
+
+	@Override
+	public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+		return new AnnotationVisitor(API) {};
+	}
+
+	@Override
+	public void visitNestMember(String nestMember) {
+		requireNonNull(nestMember, "nest member");
+	}
+
+	@Override
+	public void visitPermittedSubclass(String permittedSubclass) {
+		requireNonNull(permittedSubclass, "permitted subclass");
+	}
+
+	@Override
+	public void visitInnerClass(String name, String outerName, String innerName, int access) {
+		requireNonNull(name, "inner class name");
+	}
+
+	@Override
+	public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+		requireNonNull(name, "record component name");
+		requireNonNull(descriptor, "record component descriptor");
+		return new RecordComponentVisitor(API) {
+			@Override
+			public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+				requireNonNull(descriptor, "annotation descriptor");
+				return new ValidatingAnnotationVisitor(true);
+			}
+
+			@Override
+			public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+				requireNonNull(descriptor, "annotation descriptor");
+				return new ValidatingAnnotationVisitor(true);
+			}
+		};
+	}
+
+	@Override
+	public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+		return new FieldVisitor(API) {};
+	}
+
+	@Override
+	public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+		return new MethodVisitor(API) {};
+	}
+
+	/**
+	 * Resolves all constant pool entries of the class in the same way a {@link ClassWriter} does when it copies
+	 * the constant pool of a {@link ClassReader}.
+	 *
+	 * @param reader
+	 * 		Reader of the class to validate.
+	 */
+	private static void validateConstantPool(@Nonnull ClassReader reader) {
+		char[] buffer = new char[reader.getMaxStringLength()];
+		int itemCount = reader.getItemCount();
+		boolean hasBootstrapMethods = false;
+		int i = 1;
+		while (i < itemCount) {
+			int offset = reader.getItem(i);
+			int tag = reader.readByte(offset - 1);
+			switch (tag) {
+				case ConstantPoolConstants.FIELD_REF, ConstantPoolConstants.METHOD_REF,
+						ConstantPoolConstants.INTERFACE_METHOD_REF -> {
+					requireNonNull(reader.readClass(offset, buffer), "member reference owner");
+					validateNameType(reader, reader.getItem(reader.readUnsignedShort(offset + 2)), buffer);
+				}
+				case ConstantPoolConstants.NAME_TYPE -> validateNameType(reader, offset, buffer);
+				case ConstantPoolConstants.METHOD_HANDLE -> {
+					int memberOffset = reader.getItem(reader.readUnsignedShort(offset + 1));
+					requireNonNull(reader.readClass(memberOffset, buffer), "method handle owner");
+					validateNameType(reader, reader.getItem(reader.readUnsignedShort(memberOffset + 2)), buffer);
+				}
+				case ConstantPoolConstants.DYNAMIC, ConstantPoolConstants.INVOKE_DYNAMIC -> {
+					hasBootstrapMethods = true;
+					validateNameType(reader, reader.getItem(reader.readUnsignedShort(offset + 2)), buffer);
+				}
+				case ConstantPoolConstants.STRING, ConstantPoolConstants.CLASS, ConstantPoolConstants.METHOD_TYPE,
+						ConstantPoolConstants.MODULE, ConstantPoolConstants.PACKAGE ->
+						requireNonNull(reader.readUTF8(offset, buffer), "constant pool reference");
+				case ConstantPoolConstants.UTF8, ConstantPoolConstants.INTEGER, ConstantPoolConstants.FLOAT,
+						ConstantPoolConstants.LONG, ConstantPoolConstants.DOUBLE -> {
+					// Primitive values cannot be invalid beyond what the reader already checks
+				}
+				default -> throw new IllegalStateException("Unknown constant pool tag: " + tag);
+			}
+			i += (tag == ConstantPoolConstants.LONG || tag == ConstantPoolConstants.DOUBLE) ? 2 : 1;
+		}
+		if (hasBootstrapMethods)
+			validateBootstrapMethods(reader, buffer);
+	}
+
+	private static void validateNameType(@Nonnull ClassReader reader, int offset, @Nonnull char[] buffer) {
+		requireNonNull(reader.readUTF8(offset, buffer), "name");
+		requireNonNull(reader.readUTF8(offset + 2, buffer), "descriptor");
+	}
+
+	/**
+	 * Resolves all bootstrap methods and their arguments.
+	 *
+	 * @param reader
+	 * 		Reader of the class to validate.
+	 * @param buffer
+	 * 		Buffer for reading strings.
+	 */
+	@SuppressWarnings("deprecation")
+	private static void validateBootstrapMethods(@Nonnull ClassReader reader, @Nonnull char[] buffer) {
+		// Skip over the fields and methods to get to the class attributes.
+		int offset = reader.header + 8 + reader.readUnsignedShort(reader.header + 6) * 2;
+		for (int m = 0; m < 2; m++) {
+			int memberCount = reader.readUnsignedShort(offset);
+			offset += 2;
+			while (memberCount-- > 0) {
+				int attributeCount = reader.readUnsignedShort(offset + 6);
+				offset += 8;
+				while (attributeCount-- > 0)
+					offset += 6 + reader.readInt(offset + 2);
+			}
+		}
+
+		// Find the bootstrap methods attribute.
+		int attributeCount = reader.readUnsignedShort(offset);
+		offset += 2;
+		int bootstrapMethodCount = 0;
+		for (int i = attributeCount; i > 0; i--) {
+			if ("BootstrapMethods".equals(reader.readUTF8(offset, buffer))) {
+				bootstrapMethodCount = reader.readUnsignedShort(offset + 6);
+				break;
+			}
+			offset += 6 + reader.readInt(offset + 2);
+		}
+		if (bootstrapMethodCount <= 0)
+			return;
+
+		// Ensure the attribute content is within the bounds of the class.
+		int bootstrapMethodsOffset = offset + 8;
+		int bootstrapMethodsLength = reader.readInt(offset + 2) - 2;
+		if (bootstrapMethodsLength < 0 || bootstrapMethodsOffset + bootstrapMethodsLength > reader.b.length)
+			throw new IllegalStateException("Bootstrap methods attribute has invalid length");
+
+		// Resolve each method handle and its arguments.
+		offset = bootstrapMethodsOffset;
+		for (int i = 0; i < bootstrapMethodCount; i++) {
+			requireNonNull(reader.readConst(reader.readUnsignedShort(offset), buffer), "bootstrap method");
+			int argumentCount = reader.readUnsignedShort(offset + 2);
+			offset += 4;
+			while (argumentCount-- > 0) {
+				requireNonNull(reader.readConst(reader.readUnsignedShort(offset), buffer), "bootstrap method argument");
+				offset += 2;
+			}
+		}
+	}
+
+	private static void requireNonNull(@Nullable Object value, @Nonnull String name) {
+		if (value == null)
+			throw new IllegalStateException("Missing value for " + name);
+	}
+
+	/**
+	 * Annotation visitor checking the same cases an annotation writer would fail on.
+	 */
+	private static class ValidatingAnnotationVisitor extends AnnotationVisitor {
+		private final boolean namedValues;
+
+		private ValidatingAnnotationVisitor(boolean namedValues) {
+			super(API);
+			this.namedValues = namedValues;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			checkName(name);
+			requireNonNull(value, "annotation value");
+		}
+
+		@Override
+		public void visitEnum(String name, String descriptor, String value) {
+			checkName(name);
+			requireNonNull(descriptor, "annotation enum descriptor");
+			requireNonNull(value, "annotation enum value");
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+			checkName(name);
+			requireNonNull(descriptor, "annotation descriptor");
+			return new ValidatingAnnotationVisitor(true);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			checkName(name);
+			return new ValidatingAnnotationVisitor(false);
+		}
+
+		private void checkName(@Nullable String name) {
+			if (namedValues)
+				requireNonNull(name, "annotation element name");
+		}
+	}
+
+	/**
+	 * Module visitor checking the same cases a module writer would fail on.
+	 */
+	private static class ValidatingModuleVisitor extends ModuleVisitor {
+		private ValidatingModuleVisitor() {
+			super(API);
+		}
+
+		@Override
+		public void visitMainClass(String mainClass) {
+			requireNonNull(mainClass, "module main class");
+		}
+
+		@Override
+		public void visitPackage(String packaze) {
+			requireNonNull(packaze, "module package");
+		}
+
+		@Override
+		public void visitRequire(String module, int access, String version) {
+			requireNonNull(module, "module requirement");
+		}
+
+		@Override
+		public void visitExport(String packaze, int access, String... modules) {
+			requireNonNull(packaze, "module export");
+			if (modules != null)
+				for (String module : modules)
+					requireNonNull(module, "module export target");
+		}
+
+		@Override
+		public void visitOpen(String packaze, int access, String... modules) {
+			requireNonNull(packaze, "module open");
+			if (modules != null)
+				for (String module : modules)
+					requireNonNull(module, "module open target");
+		}
+
+		@Override
+		public void visitUse(String service) {
+			requireNonNull(service, "module use");
+		}
+
+		@Override
+		public void visitProvide(String service, String... providers) {
+			requireNonNull(service, "module provided service");
+			for (String provider : providers)
+				requireNonNull(provider, "module service provider");
+		}
+	}
+}
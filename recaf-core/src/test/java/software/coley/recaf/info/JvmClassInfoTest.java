@@ -3,11 +3,17 @@
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import software.coley.cafedude.classfile.VersionConstants;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.properties.builtin.IllegalClassSuspectProperty;
 import software.coley.recaf.test.TestClassUtils;
 import software.coley.recaf.test.dummy.AccessibleFields;
 import software.coley.recaf.util.ByteHeaderUtil;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -99,4 +105,63 @@ void toBuilder() {
 		assertNotEquals(accessibleFields, builderModifiedCopy,
 				"Direct copy via builder should have same class equality");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void lazyModelMatchesEagerModel() {
+		JvmClassInfo lazy = new JvmClassInfoBuilder()
+				.adaptHeaderFrom(accessibleFields.getBytecode())
+				.build();
+		LazyJvmClassInfo lazyInfo = assertInstanceOf(LazyJvmClassInfo.class, lazy);
+
+		// Header values are available without populating the rest of the model
+		assertEquals(accessibleFields.getName(), lazy.getName());
+		assertEquals(accessibleFields.getSuperName(), lazy.getSuperName());
+		assertEquals(accessibleFields.getInterfaces(), lazy.getInterfaces());
+		assertEquals(accessibleFields.getAccess(), lazy.getAccess());
+		assertEquals(accessibleFields.getVersion(), lazy.getVersion());
+		assertEquals(accessibleFields.hashCode(), lazy.hashCode());
+		assertFalse(lazyInfo.isModelPopulated(), "Header access should not populate the model");
+
+		// Members are populated on demand, and are linked to the lazy class
+		assertEquals(accessibleFields.getFields(), lazy.getFields());
+		assertEquals(accessibleFields.getMethods(), lazy.getMethods());
+		assertTrue(lazyInfo.isModelPopulated());
+		assertSame(lazy, lazy.getFields().get(0).getDeclaringClass());
+		assertEquals(accessibleFields, lazy);
+		assertEquals(lazy, accessibleFields);
+	}
+
+	@Test
+	void lazyModelWithMalformedCodeIsReported() {
+		// Class with a single method, whose code is a distinct sequence of 'nop' followed by 'return'
+		ClassWriter cw = new ClassWriter(0);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "Malformed", null, "java/lang/Object", null);
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "m", "()V", null, null);
+		mv.visitCode();
+		for (int i = 0; i < 4; i++)
+			mv.visitInsn(Opcodes.NOP);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		byte[] code = cw.toByteArray();
+
+		// Replace the first 'nop' with an invalid opcode. The header is still valid, but the method is not.
+		byte[] sequence = {0, 0, 0, 5, 0, 0, 0, 0, (byte) Opcodes.RETURN};
+		int offset = -1;
+		for (int i = 0; i <= code.length - sequence.length && offset < 0; i++)
+			if (Arrays.equals(code, i, i + sequence.length, sequence, 0, sequence.length))
+				offset = i + 4;
+		assertTrue(offset > 0, "Could not locate method code");
+		code[offset] = (byte) 0xFE;
+
+		JvmClassInfo lazy = new JvmClassInfoBuilder().adaptHeaderFrom(code).build();
+		assertEquals("Malformed", lazy.getName());
+		assertNull(lazy.getProperty(IllegalClassSuspectProperty.KEY), "Header access should not report failures");
+
+		// Accessing the model should not throw, but should record the class as malformed
+		assertDoesNotThrow(lazy::getMethods);
+		assertTrue(lazy.getMethods().isEmpty());
+		assertNotNull(lazy.getProperty(IllegalClassSuspectProperty.KEY));
+	}
+}
@@ -2,6 +2,8 @@
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.MethodNode;
 import software.coley.observables.ObservableBoolean;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.path.ClassPathNode;
@@ -11,6 +13,8 @@
 import software.coley.recaf.workspace.model.Workspace;
 
 import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +47,10 @@ void testCalleeCallerRelation() throws IOException {
 			}
 		});
 
+		// Progress should account for both classes once ready.
+		assertEquals(2, graph.getTotalClassCount().getValue());
+		assertEquals(2, graph.getVisitedClassCount().getValue());
+
 		ClassMethodsContainer containerMain = graph.getClassMethodsContainer(mainClass);
 		ClassMethodsContainer containerFunction = graph.getClassMethodsContainer(functionClass);
 
@@ -62,6 +70,69 @@ void testCalleeCallerRelation() throws IOException {
 		assertTrue(newVertex.getCallers().contains(mainVertex));
 	}
 
+	@Test
+	@Timeout(30)
+	void testEdgesAcrossBatches() {
+		// Enough classes to span several visit batches, each calling into classes of other batches
+		int classCount = 3 * 256 + 50;
+		Map<String, Set<String>> expectedCalls = new HashMap<>();
+		Map<String, Set<String>> expectedCallers = new HashMap<>();
+		JvmClassInfo[] classes = new JvmClassInfo[classCount];
+		for (int i = 0; i < classCount; i++) {
+			String name = "gen/C" + i;
+			Set<String> targets = new TreeSet<>(List.of(
+					"gen/C" + ((i + 1) % classCount),
+					"gen/C" + ((i * 7 + 300) % classCount)
+			));
+			expectedCalls.put(name, targets);
+			for (String target : targets)
+				expectedCallers.computeIfAbsent(target, k -> new TreeSet<>()).add(name);
+			classes[i] = TestClassUtils.createClass(name, node -> {
+				MethodNode target = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "target", "()V", null, null);
+				target.visitInsn(Opcodes.RETURN);
+				target.visitMaxs(0, 0);
+				MethodNode call = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "call", "()V", null, null);
+				for (String owner : targets)
+					call.visitMethodInsn(Opcodes.INVOKESTATIC, owner, "target", "()V", false);
+				call.visitInsn(Opcodes.RETURN);
+				call.visitMaxs(0, 0);
+				node.methods.add(target);
+				node.methods.add(call);
+			});
+		}
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(classes));
+
+		CallGraph graph = new CallGraph(new CallGraphConfig(), workspace);
+		ObservableBoolean ready = graph.isReady();
+		assertDoesNotThrow(() -> {
+			while (!ready.getValue()) {
+				Thread.sleep(100);
+			}
+		});
+		assertEquals(classCount, graph.getTotalClassCount().getValue());
+		assertEquals(classCount, graph.getVisitedClassCount().getValue());
+
+		// Both directions of every edge must be recorded, regardless of which batches the classes were in
+		for (JvmClassInfo cls : classes) {
+			String name = cls.getName();
+			ClassMethodsContainer container = graph.getClassMethodsContainer(cls);
+			MethodVertex call = container.getVertex("call", "()V");
+			MethodVertex target = container.getVertex("target", "()V");
+			assertNotNull(call);
+			assertNotNull(target);
+			assertEquals(expectedCalls.get(name), owners(call.getCalls()), "Wrong calls of " + name);
+			assertEquals(expectedCallers.getOrDefault(name, Set.of()), owners(target.getCallers()), "Wrong callers of " + name);
+			assertTrue(call.getCallers().isEmpty());
+			assertTrue(target.getCalls().isEmpty());
+		}
+	}
+
+	private static Set<String> owners(Collection<MethodVertex> vertices) {
+		return vertices.stream()
+				.map(vertex -> vertex.getMethod().getOwner())
+				.collect(Collectors.toCollection(TreeSet::new));
+	}
+
 	// TODO: Test removing existing class from workspace makes calls to its methods unresolved
 
 	// TODO: Test adding missing class to workspace makes unresolved calls valid
@@ -0,0 +1,111 @@
+package software.coley.recaf.services.inheritance;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AncestryIndex}
+ */
+class AncestryIndexTest {
+	@Test
+	void testMovingSubtreeToNewSuperClass() {
+		CompactInheritanceGraph graph = new CompactInheritanceGraph();
+		AncestryIndex index = new AncestryIndex(graph);
+		int object = graph.intern("Object");
+		int a = graph.intern("A");
+		int b = graph.intern("B");
+		int child = graph.intern("Child");
+		int grandChild = graph.intern("GrandChild");
+		int itf = graph.intern("Itf");
+		int impl = graph.intern("Impl");
+		setParents(graph, index, a, object);
+		setParents(graph, index, b, object);
+		setParents(graph, index, child, a);
+		setParents(graph, index, grandChild, child);
+		setParents(graph, index, itf, object);
+		setParents(graph, index, impl, object, grandChild);
+		assertTrue(index.isAncestor(a, grandChild));
+		assertTrue(index.isAncestor(a, impl));
+		assertFalse(index.isAncestor(b, grandChild));
+
+		// Moving the labeled subtree of 'Child' from 'A' to 'B'
+		setParents(graph, index, child, b);
+		assertFalse(index.isAncestor(a, child));
+		assertFalse(index.isAncestor(a, grandChild));
+		assertFalse(index.isAncestor(a, impl));
+		assertTrue(index.isAncestor(b, child));
+		assertTrue(index.isAncestor(b, grandChild));
+		assertTrue(index.isAncestor(b, impl), "Class implementing a moved class must see its new ancestors");
+		assertTrue(index.isAncestor(object, impl));
+
+		// Adding an interface to a class that is no longer labeled
+		setParents(graph, index, child, b, itf);
+		assertTrue(index.isAncestor(itf, grandChild));
+		assertTrue(index.isAncestor(itf, impl));
+		assertFalse(index.isAncestor(itf, b));
+	}
+
+	@Test
+	void testMatchesWalkAcrossIncrementalChanges() {
+		Random random = new Random(0);
+		for (int round = 0; round < 30; round++) {
+			CompactInheritanceGraph graph = new CompactInheritanceGraph();
+			AncestryIndex index = new AncestryIndex(graph);
+			int count = 10 + random.nextInt(40);
+			int maxCount = count + random.nextInt(20);
+			for (int i = 0; i < count; i++)
+				graph.intern("C" + i);
+			for (int step = 0; step < 200; step++) {
+				// Classes added after the index is built are not labeled until the next rebuild.
+				if (count < maxCount && random.nextInt(8) == 0)
+					graph.intern("C" + count++);
+
+				int id = random.nextInt(count);
+				if (random.nextInt(5) == 0) {
+					index.onParentsChanged(id, graph.removeParents(id), new int[0]);
+				} else {
+					int[] parents = random.ints(random.nextInt(3), 0, count)
+							.filter(parent -> parent != id)
+							.distinct()
+							.toArray();
+					index.onParentsChanged(id, graph.setParents(id, parents), parents);
+				}
+
+				for (int ancestor = 0; ancestor < count; ancestor++)
+					for (int descendant = 0; descendant < count; descendant++)
+						assertEquals(isAncestorByWalk(graph, ancestor, descendant), index.isAncestor(ancestor, descendant),
+								"Round " + round + ", step " + step + ": " + ancestor + " ancestor of " + descendant);
+			}
+		}
+	}
+
+	private static void setParents(@Nonnull CompactInheritanceGraph graph, @Nonnull AncestryIndex index,
+								   int id, int... parents) {
+		index.onParentsChanged(id, graph.setParents(id, parents), parents);
+	}
+
+	private static boolean isAncestorByWalk(@Nonnull CompactInheritanceGraph graph, int ancestor, int descendant) {
+		BitSet visited = new BitSet();
+		Queue<Integer> queue = new ArrayDeque<>();
+		queue.addAll(Arrays.stream(graph.getParents(descendant).toArray()).boxed().toList());
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			if (next == ancestor)
+				return true;
+			if (visited.get(next))
+				continue;
+			visited.set(next);
+			for (int parent : graph.getParents(next).toArray())
+				queue.add(parent);
+		}
+		return false;
+	}
+}
@@ -2,8 +2,13 @@
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
 import software.coley.recaf.info.ClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.test.TestBase;
 import software.coley.recaf.test.TestClassUtils;
@@ -12,11 +17,15 @@
 import software.coley.recaf.util.Types;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceResourceBuilder;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -125,4 +134,160 @@ void getFamilyOfThrowable() {
 				.toList();
 		assertTrue(throwableClasses.contains(notFoodException), "Subtypes of 'Throwable' did not yield 'NotFoodException'");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void getParentsOfClassOutsideWorkspaceHierarchy() {
+		// Not a parent of any class in the workspace, so it is not part of the graph.
+		InheritanceVertex vertex = graph.getVertex("java/util/ArrayList");
+		assertNotNull(vertex, "Could not get ArrayList vertex from runtime");
+		Set<String> parents = vertex.getParents().stream()
+				.map(InheritanceVertex::getName)
+				.collect(Collectors.toSet());
+		assertTrue(parents.contains("java/util/AbstractList"), "ArrayList missing parent: AbstractList");
+		assertTrue(parents.contains("java/util/List"), "ArrayList missing parent: List");
+
+		// Looking up its parents does not add it to the graph as a child of them.
+		InheritanceVertex abstractList = graph.getVertex("java/util/AbstractList");
+		assertNotNull(abstractList);
+		assertFalse(abstractList.getChildren().contains(vertex), "AbstractList should not list ArrayList as a child");
+
+		// Relations are still resolved through its parents.
+		assertTrue(graph.isChildOf("java/util/ArrayList", "java/util/AbstractList"));
+		assertTrue(graph.isChildOf("java/util/ArrayList", "java/util/Collection"));
+		assertTrue(graph.isChildOf("java/util/ArrayList", "java/lang/Object"));
+		assertFalse(graph.isChildOf("java/util/ArrayList", "java/util/Map"));
+		assertTrue(vertex.isChildOf(abstractList));
+		assertEquals("java/util/AbstractList", graph.getCommon("java/util/ArrayList", "java/util/AbstractList"));
+		assertEquals("java/util/AbstractList", graph.getCommon("java/util/ArrayList", "java/util/Vector"));
+	}
+
+	@Test
+	void isChildOf() {
+		String edibleName = Inheritance.Edible.class.getName().replace('.', '/');
+		String appleName = Inheritance.Apple.class.getName().replace('.', '/');
+		String wormName = Inheritance.AppleWithWorm.class.getName().replace('.', '/');
+		String grapeName = Inheritance.Grape.class.getName().replace('.', '/');
+		String exceptionName = Inheritance.NotFoodException.class.getName().replace('.', '/');
+
+		// Direct and indirect parents, through both super-classes and interfaces
+		assertTrue(graph.isChildOf(appleName, edibleName));
+		assertTrue(graph.isChildOf(wormName, appleName));
+		assertTrue(graph.isChildOf(wormName, edibleName));
+		assertTrue(graph.isChildOf(exceptionName, "java/lang/Throwable"));
+		assertTrue(graph.isChildOf(exceptionName, "java/io/Serializable"));
+		assertTrue(graph.isChildOf(grapeName, "java/lang/Object"));
+
+		// Unrelated, reversed, and unknown types
+		assertFalse(graph.isChildOf(appleName, grapeName));
+		assertFalse(graph.isChildOf(edibleName, appleName));
+		assertFalse(graph.isChildOf(appleName, appleName));
+		assertFalse(graph.isChildOf(appleName, UUID.randomUUID().toString()));
+		assertFalse(graph.isChildOf(UUID.randomUUID().toString(), edibleName));
+
+		// Vertex checks go through the same lookup
+		InheritanceVertex worm = graph.getVertex(wormName);
+		InheritanceVertex edible = graph.getVertex(edibleName);
+		assertNotNull(worm);
+		assertNotNull(edible);
+		assertTrue(worm.isChildOf(edible));
+		assertTrue(edible.isParentOf(worm));
+		assertTrue(worm.hasParent(edibleName));
+		assertTrue(edible.hasChild(wormName));
+	}
+
+	@Test
+	void addAndRemoveLibrary() {
+		String edibleName = Inheritance.Edible.class.getName().replace('.', '/');
+		String appleName = Inheritance.Apple.class.getName().replace('.', '/');
+		String bananaName = appleName.replace("Apple", "Banana");
+
+		// Library with a class extending one in the primary resource
+		JvmClassInfo banana = TestClassUtils.createClass(bananaName, node -> node.superName = appleName);
+		WorkspaceResource library = new WorkspaceResourceBuilder()
+				.withJvmClassBundle(TestClassUtils.fromClasses(banana))
+				.build();
+		assertNull(graph.getVertex(bananaName), "Banana should not exist before library is added");
+
+		workspace.addSupportingResource(library);
+		try {
+			InheritanceVertex bananaVertex = graph.getVertex(bananaName);
+			assertNotNull(bananaVertex, "Banana should exist after library is added");
+			assertTrue(graph.isChildOf(bananaName, edibleName));
+			assertTrue(graph.getVertex(appleName).getChildren().contains(bananaVertex), "Apple missing child: Banana");
+		} finally {
+			workspace.removeSupportingResource(library);
+		}
+
+		assertNull(graph.getVertex(bananaName), "Banana should not exist after library is removed");
+		assertFalse(graph.isChildOf(bananaName, edibleName));
+		assertEquals(1, graph.getVertex(appleName).getChildren().size(), "Expecting 1 child for Apple after removal");
+	}
+
+	@Test
+	void hierarchyMemberLookups() {
+		String notFoodExceptionName = Inheritance.NotFoodException.class.getName().replace('.', '/');
+		InheritanceVertex vertex = graph.getVertex(notFoodExceptionName);
+		assertNotNull(vertex, "Could not get NotFoodException vertex from workspace");
+
+		// Declared in Throwable, which is a library class
+		assertFalse(vertex.hasMethod("getMessage", "()Ljava/lang/String;"));
+		assertTrue(vertex.hasMethodInSelfOrParents("getMessage", "()Ljava/lang/String;"));
+		assertTrue(vertex.hasFieldInSelfOrParents("detailMessage", "Ljava/lang/String;"));
+		assertTrue(vertex.isLibraryMethod("getMessage", "()Ljava/lang/String;"));
+
+		// Declared in the class itself, which is not a library class
+		assertTrue(vertex.hasMethodInSelfOrParents("<init>", "(Lsoftware/coley/recaf/test/dummy/Inheritance;)V"));
+		assertFalse(vertex.isLibraryMethod("<init>", "(Lsoftware/coley/recaf/test/dummy/Inheritance;)V"));
+
+		// Not declared anywhere in the hierarchy
+		assertFalse(vertex.hasMethodInSelfOrParents("getMessage", "()V"));
+		assertFalse(vertex.hasFieldInSelfOrParents("detailMessage", "I"));
+
+		// Looking downwards from Throwable
+		InheritanceVertex throwable = graph.getVertex("java/lang/Throwable");
+		assertNotNull(throwable);
+		assertTrue(throwable.hasMethodInSelfOrChildren("<init>", "(Lsoftware/coley/recaf/test/dummy/Inheritance;)V"));
+	}
+
+	@Test
+	void hierarchyMemberLookupsFollowClassUpdates() {
+		String appleName = Inheritance.Apple.class.getName().replace('.', '/');
+		String wormName = appleName + "WithWorm";
+		String appleInit = "(Lsoftware/coley/recaf/test/dummy/Inheritance;)V";
+		JvmClassBundle bundle = workspace.getPrimaryResource().getJvmClassBundle();
+		JvmClassInfo apple = bundle.get(appleName);
+		assertNotNull(apple);
+		InheritanceVertex worm = graph.getVertex(wormName);
+		assertNotNull(worm, "Could not get AppleWithWorm vertex from workspace");
+		assertTrue(worm.hasMethodInSelfOrParents("<init>", appleInit));
+		assertFalse(worm.hasMethodInSelfOrParents("peel", "()V"));
+
+		try {
+			// Updates that do not change any member signatures keep what children inherit
+			bundle.put(modify(apple, node -> node.sourceFile = "Changed.java"));
+			assertTrue(worm.hasMethodInSelfOrParents("<init>", appleInit));
+			assertFalse(worm.hasMethodInSelfOrParents("peel", "()V"));
+
+			// Adding a method to the parent is seen by the child
+			bundle.put(modify(apple, node -> node.methods.add(
+					new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "peel", "()V", null, null))));
+			assertTrue(worm.hasMethodInSelfOrParents("peel", "()V"));
+			assertTrue(graph.getVertex(appleName).hasMethod("peel", "()V"));
+		} finally {
+			bundle.put(apple);
+		}
+
+		// Removing it again is seen as well
+		assertFalse(worm.hasMethodInSelfOrParents("peel", "()V"));
+		assertTrue(worm.hasMethodInSelfOrParents("<init>", appleInit));
+	}
+
+	private static JvmClassInfo modify(JvmClassInfo info, Consumer<ClassNode> consumer) {
+		ClassNode node = new ClassNode();
+		info.getClassReader().accept(node, 0);
+		consumer.accept(node);
+		ClassWriter writer = new ClassWriter(0);
+		node.accept(writer);
+		return new JvmClassInfoBuilder(writer.toByteArray()).build();
+	}
+}
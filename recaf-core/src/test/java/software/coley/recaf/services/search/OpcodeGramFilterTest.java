@@ -0,0 +1,92 @@
+package software.coley.recaf.services.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Tests for {@link OpcodeGramFilter}
+ */
+class OpcodeGramFilterTest {
+	@Test
+	void testSmallMethodUsesSmallFilter() {
+		int[] method = {ALOAD, GETFIELD, IRETURN};
+		long[] filter = filter(method);
+		assertTrue(filter.length < OpcodeGramFilter.MAX_WORDS);
+		assertTrue(OpcodeGramFilter.mayContain(filter, OpcodeGramFilter.requiredBits(new int[]{ALOAD, GETFIELD})));
+		assertFalse(OpcodeGramFilter.mayContain(filter, OpcodeGramFilter.requiredBits(new int[]{GETFIELD, ALOAD})));
+	}
+
+	@Test
+	void testLargeMethodRejectsAbsentSequence() {
+		int[] method = largeMethod();
+		long[] filter = filter(method);
+
+		// The filter grows with the number of distinct n-grams, rather than filling up.
+		assertTrue(filter.length > 2, "Filter of large method was not grown");
+
+		// None of these are in the method, so they must be rejected.
+		int[][] absent = {
+				{MONITORENTER, ALOAD, MONITOREXIT},
+				{NEW, DUP, INVOKESPECIAL, ATHROW},
+				{LCONST_0, LCMP, IFNE},
+				{DCONST_1, DADD, D2I}
+		};
+		for (int[] sequence : absent)
+			assertFalse(OpcodeGramFilter.mayContain(filter, OpcodeGramFilter.requiredBits(sequence)),
+					"Absent sequence passed: " + Arrays.toString(sequence));
+	}
+
+	@Test
+	void testNoFalseNegatives() {
+		int[] method = largeMethod();
+		long[] filter = filter(method);
+
+		// Every sequence in the method must pass, with or without wildcards.
+		for (int length = 1; length <= 4; length++) {
+			for (int start = 0; start + length <= method.length; start++) {
+				int[] sequence = Arrays.copyOfRange(method, start, start + length);
+				assertTrue(OpcodeGramFilter.mayContain(filter, OpcodeGramFilter.requiredBits(sequence)));
+				if (length > 2) {
+					sequence[1] = OpcodeGramFilter.ANY_OPCODE;
+					assertTrue(OpcodeGramFilter.mayContain(filter, OpcodeGramFilter.requiredBits(sequence)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Opcodes of a large method, made of common integer and object instructions.
+	 * No monitor, exception, long, or double instructions are used.
+	 */
+	private static int[] largeMethod() {
+		int[] opcodes = {
+				ICONST_0, ICONST_1, ICONST_2, BIPUSH, SIPUSH, LDC, ILOAD, ALOAD, ISTORE, ASTORE,
+				IALOAD, AALOAD, IASTORE, AASTORE, POP, DUP, IADD, ISUB, IMUL, IDIV, IREM, IAND, IOR, IXOR,
+				ISHL, ISHR, IINC, I2C, IFEQ, IFLT, IF_ICMPGE, IF_ACMPNE, IFNULL, GOTO, TABLESWITCH,
+				GETSTATIC, GETFIELD, PUTFIELD, INVOKEVIRTUAL, INVOKESTATIC, INVOKEINTERFACE,
+				CHECKCAST, INSTANCEOF, ARRAYLENGTH, ANEWARRAY, IRETURN, ARETURN, RETURN
+		};
+
+		// Each opcode is followed by a few different successors, like the statements of real code.
+		Random random = new Random(0);
+		int[] method = new int[20_000];
+		int current = 0;
+		for (int i = 0; i < method.length; i++) {
+			method[i] = opcodes[current];
+			current = (current * 7 + 1 + random.nextInt(4)) % opcodes.length;
+		}
+		return method;
+	}
+
+	private static long[] filter(int[] method) {
+		OpcodeGramFilter.Builder builder = new OpcodeGramFilter.Builder();
+		for (int opcode : method)
+			builder.add(opcode);
+		return builder.build();
+	}
+}
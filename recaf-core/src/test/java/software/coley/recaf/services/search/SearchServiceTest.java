@@ -1,34 +1,73 @@
 package software.coley.recaf.services.search;
 
+import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodNode;
 import software.coley.recaf.info.BasicTextFileInfo;
+import software.coley.recaf.info.ClassInfo;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.builder.FileInfoBuilder;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
 import software.coley.recaf.info.annotation.AnnotationInfo;
 import software.coley.recaf.info.builder.TextFileInfoBuilder;
 import software.coley.recaf.info.member.ClassMember;
 import software.coley.recaf.path.*;
+import software.coley.recaf.services.search.match.BinaryPattern;
+import software.coley.recaf.services.search.match.InstructionPattern;
 import software.coley.recaf.services.search.match.NumberPredicateProvider;
 import software.coley.recaf.services.search.match.StringPredicateProvider;
+import software.coley.recaf.services.search.query.BinaryQuery;
+import software.coley.recaf.services.search.query.InstructionQuery;
+import software.coley.recaf.services.search.query.JvmClassQuery;
 import software.coley.recaf.services.search.query.NumberQuery;
 import software.coley.recaf.services.search.query.Query;
 import software.coley.recaf.services.search.query.ReferenceQuery;
 import software.coley.recaf.services.search.query.StringQuery;
+import software.coley.recaf.services.search.result.BinaryResult;
 import software.coley.recaf.services.search.result.Result;
 import software.coley.recaf.services.search.result.Results;
 import software.coley.recaf.test.TestBase;
 import software.coley.recaf.test.TestClassUtils;
 import software.coley.recaf.test.dummy.*;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
+import software.coley.recaf.workspace.model.BasicWorkspace;
 import software.coley.recaf.workspace.model.EmptyWorkspace;
 import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.bundle.BasicFileBundle;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResourceBuilder;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.*;
+import static software.coley.recaf.services.search.match.InstructionPattern.any;
+import static software.coley.recaf.services.search.match.InstructionPattern.insn;
 
 /**
  * Tests for {@link SearchService}
@@ -115,6 +154,40 @@ void testClassStrings() {
 
 			results = searchService.search(classesWorkspace, new StringQuery(strMatchProvider.newPartialRegexPredicate("\\w+\\s\\w+")));
 			assertEquals(1, results.size());
+
+			results = searchService.search(classesWorkspace, new StringQuery(strMatchProvider.newContainsPredicate("O WOR", false)));
+			assertEquals(1, results.size());
+
+			results = searchService.search(classesWorkspace, new StringQuery(strMatchProvider.newAnyOfPredicate(List.of("foo", "Hello world"))));
+			assertEquals(1, results.size());
+
+			results = searchService.search(classesWorkspace, new StringQuery(strMatchProvider.newContainsAnyPredicate(List.of("missing", "LO WO"), false)));
+			assertEquals(1, results.size());
+
+			results = searchService.search(classesWorkspace, new StringQuery(strMatchProvider.newContainsAnyPredicate(List.of("missing", "LO WO"), true)));
+			assertEquals(0, results.size());
+		}
+
+		@Test
+		void testInstructionSequence() {
+			// System.out.println("Hello world")
+			Results results = searchService.search(classesWorkspace, new InstructionQuery(InstructionPattern.of(
+					insn(GETSTATIC, strMatchProvider.newEqualPredicate("java/lang/System.out Ljava/io/PrintStream;")),
+					any(),
+					insn(INVOKEVIRTUAL, strMatchProvider.newEndsWithPredicate(".println(Ljava/lang/String;)V"))
+			)));
+			assertEquals(1, results.size());
+			Result<?> result = results.first();
+			if (result.getPath() instanceof InstructionPathNode instructionPath) {
+				assertEquals(GETSTATIC, instructionPath.getValue().getOpcode());
+			} else {
+				fail("Instruction sequence result not at instruction path");
+			}
+
+			// The order of instructions matters
+			results = searchService.search(classesWorkspace, new InstructionQuery(InstructionPattern.of(
+					insn(INVOKEVIRTUAL), insn(LDC))));
+			assertTrue(results.isEmpty());
 		}
 
 		@Test
@@ -272,6 +345,350 @@ void testClassReferenceToNumberFormatException() throws IOException {
 		}
 	}
 
+	@Nested
+	class Streaming {
+		@Test
+		void testStreamWithoutLimitMatchesSearch() {
+			Query query = new NumberQuery(numMatchProvider.newNotEqualsPredicate(4));
+			Results results = searchService.search(classesWorkspace, query);
+			List<Result<?>> streamed = new ArrayList<>();
+			int count = searchService.stream(classesWorkspace, query, streamed::add, -1);
+			assertEquals(results.size(), count);
+			assertEquals(new TreeSet<>(results), new TreeSet<>(streamed));
+		}
+
+		@Test
+		void testStreamStopsAtLimit() {
+			Query query = new NumberQuery(numMatchProvider.newNotEqualsPredicate(4));
+			List<Result<?>> streamed = new ArrayList<>();
+			int count = searchService.stream(classesWorkspace, query, streamed::add, 3);
+			assertEquals(3, count);
+			assertEquals(3, streamed.size());
+
+			count = searchService.stream(classesWorkspace, query, streamed::add, 0);
+			assertEquals(0, count);
+		}
+	}
+
+	@Nested
+	class Parallel {
+		static final int CLASS_COUNT = 2000;
+		static Workspace largeWorkspace;
+
+		@BeforeAll
+		static void setup() {
+			// Enough classes that the search is split across many batches and workers
+			JvmClassInfo[] classes = new JvmClassInfo[CLASS_COUNT];
+			for (int i = 0; i < CLASS_COUNT; i++) {
+				int id = i;
+				classes[i] = TestClassUtils.createClass("gen/C" + i, node -> {
+					MethodNode method = new MethodNode(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+					method.instructions.add(new LdcInsnNode("value-" + id));
+					method.instructions.add(new InsnNode(POP));
+					method.instructions.add(new LdcInsnNode(100_000 + id));
+					method.instructions.add(new InsnNode(POP));
+					method.instructions.add(new InsnNode(RETURN));
+					method.maxStack = 1;
+					node.methods.add(method);
+				});
+			}
+			largeWorkspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(classes));
+		}
+
+		@Test
+		void testMergedResultsMatchSingleConsumer() {
+			List<Query> queries = List.of(
+					new StringQuery(strMatchProvider.newStartsWithPredicate("value-")),
+					new NumberQuery(numMatchProvider.newGreaterThanPredicate(99_999))
+			);
+			for (Query query : queries) {
+				// Per-worker buffers merged at the end
+				Results results = searchService.search(largeWorkspace, query);
+				assertEquals(CLASS_COUNT, results.size());
+
+				// Every result passed to a single consumer
+				List<Result<?>> streamed = new ArrayList<>();
+				int count = searchService.stream(largeWorkspace, query, streamed::add, -1);
+				assertEquals(CLASS_COUNT, count);
+				assertEquals(new TreeSet<>(streamed), new TreeSet<>(results));
+			}
+		}
+
+		@Test
+		void testLimitedResultsAreSubsetOfMergedResults() {
+			Query query = new StringQuery(strMatchProvider.newStartsWithPredicate("value-"));
+			Results results = searchService.search(largeWorkspace, query);
+
+			int limit = 500;
+			List<Result<?>> streamed = new ArrayList<>();
+			int count = searchService.stream(largeWorkspace, query, streamed::add, limit);
+			assertEquals(limit, count);
+			assertEquals(limit, streamed.size());
+			assertEquals(limit, new TreeSet<>(streamed).size(), "Limited results should not contain duplicates");
+			assertTrue(results.containsAll(streamed), "Limited results should be a subset of the full results");
+		}
+
+		@Test
+		void testCancellationStopsRemainingBatches() {
+			// Cancel as soon as the first result is found
+			CancellableSearchFeedback feedback = new CancellableSearchFeedback() {
+				@Override
+				public boolean doAcceptResult(@Nonnull Result<?> result) {
+					cancel();
+					return true;
+				}
+			};
+			Query query = new StringQuery(strMatchProvider.newStartsWithPredicate("value-"));
+			Results results = searchService.search(largeWorkspace, query, feedback);
+			assertFalse(results.isEmpty());
+			assertTrue(results.size() < CLASS_COUNT, "Cancelled search should not visit all classes");
+		}
+
+		@Test
+		void testLimitSpanningBatches() {
+			// Limit is not a multiple of the batch size, and spans multiple batches
+			int limit = 37;
+			Query query = new StringQuery(strMatchProvider.newStartsWithPredicate("value-"));
+			AtomicBoolean inConsumer = new AtomicBoolean();
+			AtomicBoolean concurrentCall = new AtomicBoolean();
+			List<Result<?>> streamed = new ArrayList<>();
+			int count = searchService.stream(largeWorkspace, List.of(query), SearchFeedback.NO_OP, result -> {
+				if (!inConsumer.compareAndSet(false, true))
+					concurrentCall.set(true);
+				streamed.add(result);
+				inConsumer.set(false);
+			}, limit);
+			assertEquals(limit, count);
+			assertEquals(limit, streamed.size());
+			assertFalse(concurrentCall.get(), "Consumer should never be called concurrently");
+		}
+
+		@Test
+		void testOutOfOrderBatchCompletion() {
+			Query query = new StringQuery(strMatchProvider.newStartsWithPredicate("value-"));
+			Results expected = searchService.search(largeWorkspace, query);
+
+			// Stall the first classes so that later batches complete before earlier ones
+			SearchFeedback feedback = new SearchFeedback() {
+				@Override
+				public boolean doAcceptResult(@Nonnull Result<?> result) {
+					ClassInfo cls = result.getPath().getValueOfType(ClassInfo.class);
+					if (cls != null && cls.getName().length() <= "gen/C9".length()) {
+						try {
+							Thread.sleep(20);
+						} catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					return true;
+				}
+			};
+			Results results = searchService.search(largeWorkspace, List.of(query), feedback);
+			assertEquals(new TreeSet<>(expected), new TreeSet<>(results));
+
+			List<Result<?>> streamed = new ArrayList<>();
+			int count = searchService.stream(largeWorkspace, List.of(query), feedback, streamed::add, -1);
+			assertEquals(CLASS_COUNT, count);
+			assertEquals(new TreeSet<>(expected), new TreeSet<>(streamed));
+		}
+
+		@Test
+		void testVisitFailureIsReported() {
+			// Query that fails on a single class, and yields the class name for all others
+			String failingName = "gen/C7";
+			JvmClassQuery query = delegate -> (sink, classPath, classInfo) -> {
+				if (classInfo.getName().equals(failingName))
+					throw new IllegalStateException("Failing visitor");
+				sink.accept(classPath, classInfo.getName());
+			};
+			List<PathNode<?>> failures = Collections.synchronizedList(new ArrayList<>());
+			SearchFeedback feedback = new SearchFeedback() {
+				@Override
+				public void onVisitFailure(@Nonnull PathNode<?> path, @Nonnull Exception error) {
+					failures.add(path);
+				}
+			};
+			Results results = searchService.search(largeWorkspace, List.of(query), feedback);
+
+			// The failure is reported, and the remaining classes are still searched
+			assertEquals(CLASS_COUNT - 1, results.size());
+			assertEquals(1, failures.size());
+			ClassInfo failedClass = failures.get(0).getValueOfType(ClassInfo.class);
+			assertNotNull(failedClass);
+			assertEquals(failingName, failedClass.getName());
+		}
+
+		@Test
+		void testResultsDoNotDependOnThreadCount() {
+			Query query = new StringQuery(strMatchProvider.newStartsWithPredicate("value-"));
+			SearchServiceConfig config = searchService.getServiceConfig();
+			int maxThreads = config.getMaxThreads().getValue();
+			try {
+				config.getMaxThreads().setValue(1);
+				Results single = searchService.search(largeWorkspace, query);
+				config.getMaxThreads().setValue(4);
+				Results multiple = searchService.search(largeWorkspace, query);
+				assertEquals(CLASS_COUNT, single.size());
+				assertEquals(new TreeSet<>(single), new TreeSet<>(multiple));
+			} finally {
+				config.getMaxThreads().setValue(maxThreads);
+			}
+		}
+
+		@Test
+		@Disabled("Benchmark, run manually to compare search times across thread counts")
+		void benchmarkAllStringsSearch() {
+			int classCount = 20_000;
+			int stringsPerClass = 10;
+			JvmClassInfo[] classes = new JvmClassInfo[classCount];
+			for (int i = 0; i < classCount; i++) {
+				int id = i;
+				classes[i] = TestClassUtils.createClass("bench/C" + i, node -> {
+					MethodNode method = new MethodNode(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+					for (int j = 0; j < stringsPerClass; j++) {
+						method.instructions.add(new LdcInsnNode("string-" + id + "-" + j));
+						method.instructions.add(new InsnNode(POP));
+					}
+					method.instructions.add(new InsnNode(RETURN));
+					method.maxStack = 1;
+					node.methods.add(method);
+				});
+			}
+			Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(classes));
+
+			// Every string matches, so the search visits and yields results for every class.
+			Query query = new StringQuery(strMatchProvider.newContainsPredicate(""));
+			SearchServiceConfig config = searchService.getServiceConfig();
+			int maxThreads = config.getMaxThreads().getValue();
+			int processors = Runtime.getRuntime().availableProcessors();
+			try {
+				int expected = -1;
+				for (int threads : new TreeSet<>(List.of(1, 2, 4, processors))) {
+					config.getMaxThreads().setValue(threads);
+					long best = Long.MAX_VALUE;
+					for (int run = 0; run < 8; run++) {
+						long start = System.nanoTime();
+						int size = searchService.search(workspace, query).size();
+						long time = System.nanoTime() - start;
+
+						// The first runs are warmup
+						if (run >= 3)
+							best = Math.min(best, time);
+						if (expected < 0)
+							expected = size;
+						assertEquals(expected, size, "Results should not depend on the thread count");
+					}
+					System.out.printf("%d thread(s): %d results in %d ms%n", threads, expected, best / 1_000_000);
+				}
+			} finally {
+				config.getMaxThreads().setValue(maxThreads);
+			}
+		}
+	}
+
+	@Nested
+	class Fused {
+		@Test
+		void testFusedQueriesMatchSeparateQueries() {
+			List<Query> queries = List.of(
+					new NumberQuery(numMatchProvider.newEqualsPredicate(4)),
+					new StringQuery(strMatchProvider.newEqualPredicate("Hello world")),
+					new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/System"), null, null),
+					new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/String"))
+			);
+			SearchServiceConfig config = searchService.getServiceConfig();
+			try {
+				config.getFuseQueries().setValue(false);
+				Results separate = searchService.search(classesWorkspace, queries);
+				config.getFuseQueries().setValue(true);
+				Results fused = searchService.search(classesWorkspace, queries);
+				assertFalse(separate.isEmpty());
+				assertEquals(separate.size(), fused.size());
+				assertEquals(separate.stream().map(Result::getPath).collect(Collectors.toSet()),
+						fused.stream().map(Result::getPath).collect(Collectors.toSet()));
+			} finally {
+				config.getFuseQueries().setValue(true);
+			}
+		}
+	}
+
+	@Nested
+	class Prefilter {
+		@Test
+		void testPrefilteredSearchMatchesFullScan() {
+			List<Query> queries = List.of(
+					new NumberQuery(numMatchProvider.newEqualsPredicate(123456789)),
+					new StringQuery(strMatchProvider.newEqualPredicate("Hello world")),
+					new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/System"), null, null),
+					new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/String"))
+			);
+			assertPrefilterParity(classesWorkspace, queries);
+		}
+
+		@Test
+		void testPrefilteredSearchMatchesFullScanForInlineAndPooledValues() {
+			// The same values are pushed inline by one class, and loaded from the constant pool by the other
+			JvmClassInfo inline = TestClassUtils.createClass("prefilter/Inline", node -> {
+				MethodNode method = new MethodNode(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+				method.instructions.add(new IntInsnNode(BIPUSH, 100));
+				method.instructions.add(new InsnNode(POP));
+				method.instructions.add(new IntInsnNode(SIPUSH, 1000));
+				method.instructions.add(new InsnNode(POP));
+				method.instructions.add(new InsnNode(RETURN));
+				method.maxStack = 1;
+				node.methods.add(method);
+			});
+			JvmClassInfo pooled = TestClassUtils.createClass("prefilter/Pooled", node -> {
+				node.fields.add(new FieldNode(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "F", "I", null, 1000));
+				MethodNode method = new MethodNode(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+				method.instructions.add(new LdcInsnNode(100));
+				method.instructions.add(new InsnNode(POP));
+				method.instructions.add(new LdcInsnNode(123456789));
+				method.instructions.add(new InsnNode(POP));
+				method.instructions.add(new InsnNode(RETURN));
+				method.maxStack = 1;
+				node.methods.add(method);
+			});
+			Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(inline, pooled));
+
+			// Both classes have results for the shared values
+			Results results = searchService.search(workspace, new NumberQuery(numMatchProvider.newEqualsPredicate(1000)));
+			assertEquals(2, results.size());
+			results = searchService.search(workspace, new NumberQuery(numMatchProvider.newEqualsPredicate(100)));
+			assertEquals(2, results.size());
+
+			assertPrefilterParity(workspace, List.of(
+					new NumberQuery(numMatchProvider.newEqualsPredicate(100)),
+					new NumberQuery(numMatchProvider.newEqualsPredicate(1000)),
+					new NumberQuery(numMatchProvider.newGreaterThanPredicate(500)),
+					new NumberQuery(numMatchProvider.newEqualsPredicate(123456789))
+			));
+		}
+
+		private static void assertPrefilterParity(Workspace workspace, List<Query> queries) {
+			SearchServiceConfig config = searchService.getServiceConfig();
+			try {
+				for (Query query : queries) {
+					config.getPrefilterClasses().setValue(false);
+					Results full = searchService.search(workspace, query);
+					config.getPrefilterClasses().setValue(true);
+					Results prefiltered = searchService.search(workspace, query);
+					assertEquals(full.stream().map(Result::getPath).collect(Collectors.toSet()),
+							prefiltered.stream().map(Result::getPath).collect(Collectors.toSet()));
+				}
+			} finally {
+				config.getPrefilterClasses().setValue(true);
+			}
+		}
+
+		@Test
+		void testNumberPrefilterOnlyForPooledValues() {
+			// Small values can be pushed by instructions without any pool entry
+			assertNull(numMatchProvider.newEqualsPredicate(4).constantPoolPrefilter());
+			assertNotNull(numMatchProvider.newEqualsPredicate(123456789).constantPoolPrefilter());
+		}
+	}
+
 	@Nested
 	class File {
 		@Test
@@ -321,5 +738,193 @@ void testFileStrings() {
 			results = searchService.search(filesWorkspace, new StringQuery(strMatchProvider.newPartialRegexPredicate("\\w+\\s\\w+")));
 			assertEquals(1, results.size());
 		}
+
+		@Test
+		void testFileBinary() {
+			// 'o' occurs twice in "Hello world"
+			Results results = searchService.search(filesWorkspace, new BinaryQuery(BinaryPattern.parse("6F")));
+			assertEquals(2, results.size());
+
+			// "l?o" only occurs as "llo"
+			results = searchService.search(filesWorkspace, new BinaryQuery(BinaryPattern.parse("6C ?? 6F")));
+			assertEquals(1, results.size());
+			assertEquals(new BinaryResult(results.first().getPath(), new BinaryResult.BinaryMatch(2, 3)), results.first());
+
+			results = searchService.search(filesWorkspace, new BinaryQuery(BinaryPattern.parse("CAFEBABE")));
+			assertTrue(results.isEmpty());
+		}
+	}
+
+	@Nested
+	class Index {
+		@Test
+		void testIndexedSearchMatchesFullScan() throws IOException {
+			Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(
+					TestClassUtils.fromRuntimeClass(AccessibleFields.class),
+					TestClassUtils.fromRuntimeClass(HelloWorld.class),
+					TestClassUtils.fromRuntimeClass(StringConsumer.class),
+					TestClassUtils.fromRuntimeClass(ClassWithAnnotation.class),
+					TestClassUtils.fromRuntimeClass(ClassWithExceptions.class)
+			));
+			List<Query> queries = List.of(
+					new NumberQuery(numMatchProvider.newEqualsPredicate(4)),
+					new NumberQuery(numMatchProvider.newGreaterThanPredicate(4)),
+					new StringQuery(strMatchProvider.newEqualPredicate("Hello world")),
+					new StringQuery(strMatchProvider.newEqualPredicate("arg")),
+					new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/NumberFormatException")),
+					new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/System"), null, null),
+					new ReferenceQuery(null, strMatchProvider.newEqualPredicate("out"), null),
+					new InstructionQuery(InstructionPattern.of(insn(LDC), insn(INVOKEVIRTUAL))),
+					new InstructionQuery(InstructionPattern.of(insn(ALOAD), any(), insn(RETURN)))
+			);
+
+			// Collect results without the index
+			List<Set<PathNode<?>>> expected = queries.stream()
+					.map(query -> paths(searchService.search(workspace, query)))
+					.toList();
+
+			// Results with the index should be the same
+			SearchIndex index = searchService.createIndex(workspace);
+			try {
+				index.whenReady().join();
+				assertTrue(index.isReady());
+				for (int i = 0; i < queries.size(); i++)
+					assertEquals(expected.get(i), paths(searchService.search(workspace, queries.get(i))),
+							"Indexed search differs from full scan for query " + i);
+
+				// Only classes containing the value should be candidates
+				assertEquals(1, index.findClassesWithValue("Hello world"::equals).size());
+
+				// Only methods which may contain the instruction sequence should be candidates
+				long[] helloSequence = OpcodeGramFilter.requiredBits(new int[]{GETSTATIC, LDC, INVOKEVIRTUAL});
+				JvmClassInfo helloWorld = workspace.getPrimaryResource().getJvmClassBundle()
+						.get(HelloWorld.class.getName().replace('.', '/'));
+				assertEquals(Set.of("main([Ljava/lang/String;)V"), index.findMethodsWithOpcodes(helloWorld, helloSequence));
+			} finally {
+				searchService.removeIndex(workspace);
+			}
+		}
+
+		@Test
+		void testPersistedIndexMatchesFreshIndex() throws IOException {
+			Path directory = Files.createTempDirectory("recaf-search-index");
+			byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+			ExecutorService service = ThreadPoolFactory.newFixedThreadPool("test-search-index");
+			try {
+				// Build the index from scratch, which should persist it.
+				Workspace freshWorkspace = newFileWorkspace(content);
+				SearchIndex fresh = new SearchIndex(freshWorkspace, directory, Long.MAX_VALUE, service);
+				fresh.build().join();
+				fresh.close();
+				assertEquals(1, countIndexFiles(directory), "Index was not persisted");
+
+				// Build the index of an identical workspace, which should be restored from the persisted copy.
+				Workspace restoredWorkspace = newFileWorkspace(content);
+				SearchIndex restored = new SearchIndex(restoredWorkspace, directory, Long.MAX_VALUE, service);
+				restored.build().join();
+				try {
+					assertEquals(lookupSummary(fresh, freshWorkspace), lookupSummary(restored, restoredWorkspace));
+				} finally {
+					restored.close();
+				}
+			} finally {
+				service.shutdownNow();
+			}
+		}
+
+		@Test
+		void testPersistedIndicesAreEvicted() throws IOException {
+			Path directory = Files.createTempDirectory("recaf-search-index");
+			byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+			ExecutorService service = ThreadPoolFactory.newFixedThreadPool("test-search-index");
+			try {
+				// No space is allowed for persisted indices, so the written index is removed right away.
+				SearchIndex index = new SearchIndex(newFileWorkspace(content), directory, 0, service);
+				index.build().join();
+				index.close();
+				assertEquals(0, countIndexFiles(directory));
+			} finally {
+				service.shutdownNow();
+			}
+		}
+
+		@Test
+		void testUpdatedClassIsReindexed() throws IOException {
+			Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(
+					TestClassUtils.fromRuntimeClass(HelloWorld.class)
+			));
+			SearchIndex index = searchService.createIndex(workspace);
+			try {
+				index.whenReady().join();
+				JvmClassBundle bundle = workspace.getPrimaryResource().getJvmClassBundle();
+				JvmClassInfo original = bundle.get(HelloWorld.class.getName().replace('.', '/'));
+				assertEquals(Set.of(original), index.findClassesWithValue("Hello world"::equals));
+
+				// Replace the class with a copy that has a different string.
+				ClassNode node = new ClassNode();
+				original.getClassReader().accept(node, 0);
+				node.methods.forEach(method -> method.instructions.forEach(insn -> {
+					if (insn instanceof LdcInsnNode ldc && "Hello world".equals(ldc.cst))
+						ldc.cst = "Goodbye world";
+				}));
+				ClassWriter writer = new ClassWriter(0);
+				node.accept(writer);
+				JvmClassInfo updated = new JvmClassInfoBuilder(writer.toByteArray()).build();
+				bundle.put(updated);
+
+				// The old class is dropped right away, and the new class is indexed in the background.
+				assertTrue(index.findClassesWithValue("Hello world"::equals).isEmpty());
+				assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+					while (!index.findClassesWithValue("Goodbye world"::equals).contains(updated))
+						Thread.sleep(10);
+				});
+			} finally {
+				searchService.removeIndex(workspace);
+			}
+		}
+
+		private static Workspace newFileWorkspace(byte[] content) throws IOException {
+			WorkspaceFileResource resource = new WorkspaceFileResourceBuilder(TestClassUtils.fromClasses(
+					AccessibleFields.class, HelloWorld.class, StringConsumer.class, ClassWithExceptions.class
+			), new BasicFileBundle())
+					.withFileInfo(new FileInfoBuilder<>().withName("test.jar").withRawContent(content).build())
+					.build();
+			return new BasicWorkspace(resource);
+		}
+
+		private static long countIndexFiles(Path directory) throws IOException {
+			try (Stream<Path> stream = Files.list(directory)) {
+				return stream.filter(p -> p.getFileName().toString().endsWith(".index")).count();
+			}
+		}
+
+		/**
+		 * @param index
+		 * 		Index to look up values in.
+		 * @param workspace
+		 * 		Workspace of the index.
+		 *
+		 * @return Names of candidate classes for a variety of lookups.
+		 */
+		private static List<Set<String>> lookupSummary(SearchIndex index, Workspace workspace) {
+			List<Set<String>> summary = new ArrayList<>();
+			summary.add(names(index.findClassesWithValue("Hello world"::equals)));
+			summary.add(names(index.findClassesWithValue(v -> v instanceof Number n && n.intValue() == 4)));
+			summary.add(names(index.findClassesReferencingType("java/lang/NumberFormatException"::equals)));
+			summary.add(names(index.findClassesReferencingMember(ref -> ref.getName().equals("out"))));
+			long[] helloSequence = OpcodeGramFilter.requiredBits(new int[]{GETSTATIC, LDC, INVOKEVIRTUAL});
+			summary.add(names(index.findClassesWithOpcodes(helloSequence)));
+			for (JvmClassInfo cls : workspace.getPrimaryResource().getJvmClassBundle())
+				summary.add(new TreeSet<>(Objects.requireNonNull(index.findMethodsWithOpcodes(cls, helloSequence))));
+			return summary;
+		}
+
+		private static Set<String> names(Set<JvmClassInfo> classes) {
+			return classes.stream().map(JvmClassInfo::getName).collect(Collectors.toCollection(TreeSet::new));
+		}
+
+		private static Set<PathNode<?>> paths(Results results) {
+			return results.stream().map(Result::getPath).collect(Collectors.toSet());
+		}
 	}
 }
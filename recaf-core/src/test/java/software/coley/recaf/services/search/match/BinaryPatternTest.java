@@ -0,0 +1,118 @@
+package software.coley.recaf.services.search.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BinaryPattern}
+ */
+class BinaryPatternTest {
+	@Test
+	void testMatchAtStartAndEnd() {
+		BinaryPattern pattern = BinaryPattern.parse("CAFE");
+		assertEquals(List.of(0), matches(pattern, "CAFE0000"));
+		assertEquals(List.of(2), matches(pattern, "0000CAFE"));
+		assertEquals(List.of(0, 2), matches(pattern, "CAFECAFE"));
+		assertEquals(List.of(0), matches(pattern, "CAFE"));
+	}
+
+	@Test
+	void testPatternLongerThanInput() {
+		assertEquals(List.of(), matches(BinaryPattern.parse("CAFEBABE"), "CAFEBA"));
+		assertEquals(List.of(), matches(BinaryPattern.parse("CAFEBABE"), ""));
+		assertEquals(List.of(), matches(BinaryPattern.parse("?? ?? ??"), "0000"));
+	}
+
+	@Test
+	void testAllWildcards() {
+		// Every offset where the pattern fits is a match
+		assertEquals(List.of(0, 1, 2), matches(BinaryPattern.parse("?? ??"), "010203 04"));
+		assertEquals(List.of(0), matches(BinaryPattern.parse("??"), "FF"));
+	}
+
+	@Test
+	void testLeadingAndTrailingWildcards() {
+		assertEquals(List.of(0, 3), matches(BinaryPattern.parse("?? BE"), "00BE 0000BE"));
+		assertEquals(List.of(1, 4), matches(BinaryPattern.parse("BE ??"), "00BE00 00BE00"));
+
+		// A match needs room for the wildcards, even at the ends of the input
+		assertEquals(List.of(), matches(BinaryPattern.parse("?? BE"), "BE"));
+		assertEquals(List.of(), matches(BinaryPattern.parse("BE ??"), "00BE"));
+	}
+
+	@Test
+	void testOverlappingMatches() {
+		assertEquals(List.of(0, 1, 2), matches(BinaryPattern.parse("AA AA"), "AAAAAAAA"));
+		assertEquals(List.of(0, 2), matches(BinaryPattern.parse("AB ?? AB"), "ABCDABCDAB"));
+		assertEquals(List.of(0, 2, 4), matches(BinaryPattern.parse("AB ?? AB"), "AB00AB00AB00AB"));
+	}
+
+	@Test
+	void testFromIndex() {
+		BinaryPattern pattern = BinaryPattern.parse("CAFE");
+		byte[] data = HexFormat.of().parseHex("CAFE00CAFE");
+		assertEquals(0, pattern.indexOf(data, -5));
+		assertEquals(3, pattern.indexOf(data, 1));
+		assertEquals(-1, pattern.indexOf(data, 4));
+		assertEquals(-1, pattern.indexOf(data, 100));
+	}
+
+	@Test
+	void testMatchesNaiveSearch() {
+		// Small alphabet so that partial matches and skips are frequent
+		Random random = new Random(0);
+		for (int round = 0; round < 1000; round++) {
+			byte[] data = new byte[random.nextInt(64)];
+			for (int i = 0; i < data.length; i++)
+				data[i] = (byte) random.nextInt(3);
+			int length = 1 + random.nextInt(6);
+			byte[] values = new byte[length];
+			boolean[] wildcards = new boolean[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = (byte) random.nextInt(3);
+				wildcards[i] = random.nextInt(4) == 0;
+			}
+			BinaryPattern pattern = new BinaryPattern(values, wildcards);
+			assertEquals(naiveMatches(values, wildcards, data), matches(pattern, data));
+		}
+	}
+
+	@Test
+	void testInvalidPatterns() {
+		assertThrows(IllegalArgumentException.class, () -> BinaryPattern.parse(""));
+		assertThrows(IllegalArgumentException.class, () -> BinaryPattern.parse("CAF"));
+		assertThrows(IllegalArgumentException.class, () -> BinaryPattern.parse("CAFG"));
+		assertThrows(IllegalArgumentException.class, () -> new BinaryPattern(new byte[2], new boolean[1]));
+	}
+
+	private static List<Integer> matches(BinaryPattern pattern, String hex) {
+		return matches(pattern, HexFormat.of().parseHex(hex.replace(" ", "")));
+	}
+
+	private static List<Integer> matches(BinaryPattern pattern, byte[] data) {
+		// Same iteration as the binary query, which reports overlapping matches
+		List<Integer> offsets = new ArrayList<>();
+		int offset = 0;
+		while ((offset = pattern.indexOf(data, offset)) >= 0)
+			offsets.add(offset++);
+		return offsets;
+	}
+
+	private static List<Integer> naiveMatches(byte[] values, boolean[] wildcards, byte[] data) {
+		List<Integer> offsets = new ArrayList<>();
+		outer:
+		for (int offset = 0; offset <= data.length - values.length; offset++) {
+			for (int i = 0; i < values.length; i++)
+				if (!wildcards[i] && data[offset + i] != values[i])
+					continue outer;
+			offsets.add(offset);
+		}
+		return offsets;
+	}
+}
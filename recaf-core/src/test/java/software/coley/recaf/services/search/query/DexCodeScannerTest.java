@@ -0,0 +1,74 @@
+package software.coley.recaf.services.search.query;
+
+import com.android.tools.r8.dex.code.*;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+import software.coley.recaf.info.member.BasicMethodMember;
+import software.coley.recaf.info.member.MethodMember;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link DexCodeScanner}
+ */
+class DexCodeScannerTest {
+	private static final MethodMember METHOD = new BasicMethodMember("m", "()V", null, 0,
+			Collections.emptyList(), Collections.emptyList());
+
+	@Test
+	void testZeroConst4IsSkipped() {
+		// Zero 'const/4' is also how null and false are loaded
+		assertEquals(List.of(), values(new DexConst4(0, 0)));
+		assertEquals(List.of(5), values(new DexConst4(0, 5)));
+		assertEquals(List.of(-1), values(new DexConst4(0, -1)));
+	}
+
+	@Test
+	void testSmallIntegersAreNotFloats() {
+		assertEquals(List.of(1000), values(new DexConst16(0, 1000)));
+		assertEquals(List.of(-1000), values(new DexConst16(0, -1000)));
+		assertEquals(List.of(0), values(new DexConst16(0, 0)));
+		assertEquals(List.of(123456), values(new DexConst(0, 123456)));
+		assertEquals(List.of(100L), values(new DexConstWide16(0, 100)));
+	}
+
+	@Test
+	void testFloatConstants() {
+		// 1.0f is 0x3F800000, loaded with 'const/high16'
+		assertEquals(List.of(0x3F800000, 1.0F), values(new DexConstHigh16(0, 0x3F80)));
+
+		// 3.14f needs all 32 bits, loaded with 'const'
+		int bits = Float.floatToIntBits(3.14F);
+		assertEquals(List.of(bits, 3.14F), values(new DexConst(0, bits)));
+	}
+
+	@Test
+	void testDoubleConstants() {
+		// 1.0 is 0x3FF0000000000000, loaded with 'const-wide/high16'
+		long one = Double.doubleToLongBits(1.0);
+		assertEquals(List.of(one, 1.0), values(new DexConstWideHigh16(0, 0x3FF0)));
+
+		// 3.14 needs all 64 bits, loaded with 'const-wide'
+		long bits = Double.doubleToLongBits(3.14);
+		assertEquals(List.of(bits, 3.14), values(new DexConstWide(0, bits)));
+
+		// Plain long values are not reported as doubles
+		assertEquals(List.of(1L << 40), values(new DexConstWide(0, 1L << 40)));
+	}
+
+	@Nonnull
+	private static List<Object> values(@Nonnull DexInstruction instruction) {
+		List<Object> values = new ArrayList<>();
+		DexCodeScanner.scan(METHOD, instruction, new DexCodeScanner.Visitor() {
+			@Override
+			public void visitValue(@Nonnull MethodMember method, @Nonnull Object value) {
+				values.add(value);
+			}
+		});
+		return values;
+	}
+}
@@ -0,0 +1,115 @@
+package software.coley.recaf.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MemoizedFunctions}
+ */
+class MemoizedFunctionsTest {
+	@Test
+	void testValuesAreCached() {
+		AtomicInteger calls = new AtomicInteger();
+		Function<String, Integer> function = MemoizedFunctions.memoize(key -> {
+			calls.incrementAndGet();
+			return key.length();
+		});
+		assertEquals(3, function.apply("abc"));
+		assertEquals(3, function.apply("abc"));
+		assertEquals(1, calls.get());
+		assertEquals(2, function.apply("ab"));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void testNullKeys() {
+		AtomicInteger calls = new AtomicInteger();
+		Function<String, String> function = MemoizedFunctions.memoize(key -> {
+			calls.incrementAndGet();
+			return String.valueOf(key);
+		});
+		assertEquals("null", function.apply(null));
+		assertEquals("null", function.apply(null));
+		assertEquals(1, calls.get(), "Null key was not cached");
+
+		// Null keys of both functions are cached separately
+		AtomicInteger biCalls = new AtomicInteger();
+		BiFunction<String, String, String> biFunction = MemoizedFunctions.memoize((a, b) -> {
+			biCalls.incrementAndGet();
+			return a + ":" + b;
+		});
+		assertEquals("null:null", biFunction.apply(null, null));
+		assertEquals("null:b", biFunction.apply(null, "b"));
+		assertEquals("a:null", biFunction.apply("a", null));
+		assertEquals("null:null", biFunction.apply(null, null));
+		assertEquals("null:b", biFunction.apply(null, "b"));
+		assertEquals("a:null", biFunction.apply("a", null));
+		assertEquals(3, biCalls.get());
+	}
+
+	@Test
+	void testNullValuesAreNotCached() {
+		AtomicInteger calls = new AtomicInteger();
+		Function<String, String> function = MemoizedFunctions.memoize(key -> calls.incrementAndGet() > 1 ? key : null);
+		assertNull(function.apply("a"));
+		assertEquals("a", function.apply("a"), "Null value was cached");
+		assertEquals("a", function.apply("a"));
+		assertEquals(2, calls.get());
+
+		AtomicInteger biCalls = new AtomicInteger();
+		BiFunction<String, String, String> biFunction =
+				MemoizedFunctions.memoize((a, b) -> biCalls.incrementAndGet() > 1 ? a + b : null);
+		assertNull(biFunction.apply("a", "b"));
+		assertEquals("ab", biFunction.apply("a", "b"), "Null value was cached");
+		assertEquals("ab", biFunction.apply("a", "b"));
+		assertEquals(2, biCalls.get());
+	}
+
+	@Test
+	void testConcurrentApplyKeepsFirstValue() throws Exception {
+		int threads = 8;
+		CountDownLatch computing = new CountDownLatch(threads);
+		AtomicInteger calls = new AtomicInteger();
+
+		// Each computation yields a distinct instance, and only finishes once all threads are computing at once.
+		Function<String, Object> function = MemoizedFunctions.memoize(key -> {
+			calls.incrementAndGet();
+			computing.countDown();
+			try {
+				computing.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return new Object();
+		});
+
+		ExecutorService service = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++)
+				futures.add(service.submit(() -> function.apply("key")));
+			Object first = futures.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<Object> future : futures)
+				assertSame(first, future.get(10, TimeUnit.SECONDS), "Threads were given different values");
+			assertEquals(threads, calls.get());
+
+			// Later calls return the kept value without computing again
+			assertSame(first, function.apply("key"));
+			assertEquals(threads, calls.get());
+		} finally {
+			service.shutdownNow();
+		}
+	}
+}
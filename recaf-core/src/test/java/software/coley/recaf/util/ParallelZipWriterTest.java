@@ -0,0 +1,221 @@
+package software.coley.recaf.util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import software.coley.lljzip.ZipIO;
+import software.coley.lljzip.format.compression.ZipCompressions;
+import software.coley.lljzip.format.model.LocalFileHeader;
+import software.coley.lljzip.format.model.ZipArchive;
+import software.coley.lljzip.util.MemorySegmentUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ParallelZipWriter}
+ */
+class ParallelZipWriterTest {
+	private static final byte[] END_SIG = {'P', 'K', 5, 6};
+	static ExecutorService service;
+
+	@BeforeAll
+	static void setup() {
+		service = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterAll
+	static void teardown() {
+		service.shutdownNow();
+	}
+
+	@Test
+	void testEmptyArchive() throws IOException {
+		Path path = write(Collections.emptyList());
+		try (ZipFile zip = new ZipFile(path.toFile())) {
+			assertEquals(0, zip.size());
+		}
+		assertEquals(0, readLljzip(path).getLocalFiles().size());
+	}
+
+	@Test
+	void testStoredAndDeflatedEntries() throws IOException {
+		byte[] text = "Hello world, hello world, hello world".repeat(100).getBytes(StandardCharsets.UTF_8);
+		byte[] random = new byte[10_000];
+		new Random(0).nextBytes(random);
+		List<TestEntry> entries = List.of(
+				new TestEntry("empty.txt", new byte[0], true),
+				new TestEntry("stored.txt", text, false),
+				new TestEntry("deflated.txt", text, true),
+				new TestEntry("dir/random.bin", random, true)
+		);
+		Path path = write(entries);
+
+		try (ZipFile zip = new ZipFile(path.toFile())) {
+			assertEquals(entries.size(), zip.size());
+			for (TestEntry entry : entries) {
+				ZipEntry zipEntry = zip.getEntry(entry.name());
+				assertNotNull(zipEntry, "Missing entry: " + entry.name());
+				int expectedMethod = entry.compress() && entry.content().length > 0 ? ZipEntry.DEFLATED : ZipEntry.STORED;
+				assertEquals(expectedMethod, zipEntry.getMethod(), "Wrong method: " + entry.name());
+				assertArrayEquals(entry.content(), zip.getInputStream(zipEntry).readAllBytes());
+			}
+		}
+
+		List<LocalFileHeader> localFiles = readLljzip(path).getLocalFiles();
+		assertEquals(entries.size(), localFiles.size());
+		for (int i = 0; i < entries.size(); i++) {
+			TestEntry entry = entries.get(i);
+			LocalFileHeader header = localFiles.get(i);
+			assertEquals(entry.name(), header.getFileNameAsString());
+			assertArrayEquals(entry.content(), MemorySegmentUtil.toByteArray(ZipCompressions.decompress(header)));
+		}
+	}
+
+	@Test
+	void testDuplicateNames() throws IOException {
+		List<TestEntry> entries = List.of(
+				new TestEntry("dupe.txt", "first".getBytes(StandardCharsets.UTF_8), true),
+				new TestEntry("dupe.txt", "second".getBytes(StandardCharsets.UTF_8), false)
+		);
+		Path path = write(entries);
+
+		// Both entries are present in the central directory.
+		try (ZipFile zip = new ZipFile(path.toFile())) {
+			assertEquals(2, zip.size());
+		}
+
+		List<LocalFileHeader> localFiles = readLljzip(path).getLocalFiles();
+		assertEquals(2, localFiles.size());
+		assertArrayEquals(entries.get(0).content(), MemorySegmentUtil.toByteArray(ZipCompressions.decompress(localFiles.get(0))));
+		assertArrayEquals(entries.get(1).content(), MemorySegmentUtil.toByteArray(ZipCompressions.decompress(localFiles.get(1))));
+	}
+
+	@Test
+	void testMoreThanMaxStandardEntries() throws IOException {
+		// More entries than the standard end record can count, so ZIP64 end records are required.
+		int count = 0xFFFF + 100;
+		List<TestEntry> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			entries.add(new TestEntry("e" + i, new byte[]{(byte) i}, (i & 1) == 0));
+		Path path = write(entries);
+
+		try (ZipFile zip = new ZipFile(path.toFile())) {
+			assertEquals(count, zip.size());
+			ZipEntry last = zip.getEntry("e" + (count - 1));
+			assertNotNull(last);
+			assertArrayEquals(new byte[]{(byte) (count - 1)}, zip.getInputStream(last).readAllBytes());
+		}
+		assertEquals(count, readLljzip(path).getLocalFiles().size());
+	}
+
+	@Test
+	void testStreamFailureSkipsCentralDirectory() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WritableByteChannel channel = new WritableByteChannel() {
+			@Override
+			public int write(ByteBuffer src) throws IOException {
+				if (out.size() > 1000)
+					throw new IOException("Disk full");
+				int length = src.remaining();
+				byte[] data = new byte[length];
+				src.get(data);
+				out.write(data, 0, length);
+				return length;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {}
+		};
+
+		ParallelZipWriter writer = new ParallelZipWriter(channel, service, 2);
+		assertThrows(IOException.class, () -> {
+			for (int i = 0; i < 100; i++)
+				writer.add("e" + i, new byte[100], false, null, -1, -1, -1);
+		});
+		assertTrue(writer.isFailed());
+
+		// No further entries are accepted, and closing must not write the central directory.
+		assertThrows(IOException.class, () -> writer.add("late", new byte[1], false, null, -1, -1, -1));
+		assertDoesNotThrow(writer::close);
+		assertFalse(containsEndRecord(out.toByteArray()));
+	}
+
+	@Test
+	void testAbortSkipsCentralDirectory() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WritableByteChannel channel = Channels.newChannel(out);
+		try (ParallelZipWriter writer = new ParallelZipWriter(channel, service, 4)) {
+			for (int i = 0; i < 10; i++)
+				writer.add("e" + i, new byte[100], true, null, -1, -1, -1);
+			writer.abort();
+		}
+		assertFalse(containsEndRecord(out.toByteArray()));
+	}
+
+	@Test
+	void testBuilderDeletesOutputOnFailure() throws IOException {
+		Path path = Files.createTempFile("recaf", "test.zip");
+		path.toFile().deleteOnExit();
+
+		// The null name fails part way through writing, after some entries have been written.
+		ZipCreationUtils.ZipBuilder builder = ZipCreationUtils.builder();
+		for (int i = 0; i < 100; i++)
+			builder.add("e" + i, new byte[100]);
+		builder.add(null, new byte[100]);
+		assertThrows(NullPointerException.class, () -> builder.write(path, null));
+		assertFalse(Files.exists(path), "Partial output was not removed");
+	}
+
+	private static Path write(List<TestEntry> entries) throws IOException {
+		Path path = Files.createTempFile("recaf", "test.zip");
+		path.toFile().deleteOnExit();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			 ParallelZipWriter writer = new ParallelZipWriter(channel, service, 16)) {
+			for (TestEntry entry : entries)
+				writer.add(entry.name(), entry.content(), entry.compress(), null, -1, 1_000_000_000_000L, -1);
+		}
+		return path;
+	}
+
+	private static ZipArchive readLljzip(Path path) throws IOException {
+		return ZipIO.readStandard(MemorySegment.ofArray(Files.readAllBytes(path)));
+	}
+
+	private static boolean containsEndRecord(byte[] data) {
+		outer:
+		for (int i = 0; i <= data.length - END_SIG.length; i++) {
+			for (int j = 0; j < END_SIG.length; j++)
+				if (data[i + j] != END_SIG[j])
+					continue outer;
+			return true;
+		}
+		return false;
+	}
+
+	private record TestEntry(String name, byte[] content, boolean compress) {}
+}
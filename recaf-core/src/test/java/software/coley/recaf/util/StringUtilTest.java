@@ -7,6 +7,7 @@
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -188,6 +189,45 @@ void testCount() {
 		assertEquals(2, StringUtil.count("a", "example bar"));
 	}
 
+	@Test
+	void testContainsIgnoreCase() {
+		assertTrue(StringUtil.containsIgnoreCase("Hello World", "o w"));
+		assertTrue(StringUtil.containsIgnoreCase("Hello World", "WORLD"));
+		assertTrue(StringUtil.containsIgnoreCase("Hello World", ""));
+		assertFalse(StringUtil.containsIgnoreCase("Hello World", "worlds"));
+		assertFalse(StringUtil.containsIgnoreCase("", "a"));
+	}
+
+	@Test
+	void testStartsAndEndsWithIgnoreCase() {
+		assertTrue(StringUtil.startsWithIgnoreCase("Hello World", "hELLO"));
+		assertFalse(StringUtil.startsWithIgnoreCase("Hello World", "world"));
+		assertFalse(StringUtil.startsWithIgnoreCase("Hi", "hello"));
+		assertTrue(StringUtil.endsWithIgnoreCase("Hello World", "wORLD"));
+		assertFalse(StringUtil.endsWithIgnoreCase("Hello World", "hello"));
+		assertFalse(StringUtil.endsWithIgnoreCase("Hi", "oh hi"));
+	}
+
+	@Test
+	void testIgnoreCaseComparesPerChar() {
+		// Dotted capital I folds to a plain 'i' per char, but does not expand to 'i' + combining dot above
+		assertTrue(StringUtil.startsWithIgnoreCase("\u0130stanbul", "istanbul"));
+		assertFalse(StringUtil.startsWithIgnoreCase("\u0130", "i\u0307"));
+
+		// Sharp s does not expand to 'SS', but does match its single char capital form
+		assertFalse(StringUtil.containsIgnoreCase("STRASSE", "stra\u00DFe"));
+		assertTrue(StringUtil.endsWithIgnoreCase("stra\u00DFe", "\u1E9EE"));
+
+		// The default locale does not affect matching
+		Locale locale = Locale.getDefault();
+		try {
+			Locale.setDefault(Locale.forLanguageTag("tr"));
+			assertTrue(StringUtil.containsIgnoreCase("TITLE", "title"));
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+
 	@Test
 	void testPathToString() {
 		assertEquals("foo" + File.separator + "bar.txt", StringUtil.pathToString(Paths.get("foo/bar.txt")));
@@ -0,0 +1,304 @@
+package software.coley.recaf.util.visitors;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.objectweb.asm.*;
+import software.coley.recaf.RecafConstants;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ValidatingClassVisitor} ensuring it matches the outcome of the {@link ClassWriter} based check
+ * it replaces for valid and malformed classes.
+ */
+class ValidatingClassVisitorTest {
+	@Nested
+	class Valid {
+		@ParameterizedTest
+		@ValueSource(classes = {
+				String.class, Object.class, java.util.HashMap.class, java.lang.invoke.LambdaMetafactory.class,
+				HelloWorld.class, ClassWithLambda.class, ClassWithAnnotation.class, ClassWithEmbeddedInners.class,
+				TypeAnnotationImpl.class, DummyEnum.class, AnonymousLambda.class, ClassWithExceptions.class
+		})
+		void runtimeClasses(Class<?> cls) throws IOException {
+			assertParity(TestClassUtils.fromRuntimeClass(cls).getBytecode(), true);
+		}
+
+		@Test
+		void minimal() throws IOException {
+			assertParity(new ClassBytes().build(), true);
+		}
+
+		@Test
+		void innerClassWithoutOuter() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("InnerClasses", u2(1, cb.cls("Test$Inner"), 0, 0, 0));
+			assertParity(cb.build(), true);
+		}
+
+		@Test
+		void constantDynamic() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.constantDynamic(cb.integer(5));
+			assertParity(cb.build(), true);
+		}
+
+		@Test
+		void module() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("Module", u2(cb.entry(19, cb.utf8("test")), 0, 0, 0, 0, 0, 0, 0));
+			assertParity(cb.build(), true);
+		}
+
+		@Test
+		void recordComponent() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("Record", u2(1, cb.utf8("value"), cb.utf8("I"), 0));
+			assertParity(cb.build(), true);
+		}
+	}
+
+	@Nested
+	class Invalid {
+		@Test
+		void missingClassName() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.thisClass = 0;
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingInterfaceName() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.interfaces = new int[]{0};
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingInnerClassName() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("InnerClasses", u2(1, 0, 0, 0, 0));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingOuterClassName() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("EnclosingMethod", u2(0, 0));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingNestMember() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("NestMembers", u2(1, 0));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingPermittedSubclass() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("PermittedSubclasses", u2(1, 0));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingMemberReferenceOwner() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.entry(9, 0, cb.entry(12, cb.utf8("name"), cb.utf8("I")));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingNameTypeDescriptor() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.entry(12, cb.utf8("name"), 0);
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingStringValue() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.entry(8, 0);
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void nonLoadableBootstrapArgument() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.constantDynamic(cb.utf8("not-loadable"));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingModuleName() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("Module", u2(0, 0, 0, 0, 0, 0, 0, 0));
+			assertParity(cb.build(), false);
+		}
+
+		@Test
+		void missingRecordComponentName() throws IOException {
+			ClassBytes cb = new ClassBytes();
+			cb.attribute("Record", u2(1, 0, cb.utf8("I"), 0));
+			assertParity(cb.build(), false);
+		}
+	}
+
+	private static void assertParity(byte[] code, boolean expectedValid) {
+		boolean writerValid = isValid(code, true);
+		boolean validatorValid = isValid(code, false);
+		assertEquals(writerValid, validatorValid, "Validator outcome differs from class writer outcome");
+		assertEquals(expectedValid, validatorValid, "Unexpected validation outcome");
+	}
+
+	/**
+	 * Mirrors how the class info builder validates classes, where fields, methods and class annotations
+	 * are handled by the builder and not passed along to the validating delegate.
+	 */
+	private static boolean isValid(byte[] code, boolean useWriter) {
+		try {
+			ClassReader reader = new ClassReader(code);
+			ClassVisitor delegate = useWriter ? new ClassWriter(reader, 0) : new ValidatingClassVisitor(reader);
+			int api = RecafConstants.getAsmVersion();
+			reader.accept(new ClassVisitor(api, delegate) {
+				@Override
+				public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+					return new AnnotationVisitor(api) {};
+				}
+
+				@Override
+				public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+					return new AnnotationVisitor(api) {};
+				}
+
+				@Override
+				public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+					return new FieldVisitor(api) {};
+				}
+
+				@Override
+				public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+					return new MethodVisitor(api) {};
+				}
+			}, 0);
+			return true;
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	private static byte[] u2(int... values) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(baos);
+		for (int value : values)
+			out.writeShort(value);
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Minimal class file writer, allowing creation of malformed classes that ASM cannot write.
+	 */
+	private static class ClassBytes {
+		private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+		private final DataOutputStream poolOut = new DataOutputStream(pool);
+		private final List<int[]> bootstrapMethods = new ArrayList<>();
+		private final List<Integer> attributeNames = new ArrayList<>();
+		private final List<byte[]> attributeContents = new ArrayList<>();
+		private int poolCount = 1;
+		private int thisClass;
+		private int superClass;
+		private int[] interfaces = new int[0];
+
+		private ClassBytes() throws IOException {
+			thisClass = cls("Test");
+			superClass = cls("java/lang/Object");
+		}
+
+		private int utf8(String value) throws IOException {
+			poolOut.writeByte(1);
+			poolOut.writeUTF(value);
+			return poolCount++;
+		}
+
+		private int integer(int value) throws IOException {
+			poolOut.writeByte(3);
+			poolOut.writeInt(value);
+			return poolCount++;
+		}
+
+		private int cls(String name) throws IOException {
+			return entry(7, utf8(name));
+		}
+
+		private int entry(int tag, int... indices) throws IOException {
+			poolOut.writeByte(tag);
+			for (int index : indices)
+				poolOut.writeShort(index);
+			return poolCount++;
+		}
+
+		private void constantDynamic(int bootstrapArgument) throws IOException {
+			int methodRef = entry(10, cls("Bootstrap"), entry(12, utf8("bsm"),
+					utf8("(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)I")));
+			poolOut.writeByte(15);
+			poolOut.writeByte(Opcodes.H_INVOKESTATIC);
+			poolOut.writeShort(methodRef);
+			int handle = poolCount++;
+			entry(17, bootstrapMethods.size(), entry(12, utf8("value"), utf8("I")));
+			bootstrapMethods.add(new int[]{handle, bootstrapArgument});
+		}
+
+		private void attribute(String name, byte[] content) throws IOException {
+			attributeNames.add(utf8(name));
+			attributeContents.add(content);
+		}
+
+		private byte[] build() throws IOException {
+			if (!bootstrapMethods.isEmpty()) {
+				List<Integer> values = new ArrayList<>();
+				values.add(bootstrapMethods.size());
+				for (int[] bootstrapMethod : bootstrapMethods) {
+					values.add(bootstrapMethod[0]);
+					values.add(1);
+					values.add(bootstrapMethod[1]);
+				}
+				attribute("BootstrapMethods", u2(values.stream().mapToInt(Integer::intValue).toArray()));
+			}
+
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(baos);
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(Opcodes.V17);
+			out.writeShort(poolCount);
+			out.write(pool.toByteArray());
+			out.writeShort(Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(interfaces.length);
+			for (int itf : interfaces)
+				out.writeShort(itf);
+			out.writeShort(0); // fields
+			out.writeShort(0); // methods
+			out.writeShort(attributeNames.size());
+			for (int i = 0; i < attributeNames.size(); i++) {
+				byte[] content = attributeContents.get(i);
+				out.writeShort(attributeNames.get(i));
+				out.writeInt(content.length);
+				out.write(content);
+			}
+			return baos.toByteArray();
+		}
+	}
+}
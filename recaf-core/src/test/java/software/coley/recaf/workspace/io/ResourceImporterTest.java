@@ -1,14 +1,18 @@
 package software.coley.recaf.workspace.io;
 
+import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import software.coley.recaf.info.FileInfo;
+import software.coley.recaf.info.Info;
 import software.coley.recaf.info.JarFileInfo;
 import software.coley.recaf.info.JvmClassInfo;
-import software.coley.recaf.info.properties.builtin.ZipAccessTimeProperty;
-import software.coley.recaf.info.properties.builtin.ZipCommentProperty;
-import software.coley.recaf.info.properties.builtin.ZipCreationTimeProperty;
-import software.coley.recaf.info.properties.builtin.ZipModificationTimeProperty;
+import software.coley.recaf.info.LazyJvmClassInfo;
+import software.coley.recaf.info.ZipFileInfo;
+import software.coley.recaf.info.builder.ZipFileInfoBuilder;
+import software.coley.recaf.info.properties.builtin.*;
 import software.coley.recaf.services.workspace.io.*;
 import software.coley.recaf.test.TestClassUtils;
 import software.coley.recaf.test.dummy.HelloWorld;
@@ -17,15 +21,24 @@
 import software.coley.recaf.util.io.ByteSources;
 import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResourceBuilder;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,13 +47,12 @@
  */
 class ResourceImporterTest {
 	static ResourceImporter importer;
+	static Path snapshotDirectory;
 
 	@BeforeAll
-	static void setup() {
-		importer = new BasicResourceImporter(
-				new BasicInfoImporter(new InfoImporterConfig(), new BasicClassPatcher()),
-				new ResourceImporterConfig()
-		);
+	static void setup() throws IOException {
+		snapshotDirectory = Files.createTempDirectory("recaf-snapshots");
+		importer = newImporter(new ResourceImporterConfig(), new InfoImporterConfig());
 	}
 
 	@Test
@@ -389,6 +401,389 @@ void testImportsFromDifferentSourcesAreTheSame() throws IOException {
 		assertEquals(fromByteSource, fromUrl);
 	}
 
+	@Test
+	void testZipContentIsReadOnce() throws IOException {
+		Map<String, byte[]> map = new LinkedHashMap<>();
+		map.put("hello.txt", "Hello world".getBytes(StandardCharsets.UTF_8));
+		map.put(HelloWorld.class.getName().replace(".", "/") + ".class",
+				TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode());
+		byte[] zipBytes = ZipCreationUtils.createZip(map);
+
+		// The archive should be parsed from the content already read into the ZIP info,
+		// not from a second copy of the whole input.
+		ByteSource wrapped = ByteSources.wrap(zipBytes);
+		int[] reads = new int[1];
+		ByteSource counting = new ByteSource() {
+			@Override
+			public byte[] readAll() throws IOException {
+				reads[0]++;
+				return wrapped.readAll();
+			}
+
+			@Override
+			public byte[] peek(int count) throws IOException {
+				return wrapped.peek(count);
+			}
+
+			@Override
+			public InputStream openStream() throws IOException {
+				return wrapped.openStream();
+			}
+		};
+		WorkspaceResource resource = importer.importResource(counting);
+		assertEquals(1, reads[0], "Archive content should only be read once");
+		assertEquals(1, resource.getJvmClassBundle().size());
+		assertEquals(1, resource.getFileBundle().size());
+	}
+
+	@Test
+	void testParallelEntryDecodingMatchesSequential() throws IOException {
+		String helloWorldPath = HelloWorld.class.getName().replace(".", "/");
+		byte[] helloWorldBytes = TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode();
+
+		// Create JAR with a mix of content, including duplicates which depend on entry order to resolve.
+		byte[] zipBytes = ZipCreationUtils.builder()
+				.add("hello.txt", "Hello world".getBytes(StandardCharsets.UTF_8))
+				.add(helloWorldPath + ".class", new byte[0])
+				.add("software/coley/B.class", helloWorldBytes)
+				.add(helloWorldPath + ".class", helloWorldBytes)
+				.add(JarFileInfo.MULTI_RELEASE_PREFIX + "9/" + helloWorldPath + ".class", helloWorldBytes)
+				.add("data.zip", ZipCreationUtils.createSingleEntryZip("foo", new byte[]{1, 2, 3}))
+				.bytes();
+
+		// Importing with parallel entry decoding should yield the same resource as the sequential import.
+		ResourceImporterConfig parallelConfig = new ResourceImporterConfig();
+		parallelConfig.getParallelEntryDecoding().setValue(true);
+		ResourceImporter parallelImporter = newImporter(parallelConfig, new InfoImporterConfig());
+		WorkspaceResource sequential = importer.importResource(ByteSources.wrap(zipBytes));
+		WorkspaceResource parallel = parallelImporter.importResource(ByteSources.wrap(zipBytes));
+		assertEquals(sequential, parallel);
+		assertArrayEquals(helloWorldBytes, parallel.getJvmClassBundle().iterator().next().getBytecode());
+		assertEquals(3, parallel.getFileBundle().size());
+		assertEquals(1, parallel.getVersionedJvmClassBundles().size());
+		assertEquals(1, parallel.getEmbeddedResources().size());
+	}
+
+	@Test
+	void testParallelEmbeddedImportsMatchesSequential() throws IOException {
+		// Create WAR with many embedded libraries, one of which contains further nested archives.
+		byte[] nested = ZipCreationUtils.createSingleEntryZip("foo", new byte[]{1, 2, 3});
+		for (int i = 0; i < 5; i++)
+			nested = ZipCreationUtils.createSingleEntryZip("nested.zip", nested);
+		ZipCreationUtils.ZipBuilder builder = ZipCreationUtils.builder()
+				.add("WEB-INF/web.xml", "<web-app/>".getBytes(StandardCharsets.UTF_8))
+				.add("WEB-INF/lib/nested.jar", nested);
+		for (int i = 0; i < 20; i++)
+			builder.add("WEB-INF/lib/lib-" + i + ".jar", ZipCreationUtils.createSingleEntryZip("lib.txt", new byte[]{(byte) i}));
+		byte[] zipBytes = builder.bytes();
+
+		// Importing with parallel embedded imports should yield the same resource as the sequential import.
+		ResourceImporterConfig parallelConfig = new ResourceImporterConfig();
+		parallelConfig.getParallelEmbeddedImports().setValue(true);
+		ResourceImporter parallelImporter = newImporter(parallelConfig, new InfoImporterConfig());
+		WorkspaceResource sequential = importer.importResource(ByteSources.wrap(zipBytes));
+		WorkspaceResource parallel = parallelImporter.importResource(ByteSources.wrap(zipBytes));
+		assertEquals(sequential, parallel);
+		assertEquals(21, parallel.getEmbeddedResources().size());
+
+		// Nested archives past the max depth should not be extracted.
+		int depth = 0;
+		WorkspaceResource current = parallel.getEmbeddedResources().get("WEB-INF/lib/nested.jar");
+		while (current != null) {
+			depth++;
+			current = current.getEmbeddedResources().get("nested.zip");
+		}
+		assertEquals(3, depth);
+	}
+
+	@Test
+	void testParallelDirectoryImportMatchesSequential() throws IOException {
+		String helloWorldPath = HelloWorld.class.getName().replace(".", "/");
+		byte[] helloWorldBytes = TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode();
+
+		// Create directory with a mix of content
+		Path directory = Files.createTempDirectory("recaf");
+		directory.toFile().deleteOnExit();
+		Map<String, byte[]> map = new LinkedHashMap<>();
+		map.put("hello.txt", "Hello world".getBytes(StandardCharsets.UTF_8));
+		map.put(helloWorldPath + ".class", helloWorldBytes);
+		map.put(JarFileInfo.MULTI_RELEASE_PREFIX + "9/" + helloWorldPath + ".class", helloWorldBytes);
+		map.put("data.zip", ZipCreationUtils.createSingleEntryZip("foo", new byte[]{1, 2, 3}));
+		for (int i = 0; i < 100; i++)
+			map.put("files/" + i + ".txt", ("file " + i).getBytes(StandardCharsets.UTF_8));
+		for (Map.Entry<String, byte[]> entry : map.entrySet()) {
+			Path path = directory.resolve(entry.getKey());
+			Files.createDirectories(path.getParent());
+			Files.write(path, entry.getValue());
+			path.toFile().deleteOnExit();
+		}
+
+		// Importing with parallel directory reading should yield the same resource as the sequential import.
+		ResourceImporterConfig parallelConfig = new ResourceImporterConfig();
+		parallelConfig.getParallelDirectoryImport().setValue(true);
+		ResourceImporter parallelImporter = newImporter(parallelConfig, new InfoImporterConfig());
+		WorkspaceResource sequential = importer.importResource(directory);
+		WorkspaceResource parallel = parallelImporter.importResource(directory);
+		assertEquals(sequential.getJvmClassBundle(), parallel.getJvmClassBundle());
+		assertEquals(sequential.getVersionedJvmClassBundles(), parallel.getVersionedJvmClassBundles());
+		assertEquals(sequential.getFileBundle(), parallel.getFileBundle());
+		assertEquals(sequential.getEmbeddedResources(), parallel.getEmbeddedResources());
+		assertEquals(101, parallel.getFileBundle().size());
+	}
+
+	@Test
+	void testImportReport() throws IOException {
+		String helloWorldPath = HelloWorld.class.getName().replace(".", "/");
+		byte[] helloWorldBytes = TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode();
+		byte[] zipBytes = ZipCreationUtils.builder()
+				.add("hello.txt", "Hello world".getBytes(StandardCharsets.UTF_8))
+				.add(helloWorldPath + ".class", helloWorldBytes)
+				.add("data.zip", ZipCreationUtils.createSingleEntryZip("foo", new byte[]{1, 2, 3}))
+				.bytes();
+
+		// The report should be passed to the listener of the import call, and to registered listeners.
+		// Embedded resources are part of the same import, so there should only be one report.
+		BasicResourceImporter reportingImporter = newImporter(new ResourceImporterConfig(), new InfoImporterConfig());
+		List<ImportReport> listenerReports = new ArrayList<>();
+		reportingImporter.addImportListener((resource, report) -> listenerReports.add(report));
+		List<ImportReport> callReports = new ArrayList<>();
+		List<WorkspaceResource> callResources = new ArrayList<>();
+		WorkspaceResource resource = reportingImporter.importResource(ByteSources.wrap(zipBytes),
+				(imported, report) -> {
+					callResources.add(imported);
+					callReports.add(report);
+				});
+		assertEquals(List.of(resource), callResources);
+		assertEquals(1, callReports.size());
+		ImportReport report = callReports.getFirst();
+		assertEquals(List.of(report), listenerReports);
+
+		// The archive, its 3 entries, and the single entry of the embedded archive are all read
+		assertEquals(5, report.getEntryCount());
+		assertEquals(0, report.getPatchedClassCount());
+		assertTrue(report.getBytesRead() >= zipBytes.length + helloWorldBytes.length);
+		assertTrue(report.getPhaseNanos(ImportPhase.CONTAINER_PARSING) > 0);
+		assertTrue(report.getPhaseNanos(ImportPhase.INFO_READING) > 0);
+		assertFalse(report.getSlowestEntries().isEmpty());
+		assertNotNull(resource.getEmbeddedResources().get("data.zip"));
+
+		// Listeners of prior import calls should not be called again.
+		reportingImporter.importResource(ByteSources.wrap(zipBytes));
+		assertEquals(1, callReports.size());
+		assertEquals(2, listenerReports.size());
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void testSnapshotRestoreIsTheSame(boolean lazyClassModels) throws IOException {
+		String helloWorldPath = HelloWorld.class.getName().replace(".", "/");
+		byte[] helloWorldBytes = TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode();
+		byte[] zipBytes = ZipCreationUtils.builder()
+				.add("hello.txt", "Hello world".getBytes(StandardCharsets.UTF_8), false, "comment", 1000L, 2000L, 3000L)
+				.add("prefix/" + helloWorldPath + ".class", helloWorldBytes)
+				.add(helloWorldPath + ".class", helloWorldBytes)
+				.add(JarFileInfo.MULTI_RELEASE_PREFIX + "9/" + helloWorldPath + ".class", helloWorldBytes)
+				.add("data.jar", ZipCreationUtils.createSingleEntryZip("foo", new byte[]{1, 2, 3}))
+				.bytes();
+		File tempFile = File.createTempFile("recaf", "test.jar");
+		Files.write(tempFile.toPath(), zipBytes);
+		tempFile.deleteOnExit();
+
+		// The first import records the snapshot, the second restores from it.
+		ResourceImporterConfig snapshotConfig = new ResourceImporterConfig();
+		snapshotConfig.getSnapshotCache().setValue(true);
+		InfoImporterConfig infoConfig = new InfoImporterConfig();
+		infoConfig.getLazyClassModels().setValue(lazyClassModels);
+		ResourceImporter snapshotImporter = newImporter(snapshotConfig, infoConfig);
+		WorkspaceResource initial = snapshotImporter.importResource(tempFile.toPath());
+		WorkspaceResource restored = snapshotImporter.importResource(tempFile.toPath());
+		WorkspaceResource baseline = importer.importResource(tempFile.toPath());
+		assertNotSame(initial, restored);
+		assertEquals(baseline, initial);
+		assertEquals(baseline, restored);
+
+		// Properties recorded during the import should be restored as well.
+		JvmClassInfo restoredClass = restored.getJvmClassBundle().get(helloWorldPath);
+		assertNotNull(restoredClass);
+		assertEquals(initial.getJvmClassBundle().get(helloWorldPath).getClass(), restoredClass.getClass(),
+				"Restored classes should be modeled the same way as imported classes");
+		assertEquals(PathPrefixProperty.get(baseline.getJvmClassBundle().get(helloWorldPath)),
+				PathPrefixProperty.get(restoredClass));
+		assertEquals(9, VersionedClassProperty.get(restored.getVersionedJvmClassBundles().get(9).get(helloWorldPath)));
+		FileInfo restoredFile = restored.getFileBundle().get("hello.txt");
+		assertEquals("comment", ZipCommentProperty.get(restoredFile));
+		assertEquals(2000L, ZipModificationTimeProperty.get(restoredFile));
+		assertEquals(tempFile.toPath().toAbsolutePath(),
+				InputFilePathProperty.get(((WorkspaceFileResource) restored).getFileInfo()).toAbsolutePath());
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void testSnapshotRestoreDoesNotReadClassesAgain(boolean skipValidation) throws IOException {
+		ResourceImporterConfig config = new ResourceImporterConfig();
+		config.getSnapshotCache().setValue(true);
+		config.getParallelEntryDecoding().setValue(true);
+		InfoImporterConfig infoConfig = new InfoImporterConfig() {
+			@Override
+			public boolean doSkipAsmValidation() {
+				return skipValidation;
+			}
+		};
+		infoConfig.getLazyClassModels().setValue(true);
+
+		// Record which classes go through the info importer, which is where they are validated and patched.
+		InfoImporter delegate = new BasicInfoImporter(infoConfig, new BasicClassPatcher());
+		List<String> classReads = Collections.synchronizedList(new ArrayList<>());
+		InfoImporter infoImporter = new InfoImporter() {
+			@Nonnull
+			@Override
+			public Info readInfo(@Nonnull String name, @Nonnull ByteSource source) throws IOException {
+				if (name.endsWith(".class"))
+					classReads.add(name);
+				return delegate.readInfo(name, source);
+			}
+
+			@Nonnull
+			@Override
+			public String getServiceId() {
+				return delegate.getServiceId();
+			}
+
+			@Nonnull
+			@Override
+			public InfoImporterConfig getServiceConfig() {
+				return infoConfig;
+			}
+		};
+		ResourceImporter snapshotImporter = new BasicResourceImporter(infoImporter, config,
+				new ResourceSnapshotCache(Files.createTempDirectory("recaf-snapshots"), config, infoImporter));
+
+		String helloWorldPath = HelloWorld.class.getName().replace(".", "/");
+		byte[] zipBytes = ZipCreationUtils.builder()
+				.add(helloWorldPath + ".class", TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode())
+				.add("a.txt", "Hello".getBytes(StandardCharsets.UTF_8))
+				.bytes();
+		WorkspaceResource initial = snapshotImporter.importResource(ByteSources.wrap(zipBytes));
+		assertEquals(List.of(helloWorldPath + ".class"), classReads);
+
+		// Restored classes are built from the snapshot, without being read and validated again.
+		classReads.clear();
+		WorkspaceResource restored = snapshotImporter.importResource(ByteSources.wrap(zipBytes));
+		assertEquals(List.of(), classReads, "Restoring a snapshot should not read classes again");
+		JvmClassInfo restoredClass = restored.getJvmClassBundle().get(helloWorldPath);
+		assertNotNull(restoredClass);
+		if (skipValidation) {
+			// Lazy models are restored from the header index alone.
+			LazyJvmClassInfo lazyClass = assertInstanceOf(LazyJvmClassInfo.class, restoredClass);
+			assertFalse(lazyClass.isModelPopulated(), "Restoring a lazy class should not parse its model");
+		} else {
+			assertFalse(restoredClass instanceof LazyJvmClassInfo);
+		}
+		assertEquals(initial, restored);
+	}
+
+	@Test
+	void testCorruptSnapshotFallsBackWithoutModifyingInput() throws IOException {
+		Path directory = Files.createTempDirectory("recaf-snapshots");
+		ResourceImporterConfig config = new ResourceImporterConfig();
+		config.getSnapshotCache().setValue(true);
+		InfoImporter infoImporter = new BasicInfoImporter(new InfoImporterConfig(), new BasicClassPatcher());
+		ResourceSnapshotCache cache = new ResourceSnapshotCache(directory, config, infoImporter);
+		ResourceImporter snapshotImporter = new BasicResourceImporter(infoImporter, config, cache);
+
+		// Record a snapshot, then cut it short so that it cannot be fully read.
+		byte[] zipBytes = ZipCreationUtils.builder()
+				.add("a.txt", "Hello".getBytes(StandardCharsets.UTF_8), false, "comment", 1000L, 2000L, 3000L)
+				.add(HelloWorld.class.getName().replace('.', '/') + ".class",
+						TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode())
+				.bytes();
+		WorkspaceResource baseline = snapshotImporter.importResource(ByteSources.wrap(zipBytes));
+		List<Path> snapshots = listSnapshots(directory);
+		assertEquals(1, snapshots.size(), "Snapshot was not recorded");
+		Path snapshot = snapshots.getFirst();
+		byte[] snapshotBytes = Files.readAllBytes(snapshot);
+		Files.write(snapshot, Arrays.copyOf(snapshotBytes, snapshotBytes.length - 16));
+
+		// Loading the snapshot should fail without leaving any restored state on the input.
+		ZipFileInfo zipInfo = new ZipFileInfoBuilder().withName("test.zip").withRawContent(zipBytes).build();
+		Map<String, ?> propertiesBefore = new HashMap<>(zipInfo.getProperties());
+		ResourceSnapshotCache.Key key = cache.computeKey(null, zipBytes);
+		assertNull(cache.load(key, new WorkspaceFileResourceBuilder(), zipInfo));
+		assertEquals(propertiesBefore, zipInfo.getProperties());
+
+		// Importing again should fall back to a normal import, and replace the corrupt snapshot.
+		assertEquals(baseline, snapshotImporter.importResource(ByteSources.wrap(zipBytes)));
+		assertNotNull(cache.load(key, new WorkspaceFileResourceBuilder(), zipInfo));
+	}
+
+	@Test
+	void testSnapshotsAreEvictedBeyondSizeLimit() throws IOException {
+		Path directory = Files.createTempDirectory("recaf-snapshots");
+		ResourceImporterConfig config = new ResourceImporterConfig();
+		config.getSnapshotCache().setValue(true);
+		config.getSnapshotCacheMaxSizeMb().setValue(1);
+		InfoImporter infoImporter = new BasicInfoImporter(new InfoImporterConfig(), new BasicClassPatcher());
+		ResourceImporter snapshotImporter = new BasicResourceImporter(infoImporter, config,
+				new ResourceSnapshotCache(directory, config, infoImporter));
+
+		// Each archive is larger than half the limit, so only the most recent snapshot can be kept.
+		byte[] data = new byte[600 * 1024];
+		for (int i = 0; i < 3; i++) {
+			data[0] = (byte) i;
+			byte[] zipBytes = ZipCreationUtils.builder().add("data.bin", data, false, null, -1, -1, -1).bytes();
+			File tempFile = File.createTempFile("recaf", "test.zip");
+			tempFile.deleteOnExit();
+			Files.write(tempFile.toPath(), zipBytes);
+			snapshotImporter.importResource(tempFile.toPath());
+		}
+		assertEquals(1, listSnapshots(directory).size());
+
+		// File metadata pointing to evicted snapshots should be removed with them.
+		try (Stream<Path> stream = Files.list(directory.resolve("meta"))) {
+			assertEquals(1, stream.count());
+		}
+	}
+
+	@Test
+	void testSnapshotKeyFromFileMetadata() throws IOException {
+		Path directory = Files.createTempDirectory("recaf-snapshots");
+		ResourceImporterConfig config = new ResourceImporterConfig();
+		config.getSnapshotCache().setValue(true);
+		InfoImporter infoImporter = new BasicInfoImporter(new InfoImporterConfig(), new BasicClassPatcher());
+		ResourceSnapshotCache cache = new ResourceSnapshotCache(directory, config, infoImporter);
+		ResourceImporter snapshotImporter = new BasicResourceImporter(infoImporter, config, cache);
+
+		File tempFile = File.createTempFile("recaf", "test.zip");
+		tempFile.deleteOnExit();
+		Path path = tempFile.toPath();
+		byte[] zipBytes = ZipCreationUtils.createSingleEntryZip("a.txt", new byte[]{1, 2, 3});
+		Files.write(path, zipBytes);
+
+		// Before any import there is no record of the file, so the content hash is used.
+		ResourceSnapshotCache.Key contentKey = cache.computeKey(null, zipBytes);
+		ResourceSnapshotCache.Key fileKey = cache.computeKey(path, zipBytes);
+		assertNull(contentKey.metadataKey());
+		assertNotNull(fileKey.metadataKey());
+		assertEquals(contentKey.contentKey(), fileKey.contentKey());
+
+		// After an import the file is recorded, and looking it up again leads to the same snapshot.
+		WorkspaceResource initial = snapshotImporter.importResource(path);
+		assertTrue(Files.isDirectory(directory.resolve("meta")));
+		assertEquals(fileKey, cache.computeKey(path, zipBytes));
+		assertEquals(initial, snapshotImporter.importResource(path));
+
+		// Changing the file content must not lead to the old snapshot, even if the metadata were to match.
+		FileTime modified = Files.getLastModifiedTime(path);
+		byte[] changedZipBytes = ZipCreationUtils.createSingleEntryZip("a.txt", new byte[]{3, 2, 1});
+		Files.write(path, changedZipBytes);
+		Files.setLastModifiedTime(path, modified);
+		ResourceSnapshotCache.Key changedKey = cache.computeKey(path, changedZipBytes);
+		assertNotEquals(fileKey.contentKey(), changedKey.contentKey());
+		assertEquals(cache.computeKey(null, changedZipBytes).contentKey(), changedKey.contentKey());
+		assertArrayEquals(new byte[]{3, 2, 1}, snapshotImporter.importResource(path)
+				.getFileBundle().get("a.txt").getRawContent());
+	}
+
 	@Test
 	void testSkipDirectories() throws IOException {
 		byte[] empty = new byte[0];
@@ -450,4 +845,19 @@ void testZipProperties() throws IOException {
 		assertEquals(timeModify, ZipModificationTimeProperty.get(fileInfo), "Missing modification time");
 		assertEquals(timeAccess, ZipAccessTimeProperty.get(fileInfo), "Missing access time");
 	}
-}
\ No newline at end of file
+
+	private static BasicResourceImporter newImporter(ResourceImporterConfig config, InfoImporterConfig infoConfig) {
+		InfoImporter infoImporter = new BasicInfoImporter(infoConfig, new BasicClassPatcher());
+		return new BasicResourceImporter(
+				infoImporter,
+				config,
+				new ResourceSnapshotCache(snapshotDirectory, config, infoImporter)
+		);
+	}
+
+	private static List<Path> listSnapshots(Path directory) throws IOException {
+		try (Stream<Path> stream = Files.list(directory)) {
+			return stream.filter(p -> p.getFileName().toString().endsWith(".snapshot")).toList();
+		}
+	}
+}
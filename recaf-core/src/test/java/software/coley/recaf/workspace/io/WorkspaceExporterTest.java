@@ -2,23 +2,44 @@
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import software.coley.lljzip.ZipIO;
+import software.coley.lljzip.format.compression.ZipCompressions;
+import software.coley.lljzip.format.model.LocalFileHeader;
+import software.coley.lljzip.format.model.ZipArchive;
+import software.coley.lljzip.util.MemorySegmentUtil;
 import software.coley.recaf.info.JarFileInfo;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
 import software.coley.recaf.services.workspace.io.*;
 import software.coley.recaf.test.TestClassUtils;
 import software.coley.recaf.test.dummy.HelloWorld;
+import software.coley.recaf.test.dummy.StringConsumer;
 import software.coley.recaf.util.ZipCreationUtils;
 import software.coley.recaf.util.io.ByteSources;
 import software.coley.recaf.workspace.model.BasicWorkspace;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.foreign.MemorySegment;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Tests for {@link WorkspaceExporter}
@@ -27,10 +48,13 @@ class WorkspaceExporterTest {
 	static ResourceImporter importer;
 
 	@BeforeAll
-	static void setup() {
+	static void setup() throws IOException {
+		ResourceImporterConfig importerConfig = new ResourceImporterConfig();
+		InfoImporter infoImporter = new BasicInfoImporter(new InfoImporterConfig(), new BasicClassPatcher());
 		importer = new BasicResourceImporter(
-				new BasicInfoImporter(new InfoImporterConfig(), new BasicClassPatcher()),
-				new ResourceImporterConfig()
+				infoImporter,
+				importerConfig,
+				new ResourceSnapshotCache(Files.createTempDirectory("recaf-snapshots"), importerConfig, infoImporter)
 		);
 	}
 
@@ -44,6 +68,72 @@ void testDirectoryExportDoesNotTamperResourceModel() throws IOException {
 		test(WorkspaceExportOptions.OutputType.DIRECTORY);
 	}
 
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void testIncrementalFileExportCopiesCleanEntries(boolean incremental) throws IOException {
+		String helloWorldPath = HelloWorld.class.getName().replace(".", "/") + ".class";
+		String consumerPath = StringConsumer.class.getName().replace(".", "/") + ".class";
+		byte[] helloWorldBytes = TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode();
+		byte[] consumerBytes = TestClassUtils.fromRuntimeClass(StringConsumer.class).getBytecode();
+		byte[] textBytes = "hello world".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+		// Deflate the original entries at a level that differs from what the exporter uses,
+		// so that copied entries can be told apart from entries that were compressed again.
+		Map<String, byte[]> originalDeflated = new HashMap<>();
+		ZipCreationUtils.ZipBuilder builder = ZipCreationUtils.builder();
+		for (Map.Entry<String, byte[]> entry : Map.of(helloWorldPath, helloWorldBytes,
+				consumerPath, consumerBytes, "hello.txt", textBytes).entrySet()) {
+			byte[] deflated = deflate(entry.getValue(), Deflater.NO_COMPRESSION);
+			CRC32 crc = new CRC32();
+			crc.update(entry.getValue());
+			originalDeflated.put(entry.getKey(), deflated);
+			builder.addDeflated(entry.getKey(), entry.getValue(), deflated, crc.getValue(), null, -1, -1, -1);
+		}
+		Path original = Files.createTempFile("recaf", "original.zip");
+		original.toFile().deleteOnExit();
+		builder.write(original, null);
+		WorkspaceResource targetResource = importer.importResource(original);
+		Workspace workspace = new BasicWorkspace(targetResource);
+
+		// Modify one of the classes, so it is marked as dirty
+		ClassNode node = new ClassNode();
+		new ClassReader(consumerBytes).accept(node, 0);
+		node.fields.add(new FieldNode(Opcodes.ACC_PRIVATE, "added", "I", null, null));
+		ClassWriter writer = new ClassWriter(0);
+		node.accept(writer);
+		byte[] modifiedConsumerBytes = writer.toByteArray();
+		targetResource.getJvmClassBundle().put(new JvmClassInfoBuilder(modifiedConsumerBytes).build());
+
+		// Export the resource
+		Path temp = Files.createTempFile("recaf", "test.zip");
+		temp.toFile().deleteOnExit();
+		WorkspaceExportOptions options = new WorkspaceExportOptions(WorkspaceExportOptions.OutputType.FILE, temp);
+		options.setIncremental(incremental);
+		options.create().export(workspace);
+
+		// Unmodified entries should have their compressed data copied as-is only when exporting incrementally.
+		ZipArchive exported = ZipIO.readStandard(MemorySegment.ofArray(Files.readAllBytes(temp)));
+		Map<String, LocalFileHeader> exportedEntries = new HashMap<>();
+		for (LocalFileHeader header : exported.getLocalFiles())
+			exportedEntries.put(header.getFileNameAsString(), header);
+		for (String name : List.of(helloWorldPath, "hello.txt")) {
+			byte[] exportedData = MemorySegmentUtil.toByteArray(exportedEntries.get(name).getFileData());
+			assertEquals(incremental, Arrays.equals(originalDeflated.get(name), exportedData),
+					"Unexpected compressed data for: " + name);
+		}
+
+		// The modified class must always be compressed again from its new content.
+		LocalFileHeader consumerHeader = exportedEntries.get(consumerPath);
+		assertFalse(Arrays.equals(originalDeflated.get(consumerPath),
+				MemorySegmentUtil.toByteArray(consumerHeader.getFileData())));
+		assertArrayEquals(modifiedConsumerBytes, MemorySegmentUtil.toByteArray(ZipCompressions.decompress(consumerHeader)));
+
+		// Either way, the exported content should match the workspace.
+		WorkspaceResource importedResource = importer.importResource(temp);
+		assertEquals(targetResource.getJvmClassBundle(), importedResource.getJvmClassBundle());
+		assertEquals(targetResource.getFileBundle(), importedResource.getFileBundle());
+	}
+
 	private static void test(WorkspaceExportOptions.OutputType outputType) throws IOException {
 		// Create test ZIP in memory
 		byte[] embeddedZipBytes = ZipCreationUtils.createSingleEntryZip("inside.txt", new byte[0]);
@@ -101,4 +191,19 @@ private static void test(WorkspaceExportOptions.OutputType outputType) throws IO
 		assertEquals(targetResource.getFileBundle(), importedResource.getFileBundle());
 		assertEquals(targetResource.getEmbeddedResources(), importedResource.getEmbeddedResources());
 	}
-}
\ No newline at end of file
+
+	private static byte[] deflate(byte[] content, int level) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			while (!deflater.finished())
+				out.write(buffer, 0, deflater.deflate(buffer));
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+}
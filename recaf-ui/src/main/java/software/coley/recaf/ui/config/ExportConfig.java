@@ -25,6 +25,7 @@ public class ExportConfig extends BasicConfigContainer {
 	private final ObservableBoolean bundleSupportingResources = new ObservableBoolean(false);
 	private final ObservableBoolean createZipDirEntries = new ObservableBoolean(true);
 	private final ObservableBoolean warnNoChanges = new ObservableBoolean(true);
+	private final ObservableBoolean incremental = new ObservableBoolean(false);
 
 	@Inject
 	public ExportConfig() {
@@ -34,6 +35,7 @@ public ExportConfig() {
 		addValue(new BasicConfigValue<>("bundle-supporting-resources", boolean.class, bundleSupportingResources));
 		addValue(new BasicConfigValue<>("create-zip-dir-entries", boolean.class, createZipDirEntries));
 		addValue(new BasicConfigValue<>("warn-no-changes", boolean.class, warnNoChanges));
+		addValue(new BasicConfigValue<>("incremental", boolean.class, incremental));
 	}
 
 	/**
@@ -72,4 +74,15 @@ public ObservableBoolean getCreateZipDirEntries() {
 	public ObservableBoolean getWarnNoChanges() {
 		return warnNoChanges;
 	}
+
+	/**
+	 * Unmodified entries of the exported archive can have their compressed data copied from the original archive,
+	 * which is much faster than compressing all contents again.
+	 *
+	 * @return {@code true} to copy unmodified entries from the original archive.
+	 */
+	@Nonnull
+	public ObservableBoolean getIncremental() {
+		return incremental;
+	}
 }
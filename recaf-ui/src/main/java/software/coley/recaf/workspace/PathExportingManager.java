@@ -126,6 +126,7 @@ public void export(@Nonnull Workspace workspace) {
 		}
 		options.setBundleSupporting(exportConfig.getBundleSupportingResources().getValue());
 		options.setCreateZipDirEntries(exportConfig.getCreateZipDirEntries().getValue());
+		options.setIncremental(exportConfig.getIncremental().getValue());
 
 		// Export the workspace to the selected path.
 		WorkspaceExporter exporter = workspaceManager.createExporter(options);